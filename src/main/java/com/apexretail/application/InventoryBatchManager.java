@@ -1,12 +1,21 @@
 package com.apexretail.application;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Period;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import com.apexretail.audit.AuditLog;
 import com.apexretail.domain.Category;
 import com.apexretail.domain.Product;
+import com.apexretail.search.ProductSearchIndex;
+import com.apexretail.search.SearchResult;
+import com.apexretail.service.CategoryRollup;
 import com.apexretail.service.InventoryService;
+import com.apexretail.service.LotLedger;
 
 /**
  * Interactive command-line inventory management application.
@@ -15,13 +24,18 @@ import com.apexretail.service.InventoryService;
  * This application provides a user interface for processing inventory
  * transactions through a simple menu-driven interface. Users can sell
  * or restock products, with all operations validated and managed through
- * the service layer.
+ * the service layer, and search products by name. Every transaction is
+ * recorded asynchronously in the audit log under {@code audit/}.
  *
  * @author David
  * @version 1.0.0
  */
 public class InventoryBatchManager {
     private final static int UI_OFFSET = 1;
+    private final static int SEARCH_RESULT_LIMIT = 5;
+    private final static Period PRODUCE_SHELF_LIFE = Period.ofDays(7);
+    private final static Period DAIRY_SHELF_LIFE = Period.ofDays(14);
+    private final static Path AUDIT_DIRECTORY = Path.of("audit");
 
     /**
      * Main entry point for the inventory batch management application.
@@ -46,8 +60,10 @@ public class InventoryBatchManager {
     public static void main(String[] args) {
         Scanner keyboard = new Scanner(System.in);
 
-        Category produceCategory = new Category(1, "Produce", "This category labels produce products.");
-        Category dairyCategory = new Category(2, "Dairy", "This category labels dairy products.");
+        Category freshFoodCategory = new Category(100, "Fresh Food", "This category groups perishable products.");
+        Category produceCategory = new Category(1, "Produce", "This category labels produce products.",
+                freshFoodCategory);
+        Category dairyCategory = new Category(2, "Dairy", "This category labels dairy products.", freshFoodCategory);
 
         ArrayList<Product> currentInventory = new ArrayList<Product>();
         currentInventory.add(new Product(1, "Tomato", BigDecimal.valueOf(0.25), 30, produceCategory));
@@ -55,7 +71,23 @@ public class InventoryBatchManager {
         currentInventory.add(new Product(3, "Milk", BigDecimal.valueOf(2.46), 15, dairyCategory));
         currentInventory.add(new Product(4, "Cheese", BigDecimal.valueOf(3.15), 10, dairyCategory));
 
-        InventoryService invServiceObj = new InventoryService();
+        // Fresh food is sold by lot, first-expired-first-out
+        LotLedger lots = new LotLedger(Clock.systemDefaultZone());
+        for (Product product : currentInventory) {
+            lots.track(product, product.getCategory().equals(produceCategory) ? PRODUCE_SHELF_LIFE : DAIRY_SHELF_LIFE);
+        }
+
+        InventoryService invServiceObj = new InventoryService(lots);
+        CategoryRollup rollup = new CategoryRollup();
+        ProductSearchIndex searchIndex = new ProductSearchIndex();
+        for (Product product : currentInventory) {
+            rollup.trackProduct(product);
+            searchIndex.addProduct(product);
+        }
+        invServiceObj.addListener(rollup);
+        AuditLog auditLog = new AuditLog(AUDIT_DIRECTORY);
+        auditLog.start();
+        invServiceObj.addListener(auditLog);
         boolean processRunning = true;
 
         // Consolidated transaction counters array [sellCount, unitsSold, restockCount,
@@ -64,12 +96,12 @@ public class InventoryBatchManager {
 
         // Main application loop - continues until user chooses "Exit"
         while (processRunning) {
-            System.out.println("Welcome, would you like to process an order? Please choose: Sell, Restock, or Exit");
+            System.out.println("Welcome, would you like to process an order? Please choose: Sell, Restock, Search, or Exit");
             String choice = normalizeCommand(keyboard.nextLine());
 
             // First-level validation: check if choice is valid
             if (!isValidChoice(choice)) {
-                System.out.println("Error: Invalid selection. Please choose: Sell, Restock, or Exit");
+                System.out.println("Error: Invalid selection. Please choose: Sell, Restock, Search, or Exit");
                 continue; // Return to start of loop for new input
             }
 
@@ -85,8 +117,16 @@ public class InventoryBatchManager {
             else if (choice.equals("restock")) {
                 processInventoryAction(keyboard, currentInventory, invServiceObj, choice, counters);
             }
+            // Search branch: look up products by name
+            else if (choice.equals("search")) {
+                searchInventory(keyboard, currentInventory, searchIndex);
+            }
         }
         keyboard.close();
+        auditLog.close();
+        System.out.printf("%s: %d products, %d units on hand, stock value %s%n", freshFoodCategory.getName(),
+                rollup.getSkuCount(freshFoodCategory), rollup.getUnitsOnHand(freshFoodCategory),
+                rollup.getStockValue(freshFoodCategory));
         System.out.printf(
                 "Thank you for using Apex service: Here is a summary of your usage today%nNumber of sell operations: %d"
                         + "%nTotal number of units sold: %d%nNumber of restock operations: %d%nTotal number of units restocked: %d%nHave a nice day! :)",
@@ -114,6 +154,12 @@ public class InventoryBatchManager {
      * restocked) are updated</li>
      * </ul>
      *
+     * <p>
+     * The audit record of the transaction is written by the {@link AuditLog}
+     * listener inside the service call and never waits on the console. The
+     * confirmation printed afterwards is only the reply to the user at the
+     * prompt, one line per transaction typed, so it stays synchronous.
+     *
      * @param keyboard  Scanner for reading user input
      * @param inventory List of available products
      * @param service   InventoryService instance for business logic operations
@@ -134,19 +180,46 @@ public class InventoryBatchManager {
             System.out.println("Please enter a valid quantity.");
             return;
         }
+        String done;
         if ("sell".equals(action)) {
             service.sellProduct(validProduct, quantity);
             counters[0]++;
             counters[1] += quantity;
+            done = "Sold";
         } else {
             service.restockProduct(validProduct, quantity);
             counters[2]++;
             counters[3] += quantity;
+            done = "Restocked";
         }
-        System.out.printf("%s %d of %s.%n%d remaining in stock.%n",
-                action.substring(0, 1).toUpperCase() + action.substring(1),
-                quantity, validProduct.getName(), validProduct.getQuantityInStock());
+        System.out.printf("%s %d of %s.%n%d remaining in stock.%n", done, quantity, validProduct.getName(),
+                validProduct.getQuantityInStock());
+    }
 
+    /**
+     * Searches products by name and displays the best matches.
+     * 
+     * <p>
+     * Matches are listed with the same numbers used by the product selection
+     * menu so the user can sell or restock a found product directly.
+     *
+     * @param keyboard    Scanner for reading user input
+     * @param inventory   List of available products
+     * @param searchIndex Index over product and category names
+     */
+    private static void searchInventory(Scanner keyboard, ArrayList<Product> inventory,
+            ProductSearchIndex searchIndex) {
+        System.out.println("Enter a product name to search for:");
+        List<SearchResult> results = searchIndex.search(keyboard.nextLine(), SEARCH_RESULT_LIMIT);
+        if (results.isEmpty()) {
+            System.out.println("No matching products.");
+            return;
+        }
+        for (SearchResult result : results) {
+            Product product = result.getProduct();
+            System.out.printf("No: %d\tProduct: %s\tStock: %d%n", inventory.indexOf(product) + UI_OFFSET,
+                    product.getName(), product.getQuantityInStock());
+        }
     }
 
     /**
@@ -237,6 +310,7 @@ public class InventoryBatchManager {
     private static boolean isValidChoice(String choice) {
         return choice.equals("sell") ||
                 choice.equals("restock") ||
+                choice.equals("search") ||
                 choice.equals("exit");
     }
 }
\ No newline at end of file
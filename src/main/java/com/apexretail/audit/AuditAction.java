@@ -0,0 +1,67 @@
+package com.apexretail.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kind of inventory transaction recorded in the audit log.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+enum AuditAction {
+
+    /** Units sold. */
+    SELL,
+
+    /** Units added to stock. */
+    RESTOCK,
+
+    /** Units removed without being sold. */
+    WRITE_OFF;
+
+    /** Width of the action column in a record. */
+    static final int LABEL_WIDTH = 9;
+
+    /** Actions by ordinal, cached because values() copies the array. */
+    private static final AuditAction[] BY_CODE = values();
+
+    /** Name padded with spaces to the column width, as ASCII bytes. */
+    private final byte[] label;
+
+    AuditAction() {
+        byte[] padded = new byte[LABEL_WIDTH];
+        Arrays.fill(padded, (byte) ' ');
+        byte[] name = name().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(name, 0, padded, 0, name.length);
+        this.label = padded;
+    }
+
+    /**
+     * Returns the byte stored in the ring buffer for this action.
+     *
+     * @return action code
+     */
+    byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Returns the padded label written to the log.
+     *
+     * @return label bytes (must not be modified)
+     */
+    byte[] label() {
+        return label;
+    }
+
+    /**
+     * Looks up an action by its code.
+     *
+     * @param code action code
+     * @return action
+     */
+    static AuditAction fromCode(byte code) {
+        return BY_CODE[code];
+    }
+}
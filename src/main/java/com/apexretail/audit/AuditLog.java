@@ -0,0 +1,476 @@
+package com.apexretail.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryListener;
+
+/**
+ * Asynchronous audit log of inventory transactions.
+ *
+ * <p>
+ * Registered as an {@link InventoryListener} on an
+ * {@link com.apexretail.service.InventoryService}, the log copies each
+ * stock change into a pre-allocated ring buffer as primitive fields. The
+ * call allocates nothing and does no I/O; it costs a clock read, a
+ * compare-and-set and a few array stores. A background thread, started by
+ * {@link #start()}, drains the ring, formats the records and writes them
+ * through a {@link FileChannel} to rolling files in a directory.
+ *
+ * <p>
+ * Each record is one line of fixed width, so the files can be read with
+ * text tools and the n-th record found by offset:
+ *
+ * <pre>
+ * 1760788800123 SELL      0000000000000000042 -0000000003 0000000017
+ * </pre>
+ *
+ * holding the epoch milliseconds, the action ({@code SELL},
+ * {@code RESTOCK} or {@code WRITE_OFF}), the product ID, the signed change
+ * in units and the stock on hand after the change. Because listeners run
+ * under the product's monitor, records for one product appear in the
+ * order the changes were applied and their quantities are exact.
+ *
+ * <p>
+ * Files are named {@code audit-000001.log}, {@code audit-000002.log} and
+ * so on. A new file is started when the current one would exceed the size
+ * limit, and a new log continues after the highest existing number. Only
+ * the newest files are kept, up to the configured count. When the ring is
+ * full, the {@link OverflowPolicy} decides whether inventory threads wait
+ * or the record is dropped and counted.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * AuditLog audit = new AuditLog(Path.of("audit"));
+ * audit.start();
+ * inventory.addListener(audit);
+ * ...
+ * audit.close();
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class AuditLog implements InventoryListener, AutoCloseable {
+
+    /** Default number of records the ring buffer holds. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Default size at which a new file is started. */
+    public static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+    /** Default number of files kept. */
+    public static final int DEFAULT_MAX_FILES = 10;
+
+    /** Width of the timestamp column. */
+    private static final int TIMESTAMP_WIDTH = 13;
+
+    /** Width of the product ID column. */
+    private static final int PRODUCT_ID_WIDTH = 19;
+
+    /** Width of the delta and quantity columns, without the sign. */
+    private static final int UNITS_WIDTH = 10;
+
+    /** Length of one record in bytes, including the line end. */
+    static final int RECORD_BYTES = TIMESTAMP_WIDTH + 1 + AuditAction.LABEL_WIDTH + 1 + PRODUCT_ID_WIDTH + 1
+            + 1 + UNITS_WIDTH + 1 + UNITS_WIDTH + 1;
+
+    /** Records drained from the ring per write. */
+    private static final int DRAIN_BATCH = 1024;
+
+    /** Size of the writer's output buffer. */
+    private static final int BUFFER_BYTES = DRAIN_BATCH * RECORD_BYTES;
+
+    /** Time the writer parks when the ring is empty. */
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final Path directory;
+    private final Clock clock;
+    private final boolean block;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final AuditRingBuffer ring;
+
+    /** Formats drained records; kept in a field so draining allocates nothing. */
+    private final AuditRingBuffer.RecordSink encoder = this::encode;
+
+    /** State below is owned by the writer thread. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private FileChannel channel;
+    private volatile long fileIndex;
+    private long fileBytes;
+
+    /** First write failure; later records are discarded. */
+    private volatile IOException failure;
+
+    private volatile long writtenRecords;
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile boolean running = true;
+
+    /** Background writer thread, null until started (guarded by this). */
+    private Thread writer;
+
+    /**
+     * Opens a log with the default capacity, file size and file count that
+     * blocks when the ring is full.
+     *
+     * @param directory directory for log files (created if missing)
+     * @throws IllegalArgumentException if directory is null
+     * @throws UncheckedIOException     if the first file cannot be created
+     */
+    public AuditLog(Path directory) {
+        this(directory, Clock.systemUTC(), DEFAULT_CAPACITY, OverflowPolicy.BLOCK, DEFAULT_MAX_FILE_BYTES,
+                DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Opens a log. Records are queued in the ring until {@link #start()} is
+     * called.
+     *
+     * @param directory    directory for log files (created if missing)
+     * @param clock        clock used to timestamp records (must not be null)
+     * @param capacity     records the ring buffer holds (must be a power of
+     *                     two)
+     * @param policy       what to do when the ring is full (must not be null)
+     * @param maxFileBytes size at which a new file is started (must hold at
+     *                     least one record)
+     * @param maxFiles     number of files kept (must be > 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     * @throws UncheckedIOException     if the first file cannot be created
+     */
+    public AuditLog(Path directory, Clock clock, int capacity, OverflowPolicy policy, long maxFileBytes,
+            int maxFiles) {
+        if (directory == null || clock == null || policy == null) {
+            throw new IllegalArgumentException("Directory, clock and policy must not be NULL.");
+        }
+        if (maxFileBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("File size must hold at least one record.");
+        }
+        if (maxFiles <= 0) {
+            throw new IllegalArgumentException("File count must be greater than 0.");
+        }
+        this.ring = new AuditRingBuffer(capacity);
+        this.directory = directory;
+        this.clock = clock;
+        this.block = policy == OverflowPolicy.BLOCK;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        try {
+            Files.createDirectories(directory);
+            this.fileIndex = highestFileIndex();
+            openNextFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log in " + directory, e);
+        }
+    }
+
+    /**
+     * Starts the background thread that writes queued records to disk. Does
+     * nothing if already started or closed.
+     */
+    public synchronized void start() {
+        if (writer != null || !running) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a sale or restock.
+     *
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    @Override
+    public void stockChanged(Product prod, int delta) {
+        record(delta < 0 ? AuditAction.SELL : AuditAction.RESTOCK, prod, delta);
+    }
+
+    /**
+     * Records a write-off.
+     *
+     * @param prod  product whose stock was written off
+     * @param units units removed
+     */
+    @Override
+    public void stockWrittenOff(Product prod, int units) {
+        record(AuditAction.WRITE_OFF, prod, -units);
+    }
+
+    /**
+     * Returns the number of records written to files so far.
+     *
+     * @return records written
+     */
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    /**
+     * Returns the number of records dropped because the ring was full, the
+     * log was closed or writing failed.
+     *
+     * @return records dropped
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Returns the file currently being written.
+     *
+     * @return current log file
+     */
+    public Path getCurrentFile() {
+        return fileFor(fileIndex);
+    }
+
+    /**
+     * Writes every queued record, then stops the writer thread and closes
+     * the current file. If the log was never started, the queued records are
+     * written by the calling thread. Records offered while the log is
+     * closing may be dropped.
+     *
+     * @throws UncheckedIOException if a record could not be written
+     */
+    @Override
+    public void close() {
+        ring.close();
+        Thread started;
+        boolean closing;
+        synchronized (this) {
+            closing = running;
+            running = false;
+            started = writer;
+        }
+        if (started != null) {
+            LockSupport.unpark(started);
+            try {
+                started.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (closing) {
+            runWriter();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Could not write audit log " + getCurrentFile(), failure);
+        }
+    }
+
+    /**
+     * Queues a record, applying the overflow policy when the ring is full.
+     *
+     * @param action transaction kind
+     * @param prod   product whose stock changed
+     * @param delta  signed change in units
+     */
+    private void record(AuditAction action, Product prod, int delta) {
+        if (!ring.offer(block, clock.millis(), action.code(), prod.getId(), delta, prod.getQuantityInStock())) {
+            droppedRecords.incrementAndGet();
+        }
+    }
+
+    /**
+     * Background loop that drains the ring to disk until the log is closed
+     * and the ring is empty.
+     */
+    private void runWriter() {
+        while (true) {
+            int drained = ring.drain(encoder, DRAIN_BATCH);
+            if (drained > 0) {
+                flushBuffer();
+                if (failure == null) {
+                    writtenRecords += drained;
+                } else {
+                    droppedRecords.addAndGet(drained);
+                }
+            } else if (!running && ring.isEmpty()) {
+                break;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        try {
+            if (failure == null) {
+                channel.force(false);
+            }
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Formats one record into the output buffer, starting a new file first
+     * if the record would not fit in the current one.
+     *
+     * @param timestamp epoch milliseconds
+     * @param action    action code
+     * @param productId product ID
+     * @param delta     signed change in units
+     * @param quantity  stock on hand after the change
+     */
+    private void encode(long timestamp, byte action, long productId, int delta, int quantity) {
+        if (failure != null) {
+            return;
+        }
+        if (fileBytes + buffer.position() + RECORD_BYTES > maxFileBytes) {
+            flushBuffer();
+            rollFile();
+            if (failure != null) {
+                return;
+            }
+        }
+        putDigits(timestamp, TIMESTAMP_WIDTH);
+        buffer.put((byte) ' ');
+        buffer.put(AuditAction.fromCode(action).label());
+        buffer.put((byte) ' ');
+        putDigits(productId, PRODUCT_ID_WIDTH);
+        buffer.put((byte) ' ');
+        buffer.put(delta < 0 ? (byte) '-' : (byte) '+');
+        putDigits(Math.abs((long) delta), UNITS_WIDTH);
+        buffer.put((byte) ' ');
+        putDigits(quantity, UNITS_WIDTH);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes a non-negative number as zero-padded decimal digits.
+     *
+     * @param value number to write
+     * @param width number of digits
+     */
+    private void putDigits(long value, int width) {
+        int start = buffer.position();
+        for (int i = width - 1; i >= 0; i--) {
+            buffer.put(start + i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(start + width);
+    }
+
+    /**
+     * Writes the output buffer to the current file.
+     */
+    private void flushBuffer() {
+        buffer.flip();
+        try {
+            while (failure == null && buffer.hasRemaining()) {
+                fileBytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Closes the current file, opens the next one and deletes files beyond
+     * the retention count.
+     */
+    private void rollFile() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+            openNextFile();
+            deleteOldFiles();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Opens the file after the current index.
+     *
+     * @throws IOException if the file cannot be created
+     */
+    private void openNextFile() throws IOException {
+        fileIndex++;
+        channel = FileChannel.open(fileFor(fileIndex), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        fileBytes = 0;
+    }
+
+    /**
+     * Deletes every log file older than the retention count, including
+     * files left behind by earlier runs with a larger count.
+     *
+     * @throws IOException if the directory cannot be listed or a file
+     *                     cannot be deleted
+     */
+    private void deleteOldFiles() throws IOException {
+        long oldestKept = fileIndex - maxFiles + 1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                long index = fileIndexOf(file);
+                if (index >= 0 && index < oldestKept) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the highest index among existing log files.
+     *
+     * @return highest index, or 0 if there are none
+     * @throws IOException if the directory cannot be listed
+     */
+    private long highestFileIndex() throws IOException {
+        long highest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                highest = Math.max(highest, fileIndexOf(file));
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Returns the index in a log file's name.
+     *
+     * @param file file matching the log file pattern
+     * @return file index, or -1 if the name is not a log file name
+     */
+    private static long fileIndexOf(Path file) {
+        String name = file.getFileName().toString();
+        String digits = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return -1; // Not one of ours
+        }
+    }
+
+    /**
+     * Returns the path of a log file.
+     *
+     * @param index file index
+     * @return file path
+     */
+    private Path fileFor(long index) {
+        return directory.resolve(String.format("%s%06d%s", FILE_PREFIX, index, FILE_SUFFIX));
+    }
+}
@@ -0,0 +1,185 @@
+package com.apexretail.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer queue of audit records.
+ *
+ * <p>
+ * Records are stored field by field in pre-allocated primitive arrays, so
+ * offering one allocates nothing. A producer claims the next sequence
+ * number with a compare-and-set on the tail, writes the fields into that
+ * sequence's slot and then publishes the slot by storing the sequence
+ * number in it with release semantics. The consumer reads slots in
+ * sequence order, stopping at the first one not yet published, and
+ * advances the head to free them.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class AuditRingBuffer {
+
+    /** Spins before a blocked producer starts parking. */
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    /** Time a blocked producer parks between checks for space. */
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Receives drained records.
+     */
+    interface RecordSink {
+
+        /**
+         * Called once per record in sequence order.
+         *
+         * @param timestamp epoch milliseconds
+         * @param action    action code
+         * @param productId product ID
+         * @param delta     signed change in units
+         * @param quantity  stock on hand after the change
+         */
+        void accept(long timestamp, byte action, long productId, int delta, int quantity);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final byte[] actions;
+    private final long[] productIds;
+    private final int[] deltas;
+    private final int[] quantities;
+
+    /** Sequence number stored in each slot once its record is written. */
+    private final AtomicLongArray published;
+
+    /** Next sequence number to claim. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next sequence number to consume; written only by the consumer. */
+    private volatile long head;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param capacity number of slots (must be a power of two)
+     * @throws IllegalArgumentException if capacity is not a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.actions = new byte[capacity];
+        this.productIds = new long[capacity];
+        this.deltas = new int[capacity];
+        this.quantities = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Adds a record.
+     *
+     * @param block     whether to wait for space when the ring is full
+     * @param timestamp epoch milliseconds
+     * @param action    action code
+     * @param productId product ID
+     * @param delta     signed change in units
+     * @param quantity  stock on hand after the change
+     * @return false if the record was not added because the ring is full
+     *         and block is false, or because the ring is closed
+     */
+    boolean offer(boolean block, long timestamp, byte action, long productId, int delta, int quantity) {
+        long sequence;
+        int spins = 0;
+        while (true) {
+            if (closed) {
+                return false;
+            }
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                if (!block) {
+                    return false;
+                }
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int slot = (int) (sequence & mask);
+        timestamps[slot] = timestamp;
+        actions[slot] = action;
+        productIds[slot] = productId;
+        deltas[slot] = delta;
+        quantities[slot] = quantity;
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Passes published records to a sink and frees their slots. Must only
+     * be called by the consumer thread.
+     *
+     * @param sink receiver of the records
+     * @param max  maximum number of records to drain
+     * @return number of records drained
+     */
+    int drain(RecordSink sink, int max) {
+        long next = head;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next) {
+                break;
+            }
+            sink.accept(timestamps[slot], actions[slot], productIds[slot], deltas[slot], quantities[slot]);
+            next++;
+            drained++;
+        }
+        if (drained > 0) {
+            head = next;
+        }
+        return drained;
+    }
+
+    /**
+     * Checks whether every claimed record has been drained.
+     *
+     * @return true if the ring is empty
+     */
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    /**
+     * Rejects further records and releases blocked producers. Records
+     * already claimed can still be drained.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,22 @@
+package com.apexretail.audit;
+
+/**
+ * What an {@link AuditLog} does with a record when its ring buffer is full.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait for the writer thread to free a slot, so no record is lost. The
+     * inventory operation is delayed while it waits.
+     */
+    BLOCK,
+
+    /**
+     * Discard the record and count it, so inventory operations never wait
+     * for disk I/O.
+     */
+    DROP
+}
@@ -0,0 +1,91 @@
+package com.apexretail.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of equally sized direct {@link ByteBuffer}s.
+ *
+ * <p>
+ * Direct buffers are expensive to allocate and are only reclaimed by the
+ * garbage collector, so encoders borrow them from this pool and the final
+ * consumer of each frame returns it with {@link #release(ByteBuffer)}. When
+ * the pool is empty a new buffer is allocated; when it is full, released
+ * buffers are simply dropped.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class BufferPool {
+
+    /** Capacity of every buffer handed out by this pool. */
+    private final int bufferCapacity;
+
+    /** Buffers available for reuse. */
+    private final ArrayBlockingQueue<ByteBuffer> free;
+
+    /**
+     * Creates a pool of direct buffers.
+     *
+     * @param bufferCapacity capacity of each buffer in bytes (must be > 0)
+     * @param maxPooled      maximum number of idle buffers retained (must be
+     *                       > 0)
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    public BufferPool(int bufferCapacity, int maxPooled) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be greater than 0.");
+        }
+        if (maxPooled <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0.");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Borrows a cleared buffer from the pool, allocating one if none is idle.
+     *
+     * @return direct buffer ready for writing
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buf = free.poll();
+        if (buf == null) {
+            return ByteBuffer.allocateDirect(bufferCapacity);
+        }
+        buf.clear();
+        return buf;
+    }
+
+    /**
+     * Returns a buffer to the pool.
+     *
+     * @param buf buffer previously obtained from {@link #acquire()}
+     * @throws IllegalArgumentException if the buffer does not belong to a pool
+     *                                  of this shape
+     */
+    public void release(ByteBuffer buf) {
+        if (buf == null || !buf.isDirect() || buf.capacity() != bufferCapacity) {
+            throw new IllegalArgumentException("Buffer does not belong to this pool.");
+        }
+        free.offer(buf);
+    }
+
+    /**
+     * Returns the capacity of buffers handed out by this pool.
+     *
+     * @return buffer capacity in bytes
+     */
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    /**
+     * Returns the number of idle buffers currently held.
+     *
+     * @return idle buffer count
+     */
+    public int getIdleCount() {
+        return free.size();
+    }
+}
@@ -0,0 +1,147 @@
+package com.apexretail.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Iterates over the records of an encoded frame using reusable flyweights.
+ *
+ * <p>
+ * After {@link #next()} returns a record tag, the matching view
+ * ({@link #product()}, {@link #category()}, {@link #stockDelta()} or
+ * {@link #sequence()}) points
+ * at that record. Views are reused for every record, so decoding a frame
+ * allocates nothing unless string fields are requested. This class is not
+ * thread-safe; use one decoder per thread.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * CatalogDecoder decoder = new CatalogDecoder();
+ * decoder.wrap(frame);
+ * while (decoder.hasNext()) {
+ *     if (decoder.next() == WireFormat.STOCK_DELTA) {
+ *         apply(decoder.stockDelta().getProductId(), decoder.stockDelta().getDelta());
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ * @see WireFormat
+ */
+public class CatalogDecoder {
+
+    private final ProductView product = new ProductView();
+    private final CategoryView category = new CategoryView();
+    private final StockDeltaView stockDelta = new StockDeltaView();
+    private final SequenceView sequence = new SequenceView();
+
+    /** Frame being decoded. */
+    private ByteBuffer frame;
+
+    /** Absolute index of the next record's tag. */
+    private int cursor;
+
+    /**
+     * Positions the decoder at the first record of a frame.
+     *
+     * <p>
+     * The frame is read between its position and limit using absolute
+     * access; its position is not modified.
+     *
+     * @param pFrame frame to decode (must not be null or empty)
+     * @throws IllegalArgumentException if the frame is empty or has an
+     *                                  unsupported schema version
+     */
+    public void wrap(ByteBuffer pFrame) {
+        if (pFrame == null || !pFrame.hasRemaining()) {
+            throw new IllegalArgumentException("Frame must not be NULL or empty.");
+        }
+        byte version = pFrame.get(pFrame.position());
+        if (version != WireFormat.SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported schema version: " + version);
+        }
+        this.frame = pFrame;
+        this.cursor = pFrame.position() + 1;
+    }
+
+    /**
+     * Checks whether another record remains in the frame.
+     * 
+     * @return true if {@link #next()} can be called
+     */
+    public boolean hasNext() {
+        return frame != null && cursor < frame.limit();
+    }
+
+    /**
+     * Advances to the next record and positions the matching view over it.
+     * 
+     * @return record tag ({@link WireFormat#PRODUCT},
+     *         {@link WireFormat#CATEGORY}, {@link WireFormat#STOCK_DELTA} or
+     *         {@link WireFormat#SEQUENCE})
+     * @throws IllegalStateException    if no record remains
+     * @throws IllegalArgumentException if the record is malformed or has an
+     *                                  unknown tag
+     */
+    public byte next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more records in frame.");
+        }
+        byte tag = frame.get(cursor);
+        switch (tag) {
+            case WireFormat.PRODUCT:
+                cursor = product.wrap(frame, cursor + 1);
+                break;
+            case WireFormat.CATEGORY:
+                cursor = category.wrap(frame, cursor + 1);
+                break;
+            case WireFormat.STOCK_DELTA:
+                cursor = stockDelta.wrap(frame, cursor + 1);
+                break;
+            case WireFormat.SEQUENCE:
+                cursor = sequence.wrap(frame, cursor + 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record tag: " + tag);
+        }
+        return tag;
+    }
+
+    /**
+     * Returns the view over the current product record.
+     * 
+     * @return product flyweight
+     */
+    public ProductView product() {
+        return product;
+    }
+
+    /**
+     * Returns the view over the current category record.
+     * 
+     * @return category flyweight
+     */
+    public CategoryView category() {
+        return category;
+    }
+
+    /**
+     * Returns the view over the current stock delta record.
+     * 
+     * @return stock delta flyweight
+     */
+    public StockDeltaView stockDelta() {
+        return stockDelta;
+    }
+
+    /**
+     * Returns the view over the current sequence record.
+     * 
+     * @return sequence flyweight
+     */
+    public SequenceView sequence() {
+        return sequence;
+    }
+}
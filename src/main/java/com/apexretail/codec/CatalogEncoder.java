@@ -0,0 +1,200 @@
+package com.apexretail.codec;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Encodes products, categories and stock deltas into pooled direct buffers.
+ *
+ * <p>
+ * Records are appended to the current frame until it is full, at which point
+ * the frame is flipped and handed to the sink and a fresh buffer is taken
+ * from the pool. The sink owns each frame it receives and must return it to
+ * the pool with {@link BufferPool#release(ByteBuffer)} once it has been sent
+ * or decoded. This class is not thread-safe; use one encoder per thread.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * BufferPool pool = new BufferPool(64 * 1024, 16);
+ * CatalogEncoder encoder = new CatalogEncoder(pool, frame -> {
+ *     channel.write(frame);
+ *     pool.release(frame);
+ * });
+ * encoder.writeProduct(milk);
+ * encoder.flush();
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ * @see WireFormat
+ */
+public class CatalogEncoder {
+
+    /** Pool supplying frame buffers. */
+    private final BufferPool pool;
+
+    /** Receiver of completed frames. */
+    private final Consumer<ByteBuffer> sink;
+
+    /** Frame currently being filled, or null if none is open. */
+    private ByteBuffer current;
+
+    /** Number of records written to the current frame. */
+    private int recordsInFrame;
+
+    /**
+     * Creates an encoder that writes frames from the given pool to a sink.
+     *
+     * @param pool buffer pool (must not be null)
+     * @param sink receiver of completed, flipped frames (must not be null)
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public CatalogEncoder(BufferPool pool, Consumer<ByteBuffer> sink) {
+        if (pool == null || sink == null) {
+            throw new IllegalArgumentException("Pool and sink must not be NULL.");
+        }
+        this.pool = pool;
+        this.sink = sink;
+    }
+
+    /**
+     * Appends a category record.
+     *
+     * @param category category to encode (must not be null)
+     * @throws IllegalArgumentException if category is null or too large for a
+     *                                  single frame
+     */
+    public void writeCategory(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Invalid category.");
+        }
+        long parentRef = (category.getParent() == null) ? 0 : category.getParent().getId() + 1;
+        int nameLength = WireFormat.utf8Length(category.getName());
+        String description = category.getDescription();
+        int descriptionLength = (description == null) ? 0 : WireFormat.utf8Length(description);
+        long descriptionRef = (description == null) ? 0 : descriptionLength + 1L;
+
+        int size = 1 + WireFormat.varLongSize(category.getId()) + WireFormat.varLongSize(parentRef)
+                + WireFormat.varLongSize(nameLength) + nameLength
+                + WireFormat.varLongSize(descriptionRef) + descriptionLength;
+        ByteBuffer buf = reserve(size);
+        buf.put(WireFormat.CATEGORY);
+        WireFormat.putVarLong(buf, category.getId());
+        WireFormat.putVarLong(buf, parentRef);
+        WireFormat.putVarLong(buf, nameLength);
+        WireFormat.putUtf8(buf, category.getName());
+        WireFormat.putVarLong(buf, descriptionRef);
+        if (description != null) {
+            WireFormat.putUtf8(buf, description);
+        }
+        recordsInFrame++;
+    }
+
+    /**
+     * Appends a product record.
+     *
+     * @param prod product to encode (must not be null)
+     * @throws IllegalArgumentException if product is null or too large for a
+     *                                  single frame
+     */
+    public void writeProduct(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        long price = prod.getPriceInMinorUnits();
+        int nameLength = WireFormat.utf8Length(prod.getName());
+
+        int size = 1 + WireFormat.varLongSize(prod.getId()) + WireFormat.varLongSize(prod.getCategory().getId())
+                + WireFormat.varLongSize(price) + WireFormat.varLongSize(prod.getQuantityInStock())
+                + WireFormat.varLongSize(nameLength) + nameLength;
+        ByteBuffer buf = reserve(size);
+        buf.put(WireFormat.PRODUCT);
+        WireFormat.putVarLong(buf, prod.getId());
+        WireFormat.putVarLong(buf, prod.getCategory().getId());
+        WireFormat.putVarLong(buf, price);
+        WireFormat.putVarLong(buf, prod.getQuantityInStock());
+        WireFormat.putVarLong(buf, nameLength);
+        WireFormat.putUtf8(buf, prod.getName());
+        recordsInFrame++;
+    }
+
+    /**
+     * Appends a stock delta record.
+     *
+     * @param productId ID of the product whose stock changed (must be ≥ 0)
+     * @param delta     signed change in units
+     * @throws IllegalArgumentException if productId is negative
+     */
+    public void writeStockDelta(long productId, int delta) {
+        if (productId < 0) {
+            throw new IllegalArgumentException("ID must be greater than or equal to 0.");
+        }
+        long encodedDelta = WireFormat.zigZag(delta);
+        ByteBuffer buf = reserve(1 + WireFormat.varLongSize(productId) + WireFormat.varLongSize(encodedDelta));
+        buf.put(WireFormat.STOCK_DELTA);
+        WireFormat.putVarLong(buf, productId);
+        WireFormat.putVarLong(buf, encodedDelta);
+        recordsInFrame++;
+    }
+
+    /**
+     * Appends a sequence marker numbering the records that follow it.
+     *
+     * @param sequence sequence number of the next record (must be ≥ 0)
+     * @throws IllegalArgumentException if sequence is negative
+     */
+    public void writeSequence(long sequence) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Sequence must be greater than or equal to 0.");
+        }
+        ByteBuffer buf = reserve(1 + WireFormat.varLongSize(sequence));
+        buf.put(WireFormat.SEQUENCE);
+        WireFormat.putVarLong(buf, sequence);
+        recordsInFrame++;
+    }
+
+    /**
+     * Hands the current frame to the sink if it contains any records.
+     */
+    public void flush() {
+        if (current == null) {
+            return;
+        }
+        ByteBuffer frame = current;
+        current = null;
+        if (recordsInFrame == 0) {
+            pool.release(frame);
+            return;
+        }
+        recordsInFrame = 0;
+        frame.flip();
+        sink.accept(frame);
+    }
+
+    /**
+     * Ensures the current frame has room for a record, rolling over to a new
+     * frame if necessary.
+     *
+     * @param size encoded size of the record in bytes
+     * @return frame positioned to receive the record
+     * @throws IllegalArgumentException if the record can never fit in a frame
+     */
+    private ByteBuffer reserve(int size) {
+        if (size > pool.getBufferCapacity() - 1) {
+            throw new IllegalArgumentException("Record exceeds frame capacity.");
+        }
+        if (current != null && current.remaining() < size) {
+            flush();
+        }
+        if (current == null) {
+            current = pool.acquire();
+            current.put(WireFormat.SCHEMA_VERSION);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,99 @@
+package com.apexretail.codec;
+
+import com.apexretail.domain.Category;
+
+/**
+ * Zero-copy flyweight over an encoded category record.
+ *
+ * <p>
+ * Instances are owned and repositioned by {@link CatalogDecoder}; values
+ * read from a view are only valid until the decoder advances.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class CategoryView extends RecordView {
+
+    private long id;
+    private long parentRef;
+    private int nameOffset;
+    private int nameLength;
+    private int descriptionOffset;
+    private long descriptionRef;
+
+    /** Views are created by {@link CatalogDecoder}. */
+    CategoryView() {
+    }
+
+    @Override
+    void parse() {
+        id = readVarLong();
+        parentRef = readVarLong();
+        nameLength = (int) readVarLong();
+        nameOffset = skip(nameLength);
+        descriptionRef = readVarLong();
+        descriptionOffset = skip(descriptionRef == 0 ? 0 : descriptionRef - 1);
+    }
+
+    /**
+     * Returns the category ID.
+     * 
+     * @return category ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Checks whether the category has a parent.
+     * 
+     * @return true if a parent ID is encoded
+     */
+    public boolean hasParent() {
+        return parentRef != 0;
+    }
+
+    /**
+     * Returns the parent category ID.
+     * 
+     * @return parent ID, or -1 for a top-level category
+     */
+    public long getParentId() {
+        return parentRef - 1;
+    }
+
+    /**
+     * Decodes and returns the category name.
+     * 
+     * @return category name
+     */
+    public String getName() {
+        return decodeUtf8(nameOffset, nameLength);
+    }
+
+    /**
+     * Decodes and returns the category description.
+     * 
+     * @return category description (may be null)
+     */
+    public String getDescription() {
+        return (descriptionRef == 0) ? null : decodeUtf8(descriptionOffset, (int) (descriptionRef - 1));
+    }
+
+    /**
+     * Materializes the record as a validated {@link Category}.
+     * 
+     * @param parent parent matching {@link #getParentId()}, or null for a
+     *               top-level category
+     * @return new category
+     * @throws IllegalArgumentException if the parent does not match or the
+     *                                  record fails category validation
+     */
+    public Category toCategory(Category parent) {
+        long expectedParent = (parent == null) ? -1 : parent.getId();
+        if (expectedParent != getParentId()) {
+            throw new IllegalArgumentException("Parent does not match encoded parent id.");
+        }
+        return new Category(id, getName(), getDescription(), parent);
+    }
+}
@@ -0,0 +1,110 @@
+package com.apexretail.codec;
+
+import java.math.BigDecimal;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Zero-copy flyweight over an encoded product record.
+ *
+ * <p>
+ * Instances are owned and repositioned by {@link CatalogDecoder}; values
+ * read from a view are only valid until the decoder advances.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ProductView extends RecordView {
+
+    private long id;
+    private long categoryId;
+    private long priceInMinorUnits;
+    private int quantityInStock;
+    private int nameOffset;
+    private int nameLength;
+
+    /** Views are created by {@link CatalogDecoder}. */
+    ProductView() {
+    }
+
+    @Override
+    void parse() {
+        id = readVarLong();
+        categoryId = readVarLong();
+        priceInMinorUnits = readVarLong();
+        quantityInStock = (int) readVarLong();
+        nameLength = (int) readVarLong();
+        nameOffset = skip(nameLength);
+    }
+
+    /**
+     * Returns the product ID.
+     * 
+     * @return product ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the ID of the product's category.
+     * 
+     * @return category ID
+     */
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Returns the price in minor currency units.
+     * 
+     * @return price in minor units
+     */
+    public long getPriceInMinorUnits() {
+        return priceInMinorUnits;
+    }
+
+    /**
+     * Returns the stock quantity.
+     * 
+     * @return quantity in stock
+     */
+    public int getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    /**
+     * Returns the length of the encoded name in bytes.
+     * 
+     * @return UTF-8 name length
+     */
+    public int getNameLength() {
+        return nameLength;
+    }
+
+    /**
+     * Decodes and returns the product name.
+     * 
+     * @return product name
+     */
+    public String getName() {
+        return decodeUtf8(nameOffset, nameLength);
+    }
+
+    /**
+     * Materializes the record as a validated {@link Product}.
+     * 
+     * @param category category matching {@link #getCategoryId()}
+     * @return new product
+     * @throws IllegalArgumentException if the category does not match or the
+     *                                  record fails product validation
+     */
+    public Product toProduct(Category category) {
+        if (category == null || category.getId() != categoryId) {
+            throw new IllegalArgumentException("Category does not match encoded category id.");
+        }
+        return new Product(id, getName(), BigDecimal.valueOf(priceInMinorUnits, Product.PRICE_SCALE),
+                quantityInStock, category);
+    }
+}
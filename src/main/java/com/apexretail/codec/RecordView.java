@@ -0,0 +1,95 @@
+package com.apexretail.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base class for zero-copy record flyweights.
+ *
+ * <p>
+ * A view is repositioned over a record inside a frame by
+ * {@link #wrap(ByteBuffer, int)}, which decodes the fixed scalar fields and
+ * remembers where variable-length fields start. Strings are only decoded
+ * when requested, so iterating over records allocates nothing.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+abstract class RecordView {
+
+    /** Frame the view currently points into. */
+    protected ByteBuffer buf;
+
+    /** Read position used while parsing the record. */
+    private int cursor;
+
+    /**
+     * Positions this view over a record.
+     *
+     * @param frame  frame containing the record
+     * @param offset absolute index of the first byte after the type tag
+     * @return absolute index of the first byte after the record
+     * @throws IllegalArgumentException if the record is truncated or malformed
+     */
+    final int wrap(ByteBuffer frame, int offset) {
+        this.buf = frame;
+        this.cursor = offset;
+        parse();
+        return cursor;
+    }
+
+    /**
+     * Parses the record's fields starting at the current cursor.
+     */
+    abstract void parse();
+
+    /**
+     * Reads an unsigned varint and advances the cursor.
+     *
+     * @return decoded value
+     * @throws IllegalArgumentException if the varint is truncated or too long
+     */
+    final long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (cursor >= buf.limit()) {
+                throw new IllegalArgumentException("Truncated record.");
+            }
+            byte b = buf.get(cursor++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    /**
+     * Skips a run of bytes and returns where it started.
+     *
+     * @param length number of bytes to skip
+     * @return absolute index of the first skipped byte
+     * @throws IllegalArgumentException if the run extends past the frame
+     */
+    final int skip(long length) {
+        if (length < 0 || length > buf.limit() - cursor) {
+            throw new IllegalArgumentException("Truncated record.");
+        }
+        int start = cursor;
+        cursor += (int) length;
+        return start;
+    }
+
+    /**
+     * Decodes a UTF-8 string from the frame.
+     *
+     * @param offset absolute index of the first byte
+     * @param length number of bytes
+     * @return decoded string
+     */
+    final String decodeUtf8(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
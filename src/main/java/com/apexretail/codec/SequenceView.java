@@ -0,0 +1,34 @@
+package com.apexretail.codec;
+
+/**
+ * Zero-copy flyweight over an encoded sequence marker.
+ *
+ * <p>
+ * Instances are owned and repositioned by {@link CatalogDecoder}; values
+ * read from a view are only valid until the decoder advances.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class SequenceView extends RecordView {
+
+    private long sequence;
+
+    /** Views are created by {@link CatalogDecoder}. */
+    SequenceView() {
+    }
+
+    @Override
+    void parse() {
+        sequence = readVarLong();
+    }
+
+    /**
+     * Returns the sequence number assigned to the following record.
+     * 
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,45 @@
+package com.apexretail.codec;
+
+/**
+ * Zero-copy flyweight over an encoded stock delta record.
+ *
+ * <p>
+ * Instances are owned and repositioned by {@link CatalogDecoder}; values
+ * read from a view are only valid until the decoder advances.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class StockDeltaView extends RecordView {
+
+    private long productId;
+    private int delta;
+
+    /** Views are created by {@link CatalogDecoder}. */
+    StockDeltaView() {
+    }
+
+    @Override
+    void parse() {
+        productId = readVarLong();
+        delta = (int) WireFormat.unZigZag(readVarLong());
+    }
+
+    /**
+     * Returns the ID of the product whose stock changed.
+     * 
+     * @return product ID
+     */
+    public long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Returns the signed change in units.
+     * 
+     * @return stock delta
+     */
+    public int getDelta() {
+        return delta;
+    }
+}
@@ -0,0 +1,191 @@
+package com.apexretail.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and primitive encoding helpers for the catalog wire format.
+ *
+ * <p>
+ * A frame starts with a single {@link #SCHEMA_VERSION} byte followed by any
+ * number of records. Each record starts with a one-byte type tag:
+ * <ul>
+ * <li>{@link #PRODUCT}: id, category id, price in minor units and quantity
+ * as varints, then the name as a varint length and UTF-8 bytes</li>
+ * <li>{@link #CATEGORY}: id and parent id + 1 (0 for none) as varints, then
+ * name and description as length-prefixed UTF-8 (description length is
+ * stored + 1, 0 meaning null)</li>
+ * <li>{@link #STOCK_DELTA}: product id as a varint and the signed delta as a
+ * zig-zag varint</li>
+ * <li>{@link #SEQUENCE}: a varint sequence number assigned to the record that
+ * follows it; each later record in the frame takes the next number</li>
+ * </ul>
+ *
+ * <p>
+ * Varints use the little-endian base-128 layout: seven value bits per byte,
+ * with the high bit set on every byte except the last. The varint helpers
+ * are public so other binary formats in the application can share them.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class WireFormat {
+
+    /** Current schema version written as the first byte of every frame. */
+    public static final byte SCHEMA_VERSION = 1;
+
+    /** Record tag for a product. */
+    public static final byte PRODUCT = 1;
+
+    /** Record tag for a category. */
+    public static final byte CATEGORY = 2;
+
+    /** Record tag for a stock delta. */
+    public static final byte STOCK_DELTA = 3;
+
+    /** Record tag for a sequence number marker. */
+    public static final byte SEQUENCE = 4;
+
+    /** Largest number of bytes a 64-bit varint can occupy. */
+    static final int MAX_VARLONG_SIZE = 10;
+
+    /** Largest encoded size of a {@link #SEQUENCE} record. */
+    public static final int MAX_SEQUENCE_SIZE = 1 + MAX_VARLONG_SIZE;
+
+    /** Largest encoded size of a {@link #STOCK_DELTA} record. */
+    public static final int MAX_STOCK_DELTA_SIZE = 1 + MAX_VARLONG_SIZE + 5;
+
+    /** Prevents instantiation of this constants class. */
+    private WireFormat() {
+    }
+
+    /**
+     * Writes an unsigned varint at the buffer's current position.
+     *
+     * @param buf   destination buffer
+     * @param value value to write, treated as unsigned
+     */
+    public static void putVarLong(ByteBuffer buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint at the buffer's current position.
+     *
+     * @param buf source buffer
+     * @return decoded value
+     * @throws IllegalArgumentException if the varint is truncated or too long
+     */
+    public static long getVarLong(ByteBuffer buf) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!buf.hasRemaining()) {
+                throw new IllegalArgumentException("Truncated varint.");
+            }
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    /**
+     * Returns the number of bytes needed to encode a value as a varint.
+     *
+     * @param value value to measure, treated as unsigned
+     * @return encoded size in bytes (1 to 10)
+     */
+    public static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Maps a signed value onto an unsigned one so small magnitudes stay
+     * small when varint encoded.
+     *
+     * @param value signed value
+     * @return zig-zag encoded value
+     */
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigZag(long)}.
+     *
+     * @param value zig-zag encoded value
+     * @return original signed value
+     */
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Returns the UTF-8 encoded length of a string without allocating.
+     *
+     * @param text string to measure
+     * @return number of UTF-8 bytes
+     */
+    static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes a string as UTF-8 at the buffer's current position without
+     * allocating an intermediate byte array.
+     *
+     * <p>
+     * Unpaired surrogates are written as their three-byte form, matching
+     * {@link #utf8Length(String)}.
+     *
+     * @param buf  destination buffer
+     * @param text string to write
+     */
+    static void putUtf8(ByteBuffer buf, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buf.put((byte) (0xF0 | (codePoint >> 18)));
+                buf.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buf.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)));
+                buf.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
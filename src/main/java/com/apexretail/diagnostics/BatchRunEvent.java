@@ -0,0 +1,56 @@
+package com.apexretail.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one run of a batch job, such as a stock
+ * adjustment batch, an expiry sweep, a stock-count reconciliation or a
+ * reorder planning run.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+@Name("com.apexretail.BatchRun")
+@Label("Batch Run")
+@Category({ "Apex Retail", "Batch" })
+@Description("One run of a batch job")
+public final class BatchRunEvent extends Event {
+
+    /** Job name for a batch of stock adjustments. */
+    public static final String STOCK_ADJUSTMENT = "stock-adjustment";
+
+    /** Job name for a sweep of expired lots. */
+    public static final String LOT_EXPIRY = "lot-expiry";
+
+    /** Job name for a stock-count reconciliation. */
+    public static final String STOCK_COUNT = "stock-count";
+
+    /** Job name for a reorder planning run. */
+    public static final String REORDER_PLANNING = "reorder-planning";
+
+    @Label("Job")
+    private String job;
+
+    @Label("Items")
+    @Description("Items processed by the run")
+    private long items;
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param job   job name
+     * @param items items processed
+     */
+    public void complete(String job, long items) {
+        end();
+        if (shouldCommit()) {
+            this.job = job;
+            this.items = items;
+            commit();
+        }
+    }
+}
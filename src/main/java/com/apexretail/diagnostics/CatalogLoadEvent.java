@@ -0,0 +1,52 @@
+package com.apexretail.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one bulk load of products into the
+ * catalog.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+@Name("com.apexretail.CatalogLoad")
+@Label("Catalog Load")
+@Category({ "Apex Retail", "Catalog" })
+@Description("A bulk load of products into the catalog")
+public final class CatalogLoadEvent extends Event {
+
+    @Label("Source")
+    private String source;
+
+    @Label("Rows Read")
+    private long rowsRead;
+
+    @Label("Rows Imported")
+    private long rowsImported;
+
+    @Label("Rows Rejected")
+    private long rowsRejected;
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param source       name of the loaded file
+     * @param rowsRead     data rows read
+     * @param rowsImported rows added to the catalog
+     * @param rowsRejected rows rejected
+     */
+    public void complete(String source, long rowsRead, long rowsImported, long rowsRejected) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.apexretail.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one stock operation of
+ * {@link com.apexretail.service.InventoryService}, including any wait for
+ * the product's lock.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * InventoryOperationEvent event = new InventoryOperationEvent();
+ * event.begin();
+ * ... // apply the operation
+ * event.complete(InventoryOperationEvent.SELL, prod.getId(), amount);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+@Name("com.apexretail.InventoryOperation")
+@Label("Inventory Operation")
+@Category({ "Apex Retail", "Inventory" })
+@Description("A sale or restock applied by the inventory service")
+@StackTrace(false)
+public final class InventoryOperationEvent extends Event {
+
+    /** Operation name for a sale. */
+    public static final String SELL = "sell";
+
+    /** Operation name for a restock. */
+    public static final String RESTOCK = "restock";
+
+    /** Operation name for a restock with an explicit lot expiry. */
+    public static final String RESTOCK_LOT = "restock-lot";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Product ID")
+    private long productId;
+
+    @Label("Units")
+    private int units;
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param operation operation name
+     * @param productId product ID
+     * @param units     units sold or added
+     */
+    public void complete(String operation, long productId, int units) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.productId = productId;
+            this.units = units;
+            commit();
+        }
+    }
+}
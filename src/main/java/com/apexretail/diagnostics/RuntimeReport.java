@@ -0,0 +1,349 @@
+package com.apexretail.diagnostics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of JVM health captured by {@link SystemInfo#captureReport()}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class RuntimeReport {
+
+    private final long heapUsed;
+    private final long heapCommitted;
+    private final long heapMax;
+    private final List<Collector> collectors;
+    private final long allocationRate;
+    private final int liveThreads;
+    private final int daemonThreads;
+    private final int peakThreads;
+    private final int blockedThreads;
+    private final List<ContendedLock> contendedLocks;
+    private final List<ContendedThread> contendedThreads;
+
+    /**
+     * Creates a report.
+     *
+     * @param heapUsed       heap bytes in use
+     * @param heapCommitted  heap bytes committed
+     * @param heapMax        maximum heap bytes, or -1 if undefined
+     * @param collectors     garbage collector statistics
+     * @param allocationRate bytes allocated per second, or -1 if unknown
+     * @param liveThreads    live threads
+     * @param daemonThreads  live daemon threads
+     * @param peakThreads    peak live threads
+     * @param blockedThreads threads waiting to enter a monitor
+     * @param contendedLocks   monitors threads are blocked on now, most
+     *                         waiters first
+     * @param contendedThreads threads that blocked most since the previous
+     *                         report, longest blocked first
+     */
+    RuntimeReport(long heapUsed, long heapCommitted, long heapMax, List<Collector> collectors, long allocationRate,
+            int liveThreads, int daemonThreads, int peakThreads, int blockedThreads,
+            List<ContendedLock> contendedLocks, List<ContendedThread> contendedThreads) {
+        this.heapUsed = heapUsed;
+        this.heapCommitted = heapCommitted;
+        this.heapMax = heapMax;
+        this.collectors = Collections.unmodifiableList(collectors);
+        this.allocationRate = allocationRate;
+        this.liveThreads = liveThreads;
+        this.daemonThreads = daemonThreads;
+        this.peakThreads = peakThreads;
+        this.blockedThreads = blockedThreads;
+        this.contendedLocks = Collections.unmodifiableList(contendedLocks);
+        this.contendedThreads = Collections.unmodifiableList(contendedThreads);
+    }
+
+    /**
+     * Returns the heap bytes in use.
+     *
+     * @return used heap
+     */
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    /**
+     * Returns the heap bytes committed by the JVM.
+     *
+     * @return committed heap
+     */
+    public long getHeapCommitted() {
+        return heapCommitted;
+    }
+
+    /**
+     * Returns the maximum heap size.
+     *
+     * @return maximum heap bytes, or -1 if undefined
+     */
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    /**
+     * Returns statistics for each garbage collector.
+     *
+     * @return read-only list of collectors
+     */
+    public List<Collector> getCollectors() {
+        return collectors;
+    }
+
+    /**
+     * Returns the allocation rate since the previous report, or since JVM
+     * start for the first report.
+     *
+     * @return bytes allocated per second by live threads, or -1 if the JVM
+     *         does not measure allocation
+     */
+    public long getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * Returns the number of live threads.
+     *
+     * @return live threads
+     */
+    public int getLiveThreads() {
+        return liveThreads;
+    }
+
+    /**
+     * Returns the number of live daemon threads.
+     *
+     * @return daemon threads
+     */
+    public int getDaemonThreads() {
+        return daemonThreads;
+    }
+
+    /**
+     * Returns the peak number of live threads since JVM start.
+     *
+     * @return peak threads
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    /**
+     * Returns the number of threads waiting to enter a monitor.
+     *
+     * @return blocked threads
+     */
+    public int getBlockedThreads() {
+        return blockedThreads;
+    }
+
+    /**
+     * Returns the monitors with the most threads blocked on them at the
+     * moment the report was captured.
+     *
+     * @return read-only list, most waiters first
+     */
+    public List<ContendedLock> getContendedLocks() {
+        return contendedLocks;
+    }
+
+    /**
+     * Returns the threads that spent the most time blocked on monitors
+     * since the previous report, whether or not they are blocked now.
+     *
+     * @return read-only list, longest blocked first
+     */
+    public List<ContendedThread> getContendedThreads() {
+        return contendedThreads;
+    }
+
+    /**
+     * Returns string representation of the report.
+     *
+     * @return formatted string containing heap, allocation and thread figures
+     */
+    @Override
+    public String toString() {
+        return "RuntimeReport{" +
+                "heapUsed=" + heapUsed +
+                ", heapCommitted=" + heapCommitted +
+                ", heapMax=" + heapMax +
+                ", collectors=" + collectors +
+                ", allocationRate=" + allocationRate +
+                ", liveThreads=" + liveThreads +
+                ", daemonThreads=" + daemonThreads +
+                ", blockedThreads=" + blockedThreads +
+                ", contendedLocks=" + contendedLocks +
+                ", contendedThreads=" + contendedThreads +
+                '}';
+    }
+
+    /**
+     * Cumulative statistics of one garbage collector.
+     */
+    public static final class Collector {
+        private final String name;
+        private final long collections;
+        private final long totalPauseMillis;
+        private final long lastPauseMillis;
+
+        Collector(String name, long collections, long totalPauseMillis, long lastPauseMillis) {
+            this.name = name;
+            this.collections = collections;
+            this.totalPauseMillis = totalPauseMillis;
+            this.lastPauseMillis = lastPauseMillis;
+        }
+
+        /**
+         * Returns the collector name.
+         *
+         * @return name reported by the JVM
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of collections since JVM start.
+         *
+         * @return collection count
+         */
+        public long getCollections() {
+            return collections;
+        }
+
+        /**
+         * Returns the accumulated collection time since JVM start.
+         *
+         * @return total time in milliseconds
+         */
+        public long getTotalPauseMillis() {
+            return totalPauseMillis;
+        }
+
+        /**
+         * Returns the duration of the most recent collection.
+         *
+         * @return milliseconds, or -1 if unknown or none has run
+         */
+        public long getLastPauseMillis() {
+            return lastPauseMillis;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{collections=" + collections + ", totalPauseMillis=" + totalPauseMillis
+                    + ", lastPauseMillis=" + lastPauseMillis + '}';
+        }
+    }
+
+    /**
+     * A monitor that threads are waiting to enter.
+     */
+    public static final class ContendedLock {
+        private final String lock;
+        private final String owner;
+        private final int waitingThreads;
+
+        ContendedLock(String lock, String owner, int waitingThreads) {
+            this.lock = lock;
+            this.owner = owner;
+            this.waitingThreads = waitingThreads;
+        }
+
+        /**
+         * Returns the monitor's class name and identity hash.
+         *
+         * @return lock description
+         */
+        public String getLock() {
+            return lock;
+        }
+
+        /**
+         * Returns the name of the thread holding the monitor.
+         *
+         * @return owner thread name, or null if unknown
+         */
+        public String getOwner() {
+            return owner;
+        }
+
+        /**
+         * Returns the number of threads waiting for the monitor.
+         *
+         * @return waiting threads
+         */
+        public int getWaitingThreads() {
+            return waitingThreads;
+        }
+
+        @Override
+        public String toString() {
+            return lock + "{owner=" + owner + ", waitingThreads=" + waitingThreads + '}';
+        }
+    }
+
+    /**
+     * A thread that blocked on monitors since the previous report.
+     */
+    public static final class ContendedThread {
+        private final String name;
+        private final long blockedCount;
+        private final long blockedMillis;
+        private final String lock;
+
+        ContendedThread(String name, long blockedCount, long blockedMillis, String lock) {
+            this.name = name;
+            this.blockedCount = blockedCount;
+            this.blockedMillis = blockedMillis;
+            this.lock = lock;
+        }
+
+        /**
+         * Returns the thread name.
+         *
+         * @return thread name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns how many times the thread blocked to enter a monitor since
+         * the previous report.
+         *
+         * @return blocked count
+         */
+        public long getBlockedCount() {
+            return blockedCount;
+        }
+
+        /**
+         * Returns the time the thread spent blocked since the previous
+         * report.
+         *
+         * @return milliseconds, or -1 if contention monitoring is unsupported
+         */
+        public long getBlockedMillis() {
+            return blockedMillis;
+        }
+
+        /**
+         * Returns the monitor the thread is blocked on now.
+         *
+         * @return lock description, or null if the thread is not blocked
+         */
+        public String getLock() {
+            return lock;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{blockedCount=" + blockedCount + ", blockedMillis=" + blockedMillis + ", lock=" + lock
+                    + '}';
+        }
+    }
+}
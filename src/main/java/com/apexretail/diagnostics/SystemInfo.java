@@ -1,19 +1,72 @@
 package com.apexretail.diagnostics;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.text.ParseException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 /**
- * Diagnostic utility that outputs basic application and environment
- * information.
- * Used for verifying the developer setup and runtime environment.
- * 
+ * Diagnostic utility that outputs application and environment information
+ * and exposes runtime diagnostics.
+ * Used for verifying the developer setup and runtime environment, and for
+ * investigating performance problems without external tools.
+ *
+ * <p>
+ * {@link #captureReport()} reads heap usage, garbage collector pauses,
+ * allocation rate, thread counts and lock contention from the JMX platform
+ * beans. {@link #startRecording(Path)} and {@link #stopRecording()}
+ * control a Flight Recorder recording that includes the application's own
+ * events ({@link InventoryOperationEvent}, {@link CatalogLoadEvent} and
+ * {@link BatchRunEvent}).
+ *
  * @author David
  * @version 0.0.1
  */
 public class SystemInfo {
 
+    /** Number of contended monitors and threads listed by {@link #captureReport()}. */
+    public static final int DEFAULT_TOP_LOCKS = 5;
+
+    /** Flight Recorder settings used for recordings. */
+    private static final String RECORDING_SETTINGS = "default";
+
+    private static final String RECORDING_NAME = "apex-retail";
+
+    /** Running recording, or null (guarded by SystemInfo.class). */
+    private static Recording recording;
+
+    /** Allocation total at the previous report (guarded by SystemInfo.class). */
+    private static long lastAllocatedBytes;
+
+    /** Time of the previous report, or 0 if none (guarded by SystemInfo.class). */
+    private static long lastReportNanos;
+
+    /**
+     * Blocked count and blocked milliseconds of each live thread at the
+     * previous report (guarded by SystemInfo.class).
+     */
+    private static Map<Long, long[]> lastBlocked = new HashMap<>();
+
+    /** Prevents instantiation of this utility class. */
+    private SystemInfo() {
+    }
+
     /**
-     * Prints developer, project, and system information.
+     * Prints developer, project, system and runtime information.
      *
      * @param args command-line arguments (not used)
      */
@@ -24,5 +77,211 @@ public class SystemInfo {
         System.out.println("Java Version: " + System.getProperty("java.version"));
         System.out.println("Timestamp: " + Instant.now());
         System.out.println("Application Version: 0.0.1");
+
+        RuntimeReport report = captureReport();
+        System.out.printf("Heap: %,d used, %,d committed, %,d max bytes%n", report.getHeapUsed(),
+                report.getHeapCommitted(), report.getHeapMax());
+        for (RuntimeReport.Collector collector : report.getCollectors()) {
+            System.out.printf("GC %s: %d collections, %d ms total, last %d ms%n", collector.getName(),
+                    collector.getCollections(), collector.getTotalPauseMillis(), collector.getLastPauseMillis());
+        }
+        System.out.printf("Allocation rate: %,d bytes/s%n", report.getAllocationRate());
+        System.out.printf("Threads: %d live, %d daemon, %d peak, %d blocked%n", report.getLiveThreads(),
+                report.getDaemonThreads(), report.getPeakThreads(), report.getBlockedThreads());
+        for (RuntimeReport.ContendedLock lock : report.getContendedLocks()) {
+            System.out.printf("Contended: %s held by %s, %d waiting%n", lock.getLock(), lock.getOwner(),
+                    lock.getWaitingThreads());
+        }
+        for (RuntimeReport.ContendedThread thread : report.getContendedThreads()) {
+            System.out.printf("Blocked: %s, %d times, %d ms%n", thread.getName(), thread.getBlockedCount(),
+                    thread.getBlockedMillis());
+        }
+    }
+
+    /**
+     * Captures a runtime report listing the default number of contended
+     * monitors and threads.
+     *
+     * @return runtime report
+     */
+    public static RuntimeReport captureReport() {
+        return captureReport(DEFAULT_TOP_LOCKS);
+    }
+
+    /**
+     * Captures a runtime report.
+     *
+     * <p>
+     * The allocation rate covers the time since the previous report, or
+     * since JVM start for the first one, and counts allocations by every
+     * thread, including threads that have since ended.
+     *
+     * <p>
+     * Contention is read from a dump of all threads, which briefly pauses the
+     * JVM. The first report turns on thread contention monitoring. Threads
+     * are then ranked by the time they spent blocked on monitors since the
+     * previous report, so contention that came and went between reports is
+     * still seen. The JVM keeps these figures per thread, not per monitor,
+     * so monitors are only named for threads blocked at the moment of the
+     * dump; those monitors are also listed by number of waiting threads.
+     *
+     * @param topLocks maximum number of contended monitors and of contended
+     *                 threads to list (must be ≥ 0)
+     * @return runtime report
+     * @throws IllegalArgumentException if topLocks is negative
+     */
+    public static synchronized RuntimeReport captureReport(int topLocks) {
+        if (topLocks < 0) {
+            throw new IllegalArgumentException("Lock count must be greater than or equal to 0.");
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+        List<RuntimeReport.Collector> collectors = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long lastPause = -1;
+            if (gc instanceof com.sun.management.GarbageCollectorMXBean) {
+                com.sun.management.GcInfo info = ((com.sun.management.GarbageCollectorMXBean) gc).getLastGcInfo();
+                if (info != null) {
+                    lastPause = info.getDuration();
+                }
+            }
+            collectors.add(new RuntimeReport.Collector(gc.getName(), gc.getCollectionCount(),
+                    gc.getCollectionTime(), lastPause));
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long now = System.nanoTime();
+        long allocationRate = -1;
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            long allocated = allocation.getTotalThreadAllocatedBytes();
+            if (allocated >= 0) {
+                long elapsedNanos = (lastReportNanos == 0)
+                        ? ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000
+                        : now - lastReportNanos;
+                long delta = (lastReportNanos == 0) ? allocated : allocated - lastAllocatedBytes;
+                allocationRate = (elapsedNanos > 0) ? (long) (delta * 1e9 / elapsedNanos) : 0;
+                lastAllocatedBytes = allocated;
+                lastReportNanos = now;
+            }
+        }
+
+        if (threads.isThreadContentionMonitoringSupported() && !threads.isThreadContentionMonitoringEnabled()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+        Map<String, Integer> waiters = new HashMap<>();
+        Map<String, String> owners = new HashMap<>();
+        Map<Long, long[]> blockedNow = new HashMap<>();
+        List<RuntimeReport.ContendedThread> contended = new ArrayList<>();
+        int blocked = 0;
+        for (ThreadInfo info : threads.dumpAllThreads(false, false)) {
+            if (info == null) {
+                continue;
+            }
+            String lock = null;
+            if (info.getThreadState() == Thread.State.BLOCKED && info.getLockInfo() != null) {
+                blocked++;
+                lock = info.getLockInfo().toString();
+                waiters.merge(lock, 1, Integer::sum);
+                if (info.getLockOwnerName() != null) {
+                    owners.put(lock, info.getLockOwnerName());
+                }
+            }
+            long[] current = { info.getBlockedCount(), info.getBlockedTime() };
+            long[] previous = lastBlocked.getOrDefault(info.getThreadId(), new long[2]);
+            blockedNow.put(info.getThreadId(), current);
+            long blockedCount = current[0] - previous[0];
+            if (blockedCount > 0) {
+                long blockedMillis = (current[1] < 0) ? -1 : current[1] - Math.max(0, previous[1]);
+                contended.add(new RuntimeReport.ContendedThread(info.getThreadName(), blockedCount, blockedMillis,
+                        lock));
+            }
+        }
+        lastBlocked = blockedNow;
+        List<RuntimeReport.ContendedThread> contendedThreads = new ArrayList<>();
+        contended.stream()
+                .sorted(Comparator.comparingLong(RuntimeReport.ContendedThread::getBlockedMillis)
+                        .thenComparingLong(RuntimeReport.ContendedThread::getBlockedCount)
+                        .reversed())
+                .limit(topLocks)
+                .forEach(contendedThreads::add);
+        List<RuntimeReport.ContendedLock> locks = new ArrayList<>();
+        waiters.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(topLocks)
+                .forEach(e -> locks.add(new RuntimeReport.ContendedLock(e.getKey(), owners.get(e.getKey()),
+                        e.getValue())));
+
+        return new RuntimeReport(heap.getUsed(), heap.getCommitted(), heap.getMax(), collectors, allocationRate,
+                threads.getThreadCount(), threads.getDaemonThreadCount(), threads.getPeakThreadCount(), blocked,
+                locks, contendedThreads);
+    }
+
+    /**
+     * Starts a Flight Recorder recording with the JDK's low-overhead
+     * default settings plus the application's events. The recording is
+     * written to the destination when it is stopped.
+     *
+     * @param destination file the recording is written to (must not be
+     *                    null)
+     * @throws IllegalArgumentException if destination is null
+     * @throws IllegalStateException    if a recording is already running or
+     *                                  the settings cannot be loaded
+     * @throws UncheckedIOException     if the destination cannot be used
+     */
+    public static synchronized void startRecording(Path destination) {
+        if (destination == null) {
+            throw new IllegalArgumentException("Destination must not be NULL.");
+        }
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running.");
+        }
+        Configuration settings;
+        try {
+            settings = Configuration.getConfiguration(RECORDING_SETTINGS);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load Flight Recorder settings.", e);
+        }
+        Recording started = new Recording(settings);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.enable(InventoryOperationEvent.class);
+        started.enable(CatalogLoadEvent.class);
+        started.enable(BatchRunEvent.class);
+        try {
+            started.setDestination(destination);
+        } catch (IOException e) {
+            started.close();
+            throw new UncheckedIOException("Could not use recording destination " + destination, e);
+        }
+        started.start();
+        recording = started;
+    }
+
+    /**
+     * Stops the running recording and writes it to its destination.
+     *
+     * @return file the recording was written to
+     * @throws IllegalStateException if no recording is running
+     */
+    public static synchronized Path stopRecording() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running.");
+        }
+        Recording stopped = recording;
+        recording = null;
+        Path destination = stopped.getDestination();
+        stopped.stop();
+        stopped.close();
+        return destination;
+    }
+
+    /**
+     * Checks whether a recording started by this class is running.
+     *
+     * @return true if a recording is running
+     */
+    public static synchronized boolean isRecording() {
+        return recording != null;
     }
 }
@@ -15,10 +15,17 @@ import java.util.Objects;
  * after creation.
  *
  * <p>
+ * Categories may optionally be nested under a parent category to form a
+ * tree (for example "Produce" and "Dairy" under "Fresh Food"). Because a
+ * parent must already exist when a child is created, the tree can never
+ * contain a cycle.
+ *
+ * <p>
  * Example:
  * 
  * <pre>{@code
  * Category electronics = new Category(101, "Electronics", "Electronic devices and accessories");
+ * Category laptops = new Category(102, "Laptops", "Portable computers", electronics);
  * }</pre>
  *
  * @author David
@@ -35,8 +42,14 @@ public final class Category {
     /** Optional category description (immutable). */
     private final String description;
 
+    /** Parent category, or null for a top-level category (immutable). */
+    private final Category parent;
+
+    /** Number of ancestors above this category (0 for a top-level category). */
+    private final int depth;
+
     /**
-     * Creates a new Category with validated attributes.
+     * Creates a new top-level Category with validated attributes.
      *
      * @param id          unique category identifier (must be ≥ 0)
      * @param name        category name (must not be null or blank)
@@ -44,12 +57,29 @@ public final class Category {
      * @throws IllegalArgumentException if validation fails
      */
     public Category(long id, String name, String description) {
+        this(id, name, description, null);
+    }
+
+    /**
+     * Creates a new Category nested under the given parent.
+     *
+     * @param id          unique category identifier (must be ≥ 0)
+     * @param name        category name (must not be null or blank)
+     * @param description optional category description (may be null or empty)
+     * @param parent      parent category (may be null for a top-level category)
+     * @throws IllegalArgumentException if validation fails or the parent has
+     *                                  the same ID
+     */
+    public Category(long id, String name, String description, Category parent) {
         validateId(id);
         validateName(name);
+        validateParent(id, parent);
 
         this.id = id;
         this.name = name;
         this.description = description;
+        this.parent = parent;
+        this.depth = (parent == null) ? 0 : parent.depth + 1;
     }
 
     /**
@@ -76,6 +106,21 @@ public final class Category {
         }
     }
 
+    /**
+     * Validates that no ancestor shares this category's ID.
+     * 
+     * @param id     ID of the category being created
+     * @param parent proposed parent category
+     * @throws IllegalArgumentException if an ancestor has the same ID
+     */
+    private void validateParent(long id, Category parent) {
+        for (Category ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor.id == id) {
+                throw new IllegalArgumentException("Category cannot be its own ancestor.");
+            }
+        }
+    }
+
     /**
      * Returns the unique category identifier.
      * 
@@ -103,6 +148,40 @@ public final class Category {
         return description;
     }
 
+    /**
+     * Returns the parent category.
+     * 
+     * @return parent category (null for a top-level category)
+     */
+    public Category getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the number of ancestors above this category.
+     * 
+     * @return depth in the category tree (0 for a top-level category)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Checks whether this category is the given category or one of its
+     * descendants.
+     * 
+     * @param other category to test as an ancestor
+     * @return true if other is this category or an ancestor of it
+     */
+    public boolean isWithin(Category other) {
+        for (Category current = this; current != null; current = current.parent) {
+            if (current.equals(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Compares categories for equality based solely on ID.
      * 
@@ -140,6 +219,7 @@ public final class Category {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
+                ", parentId=" + (parent == null ? "none" : String.valueOf(parent.id)) +
                 '}';
     }
 }
\ No newline at end of file
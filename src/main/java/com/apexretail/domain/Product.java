@@ -1,6 +1,7 @@
 package com.apexretail.domain;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 /**
  * Represents a product in the retail inventory system.
@@ -21,6 +22,9 @@ import java.math.BigDecimal;
  */
 public class Product {
 
+    /** Number of decimal places used when expressing prices in minor units. */
+    public static final int PRICE_SCALE = 2;
+
     /** Unique product identifier - cannot be changed after creation. */
     private final long id;
 
@@ -206,6 +210,20 @@ public class Product {
         return price;
     }
 
+    /**
+     * Returns the product price in minor currency units (e.g. cents).
+     * 
+     * <p>
+     * The price is rounded half-up to {@link #PRICE_SCALE} decimal places.
+     * This representation lets aggregates and encoders work with primitive
+     * longs instead of BigDecimal arithmetic.
+     * 
+     * @return product price in minor units
+     */
+    public long getPriceInMinorUnits() {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
     /**
      * Returns the current stock quantity.
      * 
@@ -0,0 +1,93 @@
+package com.apexretail.history;
+
+/**
+ * Fixed-size ring of counters for the most recent consecutive buckets.
+ *
+ * <p>
+ * The ring remembers the newest bucket written; it holds that bucket and the
+ * {@code capacity - 1} buckets before it. Writing a newer bucket clears the
+ * slots it skips over, and writes older than the window are ignored. This
+ * class is not thread-safe; callers synchronize on the owning series.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class BucketRing {
+
+    /** Counters indexed by bucket modulo capacity. */
+    private final long[] counts;
+
+    /** Newest bucket written, or Long.MIN_VALUE if the ring is empty. */
+    private long newest = Long.MIN_VALUE;
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param capacity number of buckets retained
+     */
+    BucketRing(int capacity) {
+        this.counts = new long[capacity];
+    }
+
+    /**
+     * Adds units to a bucket, advancing the window if the bucket is newer.
+     *
+     * @param bucket bucket number
+     * @param units  units to add
+     */
+    void add(long bucket, long units) {
+        if (newest == Long.MIN_VALUE) {
+            newest = bucket;
+        } else if (bucket > newest) {
+            long cleared = Math.min(bucket - newest, counts.length);
+            for (long b = bucket - cleared + 1; b <= bucket; b++) {
+                counts[slot(b)] = 0;
+            }
+            newest = bucket;
+        } else if (bucket <= newest - counts.length) {
+            return;
+        }
+        counts[slot(bucket)] += units;
+    }
+
+    /**
+     * Returns the units recorded in a bucket.
+     *
+     * @param bucket bucket number
+     * @return units in the bucket, or 0 if it is outside the window
+     */
+    long get(long bucket) {
+        if (newest == Long.MIN_VALUE || bucket > newest || bucket <= newest - counts.length) {
+            return 0;
+        }
+        return counts[slot(bucket)];
+    }
+
+    /**
+     * Returns the newest bucket written.
+     *
+     * @return newest bucket, or Long.MIN_VALUE if the ring is empty
+     */
+    long newest() {
+        return newest;
+    }
+
+    /**
+     * Returns the number of buckets retained.
+     *
+     * @return ring capacity
+     */
+    int capacity() {
+        return counts.length;
+    }
+
+    /**
+     * Maps a bucket onto its slot.
+     *
+     * @param bucket bucket number
+     * @return slot index
+     */
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+}
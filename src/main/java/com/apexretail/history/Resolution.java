@@ -0,0 +1,50 @@
+package com.apexretail.history;
+
+/**
+ * Bucket sizes supported by {@link SalesHistory}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public enum Resolution {
+
+    /** One bucket per minute. */
+    MINUTE(1),
+
+    /** One bucket per hour. */
+    HOUR(60),
+
+    /** One bucket per UTC day. */
+    DAY(24 * 60);
+
+    /** Length of one bucket in minutes. */
+    private final int minutes;
+
+    /**
+     * Creates a resolution.
+     *
+     * @param minutes length of one bucket in minutes
+     */
+    Resolution(int minutes) {
+        this.minutes = minutes;
+    }
+
+    /**
+     * Returns the length of one bucket in minutes.
+     *
+     * @return bucket length in minutes
+     */
+    public int getMinutes() {
+        return minutes;
+    }
+
+    /**
+     * Returns the bucket containing an epoch minute.
+     *
+     * @param epochMinute minutes since the epoch
+     * @return bucket number
+     */
+    long bucketOf(long epochMinute) {
+        return Math.floorDiv(epochMinute, (long) minutes);
+    }
+}
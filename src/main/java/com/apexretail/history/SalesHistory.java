@@ -0,0 +1,699 @@
+package com.apexretail.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryListener;
+
+/**
+ * Embedded time-series store of units sold per SKU.
+ *
+ * <p>
+ * Registered as an {@link InventoryListener}, the store records every sale
+ * into a per-SKU ring of minute buckets. A background task runs once a
+ * minute and:
+ * <ul>
+ * <li>rolls completed minutes into per-SKU hour and day rings</li>
+ * <li>writes each completed hour to a compressed segment file holding
+ * minute-level points (see {@link SalesSegment})</li>
+ * <li>writes each completed day to a summary segment holding one total per
+ * SKU</li>
+ * </ul>
+ *
+ * <p>
+ * Queries read the in-memory rings where they cover the requested range
+ * and fall back to segment files for older data. The day ring holds 400
+ * days, so a year of daily history for a SKU is normally answered from
+ * memory, including after a restart once {@link #start()} has reloaded
+ * the rings from disk; older days cost one binary search in a daily
+ * summary file each. Rings are allocated only for SKUs that have sold
+ * something, about 4.5 KB per SKU.
+ *
+ * <p>
+ * On {@link #close()} the current partial hour is written to disk, and a
+ * new store opened in the same hour reloads it, so a restart loses no
+ * sales.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * SalesHistory history = new SalesHistory(Path.of("data/sales"), Clock.systemUTC());
+ * history.start();
+ * inventory.addListener(history);
+ * long[] daily = history.query(3, Resolution.DAY, yearAgoMillis, nowMillis);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class SalesHistory implements InventoryListener, AutoCloseable {
+
+    /** Minute buckets kept in memory per SKU. */
+    private static final int MINUTE_SLOTS = 120;
+
+    /** Hour buckets kept in memory per SKU. */
+    private static final int HOUR_SLOTS = 48;
+
+    /** Day buckets kept in memory per SKU. */
+    private static final int DAY_SLOTS = 400;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int HOURS_PER_DAY = 24;
+
+    private static final String HOUR_PREFIX = "sales-hour-";
+    private static final String DAY_PREFIX = "sales-day-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Recent buckets for one SKU.
+     */
+    private static final class SkuSeries {
+        private final BucketRing minutes = new BucketRing(MINUTE_SLOTS);
+        private final BucketRing hours = new BucketRing(HOUR_SLOTS);
+        private final BucketRing days = new BucketRing(DAY_SLOTS);
+
+        /** Minutes before this one have been rolled into hours and days. */
+        private long rolledThroughMinute;
+
+        private SkuSeries(long rolledThroughMinute) {
+            this.rolledThroughMinute = rolledThroughMinute;
+        }
+
+        private BucketRing ring(Resolution resolution) {
+            switch (resolution) {
+                case MINUTE:
+                    return minutes;
+                case HOUR:
+                    return hours;
+                default:
+                    return days;
+            }
+        }
+    }
+
+    private final Path directory;
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, SkuSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * Sales before this minute are only available from segment files, until
+     * {@link #start()} restores the hour and day rings.
+     */
+    private final long memoryStartMinute;
+
+    /** Whether the hour and day rings hold everything retained on disk. */
+    private volatile boolean restored;
+
+    /** Last hour written to a segment (guarded by this). */
+    private long lastPersistedHour;
+
+    /** Last day written to a summary segment (guarded by this). */
+    private long lastSummarizedDay;
+
+    private ScheduledExecutorService roller;
+
+    /**
+     * Opens a store over a directory, reloading the current hour if a
+     * previous instance saved it. Days that were never summarized, for
+     * example while the process was down, are summarized by the next
+     * roll-up.
+     *
+     * @param directory directory holding segment files (created if missing)
+     * @param clock     clock used to timestamp sales (must not be null)
+     * @throws IllegalArgumentException if an argument is null
+     * @throws UncheckedIOException     if the directory cannot be prepared
+     */
+    public SalesHistory(Path directory, Clock clock) {
+        if (directory == null || clock == null) {
+            throw new IllegalArgumentException("Directory and clock must not be NULL.");
+        }
+        this.directory = directory;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create sales history directory " + directory, e);
+        }
+
+        long nowMinute = currentMinute();
+        long currentHour = Math.floorDiv(nowMinute, MINUTES_PER_HOUR);
+        long currentDay = Math.floorDiv(nowMinute, MINUTES_PER_DAY);
+        this.memoryStartMinute = currentHour * MINUTES_PER_HOUR;
+        this.lastPersistedHour = currentHour - 1;
+        this.lastSummarizedDay = lastSummarizedDayOnDisk(currentDay);
+        reloadHour(currentHour);
+    }
+
+    /**
+     * Starts the background roll-up task, which runs once a minute.
+     *
+     * <p>
+     * The first call also rolls up and summarizes any days missing on
+     * disk, then loads the hour and day segments still inside the in-memory
+     * windows, so hour and day queries after a restart are answered from
+     * memory instead of one file per bucket.
+     *
+     * @throws UncheckedIOException if a segment cannot be read or written
+     */
+    public synchronized void start() {
+        if (roller != null) {
+            return;
+        }
+        if (!restored) {
+            rollUp();
+            restoreRings();
+            restored = true;
+        }
+        roller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-history-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        roller.scheduleAtFixedRate(this::rollUp, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Records the units sold when a product's stock decreases.
+     *
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    @Override
+    public void stockChanged(Product prod, int delta) {
+        if (delta < 0) {
+            recordSale(prod.getId(), -delta);
+        }
+    }
+
+    /**
+     * Ignores stock written off, which is not a sale.
+     *
+     * @param prod  product whose stock was written off
+     * @param units units removed
+     */
+    @Override
+    public void stockWrittenOff(Product prod, int units) {
+    }
+
+    /**
+     * Records units sold for a product at the current time.
+     *
+     * @param productId product ID
+     * @param units     units sold (must be > 0)
+     * @throws IllegalArgumentException if units is not positive
+     */
+    public void recordSale(long productId, long units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0.");
+        }
+        long minute = currentMinute();
+        SkuSeries sku = series.computeIfAbsent(productId, id -> new SkuSeries(minute));
+        synchronized (sku) {
+            sku.minutes.add(minute, units);
+            if (minute < sku.rolledThroughMinute) {
+                sku.hours.add(Math.floorDiv(minute, MINUTES_PER_HOUR), units);
+                sku.days.add(Math.floorDiv(minute, MINUTES_PER_DAY), units);
+            }
+        }
+    }
+
+    /**
+     * Returns units sold per bucket over a time range.
+     *
+     * <p>
+     * The range is widened to whole buckets. Hour and day buckets include
+     * sales up to the last completed roll-up, which runs once a minute;
+     * minute buckets are always current.
+     *
+     * @param productId  product ID
+     * @param resolution bucket size (must not be null)
+     * @param fromMillis start of the range in epoch milliseconds (inclusive)
+     * @param toMillis   end of the range in epoch milliseconds (exclusive,
+     *                   must be greater than fromMillis)
+     * @return units sold per bucket, oldest first
+     * @throws IllegalArgumentException if the arguments are invalid
+     * @throws UncheckedIOException     if a segment cannot be read
+     */
+    public long[] query(long productId, Resolution resolution, long fromMillis, long toMillis) {
+        if (resolution == null) {
+            throw new IllegalArgumentException("Resolution must not be NULL.");
+        }
+        if (toMillis <= fromMillis) {
+            throw new IllegalArgumentException("Range end must be after range start.");
+        }
+        long firstBucket = resolution.bucketOf(Math.floorDiv(fromMillis, MILLIS_PER_MINUTE));
+        long lastBucket = resolution.bucketOf(Math.floorDiv(toMillis - 1, MILLIS_PER_MINUTE));
+        long[] result = new long[Math.toIntExact(lastBucket - firstBucket + 1)];
+
+        SkuSeries sku = series.get(productId);
+        long windowStart = memoryWindowStart(resolution);
+        long firstMemoryBucket = Math.max(firstBucket, resolution.bucketOf(windowStart));
+        if (sku != null) {
+            synchronized (sku) {
+                BucketRing ring = sku.ring(resolution);
+                for (long bucket = firstMemoryBucket; bucket <= lastBucket; bucket++) {
+                    result[(int) (bucket - firstBucket)] += ring.get(bucket);
+                }
+            }
+        }
+
+        long diskFrom = firstBucket * resolution.getMinutes();
+        long diskTo = Math.min(windowStart, (lastBucket + 1) * resolution.getMinutes());
+        if (diskFrom < diskTo) {
+            readDisk(productId, resolution, firstBucket, result, diskFrom, diskTo);
+        }
+        return result;
+    }
+
+    /**
+     * Rolls completed minutes into hour and day buckets and persists
+     * completed hours and days. Runs automatically once a minute after
+     * {@link #start()}.
+     *
+     * @throws UncheckedIOException if a segment cannot be written
+     */
+    public synchronized void rollUp() {
+        long nowMinute = currentMinute();
+        for (SkuSeries sku : series.values()) {
+            synchronized (sku) {
+                long newest = sku.minutes.newest();
+                long from = Math.max(sku.rolledThroughMinute, newest - MINUTE_SLOTS + 1);
+                long to = Math.min(nowMinute, newest + 1);
+                for (long minute = from; minute < to; minute++) {
+                    long units = sku.minutes.get(minute);
+                    if (units != 0) {
+                        sku.hours.add(Math.floorDiv(minute, MINUTES_PER_HOUR), units);
+                        sku.days.add(Math.floorDiv(minute, MINUTES_PER_DAY), units);
+                    }
+                }
+                sku.rolledThroughMinute = Math.max(sku.rolledThroughMinute, nowMinute);
+            }
+        }
+
+        long currentHour = Math.floorDiv(nowMinute, MINUTES_PER_HOUR);
+        while (lastPersistedHour < currentHour - 1) {
+            writeHour(++lastPersistedHour);
+        }
+        long currentDay = Math.floorDiv(nowMinute, MINUTES_PER_DAY);
+        while (lastSummarizedDay < currentDay - 1) {
+            writeDaySummary(++lastSummarizedDay);
+        }
+    }
+
+    /**
+     * Stops the background task and saves everything recorded so far,
+     * including the current partial hour.
+     *
+     * @throws UncheckedIOException if a segment cannot be written
+     */
+    @Override
+    public synchronized void close() {
+        if (roller != null) {
+            roller.shutdown();
+            roller = null;
+        }
+        rollUp();
+        writeHour(Math.floorDiv(currentMinute(), MINUTES_PER_HOUR));
+    }
+
+    /**
+     * Returns the first minute answered from memory at a resolution.
+     *
+     * @param resolution bucket size
+     * @return epoch minute; earlier data is read from segments
+     */
+    private long memoryWindowStart(Resolution resolution) {
+        int capacity;
+        switch (resolution) {
+            case MINUTE:
+                capacity = MINUTE_SLOTS;
+                break;
+            case HOUR:
+                capacity = HOUR_SLOTS;
+                break;
+            default:
+                capacity = DAY_SLOTS;
+        }
+        long ringStart = (resolution.bucketOf(currentMinute()) - capacity + 1) * resolution.getMinutes();
+        if (restored && resolution != Resolution.MINUTE) {
+            return ringStart;
+        }
+        return Math.max(memoryStartMinute, ringStart);
+    }
+
+    /**
+     * Adds sales from segment files in [fromMinute, toMinute) to the result.
+     *
+     * <p>
+     * Whole days at day resolution use the daily summary; whole hours at
+     * hour or day resolution use the hourly totals; only partial hours and
+     * minute resolution decode individual points.
+     *
+     * @param productId   product ID
+     * @param resolution  bucket size
+     * @param firstBucket bucket stored at result[0]
+     * @param result      per-bucket totals to add to
+     * @param fromMinute  first epoch minute to read
+     * @param toMinute    epoch minute to stop before
+     */
+    private void readDisk(long productId, Resolution resolution, long firstBucket, long[] result,
+            long fromMinute, long toMinute) {
+        try {
+            long minute = fromMinute;
+            while (minute < toMinute) {
+                int slot = (int) (resolution.bucketOf(minute) - firstBucket);
+                if (resolution == Resolution.DAY && Math.floorMod(minute, MINUTES_PER_DAY) == 0
+                        && minute + MINUTES_PER_DAY <= toMinute) {
+                    result[slot] += dayTotal(productId, Math.floorDiv(minute, MINUTES_PER_DAY));
+                    minute += MINUTES_PER_DAY;
+                    continue;
+                }
+                long hour = Math.floorDiv(minute, MINUTES_PER_HOUR);
+                long hourEnd = (hour + 1) * MINUTES_PER_HOUR;
+                if (resolution != Resolution.MINUTE && Math.floorMod(minute, MINUTES_PER_HOUR) == 0
+                        && hourEnd <= toMinute) {
+                    result[slot] += hourTotal(productId, hour);
+                    minute = hourEnd;
+                    continue;
+                }
+                long from = minute;
+                long to = Math.min(hourEnd, toMinute);
+                try (SalesSegment.Reader reader = SalesSegment.Reader.open(hourSegment(hour))) {
+                    int index = (reader == null) ? -1 : reader.find(productId);
+                    if (index >= 0) {
+                        reader.readPoints(index, (pointMinute, units) -> {
+                            if (pointMinute >= from && pointMinute < to) {
+                                result[(int) (resolution.bucketOf(pointMinute) - firstBucket)] += units;
+                            }
+                        });
+                    }
+                }
+                minute = to;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read sales history", e);
+        }
+    }
+
+    /**
+     * Returns a product's units sold in a day from disk.
+     *
+     * @param productId product ID
+     * @param day       epoch day
+     * @return units sold
+     * @throws IOException if a segment cannot be read
+     */
+    private long dayTotal(long productId, long day) throws IOException {
+        try (SalesSegment.Reader reader = SalesSegment.Reader.open(daySegment(day))) {
+            if (reader != null) {
+                int index = reader.find(productId);
+                return (index >= 0) ? reader.totalAt(index) : 0;
+            }
+        }
+        long total = 0;
+        long firstHour = day * 24;
+        for (long hour = firstHour; hour < firstHour + 24; hour++) {
+            total += hourTotal(productId, hour);
+        }
+        return total;
+    }
+
+    /**
+     * Returns a product's units sold in an hour from disk.
+     *
+     * @param productId product ID
+     * @param hour      epoch hour
+     * @return units sold
+     * @throws IOException if a segment cannot be read
+     */
+    private long hourTotal(long productId, long hour) throws IOException {
+        try (SalesSegment.Reader reader = SalesSegment.Reader.open(hourSegment(hour))) {
+            if (reader == null) {
+                return 0;
+            }
+            int index = reader.find(productId);
+            return (index >= 0) ? reader.totalAt(index) : 0;
+        }
+    }
+
+    /**
+     * Writes the minute-level points of an hour from the minute rings. Hours
+     * without sales are not written.
+     *
+     * @param hour epoch hour
+     */
+    private void writeHour(long hour) {
+        long startMinute = hour * MINUTES_PER_HOUR;
+        SalesSegment.Writer writer = new SalesSegment.Writer(startMinute);
+        for (long productId : sortedProductIds()) {
+            SkuSeries sku = series.get(productId);
+            writer.beginSeries(productId);
+            synchronized (sku) {
+                for (long minute = startMinute; minute < startMinute + MINUTES_PER_HOUR; minute++) {
+                    long units = sku.minutes.get(minute);
+                    if (units != 0) {
+                        writer.addPoint(minute, units);
+                    }
+                }
+            }
+            writer.endSeries();
+        }
+        if (!writer.isEmpty()) {
+            writer.writeTo(hourSegment(hour));
+        }
+    }
+
+    /**
+     * Writes a day's per-SKU totals, aggregated from its hourly segments.
+     *
+     * @param day epoch day
+     */
+    private void writeDaySummary(long day) {
+        Map<Long, long[]> totals = new HashMap<>();
+        try {
+            for (long hour = day * 24; hour < day * 24 + 24; hour++) {
+                try (SalesSegment.Reader reader = SalesSegment.Reader.open(hourSegment(hour))) {
+                    if (reader != null) {
+                        reader.forEachSeries((productId, total, segment, index) -> totals
+                                .computeIfAbsent(productId, id -> new long[1])[0] += total);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not summarize sales day " + day, e);
+        }
+        long dayStart = day * MINUTES_PER_DAY;
+        long[] productIds = totals.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        SalesSegment.Writer writer = new SalesSegment.Writer(dayStart);
+        for (long productId : productIds) {
+            writer.beginSeries(productId);
+            writer.addPoint(dayStart, totals.get(productId)[0]);
+            writer.endSeries();
+        }
+        writer.writeTo(daySegment(day));
+    }
+
+    /**
+     * Loads an hour saved by a previous instance into the minute rings.
+     *
+     * @param hour epoch hour
+     */
+    private void reloadHour(long hour) {
+        try (SalesSegment.Reader reader = SalesSegment.Reader.open(hourSegment(hour))) {
+            if (reader == null) {
+                return;
+            }
+            long startMinute = hour * MINUTES_PER_HOUR;
+            reader.forEachSeries((productId, total, segment, index) -> {
+                SkuSeries sku = series.computeIfAbsent(productId, id -> new SkuSeries(startMinute));
+                segment.readPoints(index, (minute, units) -> sku.minutes.add(minute, units));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reload sales hour " + hour, e);
+        }
+    }
+
+    /**
+     * Loads completed hours and days from disk into the hour and day rings.
+     *
+     * <p>
+     * Minutes from {@link #memoryStartMinute} on reach the rings through
+     * roll-ups, so only earlier buckets are loaded: whole days from their
+     * summaries, or from hourly segments where a summary is missing, and
+     * the day's earlier hours for the current day.
+     */
+    private void restoreRings() {
+        long restoreHour = Math.floorDiv(memoryStartMinute, MINUTES_PER_HOUR);
+        long restoreDay = Math.floorDiv(memoryStartMinute, MINUTES_PER_DAY);
+        long[] hours = segmentNumbers(HOUR_PREFIX);
+        long[] days = segmentNumbers(DAY_PREFIX);
+        long firstHour = restoreHour - HOUR_SLOTS + 1;
+        long firstDay = restoreDay - DAY_SLOTS + 1;
+        try {
+            for (long day = firstDay; day < restoreDay; day++) {
+                if (Arrays.binarySearch(days, day) >= 0) {
+                    restoreSegment(daySegment(day), -1, day);
+                    continue;
+                }
+                long dayEnd = (day + 1) * HOURS_PER_DAY;
+                for (int i = firstIndexAtOrAbove(hours, day * HOURS_PER_DAY); i < hours.length && hours[i] < dayEnd; i++) {
+                    restoreSegment(hourSegment(hours[i]), -1, day);
+                }
+            }
+            // The hour window always reaches back past the start of the day
+            long todayStart = restoreDay * HOURS_PER_DAY;
+            for (int i = firstIndexAtOrAbove(hours, firstHour); i < hours.length && hours[i] < restoreHour; i++) {
+                long hour = hours[i];
+                restoreSegment(hourSegment(hour), hour, (hour >= todayStart) ? restoreDay : -1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore sales history", e);
+        }
+    }
+
+    /**
+     * Adds every SKU total in a segment to the hour and day rings.
+     *
+     * @param file segment to read
+     * @param hour hour bucket to add to, or -1 for none
+     * @param day  day bucket to add to, or -1 for none
+     * @throws IOException if the segment cannot be read
+     */
+    private void restoreSegment(Path file, long hour, long day) throws IOException {
+        try (SalesSegment.Reader reader = SalesSegment.Reader.open(file)) {
+            if (reader == null) {
+                return;
+            }
+            reader.forEachSeries((productId, total, segment, index) -> {
+                SkuSeries sku = series.computeIfAbsent(productId, id -> new SkuSeries(memoryStartMinute));
+                synchronized (sku) {
+                    if (hour >= 0) {
+                        sku.hours.add(hour, total);
+                    }
+                    if (day >= 0) {
+                        sku.days.add(day, total);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the last day whose summary no roll-up needs to write: the
+     * newest summary on disk, or the day before the oldest hourly segment
+     * when there are none.
+     *
+     * @param currentDay current epoch day
+     * @return epoch day
+     */
+    private long lastSummarizedDayOnDisk(long currentDay) {
+        long[] days = segmentNumbers(DAY_PREFIX);
+        if (days.length > 0) {
+            return Math.min(days[days.length - 1], currentDay - 1);
+        }
+        long[] hours = segmentNumbers(HOUR_PREFIX);
+        if (hours.length > 0) {
+            return Math.min(Math.floorDiv(hours[0], HOURS_PER_DAY) - 1, currentDay - 1);
+        }
+        return currentDay - 1;
+    }
+
+    /**
+     * Lists the hours or days that have a segment file.
+     *
+     * @param prefix file name prefix of the segment kind
+     * @return sorted epoch hours or days
+     * @throws UncheckedIOException if the directory cannot be listed
+     */
+    private long[] segmentNumbers(String prefix) {
+        long[] numbers = new long[16];
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long number;
+                try {
+                    number = Long.parseLong(name.substring(prefix.length(), name.length() - SEGMENT_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue; // Not a segment written by this class
+                }
+                if (count == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, count * 2);
+                }
+                numbers[count++] = number;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list sales history directory " + directory, e);
+        }
+        long[] sorted = Arrays.copyOf(numbers, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Returns the index of the first value at or above a key.
+     *
+     * @param sorted sorted values
+     * @param key    key to look for
+     * @return index, or sorted.length if every value is below the key
+     */
+    private static int firstIndexAtOrAbove(long[] sorted, long key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return (index >= 0) ? index : -index - 1;
+    }
+
+    /**
+     * Returns the IDs of all SKUs with series, in increasing order.
+     *
+     * @return sorted product IDs
+     */
+    private long[] sortedProductIds() {
+        long[] ids = series.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the current epoch minute from the clock.
+     *
+     * @return current epoch minute
+     */
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Returns the path of an hourly segment.
+     *
+     * @param hour epoch hour
+     * @return segment path
+     */
+    private Path hourSegment(long hour) {
+        return directory.resolve(HOUR_PREFIX + hour + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Returns the path of a daily summary segment.
+     *
+     * @param day epoch day
+     * @return segment path
+     */
+    private Path daySegment(long day) {
+        return directory.resolve(DAY_PREFIX + day + SEGMENT_SUFFIX);
+    }
+}
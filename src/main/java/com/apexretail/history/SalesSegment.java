@@ -0,0 +1,398 @@
+package com.apexretail.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.apexretail.codec.WireFormat;
+
+/**
+ * Compressed on-disk segment of per-SKU sales points.
+ *
+ * <p>
+ * Layout:
+ * <ul>
+ * <li>header: magic, version byte, segment start as an epoch minute, SKU
+ * count</li>
+ * <li>index: one fixed-size entry per SKU sorted by product ID, holding the
+ * product ID, the offset of its points and its total units, so a single
+ * binary search answers total-only lookups</li>
+ * <li>points: per SKU, a varint point count followed by (minute, units)
+ * pairs. Minutes are delta-of-delta encoded relative to the segment start
+ * and units as zig-zag deltas from the previous point, so regular series
+ * compress to about two bytes per point.</li>
+ * </ul>
+ *
+ * <p>
+ * Segments are written to a temporary file and moved into place, so readers
+ * never observe a partial segment.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class SalesSegment {
+
+    /** Magic number identifying a segment file ("ASEG"). */
+    private static final int MAGIC = 0x41534547;
+
+    /** Current segment format version. */
+    private static final byte VERSION = 1;
+
+    /** Size of the header in bytes. */
+    private static final int HEADER_SIZE = 4 + 1 + 8 + 4;
+
+    /** Size of one index entry in bytes. */
+    private static final int ENTRY_SIZE = 8 + 4 + 8;
+
+    /** Prevents instantiation of this utility class. */
+    private SalesSegment() {
+    }
+
+    /**
+     * Receives decoded points.
+     */
+    interface PointVisitor {
+
+        /**
+         * Called for each point of a series.
+         *
+         * @param epochMinute minute of the point
+         * @param units       units sold in that minute
+         */
+        void visit(long epochMinute, long units);
+    }
+
+    /**
+     * Receives every series of a segment.
+     */
+    interface SeriesVisitor {
+
+        /**
+         * Called once per SKU.
+         *
+         * @param productId product ID
+         * @param total     total units in the segment
+         * @param reader    reader positioned to decode this SKU's points
+         * @param index     index entry of the SKU
+         * @throws IOException if reading fails
+         */
+        void visit(long productId, long total, Reader reader, int index) throws IOException;
+    }
+
+    /**
+     * Accumulates series in product ID order and writes them as a segment.
+     */
+    static final class Writer {
+        private final long startMinute;
+        private long[] productIds = new long[16];
+        private int[] offsets = new int[16];
+        private long[] totals = new long[16];
+        private int count;
+        private ByteBuffer points = ByteBuffer.allocate(4096);
+
+        private long[] seriesMinutes = new long[64];
+        private long[] seriesUnits = new long[64];
+        private int seriesSize;
+        private long seriesProductId = -1;
+
+        /**
+         * Creates a writer for a segment starting at the given minute.
+         *
+         * @param startMinute epoch minute the segment starts at
+         */
+        Writer(long startMinute) {
+            this.startMinute = startMinute;
+        }
+
+        /**
+         * Starts a new series. Product IDs must be strictly increasing.
+         *
+         * @param productId product ID
+         */
+        void beginSeries(long productId) {
+            if (count > 0 && productId <= productIds[count - 1]) {
+                throw new IllegalArgumentException("Series must be written in increasing product id order.");
+            }
+            seriesProductId = productId;
+            seriesSize = 0;
+        }
+
+        /**
+         * Adds a point to the current series. Minutes must be strictly
+         * increasing and not before the segment start.
+         *
+         * @param epochMinute minute of the point
+         * @param units       units sold (must be > 0)
+         */
+        void addPoint(long epochMinute, long units) {
+            if (seriesSize == seriesMinutes.length) {
+                seriesMinutes = Arrays.copyOf(seriesMinutes, seriesSize * 2);
+                seriesUnits = Arrays.copyOf(seriesUnits, seriesSize * 2);
+            }
+            seriesMinutes[seriesSize] = epochMinute;
+            seriesUnits[seriesSize] = units;
+            seriesSize++;
+        }
+
+        /**
+         * Finishes the current series, dropping it if it has no points.
+         */
+        void endSeries() {
+            if (seriesSize == 0) {
+                return;
+            }
+            if (count == productIds.length) {
+                productIds = Arrays.copyOf(productIds, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+                totals = Arrays.copyOf(totals, count * 2);
+            }
+            ensurePointCapacity(WireFormat.varLongSize(seriesSize) + seriesSize * 20);
+            productIds[count] = seriesProductId;
+            offsets[count] = points.position();
+
+            long total = 0;
+            long previousMinute = startMinute;
+            long previousDelta = 0;
+            long previousUnits = 0;
+            WireFormat.putVarLong(points, seriesSize);
+            for (int i = 0; i < seriesSize; i++) {
+                long delta = seriesMinutes[i] - previousMinute;
+                WireFormat.putVarLong(points, WireFormat.zigZag(delta - previousDelta));
+                WireFormat.putVarLong(points, WireFormat.zigZag(seriesUnits[i] - previousUnits));
+                previousMinute = seriesMinutes[i];
+                previousDelta = delta;
+                previousUnits = seriesUnits[i];
+                total += seriesUnits[i];
+            }
+            totals[count] = total;
+            count++;
+        }
+
+        /**
+         * Returns whether no series has been written.
+         *
+         * @return true if the segment would be empty
+         */
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        /**
+         * Writes the segment atomically, replacing any existing file.
+         *
+         * @param file destination path
+         * @throws UncheckedIOException if writing fails
+         */
+        void writeTo(Path file) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + count * ENTRY_SIZE);
+            header.putInt(MAGIC).put(VERSION).putLong(startMinute).putInt(count);
+            for (int i = 0; i < count; i++) {
+                header.putLong(productIds[i]).putInt(offsets[i]).putLong(totals[i]);
+            }
+            header.flip();
+            ByteBuffer data = points.duplicate().flip();
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining() || data.hasRemaining()) {
+                    channel.write(new ByteBuffer[] { header, data });
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write sales segment " + file, e);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not publish sales segment " + file, e);
+            }
+        }
+
+        /**
+         * Grows the point buffer to fit at least the given number of bytes.
+         *
+         * @param bytes bytes about to be written
+         */
+        private void ensurePointCapacity(int bytes) {
+            if (points.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(points.capacity() * 2, points.position() + bytes));
+                points.flip();
+                larger.put(points);
+                points = larger;
+            }
+        }
+    }
+
+    /**
+     * Random-access reader over a segment file.
+     */
+    static final class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final long startMinute;
+        private final int count;
+        private final long dataStart;
+        private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+
+        private Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, 0);
+            if (header.getInt() != MAGIC || header.get() != VERSION) {
+                throw new IOException("Not a sales segment.");
+            }
+            this.startMinute = header.getLong();
+            this.count = header.getInt();
+            this.dataStart = HEADER_SIZE + (long) count * ENTRY_SIZE;
+        }
+
+        /**
+         * Opens a segment for reading.
+         *
+         * @param file segment path
+         * @return reader, or null if the segment does not exist
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        static Reader open(Path file) {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open sales segment " + file, e);
+            }
+            try {
+                return new Reader(channel);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw new UncheckedIOException("Could not read sales segment " + file, e);
+            }
+        }
+
+        /**
+         * Finds a product's index entry by binary search.
+         *
+         * @param productId product ID
+         * @return entry index, or -1 if the product has no points
+         * @throws IOException if reading fails
+         */
+        int find(long productId) throws IOException {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = readEntry(mid).getLong(0);
+                if (midId < productId) {
+                    low = mid + 1;
+                } else if (midId > productId) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the total units of an entry.
+         *
+         * @param index entry index
+         * @return total units
+         * @throws IOException if reading fails
+         */
+        long totalAt(int index) throws IOException {
+            return readEntry(index).getLong(12);
+        }
+
+        /**
+         * Decodes the points of an entry.
+         *
+         * @param index   entry index
+         * @param visitor receiver of the points
+         * @throws IOException if reading fails
+         */
+        void readPoints(int index, PointVisitor visitor) throws IOException {
+            long start = dataStart + readEntry(index).getInt(8);
+            long end = (index + 1 < count) ? dataStart + readEntry(index + 1).getInt(8) : channel.size();
+            ByteBuffer data = ByteBuffer.allocate((int) (end - start));
+            readFully(data, start);
+
+            int points = (int) WireFormat.getVarLong(data);
+            long minute = startMinute;
+            long delta = 0;
+            long units = 0;
+            for (int i = 0; i < points; i++) {
+                delta += WireFormat.unZigZag(WireFormat.getVarLong(data));
+                units += WireFormat.unZigZag(WireFormat.getVarLong(data));
+                minute += delta;
+                visitor.visit(minute, units);
+            }
+        }
+
+        /**
+         * Visits every SKU in the segment in product ID order.
+         *
+         * @param visitor receiver of each series
+         * @throws IOException if reading fails
+         */
+        void forEachSeries(SeriesVisitor visitor) throws IOException {
+            for (int i = 0; i < count; i++) {
+                ByteBuffer current = readEntry(i);
+                visitor.visit(current.getLong(0), current.getLong(12), this, i);
+            }
+        }
+
+        /**
+         * Closes the underlying file.
+         *
+         * @throws IOException if closing fails
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Reads one index entry.
+         *
+         * @param index entry index
+         * @return buffer holding the entry
+         * @throws IOException if reading fails
+         */
+        private ByteBuffer readEntry(int index) throws IOException {
+            entry.clear();
+            readFully(entry, HEADER_SIZE + (long) index * ENTRY_SIZE);
+            return entry;
+        }
+
+        /**
+         * Fills a buffer from the given file position.
+         *
+         * @param buf      buffer to fill
+         * @param position file position
+         * @throws IOException if the file ends early or reading fails
+         */
+        private void readFully(ByteBuffer buf, long position) throws IOException {
+            while (buf.hasRemaining()) {
+                int read = channel.read(buf, position);
+                if (read < 0) {
+                    throw new IOException("Truncated sales segment.");
+                }
+                position += read;
+            }
+            buf.flip();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.apexretail.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.apexretail.diagnostics.CatalogLoadEvent;
+import com.apexretail.domain.Category;
+import com.apexretail.service.ProductCatalog;
+
+/**
+ * Bulk loader of products from CSV or TSV supplier feeds.
+ *
+ * <p>
+ * The first line of a feed is a header naming the columns {@code id},
+ * {@code name}, {@code price}, {@code quantity} and {@code category_id} in
+ * any order; other columns are ignored. The rest of the file is split into
+ * chunks of whole lines that are memory-mapped, parsed and validated in
+ * parallel on a fork/join pool. Valid rows are then added to the catalog
+ * in file order with {@link ProductCatalog#addProducts(java.util.List)}, so
+ * when an ID appears more than once the first row wins.
+ *
+ * <p>
+ * Bad rows never abort the load. Every failed check, including duplicate
+ * IDs, is returned in the {@link ImportReport} with its line number and
+ * column, and no exception is thrown for invalid data. Exceptions are
+ * reserved for unreadable files.
+ *
+ * <p>
+ * CSV fields may be enclosed in double quotes, with {@code ""} for a quote
+ * inside a field; a quoted field cannot span lines.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * CatalogImporter importer = new CatalogImporter(catalog, categoriesById);
+ * ImportReport report = importer.importFeed(Path.of("feed.csv"), FeedFormat.CSV);
+ * report.getErrors().forEach(System.out::println);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CatalogImporter {
+
+    /** Default size of the chunks parsed in parallel. */
+    public static final int DEFAULT_CHUNK_BYTES = 4 * 1024 * 1024;
+
+    /** Default number of errors kept in detail in a report. */
+    public static final int DEFAULT_MAX_REPORTED_ERRORS = 1000;
+
+    static final String ID_COLUMN = "id";
+    static final String NAME_COLUMN = "name";
+    static final String PRICE_COLUMN = "price";
+    static final String QUANTITY_COLUMN = "quantity";
+    static final String CATEGORY_COLUMN = "category_id";
+
+    /** Required columns, in the order {@link ChunkParser} expects them. */
+    private static final String[] REQUIRED_COLUMNS = { ID_COLUMN, NAME_COLUMN, PRICE_COLUMN, QUANTITY_COLUMN,
+            CATEGORY_COLUMN };
+
+    /** Longest header line accepted. */
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    /** Bytes read at a time while looking for a line end. */
+    private static final int SCAN_BYTES = 8 * 1024;
+
+    private final ProductCatalog catalog;
+    private final Map<Long, Category> categories;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final int maxReportedErrors;
+
+    /**
+     * Creates an importer that runs on the common fork/join pool with
+     * default chunk size and error limit.
+     *
+     * @param catalog    catalog to add products to (must not be null)
+     * @param categories categories by ID, not modified during an import
+     *                   (must not be null)
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public CatalogImporter(ProductCatalog catalog, Map<Long, Category> categories) {
+        this(catalog, categories, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES, DEFAULT_MAX_REPORTED_ERRORS);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param catalog           catalog to add products to (must not be null)
+     * @param categories        categories by ID, not modified during an
+     *                          import (must not be null)
+     * @param pool              pool that parses chunks (must not be null)
+     * @param chunkBytes        approximate size of a chunk (must be > 0)
+     * @param maxReportedErrors errors kept in detail in a report (must be
+     *                          ≥ 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public CatalogImporter(ProductCatalog catalog, Map<Long, Category> categories, ForkJoinPool pool, int chunkBytes,
+            int maxReportedErrors) {
+        if (catalog == null || categories == null || pool == null) {
+            throw new IllegalArgumentException("Catalog, categories and pool must not be NULL.");
+        }
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0.");
+        }
+        if (maxReportedErrors < 0) {
+            throw new IllegalArgumentException("Error limit must be greater than or equal to 0.");
+        }
+        this.catalog = catalog;
+        this.categories = categories;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports a feed into the catalog.
+     *
+     * @param file   feed file (must not be null)
+     * @param format feed format (must not be null)
+     * @return counts of rows read, imported and rejected, with the first
+     *         errors found
+     * @throws IllegalArgumentException if an argument is null
+     * @throws UncheckedIOException     if the file cannot be read
+     */
+    public ImportReport importFeed(Path file, FeedFormat format) {
+        if (file == null || format == null) {
+            throw new IllegalArgumentException("File and format must not be NULL.");
+        }
+        CatalogLoadEvent event = new CatalogLoadEvent();
+        event.begin();
+        ImportReport report = readFeed(file, format);
+        event.complete(file.toString(), report.getRowsRead(), report.getRowsImported(), report.getRowsRejected());
+        return report;
+    }
+
+    /**
+     * Validates the header, parses the feed in parallel and loads the valid
+     * rows.
+     *
+     * @param file   feed file
+     * @param format feed format
+     * @return import report
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    private ImportReport readFeed(Path file, FeedFormat format) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 0, Math.min(size, MAX_HEADER_BYTES));
+            if (headerEnd < 0 && size > MAX_HEADER_BYTES) {
+                return headerFailure("Header row is longer than " + MAX_HEADER_BYTES + " bytes.");
+            }
+            if (headerEnd < 0) {
+                headerEnd = size;
+            }
+            String[] header = readHeader(channel, headerEnd, format);
+            if (header.length == 1 && header[0].isEmpty()) {
+                return headerFailure("Missing header row.");
+            }
+            int[] columnIndexes = new int[REQUIRED_COLUMNS.length];
+            List<ImportError> missing = new ArrayList<>();
+            for (int c = 0; c < REQUIRED_COLUMNS.length; c++) {
+                columnIndexes[c] = indexOf(header, REQUIRED_COLUMNS[c]);
+                if (columnIndexes[c] < 0) {
+                    missing.add(new ImportError(1, REQUIRED_COLUMNS[c], "Missing required column."));
+                }
+            }
+            if (!missing.isEmpty()) {
+                return new ImportReport(0, 0, 0, missing.size(), truncate(missing));
+            }
+
+            long[] bounds = chunkBounds(channel, headerEnd, size);
+            ChunkParser.Result[] results = new ChunkParser.Result[bounds.length - 1];
+            pool.invoke(new ParseTask(channel, bounds, results, 0, results.length, format, header.length,
+                    columnIndexes));
+            return load(results);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read feed " + file, e);
+        }
+    }
+
+    /**
+     * Parses a contiguous range of chunks, splitting the range in half until
+     * a single chunk remains.
+     */
+    @SuppressWarnings("serial")
+    private final class ParseTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final ChunkParser.Result[] results;
+        private final int from;
+        private final int to;
+        private final FeedFormat format;
+        private final int fieldCount;
+        private final int[] columnIndexes;
+
+        private ParseTask(FileChannel channel, long[] bounds, ChunkParser.Result[] results, int from, int to,
+                FeedFormat format, int fieldCount, int[] columnIndexes) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+            this.fieldCount = fieldCount;
+            this.columnIndexes = columnIndexes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(channel, bounds, results, from, mid, format, fieldCount, columnIndexes),
+                        new ParseTask(channel, bounds, results, mid, to, format, fieldCount, columnIndexes));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            ByteBuffer data;
+            try {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, bounds[from], bounds[from + 1] - bounds[from]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map feed chunk at byte " + bounds[from], e);
+            }
+            ChunkParser parser = new ChunkParser(format, categories, maxReportedErrors, fieldCount, columnIndexes);
+            results[from] = parser.parse(data);
+        }
+    }
+
+    /**
+     * Adds the valid products of each chunk to the catalog in file order and
+     * builds the report.
+     *
+     * @param results parsed chunks in file order
+     * @return import report
+     */
+    private ImportReport load(ChunkParser.Result[] results) {
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        long errorCount = 0;
+        List<ImportError> errors = new ArrayList<>();
+        long firstLine = 2;
+
+        for (ChunkParser.Result result : results) {
+            BitSet duplicates = catalog.addProducts(result.products);
+            int duplicateCount = duplicates.cardinality();
+
+            List<ImportError> chunkErrors = new ArrayList<>(result.errors);
+            int reported = 0;
+            for (int i = duplicates.nextSetBit(0); i >= 0 && reported++ < maxReportedErrors; i = duplicates
+                    .nextSetBit(i + 1)) {
+                chunkErrors.add(new ImportError(result.productRows[i], ID_COLUMN,
+                        "Duplicate product id " + result.products.get(i).getId() + "."));
+            }
+            chunkErrors.sort(Comparator.comparingLong(ImportError::getRow));
+            for (ImportError error : chunkErrors) {
+                if (errors.size() >= maxReportedErrors) {
+                    break;
+                }
+                errors.add(error.shiftedBy(firstLine));
+            }
+
+            rowsRead += result.rowsRead;
+            rowsImported += result.products.size() - duplicateCount;
+            rowsRejected += result.rowsRejected + duplicateCount;
+            errorCount += result.errorCount + duplicateCount;
+            firstLine += result.lines;
+        }
+        return new ImportReport(rowsRead, rowsImported, rowsRejected, errorCount, errors);
+    }
+
+    /**
+     * Builds the report of a feed rejected because of its header.
+     *
+     * @param message description of the problem
+     * @return report with a single error on line 1
+     */
+    private ImportReport headerFailure(String message) {
+        List<ImportError> errors = new ArrayList<>();
+        errors.add(new ImportError(1, null, message));
+        return new ImportReport(0, 0, 0, 1, truncate(errors));
+    }
+
+    /**
+     * Trims an error list to the reporting limit.
+     *
+     * @param errors errors in file order
+     * @return the first errors up to the limit
+     */
+    private List<ImportError> truncate(List<ImportError> errors) {
+        return (errors.size() > maxReportedErrors) ? new ArrayList<>(errors.subList(0, maxReportedErrors)) : errors;
+    }
+
+    /**
+     * Splits the data section of a feed into chunks that start at line
+     * boundaries.
+     *
+     * @param channel feed file
+     * @param start   first byte after the header
+     * @param size    file size
+     * @return chunk boundaries, starting with start and ending with size
+     * @throws IOException if reading fails
+     */
+    private long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        long nominal = start + chunkBytes;
+        while (nominal < size) {
+            long boundary = nextLineStart(channel, nominal, size);
+            if (boundary < 0 || boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            nominal = boundary + chunkBytes;
+        }
+        if (start < size) {
+            bounds.add(size);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Finds the start of the line after the given position.
+     *
+     * @param channel  feed file
+     * @param position where to start looking
+     * @param limit    where to stop looking
+     * @return position after the next newline, or -1 if there is none before
+     *         limit
+     * @throws IOException if reading fails
+     */
+    private static long nextLineStart(FileChannel channel, long position, long limit) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SCAN_BYTES);
+        while (position < limit) {
+            buf.clear();
+            buf.limit((int) Math.min(SCAN_BYTES, limit - position));
+            int read = channel.read(buf, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buf.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads and splits the header line into lower-case column names.
+     *
+     * @param channel   feed file
+     * @param headerEnd position after the header line
+     * @param format    feed format
+     * @return column names in field order
+     * @throws IOException if reading fails
+     */
+    private static String[] readHeader(FileChannel channel, long headerEnd, FeedFormat format) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) headerEnd);
+        while (buf.hasRemaining() && channel.read(buf, buf.position()) > 0) {
+            // keep reading until the header is complete
+        }
+        String line = new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8);
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        String[] columns = line.strip().split(String.valueOf((char) format.getDelimiter()), -1);
+        for (int i = 0; i < columns.length; i++) {
+            String column = columns[i].strip();
+            if (format.isQuoted() && column.length() >= 2 && column.startsWith("\"") && column.endsWith("\"")) {
+                column = column.substring(1, column.length() - 1).strip();
+            }
+            columns[i] = column.toLowerCase(Locale.ROOT);
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the index of a column in the header.
+     *
+     * @param header column names
+     * @param column column to find
+     * @return field index, or -1 if missing
+     */
+    private static int indexOf(String[] header, String column) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,404 @@
+package com.apexretail.ingest;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Parses and validates the rows of one chunk of a feed.
+ *
+ * <p>
+ * Every rule enforced by the {@link Product} constructor is checked up
+ * front on the raw bytes, so invalid rows become {@link ImportError}s
+ * instead of exceptions, and a row that passes is guaranteed to construct.
+ * Numbers are parsed directly from the buffer without creating strings;
+ * only the product name is decoded. Rows are numbered from 0 within the
+ * chunk; the importer shifts them to file line numbers.
+ *
+ * <p>
+ * A parser is used by one thread for one chunk at a time.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class ChunkParser {
+
+    /** Returned by the number parsers when a field is not a valid number. */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    /** Returned by field splitting when a quoted field is not closed. */
+    private static final int UNTERMINATED_QUOTE = -1;
+
+    /** Returned by field splitting when a closing quote is not followed by a delimiter. */
+    private static final int TEXT_AFTER_QUOTE = -2;
+
+    /**
+     * Valid products and errors found in one chunk.
+     */
+    static final class Result {
+        final List<Product> products = new ArrayList<>();
+        int[] productRows = new int[64];
+        final List<ImportError> errors = new ArrayList<>();
+        long errorCount;
+        long rowsRead;
+        long rowsRejected;
+        int lines;
+
+        private void addProduct(Product prod, int row) {
+            if (products.size() == productRows.length) {
+                productRows = Arrays.copyOf(productRows, productRows.length * 2);
+            }
+            productRows[products.size()] = row;
+            products.add(prod);
+        }
+    }
+
+    private final FeedFormat format;
+    private final Map<Long, Category> categories;
+    private final int maxErrors;
+    private final int fieldCount;
+    private final int idField;
+    private final int nameField;
+    private final int priceField;
+    private final int quantityField;
+    private final int categoryField;
+
+    private final int[] fieldStarts;
+    private final int[] fieldEnds;
+    private final boolean[] fieldEscaped;
+    private byte[] nameBytes = new byte[128];
+
+    /** Scale of the last price parsed. */
+    private int priceScale;
+
+    /** Whether the current row has failed a check. */
+    private boolean rowFailed;
+
+    private long cachedCategoryId = -1;
+    private Category cachedCategory;
+
+    /**
+     * Creates a parser for rows laid out as described by the header.
+     *
+     * @param format        feed format
+     * @param categories    categories by ID (read only)
+     * @param maxErrors     errors to keep in detail per chunk
+     * @param fieldCount    number of columns in the header
+     * @param columnIndexes field index of the id, name, price, quantity and
+     *                      category columns, in that order
+     */
+    ChunkParser(FeedFormat format, Map<Long, Category> categories, int maxErrors, int fieldCount, int[] columnIndexes) {
+        this.format = format;
+        this.categories = categories;
+        this.maxErrors = maxErrors;
+        this.fieldCount = fieldCount;
+        this.idField = columnIndexes[0];
+        this.nameField = columnIndexes[1];
+        this.priceField = columnIndexes[2];
+        this.quantityField = columnIndexes[3];
+        this.categoryField = columnIndexes[4];
+        this.fieldStarts = new int[fieldCount];
+        this.fieldEnds = new int[fieldCount];
+        this.fieldEscaped = new boolean[fieldCount];
+    }
+
+    /**
+     * Parses every line between the buffer's position and limit.
+     *
+     * @param data chunk bytes, starting at the beginning of a line
+     * @return products and errors of the chunk
+     */
+    Result parse(ByteBuffer data) {
+        Result result = new Result();
+        int limit = data.limit();
+        int lineStart = data.position();
+        int row = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && data.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                parseRow(data, lineStart, lineEnd, row, result);
+            }
+            row++;
+            lineStart = next;
+        }
+        result.lines = row;
+        return result;
+    }
+
+    /**
+     * Validates one row and, if it passes, creates its product.
+     *
+     * @param data   chunk bytes
+     * @param start  first byte of the row
+     * @param end    end of the row (exclusive, line terminator removed)
+     * @param row    row number within the chunk
+     * @param result receiver of the product or errors
+     */
+    private void parseRow(ByteBuffer data, int start, int end, int row, Result result) {
+        result.rowsRead++;
+        rowFailed = false;
+        int fields = splitFields(data, start, end);
+        if (fields == UNTERMINATED_QUOTE) {
+            fail(result, row, null, "Unterminated quoted field.");
+        } else if (fields == TEXT_AFTER_QUOTE) {
+            fail(result, row, null, "Unexpected text after a quoted field.");
+        } else if (fields < fieldCount) {
+            fail(result, row, null, "Expected " + fieldCount + " fields but found " + fields + ".");
+        }
+        if (rowFailed) {
+            result.rowsRejected++;
+            return;
+        }
+
+        long id = parseLong(data, fieldStarts[idField], fieldEnds[idField]);
+        if (id == INVALID) {
+            fail(result, row, CatalogImporter.ID_COLUMN, "ID must be a whole number.");
+        } else if (id < 0) {
+            fail(result, row, CatalogImporter.ID_COLUMN, "ID must be greater than or equal to 0.");
+        }
+
+        String name = decodeName(data, nameField);
+        if (name == null) {
+            fail(result, row, CatalogImporter.NAME_COLUMN, "Invalid name.");
+        }
+
+        long price = parsePrice(data, fieldStarts[priceField], fieldEnds[priceField]);
+        if (price == INVALID) {
+            fail(result, row, CatalogImporter.PRICE_COLUMN, "Price must be a decimal number.");
+        } else if (price < 0) {
+            fail(result, row, CatalogImporter.PRICE_COLUMN, "Price must be greater than or equal to 0.");
+        }
+
+        long quantity = parseLong(data, fieldStarts[quantityField], fieldEnds[quantityField]);
+        if (quantity == INVALID) {
+            fail(result, row, CatalogImporter.QUANTITY_COLUMN, "Quantity must be a whole number.");
+        } else if (quantity < 0) {
+            fail(result, row, CatalogImporter.QUANTITY_COLUMN, "Quantity must be greater than or equal to 0.");
+        } else if (quantity > Integer.MAX_VALUE) {
+            fail(result, row, CatalogImporter.QUANTITY_COLUMN, "Quantity must be at most " + Integer.MAX_VALUE + ".");
+        }
+
+        Category category = null;
+        long categoryId = parseLong(data, fieldStarts[categoryField], fieldEnds[categoryField]);
+        if (categoryId == INVALID) {
+            fail(result, row, CatalogImporter.CATEGORY_COLUMN, "Category id must be a whole number.");
+        } else {
+            category = findCategory(categoryId);
+            if (category == null) {
+                fail(result, row, CatalogImporter.CATEGORY_COLUMN, "Unknown category id " + categoryId + ".");
+            }
+        }
+
+        if (rowFailed) {
+            result.rowsRejected++;
+            return;
+        }
+        result.addProduct(new Product(id, name, BigDecimal.valueOf(price, priceScale), (int) quantity, category), row);
+    }
+
+    /**
+     * Records an error for the current row.
+     *
+     * @param result  receiver of the error
+     * @param row     row number within the chunk
+     * @param column  column name, or null for a row-level error
+     * @param message description of the problem
+     */
+    private void fail(Result result, int row, String column, String message) {
+        rowFailed = true;
+        result.errorCount++;
+        if (result.errors.size() < maxErrors) {
+            result.errors.add(new ImportError(row, column, message));
+        }
+    }
+
+    /**
+     * Locates the fields of a row. Fields beyond the header's column count
+     * are counted but not recorded.
+     *
+     * @param data  chunk bytes
+     * @param start first byte of the row
+     * @param end   end of the row (exclusive)
+     * @return number of fields, or a negative code for a quoting error
+     */
+    private int splitFields(ByteBuffer data, int start, int end) {
+        byte delimiter = format.getDelimiter();
+        int pos = start;
+        int field = 0;
+        while (true) {
+            int fieldStart;
+            int fieldEnd;
+            boolean escaped = false;
+            if (format.isQuoted() && pos < end && data.get(pos) == '"') {
+                int p = pos + 1;
+                while (p < end) {
+                    if (data.get(p) == '"') {
+                        if (p + 1 < end && data.get(p + 1) == '"') {
+                            escaped = true;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                if (p >= end) {
+                    return UNTERMINATED_QUOTE;
+                }
+                fieldStart = pos + 1;
+                fieldEnd = p;
+                pos = p + 1;
+                if (pos < end && data.get(pos) != delimiter) {
+                    return TEXT_AFTER_QUOTE;
+                }
+            } else {
+                fieldStart = pos;
+                while (pos < end && data.get(pos) != delimiter) {
+                    pos++;
+                }
+                fieldEnd = pos;
+            }
+            if (field < fieldCount) {
+                fieldStarts[field] = fieldStart;
+                fieldEnds[field] = fieldEnd;
+                fieldEscaped[field] = escaped;
+            }
+            field++;
+            if (pos >= end) {
+                return field;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Decodes and trims the name field.
+     *
+     * @param data  chunk bytes
+     * @param field field index
+     * @return name, or null if it is blank
+     */
+    private String decodeName(ByteBuffer data, int field) {
+        int length = fieldEnds[field] - fieldStarts[field];
+        if (length > nameBytes.length) {
+            nameBytes = new byte[Math.max(length, nameBytes.length * 2)];
+        }
+        data.get(fieldStarts[field], nameBytes, 0, length);
+        String name = new String(nameBytes, 0, length, StandardCharsets.UTF_8).strip();
+        if (fieldEscaped[field]) {
+            name = name.replace("\"\"", "\"");
+        }
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * Parses a signed whole number, ignoring surrounding spaces.
+     *
+     * @param data  chunk bytes
+     * @param start first byte of the field
+     * @param end   end of the field (exclusive)
+     * @return value, or {@link #INVALID} if the field is not a number or
+     *         does not fit in a long
+     */
+    private static long parseLong(ByteBuffer data, int start, int end) {
+        while (start < end && data.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && data.get(end - 1) == ' ') {
+            end--;
+        }
+        boolean negative = start < end && data.get(start) == '-';
+        if (negative || (start < end && data.get(start) == '+')) {
+            start++;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = data.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a signed decimal number, ignoring surrounding spaces, and
+     * records its scale in {@link #priceScale}.
+     *
+     * @param data  chunk bytes
+     * @param start first byte of the field
+     * @param end   end of the field (exclusive)
+     * @return unscaled value, or {@link #INVALID} if the field is not a
+     *         decimal number or has too many digits
+     */
+    private long parsePrice(ByteBuffer data, int start, int end) {
+        while (start < end && data.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && data.get(end - 1) == ' ') {
+            end--;
+        }
+        boolean negative = start < end && data.get(start) == '-';
+        if (negative || (start < end && data.get(start) == '+')) {
+            start++;
+        }
+        long value = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (int i = start; i < end; i++) {
+            byte b = data.get(i);
+            if (b == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            digits++;
+            if (seenPoint) {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        priceScale = scale;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Looks up a category, remembering the last hit since feeds are usually
+     * grouped by category.
+     *
+     * @param categoryId category ID
+     * @return category, or null if unknown
+     */
+    private Category findCategory(long categoryId) {
+        if (categoryId != cachedCategoryId || cachedCategory == null) {
+            cachedCategory = categories.get(categoryId);
+            cachedCategoryId = categoryId;
+        }
+        return cachedCategory;
+    }
+}
@@ -0,0 +1,51 @@
+package com.apexretail.ingest;
+
+/**
+ * Delimited text formats accepted by {@link CatalogImporter}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public enum FeedFormat {
+
+    /** Comma-separated values; fields may be enclosed in double quotes. */
+    CSV((byte) ',', true),
+
+    /** Tab-separated values; fields are never quoted. */
+    TSV((byte) '\t', false);
+
+    /** Field delimiter. */
+    private final byte delimiter;
+
+    /** Whether fields may be enclosed in double quotes. */
+    private final boolean quoted;
+
+    /**
+     * Creates a format.
+     *
+     * @param delimiter field delimiter
+     * @param quoted    whether fields may be quoted
+     */
+    FeedFormat(byte delimiter, boolean quoted) {
+        this.delimiter = delimiter;
+        this.quoted = quoted;
+    }
+
+    /**
+     * Returns the field delimiter.
+     *
+     * @return delimiter byte
+     */
+    byte getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Returns whether fields may be enclosed in double quotes.
+     *
+     * @return true if quoting is supported
+     */
+    boolean isQuoted() {
+        return quoted;
+    }
+}
@@ -0,0 +1,87 @@
+package com.apexretail.ingest;
+
+/**
+ * A single problem found in a feed row by {@link CatalogImporter}.
+ *
+ * <p>
+ * A row can produce several errors, one per invalid column, so a supplier
+ * can fix a feed in one pass.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ImportError {
+
+    /** 1-based line number in the feed file. */
+    private final long row;
+
+    /** Column the error applies to, or null if it concerns the whole row. */
+    private final String column;
+
+    /** Description of the problem. */
+    private final String message;
+
+    /**
+     * Creates an import error.
+     *
+     * @param row     1-based line number in the feed file
+     * @param column  column name, or null for a row-level error
+     * @param message description of the problem
+     */
+    ImportError(long row, String column, String message) {
+        this.row = row;
+        this.column = column;
+        this.message = message;
+    }
+
+    /**
+     * Returns the line number of the row in the feed file.
+     *
+     * @return 1-based line number (the header is line 1)
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Returns the column the error applies to.
+     *
+     * @return column name, or null if the error concerns the whole row
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the description of the problem.
+     *
+     * @return error message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns a copy of this error moved down by the given number of lines.
+     *
+     * @param lines number of lines to add to the row
+     * @return shifted error
+     */
+    ImportError shiftedBy(long lines) {
+        return new ImportError(row + lines, column, message);
+    }
+
+    /**
+     * Returns string representation of the error.
+     *
+     * @return formatted string containing row, column and message
+     */
+    @Override
+    public String toString() {
+        return "ImportError{" +
+                "row=" + row +
+                ", column=" + (column == null ? "-" : column) +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
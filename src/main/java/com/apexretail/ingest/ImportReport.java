@@ -0,0 +1,120 @@
+package com.apexretail.ingest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import run by {@link CatalogImporter}.
+ *
+ * <p>
+ * The report counts every rejected row but keeps the details of only the
+ * first errors in file order, up to the importer's limit, so a feed that is
+ * wrong on every line cannot exhaust memory.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ImportReport {
+
+    /** Data rows read, excluding the header and blank lines. */
+    private final long rowsRead;
+
+    /** Rows added to the catalog. */
+    private final long rowsImported;
+
+    /** Rows rejected. */
+    private final long rowsRejected;
+
+    /** Total number of errors found. */
+    private final long errorCount;
+
+    /** First errors in file order. */
+    private final List<ImportError> errors;
+
+    /**
+     * Creates an import report.
+     *
+     * @param rowsRead     data rows read
+     * @param rowsImported rows added to the catalog
+     * @param rowsRejected rows rejected
+     * @param errorCount   total number of errors found
+     * @param errors       first errors in file order
+     */
+    ImportReport(long rowsRead, long rowsImported, long rowsRejected, long errorCount, List<ImportError> errors) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.errorCount = errorCount;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Returns the number of data rows read.
+     *
+     * @return rows read, excluding the header and blank lines
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Returns the number of rows added to the catalog.
+     *
+     * @return rows imported
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Returns the number of rows rejected.
+     *
+     * @return rows with at least one error
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    /**
+     * Returns the total number of errors found, including those not kept
+     * in {@link #getErrors()}.
+     *
+     * @return error count
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the first errors found, in file order.
+     *
+     * @return read-only list of errors
+     */
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Checks whether any row was rejected.
+     *
+     * @return true if the feed contained errors
+     */
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    /**
+     * Returns string representation of the report.
+     *
+     * @return formatted string containing the row counts
+     */
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", rowsRejected=" + rowsRejected +
+                ", errorCount=" + errorCount +
+                '}';
+    }
+}
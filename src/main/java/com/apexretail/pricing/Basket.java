@@ -0,0 +1,105 @@
+package com.apexretail.pricing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Products and quantities to be priced by {@link PricingEngine}.
+ *
+ * <p>
+ * Adding a product that is already in the basket increases its quantity.
+ * The unit price in minor units is captured when a product is first
+ * added, so pricing reads primitive arrays only. This class is not
+ * thread-safe.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class Basket {
+
+    private Product[] products = new Product[16];
+    private long[] unitPrices = new long[16];
+    private int[] quantities = new int[16];
+    private int size;
+
+    /** Line index by product ID. */
+    private final Map<Long, Integer> lines = new HashMap<>();
+
+    /**
+     * Adds units of a product.
+     *
+     * @param product  product to add (must not be null)
+     * @param quantity units to add (must be > 0)
+     * @throws IllegalArgumentException if product is null, quantity is not
+     *                                  positive or the line quantity would
+     *                                  overflow
+     */
+    public void add(Product product, int quantity) {
+        if (product == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0.");
+        }
+        Integer line = lines.get(product.getId());
+        if (line != null) {
+            if (quantities[line] > Integer.MAX_VALUE - quantity) {
+                throw new IllegalArgumentException("Quantity is too large.");
+            }
+            quantities[line] += quantity;
+            return;
+        }
+        if (size == products.length) {
+            products = Arrays.copyOf(products, size * 2);
+            unitPrices = Arrays.copyOf(unitPrices, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        products[size] = product;
+        unitPrices[size] = product.getPriceInMinorUnits();
+        quantities[size] = quantity;
+        lines.put(product.getId(), size);
+        size++;
+    }
+
+    /**
+     * Returns the number of distinct products in the basket.
+     *
+     * @return line count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the product of a line.
+     *
+     * @param line line index
+     * @return product
+     */
+    Product productAt(int line) {
+        return products[line];
+    }
+
+    /**
+     * Returns the unit price of a line.
+     *
+     * @param line line index
+     * @return unit price in minor units
+     */
+    long unitPriceAt(int line) {
+        return unitPrices[line];
+    }
+
+    /**
+     * Returns the quantity of a line.
+     *
+     * @param line line index
+     * @return units
+     */
+    int quantityAt(int line) {
+        return quantities[line];
+    }
+}
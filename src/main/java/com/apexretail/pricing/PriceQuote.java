@@ -0,0 +1,93 @@
+package com.apexretail.pricing;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Result of pricing a {@link Basket} with {@link PricingEngine}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class PriceQuote {
+
+    private final List<QuoteLine> lines;
+    private final long subtotal;
+    private final long discount;
+
+    /**
+     * Creates a quote.
+     *
+     * @param lines    priced lines in basket order
+     * @param subtotal total before discounts in minor units
+     * @param discount total discount in minor units
+     */
+    PriceQuote(List<QuoteLine> lines, long subtotal, long discount) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.subtotal = subtotal;
+        this.discount = discount;
+    }
+
+    /**
+     * Returns the priced lines in basket order.
+     *
+     * @return read-only list of lines
+     */
+    public List<QuoteLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the total before discounts.
+     *
+     * @return subtotal
+     */
+    public BigDecimal getSubtotal() {
+        return BigDecimal.valueOf(subtotal, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the sum of all discounts.
+     *
+     * @return discount
+     */
+    public BigDecimal getDiscount() {
+        return BigDecimal.valueOf(discount, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the amount to pay.
+     *
+     * @return subtotal minus discount
+     */
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(subtotal - discount, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the amount to pay in minor units.
+     *
+     * @return total in minor units
+     */
+    public long getTotalInMinorUnits() {
+        return subtotal - discount;
+    }
+
+    /**
+     * Returns string representation of the quote.
+     *
+     * @return formatted string containing the totals
+     */
+    @Override
+    public String toString() {
+        return "PriceQuote{" +
+                "lines=" + lines.size() +
+                ", subtotal=" + getSubtotal() +
+                ", discount=" + getDiscount() +
+                ", total=" + getTotal() +
+                '}';
+    }
+}
@@ -0,0 +1,147 @@
+package com.apexretail.pricing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Prices baskets against a set of promotion rules.
+ *
+ * <p>
+ * The rule set is compiled into an index keyed by product ID and category
+ * ID, so each basket line evaluates only the promotions that target its
+ * product, its category or one of the category's ancestors. The best
+ * discount among them is applied to the line; promotions do not stack, and
+ * when two give the same discount the one earlier in the rule set wins.
+ *
+ * <p>
+ * {@link #setPromotions(List)} compiles a new index and publishes it with
+ * a single volatile write. Pricing reads the index once per basket, so it
+ * never waits for a swap and every basket is priced against exactly one
+ * rule set.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * PricingEngine pricing = new PricingEngine();
+ * pricing.setPromotions(List.of(Promotion.percentOff("Dairy week", dairy, 10)));
+ * Basket basket = new Basket();
+ * basket.add(milk, 3);
+ * PriceQuote quote = pricing.price(basket);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class PricingEngine {
+
+    /** Current compiled rule set. */
+    private volatile RuleIndex rules = RuleIndex.EMPTY;
+
+    /**
+     * Replaces the rule set. Baskets priced concurrently use either the old
+     * or the new rules, never a mix.
+     *
+     * @param promotions promotions in priority order (must not be null or
+     *                   contain null)
+     * @throws IllegalArgumentException if promotions is null or contains
+     *                                  null
+     */
+    public void setPromotions(List<Promotion> promotions) {
+        if (promotions == null) {
+            throw new IllegalArgumentException("Invalid promotion list.");
+        }
+        for (Promotion promotion : promotions) {
+            if (promotion == null) {
+                throw new IllegalArgumentException("Invalid promotion.");
+            }
+        }
+        rules = new RuleIndex(promotions);
+    }
+
+    /**
+     * Returns the current rule set.
+     *
+     * @return read-only list of promotions in priority order
+     */
+    public List<Promotion> getPromotions() {
+        return rules.promotions();
+    }
+
+    /**
+     * Prices a basket.
+     *
+     * @param basket basket to price (must not be null)
+     * @return quote with the best promotion applied to each line
+     * @throws IllegalArgumentException if basket is null
+     */
+    public PriceQuote price(Basket basket) {
+        if (basket == null) {
+            throw new IllegalArgumentException("Invalid basket.");
+        }
+        RuleIndex current = rules;
+        boolean categoryRules = current.hasCategoryRules();
+        Choice choice = new Choice();
+        int size = basket.size();
+        List<QuoteLine> lines = new ArrayList<>(size);
+        long subtotal = 0;
+        long totalDiscount = 0;
+        for (int i = 0; i < size; i++) {
+            Product product = basket.productAt(i);
+            long unitPrice = basket.unitPriceAt(i);
+            int quantity = basket.quantityAt(i);
+
+            choice.reset();
+            choice.consider(current.forProduct(product.getId()), unitPrice, quantity);
+            if (categoryRules) {
+                for (Category category = product.getCategory(); category != null; category = category.getParent()) {
+                    choice.consider(current.forCategory(category.getId()), unitPrice, quantity);
+                }
+            }
+            lines.add(new QuoteLine(product, quantity, unitPrice, choice.discount, choice.promotion));
+            subtotal += unitPrice * quantity;
+            totalDiscount += choice.discount;
+        }
+        return new PriceQuote(lines, subtotal, totalDiscount);
+    }
+
+    /**
+     * Best promotion found so far for one line, reused across the lines of
+     * a basket.
+     */
+    private static final class Choice {
+        private Promotion promotion;
+        private long discount;
+        private int order;
+
+        private void reset() {
+            promotion = null;
+            discount = 0;
+            order = Integer.MAX_VALUE;
+        }
+
+        /**
+         * Keeps the largest discount, preferring earlier rules on ties.
+         *
+         * @param candidates rules to evaluate, or null
+         * @param unitPrice  unit price in minor units
+         * @param quantity   units in the line
+         */
+        private void consider(RuleIndex.Rule[] candidates, long unitPrice, int quantity) {
+            if (candidates == null) {
+                return;
+            }
+            for (RuleIndex.Rule rule : candidates) {
+                long amount = rule.promotion.discount(unitPrice, quantity);
+                if (amount > discount || (amount == discount && amount > 0 && rule.order < order)) {
+                    promotion = rule.promotion;
+                    discount = amount;
+                    order = rule.order;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.apexretail.pricing;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Promotion rule applied by {@link PricingEngine}.
+ *
+ * <p>
+ * Promotions are built with the static factories. Each targets either one
+ * product or a category, in which case it applies to every product in the
+ * category or any of its descendants. A promotion computes the discount on
+ * one basket line in minor units (see {@link Product#getPriceInMinorUnits()}).
+ * Promotions are immutable and may be shared between rule sets.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * Promotion dairyWeek = Promotion.percentOff("Dairy week", dairy, 10);
+ * Promotion milkDeal = Promotion.buyXGetY("Milk 2+1", milk, 2, 1);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public abstract class Promotion {
+
+    /** Percentage points in a whole. */
+    private static final int PERCENT = 100;
+
+    private final String name;
+
+    /** Targeted product ID, or -1 if the promotion targets a category. */
+    private final long productId;
+
+    /** Targeted category, or null if the promotion targets a product. */
+    private final Category category;
+
+    /** Only the factories in this class create promotions. */
+    private Promotion(String name, Product product, Category category) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Promotion name cannot be null, empty, or blank.");
+        }
+        if (product == null && category == null) {
+            throw new IllegalArgumentException("Promotion target must not be NULL.");
+        }
+        this.name = name;
+        this.productId = (product != null) ? product.getId() : -1;
+        this.category = category;
+    }
+
+    /**
+     * Computes the discount on one basket line.
+     *
+     * @param unitPrice unit price in minor units
+     * @param quantity  units in the line (always > 0)
+     * @return discount in minor units, never more than the line total
+     */
+    abstract long discount(long unitPrice, int quantity);
+
+    /**
+     * Discounts a product by a percentage of its line total.
+     *
+     * @param name    promotion name (cannot be null or blank)
+     * @param product product to discount (must not be null)
+     * @param percent percentage off (must be between 1 and 100)
+     * @return promotion
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public static Promotion percentOff(String name, Product product, int percent) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product must not be NULL.");
+        }
+        return new PercentOff(name, product, null, percent);
+    }
+
+    /**
+     * Discounts every product in a category or its descendants by a
+     * percentage of the line total.
+     *
+     * @param name     promotion name (cannot be null or blank)
+     * @param category category to discount (must not be null)
+     * @param percent  percentage off (must be between 1 and 100)
+     * @return promotion
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public static Promotion percentOff(String name, Category category, int percent) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category must not be NULL.");
+        }
+        return new PercentOff(name, null, category, percent);
+    }
+
+    /**
+     * Gives {@code free} units of a product free for every {@code buy}
+     * units bought.
+     *
+     * @param name    promotion name (cannot be null or blank)
+     * @param product product on offer (must not be null)
+     * @param buy     units paid for in each group (must be > 0)
+     * @param free    units free in each group (must be > 0)
+     * @return promotion
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public static Promotion buyXGetY(String name, Product product, int buy, int free) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product must not be NULL.");
+        }
+        return new BuyXGetY(name, product, null, buy, free);
+    }
+
+    /**
+     * Gives {@code free} units free for every {@code buy} units bought of
+     * any one product in a category or its descendants. Units of different
+     * products are not combined.
+     *
+     * @param name     promotion name (cannot be null or blank)
+     * @param category category on offer (must not be null)
+     * @param buy      units paid for in each group (must be > 0)
+     * @param free     units free in each group (must be > 0)
+     * @return promotion
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public static Promotion buyXGetY(String name, Category category, int buy, int free) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category must not be NULL.");
+        }
+        return new BuyXGetY(name, null, category, buy, free);
+    }
+
+    /**
+     * Returns the promotion name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the ID of the targeted product.
+     *
+     * @return product ID, or -1 if the promotion targets a category
+     */
+    long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Returns the targeted category.
+     *
+     * @return category, or null if the promotion targets a product
+     */
+    Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Returns string representation of the promotion.
+     *
+     * @return formatted string containing the name and target
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "name='" + name + '\'' +
+                (category != null ? ", categoryId=" + category.getId() : ", productId=" + productId) +
+                '}';
+    }
+
+    /**
+     * Percentage off the line total, rounded half-up to the minor unit.
+     */
+    private static final class PercentOff extends Promotion {
+        private final int percent;
+
+        private PercentOff(String name, Product product, Category category, int percent) {
+            super(name, product, category);
+            if (percent <= 0 || percent > PERCENT) {
+                throw new IllegalArgumentException("Percentage must be between 1 and 100.");
+            }
+            this.percent = percent;
+        }
+
+        @Override
+        long discount(long unitPrice, int quantity) {
+            return (unitPrice * quantity * percent + PERCENT / 2) / PERCENT;
+        }
+    }
+
+    /**
+     * Free units for every group of units bought.
+     */
+    private static final class BuyXGetY extends Promotion {
+        private final int buy;
+        private final int free;
+
+        private BuyXGetY(String name, Product product, Category category, int buy, int free) {
+            super(name, product, category);
+            if (buy <= 0 || free <= 0) {
+                throw new IllegalArgumentException("Units bought and free must be greater than 0.");
+            }
+            this.buy = buy;
+            this.free = free;
+        }
+
+        @Override
+        long discount(long unitPrice, int quantity) {
+            return quantity / ((long) buy + free) * free * unitPrice;
+        }
+    }
+}
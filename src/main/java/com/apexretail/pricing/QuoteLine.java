@@ -0,0 +1,107 @@
+package com.apexretail.pricing;
+
+import java.math.BigDecimal;
+
+import com.apexretail.domain.Product;
+
+/**
+ * One priced line of a {@link PriceQuote}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class QuoteLine {
+
+    private final Product product;
+    private final int quantity;
+    private final long unitPrice;
+    private final long discount;
+    private final Promotion promotion;
+
+    /**
+     * Creates a priced line.
+     *
+     * @param product   product
+     * @param quantity  units
+     * @param unitPrice unit price in minor units
+     * @param discount  discount in minor units
+     * @param promotion promotion applied, or null
+     */
+    QuoteLine(Product product, int quantity, long unitPrice, long discount, Promotion promotion) {
+        this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.discount = discount;
+        this.promotion = promotion;
+    }
+
+    /**
+     * Returns the product.
+     *
+     * @return product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the number of units.
+     *
+     * @return quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Returns the unit price captured when the product was added.
+     *
+     * @return unit price
+     */
+    public BigDecimal getUnitPrice() {
+        return BigDecimal.valueOf(unitPrice, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the discount on the line.
+     *
+     * @return discount (zero if no promotion applies)
+     */
+    public BigDecimal getDiscount() {
+        return BigDecimal.valueOf(discount, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the line total after the discount.
+     *
+     * @return amount to pay
+     */
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(unitPrice * quantity - discount, Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the promotion applied to the line.
+     *
+     * @return promotion, or null if none applies
+     */
+    public Promotion getPromotion() {
+        return promotion;
+    }
+
+    /**
+     * Returns string representation of the line.
+     *
+     * @return formatted string containing product ID, quantity and amounts
+     */
+    @Override
+    public String toString() {
+        return "QuoteLine{" +
+                "productId=" + product.getId() +
+                ", quantity=" + quantity +
+                ", unitPrice=" + getUnitPrice() +
+                ", discount=" + getDiscount() +
+                ", promotion=" + (promotion != null ? promotion.getName() : null) +
+                '}';
+    }
+}
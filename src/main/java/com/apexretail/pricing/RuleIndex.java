@@ -0,0 +1,145 @@
+package com.apexretail.pricing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable rule set compiled for lookup by product and category ID.
+ *
+ * <p>
+ * Promotions are grouped by the product or category they target into
+ * arrays held in open-addressing tables keyed by primitive IDs, so pricing
+ * a line reads only the rules that target its product, its category or one
+ * of the category's ancestors. Each rule keeps its position in the
+ * original list, which breaks ties between equal discounts.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class RuleIndex {
+
+    /** Index with no rules. */
+    static final RuleIndex EMPTY = new RuleIndex(Collections.emptyList());
+
+    private final List<Promotion> promotions;
+    private final LongTable byProduct;
+    private final LongTable byCategory;
+
+    /**
+     * Compiles a rule set.
+     *
+     * @param promotions promotions in priority order (not null, no nulls)
+     */
+    RuleIndex(List<Promotion> promotions) {
+        this.promotions = Collections.unmodifiableList(new ArrayList<>(promotions));
+        Map<Long, List<Integer>> productRules = new LinkedHashMap<>();
+        Map<Long, List<Integer>> categoryRules = new LinkedHashMap<>();
+        for (int i = 0; i < promotions.size(); i++) {
+            Promotion promotion = promotions.get(i);
+            Map<Long, List<Integer>> target = (promotion.getCategory() != null) ? categoryRules : productRules;
+            long key = (promotion.getCategory() != null) ? promotion.getCategory().getId() : promotion.getProductId();
+            target.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+        this.byProduct = new LongTable(productRules, this.promotions);
+        this.byCategory = new LongTable(categoryRules, this.promotions);
+    }
+
+    /**
+     * Returns the promotions in priority order.
+     *
+     * @return read-only list
+     */
+    List<Promotion> promotions() {
+        return promotions;
+    }
+
+    /**
+     * Returns the rules targeting a product.
+     *
+     * @param productId product ID
+     * @return rules, or null if none
+     */
+    Rule[] forProduct(long productId) {
+        return byProduct.get(productId);
+    }
+
+    /**
+     * Returns the rules targeting exactly a category, not its ancestors.
+     *
+     * @param categoryId category ID
+     * @return rules, or null if none
+     */
+    Rule[] forCategory(long categoryId) {
+        return byCategory.get(categoryId);
+    }
+
+    /**
+     * Checks whether any rule targets a category.
+     *
+     * @return true if category lookups can match
+     */
+    boolean hasCategoryRules() {
+        return byCategory.size > 0;
+    }
+
+    /**
+     * A promotion and its position in the rule set.
+     */
+    static final class Rule {
+        final Promotion promotion;
+        final int order;
+
+        private Rule(Promotion promotion, int order) {
+            this.promotion = promotion;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Open-addressing map from a primitive ID to rules.
+     */
+    private static final class LongTable {
+        private final long[] keys;
+        private final Rule[][] values;
+        private final int mask;
+        private final int size;
+
+        private LongTable(Map<Long, List<Integer>> rules, List<Promotion> promotions) {
+            int capacity = Integer.highestOneBit(Math.max(1, rules.size()) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.values = new Rule[capacity][];
+            this.mask = capacity - 1;
+            this.size = rules.size();
+            for (Map.Entry<Long, List<Integer>> entry : rules.entrySet()) {
+                List<Integer> orders = entry.getValue();
+                Rule[] compiled = new Rule[orders.size()];
+                for (int i = 0; i < compiled.length; i++) {
+                    compiled[i] = new Rule(promotions.get(orders.get(i)), orders.get(i));
+                }
+                int slot = slot(entry.getKey());
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                values[slot] = compiled;
+            }
+        }
+
+        private Rule[] get(long key) {
+            for (int slot = slot(key);; slot = (slot + 1) & mask) {
+                Rule[] value = values[slot];
+                if (value == null || keys[slot] == key) {
+                    return value;
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
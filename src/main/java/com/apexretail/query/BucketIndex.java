@@ -0,0 +1,181 @@
+package com.apexretail.query;
+
+import java.util.Arrays;
+
+/**
+ * Range-bucketed bitmaps over one numeric product attribute.
+ *
+ * <p>
+ * Bucket {@code i} holds the products whose value lies in
+ * [bounds[i - 1], bounds[i]), with the first and last buckets open-ended.
+ * The buckets are range-encoded: for each bound the index keeps one bitmap
+ * of the products whose value is below it. Any run of whole buckets is then
+ * at most one AND NOT of two existing bitmaps, and a "below X" predicate
+ * aligned on a bound is a single bitmap, instead of a union over every
+ * bucket in the range. The one or two buckets cut by a predicate's bounds
+ * are returned as the maybe set, so only products near a bound are ever
+ * checked individually.
+ *
+ * <p>
+ * A change of value moves a product across the cumulative bitmaps between
+ * its old and new bucket, so an update costs one bitmap write per bound
+ * crossed.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class BucketIndex {
+
+    /** Strictly increasing bucket bounds. */
+    private final long[] bounds;
+
+    /** below[i] holds the products whose value is less than bounds[i]. */
+    private final CompressedBitmap[] below;
+
+    /** Every indexed product; shared with the engine. */
+    private final CompressedBitmap all;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param bounds strictly increasing bucket bounds
+     * @param all    bitmap of every indexed product, maintained by the caller
+     */
+    BucketIndex(long[] bounds, CompressedBitmap all) {
+        this.bounds = bounds.clone();
+        this.all = all;
+        this.below = new CompressedBitmap[bounds.length];
+        for (int i = 0; i < below.length; i++) {
+            below[i] = new CompressedBitmap();
+        }
+    }
+
+    /**
+     * Adds a product with the given value.
+     *
+     * @param ordinal product ordinal
+     * @param value   attribute value
+     */
+    void add(int ordinal, long value) {
+        for (int i = bucketOf(value); i < below.length; i++) {
+            below[i].add(ordinal);
+        }
+    }
+
+    /**
+     * Moves a product whose value changed, if its bucket changed.
+     *
+     * @param ordinal  product ordinal
+     * @param oldValue previous value
+     * @param newValue current value
+     */
+    void move(int ordinal, long oldValue, long newValue) {
+        int from = bucketOf(oldValue);
+        int to = bucketOf(newValue);
+        for (int i = to; i < from; i++) {
+            below[i].add(ordinal);
+        }
+        for (int i = from; i < to; i++) {
+            below[i].remove(ordinal);
+        }
+    }
+
+    /**
+     * Checks whether two values fall in the same bucket. Needs no lock
+     * because the bounds never change.
+     *
+     * @param first  first value
+     * @param second second value
+     * @return true if a move between them would change no bitmap
+     */
+    boolean sameBucket(long first, long second) {
+        return bucketOf(first) == bucketOf(second);
+    }
+
+    /**
+     * Returns the products within a scope whose value lies in [min, max).
+     *
+     * @param min   lower bound (inclusive), Long.MIN_VALUE for none
+     * @param max   upper bound (exclusive), Long.MAX_VALUE for none
+     * @param scope products to consider, or null for all
+     * @return whole buckets inside the range as sure, cut buckets as maybe
+     */
+    Match range(long min, long max, CompressedBitmap scope) {
+        if (min >= max) {
+            return new Match(Match.EMPTY, Match.EMPTY);
+        }
+        int first = bucketOf(min);
+        int last = bucketOf(max - 1);
+        boolean firstInside = (first == 0) ? min == Long.MIN_VALUE : bounds[first - 1] >= min;
+        boolean lastInside = (last == bounds.length) ? max == Long.MAX_VALUE : bounds[last] <= max;
+
+        int sureFirst = firstInside ? first : first + 1;
+        int sureLast = lastInside ? last : last - 1;
+        CompressedBitmap sure = buckets(sureFirst, sureLast, scope);
+        CompressedBitmap maybe = Match.EMPTY;
+        if (!firstInside) {
+            maybe = buckets(first, first, scope);
+        }
+        if (!lastInside && (last != first || firstInside)) {
+            CompressedBitmap cut = buckets(last, last, scope);
+            maybe = maybe.isEmpty() ? cut : maybe.or(cut);
+        }
+        return new Match(sure, maybe);
+    }
+
+    /**
+     * Returns an upper bound on the number of products in [min, max).
+     *
+     * @param min lower bound (inclusive)
+     * @param max upper bound (exclusive)
+     * @return number of products in the buckets the range touches
+     */
+    int estimate(long min, long max) {
+        if (min >= max) {
+            return 0;
+        }
+        return lessThanBucket(bucketOf(max - 1) + 1).cardinality() - lessThanBucket(bucketOf(min)).cardinality();
+    }
+
+    /**
+     * Returns the products within a scope in a run of whole buckets.
+     *
+     * @param from  first bucket
+     * @param to    last bucket (inclusive)
+     * @param scope products to consider, or null for all
+     * @return products in buckets from..to
+     */
+    private CompressedBitmap buckets(int from, int to, CompressedBitmap scope) {
+        if (from > to) {
+            return Match.EMPTY;
+        }
+        CompressedBitmap upper = lessThanBucket(to + 1);
+        CompressedBitmap lower = lessThanBucket(from);
+        CompressedBitmap result = (scope == null) ? upper : scope.and(upper);
+        return lower.isEmpty() ? result : result.andNot(lower);
+    }
+
+    /**
+     * Returns the products in buckets before the given one.
+     *
+     * @param bucket bucket index (0 to bounds.length + 1)
+     * @return cumulative bitmap
+     */
+    private CompressedBitmap lessThanBucket(int bucket) {
+        if (bucket == 0) {
+            return Match.EMPTY;
+        }
+        return (bucket > bounds.length) ? all : below[bucket - 1];
+    }
+
+    /**
+     * Returns the bucket holding a value.
+     *
+     * @param value attribute value
+     * @return bucket index
+     */
+    private int bucketOf(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+}
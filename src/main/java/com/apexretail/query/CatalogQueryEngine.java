@@ -0,0 +1,343 @@
+package com.apexretail.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.CatalogListener;
+import com.apexretail.service.InventoryListener;
+
+/**
+ * Answers compound merchandising filters from compressed bitmap indexes.
+ *
+ * <p>
+ * Every product gets a dense ordinal, and the engine keeps a
+ * {@link CompressedBitmap} of ordinals for:
+ * <ul>
+ * <li>each category, including the products of its descendants</li>
+ * <li>products in stock</li>
+ * <li>each price bucket and each stock-quantity bucket</li>
+ * </ul>
+ * A {@link Filter} is evaluated as AND, OR and AND NOT over these bitmaps;
+ * products are read individually only where a price or quantity bound cuts
+ * through a bucket, and only those left after every other predicate. Counts
+ * never touch products that matched from the bitmaps alone.
+ *
+ * <p>
+ * Registered as an {@link InventoryListener}, the engine moves a product
+ * between quantity buckets and in or out of the in-stock bitmap on every
+ * stock change. Registered as a {@link CatalogListener}, it indexes new
+ * products as they are added. Queries share a read lock; updates take the
+ * write lock briefly. Most sales and restocks leave a product in the same
+ * quantity bucket and in-stock state, and those take no lock at all, so
+ * the index only serializes the stock changes that actually move bits.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * CatalogQueryEngine engine = new CatalogQueryEngine();
+ * catalog.addListener(engine);
+ * inventory.addListener(engine);
+ * List<Product> reorder = engine.find(Filter.and(Filter.category(dairy), Filter.inStock(),
+ *         Filter.priceBelow(new BigDecimal("3.00")), Filter.quantityBelow(20)), 50);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CatalogQueryEngine implements InventoryListener, CatalogListener {
+
+    /** Default price bucket bounds in minor units. */
+    private static final long[] DEFAULT_PRICE_BOUNDS = { 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000,
+            50_000, 100_000 };
+
+    /** Default stock quantity bucket bounds. */
+    private static final long[] DEFAULT_QUANTITY_BOUNDS = { 1, 5, 10, 20, 50, 100, 200, 500, 1_000 };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ordinal of each indexed product, keyed by product ID. Concurrent so
+     * stock changes can look up ordinals without the lock.
+     */
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+
+    /** Indexed products by ordinal. */
+    private Product[] products = new Product[1024];
+
+    private int productCount;
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final CompressedBitmap inStock = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> categories = new HashMap<>();
+    private final BucketIndex prices;
+    private final BucketIndex quantities;
+
+    /**
+     * Creates an engine with default price and quantity buckets.
+     */
+    public CatalogQueryEngine() {
+        this(DEFAULT_PRICE_BOUNDS, DEFAULT_QUANTITY_BOUNDS);
+    }
+
+    /**
+     * Creates an engine with custom buckets. Choosing bounds near the
+     * thresholds used in queries, such as reorder points, lets more
+     * predicates be answered from bitmaps alone.
+     *
+     * @param priceBounds    strictly increasing price bucket bounds in minor
+     *                       units (must not be null)
+     * @param quantityBounds strictly increasing quantity bucket bounds (must
+     *                       not be null)
+     * @throws IllegalArgumentException if bounds are null or not strictly
+     *                                  increasing
+     */
+    public CatalogQueryEngine(long[] priceBounds, long[] quantityBounds) {
+        validateBounds(priceBounds);
+        validateBounds(quantityBounds);
+        this.prices = new BucketIndex(priceBounds, all);
+        this.quantities = new BucketIndex(quantityBounds, all);
+    }
+
+    /**
+     * Indexes a product.
+     *
+     * @param prod product to index (must not be null)
+     * @throws IllegalArgumentException if product is null or already indexed
+     */
+    public void addProduct(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        // Same lock order as stock changes: product monitor, then write lock
+        synchronized (prod) {
+            lock.writeLock().lock();
+            try {
+                index(prod);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Indexes a product added to the catalog.
+     *
+     * @param prod product added
+     */
+    @Override
+    public void productAdded(Product prod) {
+        addProduct(prod);
+    }
+
+    /**
+     * Moves a product between quantity buckets and the in-stock bitmap.
+     * Products that are not indexed are ignored, and changes that stay
+     * within the product's quantity bucket and in-stock state return
+     * without taking the lock.
+     *
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    @Override
+    public void stockChanged(Product prod, int delta) {
+        // Called under the product's monitor, so the product cannot be
+        // indexed or changed concurrently
+        Integer ordinal = ordinals.get(prod.getId());
+        if (ordinal == null) {
+            return;
+        }
+        int quantity = prod.getQuantityInStock();
+        int previous = quantity - delta;
+        if ((previous > 0) == (quantity > 0) && quantities.sameBucket(previous, quantity)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            quantities.move(ordinal, previous, quantity);
+            if (previous > 0 && quantity <= 0) {
+                inStock.remove(ordinal);
+            } else if (previous <= 0 && quantity > 0) {
+                inStock.add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the products matching a filter, in the order they were
+     * indexed.
+     *
+     * @param filter filter to apply (must not be null)
+     * @param limit  maximum number of products returned (must be > 0)
+     * @return matching products
+     * @throws IllegalArgumentException if filter is null or limit is not
+     *                                  positive
+     */
+    public List<Product> find(Filter filter, int limit) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter must not be NULL.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0.");
+        }
+        List<Product> results = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            Match match = filter.evaluate(this, null);
+            match.candidates().forEach(ordinal -> {
+                Product prod = products[ordinal];
+                if (!match.maybe.contains(ordinal) || filter.test(prod)) {
+                    results.add(prod);
+                }
+                return results.size() < limit;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Counts the products matching a filter.
+     *
+     * @param filter filter to apply (must not be null)
+     * @return number of matching products
+     * @throws IllegalArgumentException if filter is null
+     */
+    public int count(Filter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter must not be NULL.");
+        }
+        lock.readLock().lock();
+        try {
+            Match match = filter.evaluate(this, null);
+            int[] count = { match.sure.cardinality() };
+            match.maybe.forEach(ordinal -> {
+                if (filter.test(products[ordinal])) {
+                    count[0]++;
+                }
+                return true;
+            });
+            return count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return product count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return productCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns all indexed products. Caller holds the read lock.
+     *
+     * @return bitmap of every ordinal
+     */
+    CompressedBitmap allBitmap() {
+        return all;
+    }
+
+    /**
+     * Returns the products in stock. Caller holds the read lock.
+     *
+     * @return in-stock bitmap
+     */
+    CompressedBitmap inStockBitmap() {
+        return inStock;
+    }
+
+    /**
+     * Returns the products in a category or its descendants. Caller holds
+     * the read lock.
+     *
+     * @param categoryId category ID
+     * @return category bitmap, empty if no product is in the category
+     */
+    CompressedBitmap categoryBitmap(long categoryId) {
+        CompressedBitmap bitmap = categories.get(categoryId);
+        return (bitmap == null) ? Match.EMPTY : bitmap;
+    }
+
+    /**
+     * Returns the price buckets. Caller holds the read lock.
+     *
+     * @return price index
+     */
+    BucketIndex priceIndex() {
+        return prices;
+    }
+
+    /**
+     * Returns the quantity buckets. Caller holds the read lock.
+     *
+     * @return quantity index
+     */
+    BucketIndex quantityIndex() {
+        return quantities;
+    }
+
+    /**
+     * Assigns a product an ordinal and adds it to every bitmap. Caller holds
+     * the product's monitor and the write lock.
+     *
+     * @param prod product to index
+     * @throws IllegalArgumentException if the product is already indexed
+     */
+    private void index(Product prod) {
+        if (ordinals.containsKey(prod.getId())) {
+            throw new IllegalArgumentException("Product id " + prod.getId() + " is already indexed.");
+        }
+        int ordinal = productCount++;
+        if (ordinal == products.length) {
+            products = Arrays.copyOf(products, ordinal * 2);
+        }
+        products[ordinal] = prod;
+        ordinals.put(prod.getId(), ordinal);
+
+        all.add(ordinal);
+        for (Category category = prod.getCategory(); category != null; category = category.getParent()) {
+            categories.computeIfAbsent(category.getId(), id -> new CompressedBitmap()).add(ordinal);
+        }
+        prices.add(ordinal, prod.getPriceInMinorUnits());
+        quantities.add(ordinal, prod.getQuantityInStock());
+        if (prod.isInStock()) {
+            inStock.add(ordinal);
+        }
+    }
+
+    /**
+     * Validates bucket bounds.
+     *
+     * @param bounds bounds to validate
+     * @throws IllegalArgumentException if null or not strictly increasing
+     */
+    private static void validateBounds(long[] bounds) {
+        if (bounds == null) {
+            throw new IllegalArgumentException("Bucket bounds must not be NULL.");
+        }
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be strictly increasing.");
+            }
+        }
+    }
+}
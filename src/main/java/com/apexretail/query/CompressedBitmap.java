@@ -0,0 +1,577 @@
+package com.apexretail.query;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed set of non-negative ints in the style of a roaring bitmap.
+ *
+ * <p>
+ * Values are split into 65,536-value chunks keyed by their high 16 bits.
+ * Each chunk is stored in the cheaper of two containers: a sorted array of
+ * the low 16 bits while it holds at most 4,096 values, or a 1,024-word
+ * bitset once it is denser. A bitset shrinks back to an array only when
+ * removals take it down to 3,072 values, so a chunk hovering around the
+ * limit does not convert back and forth. Sparse sets therefore cost about two bytes per
+ * value and dense sets one bit per value, and AND, OR and AND NOT work
+ * chunk by chunk with merge or word-wise loops instead of per-value
+ * lookups.
+ *
+ * <p>
+ * Binary operations return new bitmaps and never modify their operands.
+ * This class is not thread-safe.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class CompressedBitmap {
+
+    /** Largest number of values kept in an array container. */
+    private static final int ARRAY_MAX = 4096;
+
+    /**
+     * Cardinality at or below which a bitset container shrinks back to an
+     * array when values are removed. Lower than {@link #ARRAY_MAX} so a
+     * chunk hovering around the limit does not convert on every change.
+     */
+    private static final int BITMAP_MIN = ARRAY_MAX - 1024;
+
+    /** Number of 64-bit words in a bitset container. */
+    private static final int WORDS = 1024;
+
+    /**
+     * Size ratio above which two arrays are intersected by binary search of
+     * the smaller into the larger instead of a linear merge.
+     */
+    private static final int GALLOP_RATIO = 16;
+
+    /** High 16 bits of each chunk, in increasing order. */
+    private char[] keys = new char[4];
+
+    /** Container of each chunk, parallel to keys. */
+    private Container[] containers = new Container[4];
+
+    /** Number of chunks. */
+    private int size;
+
+    /**
+     * Adds a value.
+     *
+     * @param value value to add (must be ≥ 0)
+     */
+    void add(int value) {
+        char high = (char) (value >>> 16);
+        int index = find(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new ArrayContainer());
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    /**
+     * Removes a value if present.
+     *
+     * @param value value to remove
+     */
+    void remove(int value) {
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    /**
+     * Checks whether a value is present.
+     *
+     * @param value value to look up
+     * @return true if the bitmap contains the value
+     */
+    boolean contains(int value) {
+        int index = find((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return cardinality
+     */
+    int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the bitmap has no values.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the values present in both bitmaps.
+     *
+     * @param other bitmap to intersect with
+     * @return new bitmap
+     */
+    CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendNonEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values present in either bitmap.
+     *
+     * @param other bitmap to unite with
+     * @return new bitmap
+     */
+    CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendNonEmpty(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.appendNonEmpty(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendNonEmpty(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values of this bitmap that are not in the other.
+     *
+     * @param other bitmap to subtract
+     * @return new bitmap
+     */
+    CompressedBitmap andNot(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendNonEmpty(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.appendNonEmpty(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits the values in increasing order until the visitor returns false.
+     *
+     * @param visitor receiver of each value
+     * @return false if the visitor stopped the iteration
+     */
+    boolean forEach(IntPredicate visitor) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEach(keys[i] << 16, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds a chunk by binary search.
+     *
+     * @param high high 16 bits
+     * @return index, or (-(insertion point) - 1) if absent
+     */
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    /**
+     * Inserts a chunk at an index.
+     *
+     * @param index     position
+     * @param high      high 16 bits
+     * @param container container of the chunk
+     */
+    private void insertChunk(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Appends a chunk with a key greater than all present, unless empty.
+     *
+     * @param high      high 16 bits
+     * @param container container of the chunk
+     */
+    private void appendNonEmpty(char high, Container container) {
+        if (container.cardinality() > 0) {
+            insertChunk(size, high, container);
+        }
+    }
+
+    /**
+     * Set of 16-bit values. Mutators may return a different container when
+     * the representation changes.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        abstract boolean forEach(int high, IntPredicate visitor);
+    }
+
+    /**
+     * Sorted array of up to {@link #ARRAY_MAX} values.
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer && ((ArrayContainer) other).cardinality > cardinality * GALLOP_RATIO) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < cardinality; i++) {
+                    if (Arrays.binarySearch(that.values, 0, that.cardinality, values[i]) >= 0) {
+                        out[count++] = values[i];
+                    }
+                }
+            } else if (other instanceof ArrayContainer && cardinality > other.cardinality() * GALLOP_RATIO) {
+                return other.and(this);
+            } else if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                // Advance without data-dependent branches so the merge does not
+                // stall on mispredictions
+                while (i < cardinality && j < that.cardinality) {
+                    char a = values[i];
+                    char b = that.values[j];
+                    out[count] = a;
+                    count += (a == b) ? 1 : 0;
+                    i += (a <= b) ? 1 : 0;
+                    j += (a >= b) ? 1 : 0;
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        out[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(out, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer)) {
+                return other.or(this);
+            }
+            ArrayContainer that = (ArrayContainer) other;
+            char[] out = new char[cardinality + that.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < that.cardinality) {
+                if (j >= that.cardinality || (i < cardinality && values[i] < that.values[j])) {
+                    out[count++] = values[i++];
+                } else if (i >= cardinality || values[i] > that.values[j]) {
+                    out[count++] = that.values[j++];
+                } else {
+                    out[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer union = new ArrayContainer(out, count);
+            return (count > ARRAY_MAX) ? union.toBitmap() : union;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] out = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    out[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        boolean forEach(int high, IntPredicate visitor) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!visitor.test(high | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[WORDS], 0);
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Bitset over all 65,536 values of a chunk.
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0) {
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            return (cardinality <= BITMAP_MIN) ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            long[] out = new long[WORDS];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] = words[w] & that[w];
+                count += Long.bitCount(out[w]);
+            }
+            return shrink(out, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] out = words.clone();
+            int count = cardinality;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.cardinality; i++) {
+                    char value = that.values[i];
+                    long mask = 1L << value;
+                    if ((out[value >>> 6] & mask) == 0) {
+                        out[value >>> 6] |= mask;
+                        count++;
+                    }
+                }
+                return new BitmapContainer(out, count);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] |= that[w];
+                count += Long.bitCount(out[w]);
+            }
+            return new BitmapContainer(out, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            int count = cardinality;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                for (int i = 0; i < that.cardinality; i++) {
+                    char value = that.values[i];
+                    long mask = 1L << value;
+                    if ((out[value >>> 6] & mask) != 0) {
+                        out[value >>> 6] &= ~mask;
+                        count--;
+                    }
+                }
+                return shrink(out, count);
+            }
+            long[] that = ((BitmapContainer) other).words;
+            count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] &= ~that[w];
+                count += Long.bitCount(out[w]);
+            }
+            return shrink(out, count);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        boolean forEach(int high, IntPredicate visitor) {
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (!visitor.test(high | (w << 6) | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        private ArrayContainer toArray() {
+            return toArray(words, cardinality);
+        }
+
+        private static Container shrink(long[] words, int count) {
+            return (count <= ARRAY_MAX) ? toArray(words, count) : new BitmapContainer(words, count);
+        }
+
+        private static ArrayContainer toArray(long[] words, int count) {
+            char[] values = new char[Math.max(count, 1)];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.apexretail.query;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Predicate over products evaluated by {@link CatalogQueryEngine}.
+ *
+ * <p>
+ * Filters are built with the static factories and combined with
+ * {@link #and(Filter...)}, {@link #or(Filter...)} and {@link #not(Filter)}.
+ * The engine evaluates a filter tree as bitwise operations on its indexes
+ * and checks individual products only where a range bound cuts through a
+ * bucket, after all other predicates have narrowed the candidates. Prices
+ * are compared in minor units (see {@link Product#getPriceInMinorUnits()}).
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * Filter lowDairy = Filter.and(Filter.category(dairy), Filter.inStock(),
+ *         Filter.priceBelow(new BigDecimal("3.00")), Filter.quantityBelow(20));
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public abstract class Filter {
+
+    /** Only the factories in this class create filters. */
+    private Filter() {
+    }
+
+    /**
+     * Evaluates the filter against the engine's indexes.
+     *
+     * @param engine engine whose read lock is held
+     * @param scope  products still in contention, or null for all; results
+     *               are restricted to this set
+     * @return sure and maybe sets
+     */
+    abstract Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope);
+
+    /**
+     * Estimates how many products the filter can match, used to evaluate
+     * the most selective predicates of an AND first.
+     *
+     * @param engine engine whose read lock is held
+     * @return upper bound on the number of matches
+     */
+    abstract int estimate(CatalogQueryEngine engine);
+
+    /**
+     * Checks the filter against a single product.
+     *
+     * @param prod product to check
+     * @return true if the product matches
+     */
+    abstract boolean test(Product prod);
+
+    /**
+     * Matches products in a category or any of its descendants.
+     *
+     * @param category category (must not be null)
+     * @return filter
+     * @throws IllegalArgumentException if category is null
+     */
+    public static Filter category(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category must not be NULL.");
+        }
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                return new Match(restrict(engine.categoryBitmap(category.getId()), scope), Match.EMPTY);
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                return engine.categoryBitmap(category.getId()).cardinality();
+            }
+
+            @Override
+            boolean test(Product prod) {
+                return prod.getCategory().isWithin(category);
+            }
+        };
+    }
+
+    /**
+     * Matches products with at least one unit in stock.
+     *
+     * @return filter
+     */
+    public static Filter inStock() {
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                return new Match(restrict(engine.inStockBitmap(), scope), Match.EMPTY);
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                return engine.inStockBitmap().cardinality();
+            }
+
+            @Override
+            boolean test(Product prod) {
+                return prod.isInStock();
+            }
+        };
+    }
+
+    /**
+     * Matches products with no units in stock.
+     *
+     * @return filter
+     */
+    public static Filter outOfStock() {
+        return not(inStock());
+    }
+
+    /**
+     * Matches products priced below a bound.
+     *
+     * @param max upper bound (exclusive, must not be null)
+     * @return filter
+     * @throws IllegalArgumentException if max is null
+     */
+    public static Filter priceBelow(BigDecimal max) {
+        return priceRange(Long.MIN_VALUE, toMinorUnits(max));
+    }
+
+    /**
+     * Matches products priced within a range.
+     *
+     * @param min lower bound (inclusive, must not be null)
+     * @param max upper bound (exclusive, must not be null)
+     * @return filter
+     * @throws IllegalArgumentException if a bound is null
+     */
+    public static Filter priceBetween(BigDecimal min, BigDecimal max) {
+        return priceRange(toMinorUnits(min), toMinorUnits(max));
+    }
+
+    /**
+     * Matches products with fewer units in stock than a bound, such as a
+     * reorder point.
+     *
+     * @param max upper bound (exclusive)
+     * @return filter
+     */
+    public static Filter quantityBelow(int max) {
+        return quantityRange(Long.MIN_VALUE, max);
+    }
+
+    /**
+     * Matches products whose stock lies within a range.
+     *
+     * @param min lower bound (inclusive)
+     * @param max upper bound (exclusive)
+     * @return filter
+     */
+    public static Filter quantityBetween(int min, int max) {
+        return quantityRange(min, max);
+    }
+
+    /**
+     * Matches products that match every filter.
+     *
+     * @param filters filters to combine (at least one, none null)
+     * @return filter
+     * @throws IllegalArgumentException if no filter is given or one is null
+     */
+    public static Filter and(Filter... filters) {
+        Filter[] parts = validate(filters);
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                Filter[] ordered = parts.clone();
+                int[] estimates = new int[ordered.length];
+                for (int i = 0; i < ordered.length; i++) {
+                    estimates[i] = ordered[i].estimate(engine);
+                }
+                sortByEstimate(ordered, estimates);
+
+                // Each predicate only considers the products left by the more
+                // selective ones before it
+                Match first = ordered[0].evaluate(engine, scope);
+                CompressedBitmap sure = first.sure;
+                CompressedBitmap candidates = first.candidates();
+                for (int i = 1; i < ordered.length && !candidates.isEmpty(); i++) {
+                    Match next = ordered[i].evaluate(engine, candidates);
+                    sure = sure.and(next.sure);
+                    candidates = next.candidates();
+                }
+                return new Match(sure, candidates.andNot(sure));
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                int smallest = Integer.MAX_VALUE;
+                for (Filter part : parts) {
+                    smallest = Math.min(smallest, part.estimate(engine));
+                }
+                return smallest;
+            }
+
+            @Override
+            boolean test(Product prod) {
+                for (Filter part : parts) {
+                    if (!part.test(prod)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Matches products that match at least one filter.
+     *
+     * @param filters filters to combine (at least one, none null)
+     * @return filter
+     * @throws IllegalArgumentException if no filter is given or one is null
+     */
+    public static Filter or(Filter... filters) {
+        Filter[] parts = validate(filters);
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                CompressedBitmap sure = Match.EMPTY;
+                CompressedBitmap maybe = Match.EMPTY;
+                for (Filter part : parts) {
+                    Match next = part.evaluate(engine, scope);
+                    sure = sure.or(next.sure);
+                    maybe = maybe.or(next.maybe);
+                }
+                return new Match(sure, maybe.andNot(sure));
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                long total = 0;
+                for (Filter part : parts) {
+                    total += part.estimate(engine);
+                }
+                return (int) Math.min(total, engine.allBitmap().cardinality());
+            }
+
+            @Override
+            boolean test(Product prod) {
+                for (Filter part : parts) {
+                    if (part.test(prod)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Matches products that do not match a filter.
+     *
+     * @param filter filter to negate (must not be null)
+     * @return filter
+     * @throws IllegalArgumentException if filter is null
+     */
+    public static Filter not(Filter filter) {
+        Filter part = validate(new Filter[] { filter })[0];
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                Match inner = part.evaluate(engine, scope);
+                CompressedBitmap universe = (scope == null) ? engine.allBitmap() : scope;
+                return new Match(universe.andNot(inner.candidates()), inner.maybe);
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                return engine.allBitmap().cardinality();
+            }
+
+            @Override
+            boolean test(Product prod) {
+                return !part.test(prod);
+            }
+        };
+    }
+
+    /**
+     * Builds a price filter over minor units.
+     *
+     * @param min lower bound in minor units (inclusive)
+     * @param max upper bound in minor units (exclusive)
+     * @return filter
+     */
+    private static Filter priceRange(long min, long max) {
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                return engine.priceIndex().range(min, max, scope);
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                return engine.priceIndex().estimate(min, max);
+            }
+
+            @Override
+            boolean test(Product prod) {
+                long price = prod.getPriceInMinorUnits();
+                return price >= min && price < max;
+            }
+        };
+    }
+
+    /**
+     * Builds a stock quantity filter.
+     *
+     * @param min lower bound (inclusive)
+     * @param max upper bound (exclusive)
+     * @return filter
+     */
+    private static Filter quantityRange(long min, long max) {
+        return new Filter() {
+            @Override
+            Match evaluate(CatalogQueryEngine engine, CompressedBitmap scope) {
+                return engine.quantityIndex().range(min, max, scope);
+            }
+
+            @Override
+            int estimate(CatalogQueryEngine engine) {
+                return engine.quantityIndex().estimate(min, max);
+            }
+
+            @Override
+            boolean test(Product prod) {
+                int quantity = prod.getQuantityInStock();
+                return quantity >= min && quantity < max;
+            }
+        };
+    }
+
+    /**
+     * Restricts an index bitmap to a scope.
+     *
+     * @param bitmap index bitmap
+     * @param scope  products to keep, or null for all
+     * @return restricted bitmap
+     */
+    private static CompressedBitmap restrict(CompressedBitmap bitmap, CompressedBitmap scope) {
+        return (scope == null) ? bitmap : scope.and(bitmap);
+    }
+
+    /**
+     * Sorts filters by increasing estimate (insertion sort; AND lists are
+     * short).
+     *
+     * @param filters   filters to sort in place
+     * @param estimates estimate of each filter, sorted alongside
+     */
+    private static void sortByEstimate(Filter[] filters, int[] estimates) {
+        for (int i = 1; i < filters.length; i++) {
+            Filter filter = filters[i];
+            int estimate = estimates[i];
+            int j = i - 1;
+            while (j >= 0 && estimates[j] > estimate) {
+                filters[j + 1] = filters[j];
+                estimates[j + 1] = estimates[j];
+                j--;
+            }
+            filters[j + 1] = filter;
+            estimates[j + 1] = estimate;
+        }
+    }
+
+    /**
+     * Converts a price bound to minor units, rounding up so that comparing
+     * minor units gives the same answer as comparing the decimal prices.
+     *
+     * @param price price bound (must not be null)
+     * @return bound in minor units
+     * @throws IllegalArgumentException if price is null
+     */
+    private static long toMinorUnits(BigDecimal price) {
+        if (price == null) {
+            throw new IllegalArgumentException("Price must not be NULL.");
+        }
+        return price.setScale(Product.PRICE_SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Checks a list of filters to combine.
+     *
+     * @param filters filters
+     * @return defensive copy
+     * @throws IllegalArgumentException if empty or containing null
+     */
+    private static Filter[] validate(Filter[] filters) {
+        if (filters == null || filters.length == 0) {
+            throw new IllegalArgumentException("At least one filter is required.");
+        }
+        Filter[] copy = filters.clone();
+        for (Filter filter : copy) {
+            if (filter == null) {
+                throw new IllegalArgumentException("Filter must not be NULL.");
+            }
+        }
+        return copy;
+    }
+}
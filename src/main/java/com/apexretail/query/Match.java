@@ -0,0 +1,45 @@
+package com.apexretail.query;
+
+/**
+ * Bitmap form of a filter's result.
+ *
+ * <p>
+ * Products in {@code sure} are known to match from the indexes alone.
+ * Products in {@code maybe} fall in a range bucket that straddles a
+ * predicate's bound and must be checked against the product itself. The two
+ * sets are disjoint.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class Match {
+
+    /** Shared empty bitmap; never modified. */
+    static final CompressedBitmap EMPTY = new CompressedBitmap();
+
+    /** Products known to match. */
+    final CompressedBitmap sure;
+
+    /** Products that must be checked individually. */
+    final CompressedBitmap maybe;
+
+    /**
+     * Creates a match.
+     *
+     * @param sure  products known to match
+     * @param maybe products to check, disjoint from sure
+     */
+    Match(CompressedBitmap sure, CompressedBitmap maybe) {
+        this.sure = sure;
+        this.maybe = maybe;
+    }
+
+    /**
+     * Returns every product that may match.
+     *
+     * @return union of sure and maybe
+     */
+    CompressedBitmap candidates() {
+        return maybe.isEmpty() ? sure : sure.or(maybe);
+    }
+}
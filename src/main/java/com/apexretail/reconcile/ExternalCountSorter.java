@@ -0,0 +1,469 @@
+package com.apexretail.reconcile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts (product ID, quantity) records that may not fit in memory.
+ *
+ * <p>
+ * Records are buffered in two primitive arrays. When the buffer is full it
+ * is sorted by product ID, records with the same ID are summed, and the
+ * result is written to a spill file as a sorted run of fixed 16-byte
+ * records. {@link #sorted()} merges the runs with a priority queue, summing
+ * equal IDs across runs, and streams the result. If there are more than
+ * {@link #MERGE_FAN_IN} runs, groups of runs are first merged into larger
+ * runs so that the number of open files stays bounded. Memory use is the
+ * buffer plus one stream buffer per open run.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+final class ExternalCountSorter implements AutoCloseable {
+
+    /** Maximum number of runs merged at once. */
+    static final int MERGE_FAN_IN = 64;
+
+    /** Size of one spilled record in bytes. */
+    private static final int RECORD_BYTES = 16;
+
+    /** Stream buffer size per open run. */
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
+    /** Ranges shorter than this are sorted by insertion. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final Path directory;
+    private final long[] ids;
+    private final long[] quantities;
+    private int size;
+    private final List<Path> runs = new ArrayList<>();
+    private long spilledRecords;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param directory directory for spill files
+     * @param capacity  records buffered in memory before a spill
+     */
+    ExternalCountSorter(Path directory, int capacity) {
+        this.directory = directory;
+        this.ids = new long[capacity];
+        this.quantities = new long[capacity];
+    }
+
+    /**
+     * Adds a record, spilling the buffer first if it is full.
+     *
+     * @param id       product ID
+     * @param quantity counted quantity
+     * @throws IOException if a spill file cannot be written
+     */
+    void add(long id, long quantity) throws IOException {
+        if (size == ids.length) {
+            spill();
+        }
+        ids[size] = id;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    /**
+     * Returns the number of spill files written, including merge passes.
+     *
+     * @return spill file count
+     */
+    int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Returns the number of records written to spill files.
+     *
+     * @return spilled record count
+     */
+    long getSpilledRecords() {
+        return spilledRecords;
+    }
+
+    /**
+     * Finishes input and returns the records in ID order, with quantities
+     * for the same ID summed.
+     *
+     * @return cursor over the sorted records
+     * @throws IOException if spill files cannot be written or read
+     */
+    CountCursor sorted() throws IOException {
+        if (runs.isEmpty()) {
+            int unique = sortAndCollapse();
+            size = 0;
+            return new ArrayCursor(ids, quantities, unique);
+        }
+        if (size > 0) {
+            spill();
+        }
+        List<Path> pending = new ArrayList<>(runs);
+        while (pending.size() > MERGE_FAN_IN) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < pending.size(); from += MERGE_FAN_IN) {
+                List<Path> group = pending.subList(from, Math.min(from + MERGE_FAN_IN, pending.size()));
+                merged.add(group.size() == 1 ? group.get(0) : mergeToRun(group));
+            }
+            pending = merged;
+        }
+        return open(pending);
+    }
+
+    /**
+     * Deletes all spill files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    /**
+     * Sorts the buffer and writes it as a new run.
+     *
+     * @throws IOException if writing fails
+     */
+    private void spill() throws IOException {
+        int unique = sortAndCollapse();
+        Path run = Files.createTempFile(directory, "count-run-", ".bin");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER_BYTES))) {
+            for (int i = 0; i < unique; i++) {
+                out.writeLong(ids[i]);
+                out.writeLong(quantities[i]);
+            }
+        }
+        spilledRecords += unique;
+        size = 0;
+    }
+
+    /**
+     * Merges several runs into one new run.
+     *
+     * @param group runs to merge
+     * @return merged run
+     * @throws IOException if reading or writing fails
+     */
+    private Path mergeToRun(List<Path> group) throws IOException {
+        Path run = Files.createTempFile(directory, "count-merge-", ".bin");
+        runs.add(run);
+        try (CountCursor cursor = open(group);
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER_BYTES))) {
+            while (cursor.next()) {
+                out.writeLong(cursor.id());
+                out.writeLong(cursor.quantity());
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Opens a merging cursor over runs.
+     *
+     * @param group runs to merge
+     * @return cursor
+     * @throws IOException if a run cannot be opened
+     */
+    private CountCursor open(List<Path> group) throws IOException {
+        List<CountCursor> cursors = new ArrayList<>(group.size());
+        try {
+            for (Path run : group) {
+                cursors.add(new RunCursor(run));
+            }
+        } catch (IOException e) {
+            for (CountCursor cursor : cursors) {
+                cursor.close();
+            }
+            throw e;
+        }
+        return new MergeCursor(cursors);
+    }
+
+    /**
+     * Sorts the buffered records by ID and sums records with equal IDs.
+     *
+     * @return number of distinct IDs, now at the front of the buffer
+     */
+    private int sortAndCollapse() {
+        quickSort(0, size - 1);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique > 0 && ids[unique - 1] == ids[i]) {
+                quantities[unique - 1] += quantities[i];
+            } else {
+                ids[unique] = ids[i];
+                quantities[unique] = quantities[i];
+                unique++;
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Sorts a range of the parallel arrays by ID.
+     *
+     * @param low  first index
+     * @param high last index (inclusive)
+     */
+    private void quickSort(int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < ids[low]) {
+                swap(mid, low);
+            }
+            if (ids[high] < ids[low]) {
+                swap(high, low);
+            }
+            if (ids[high] < ids[mid]) {
+                swap(high, mid);
+            }
+            long pivot = ids[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (ids[i] < pivot) {
+                    i++;
+                }
+                while (ids[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                quickSort(low, j);
+                low = i;
+            } else {
+                quickSort(i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            long id = ids[i];
+            long quantity = quantities[i];
+            int j = i - 1;
+            while (j >= low && ids[j] > id) {
+                ids[j + 1] = ids[j];
+                quantities[j + 1] = quantities[j];
+                j--;
+            }
+            ids[j + 1] = id;
+            quantities[j + 1] = quantity;
+        }
+    }
+
+    /**
+     * Swaps two records.
+     *
+     * @param a first index
+     * @param b second index
+     */
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        long quantity = quantities[a];
+        quantities[a] = quantities[b];
+        quantities[b] = quantity;
+    }
+
+    /**
+     * Forward-only cursor over records in ID order.
+     */
+    abstract static class CountCursor implements AutoCloseable {
+
+        /**
+         * Advances to the next record.
+         *
+         * @return false when there are no more records
+         * @throws IOException if reading fails
+         */
+        abstract boolean next() throws IOException;
+
+        /**
+         * Returns the product ID of the current record.
+         *
+         * @return product ID
+         */
+        abstract long id();
+
+        /**
+         * Returns the quantity of the current record.
+         *
+         * @return counted quantity
+         */
+        abstract long quantity();
+
+        /**
+         * Releases any open file.
+         *
+         * @throws IOException if closing fails
+         */
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    /**
+     * Cursor over sorted records still in memory.
+     */
+    private static final class ArrayCursor extends CountCursor {
+        private final long[] ids;
+        private final long[] quantities;
+        private final int size;
+        private int index = -1;
+
+        private ArrayCursor(long[] ids, long[] quantities, int size) {
+            this.ids = ids;
+            this.quantities = quantities;
+            this.size = size;
+        }
+
+        @Override
+        boolean next() {
+            return ++index < size;
+        }
+
+        @Override
+        long id() {
+            return ids[index];
+        }
+
+        @Override
+        long quantity() {
+            return quantities[index];
+        }
+    }
+
+    /**
+     * Cursor over one spill file.
+     */
+    private static final class RunCursor extends CountCursor {
+        private final DataInputStream in;
+        private long remaining;
+        private long id;
+        private long quantity;
+
+        private RunCursor(Path run) throws IOException {
+            this.remaining = Files.size(run) / RECORD_BYTES;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER_BYTES));
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            id = in.readLong();
+            quantity = in.readLong();
+            return true;
+        }
+
+        @Override
+        long id() {
+            return id;
+        }
+
+        @Override
+        long quantity() {
+            return quantity;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Cursor merging several sorted cursors and summing equal IDs.
+     */
+    private static final class MergeCursor extends CountCursor {
+        private final List<CountCursor> cursors;
+        private final PriorityQueue<CountCursor> heap;
+        private long id;
+        private long quantity;
+
+        private MergeCursor(List<CountCursor> cursors) throws IOException {
+            this.cursors = cursors;
+            this.heap = new PriorityQueue<>(Math.max(1, cursors.size()),
+                    (a, b) -> Long.compare(a.id(), b.id()));
+            for (CountCursor cursor : cursors) {
+                if (cursor.next()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (heap.isEmpty()) {
+                return false;
+            }
+            CountCursor head = heap.poll();
+            id = head.id();
+            quantity = 0;
+            while (true) {
+                quantity += head.quantity();
+                if (head.next()) {
+                    heap.add(head);
+                }
+                if (heap.isEmpty() || heap.peek().id() != id) {
+                    return true;
+                }
+                head = heap.poll();
+            }
+        }
+
+        @Override
+        long id() {
+            return id;
+        }
+
+        @Override
+        long quantity() {
+            return quantity;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (CountCursor cursor : cursors) {
+                try {
+                    cursor.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
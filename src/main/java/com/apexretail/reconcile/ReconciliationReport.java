@@ -0,0 +1,182 @@
+package com.apexretail.reconcile;
+
+/**
+ * Outcome of a stock-count reconciliation run by
+ * {@link StockCountReconciler}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ReconciliationReport {
+
+    /** Count records read, excluding headers and blank lines. */
+    private final long recordsRead;
+
+    /** Count records that could not be parsed. */
+    private final long malformedRecords;
+
+    /** Distinct product IDs counted. */
+    private final long productsCounted;
+
+    /** Counted catalog products whose stock already matched. */
+    private final long productsMatched;
+
+    /** Counted catalog products whose stock was corrected. */
+    private final long productsAdjusted;
+
+    /** Units added by corrections. */
+    private final long unitsAdded;
+
+    /** Units removed by corrections. */
+    private final long unitsRemoved;
+
+    /** Counted product IDs not in the catalog. */
+    private final long unknownProducts;
+
+    /** Catalog products not present in any count file. */
+    private final long uncountedProducts;
+
+    /** Corrections that could not be applied. */
+    private final long failedAdjustments;
+
+    /**
+     * Creates a reconciliation report.
+     *
+     * @param recordsRead       count records read
+     * @param malformedRecords  records that could not be parsed
+     * @param productsCounted   distinct product IDs counted
+     * @param productsMatched   counted products whose stock matched
+     * @param productsAdjusted  counted products whose stock was corrected
+     * @param unitsAdded        units added by corrections
+     * @param unitsRemoved      units removed by corrections
+     * @param unknownProducts   counted IDs not in the catalog
+     * @param uncountedProducts catalog products not counted
+     * @param failedAdjustments corrections that could not be applied
+     */
+    ReconciliationReport(long recordsRead, long malformedRecords, long productsCounted, long productsMatched,
+            long productsAdjusted, long unitsAdded, long unitsRemoved, long unknownProducts,
+            long uncountedProducts, long failedAdjustments) {
+        this.recordsRead = recordsRead;
+        this.malformedRecords = malformedRecords;
+        this.productsCounted = productsCounted;
+        this.productsMatched = productsMatched;
+        this.productsAdjusted = productsAdjusted;
+        this.unitsAdded = unitsAdded;
+        this.unitsRemoved = unitsRemoved;
+        this.unknownProducts = unknownProducts;
+        this.uncountedProducts = uncountedProducts;
+        this.failedAdjustments = failedAdjustments;
+    }
+
+    /**
+     * Returns the number of count records read.
+     *
+     * @return records read, excluding headers and blank lines
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    /**
+     * Returns the number of count records that could not be parsed.
+     *
+     * @return malformed records
+     */
+    public long getMalformedRecords() {
+        return malformedRecords;
+    }
+
+    /**
+     * Returns the number of distinct product IDs counted.
+     *
+     * @return products counted, including unknown IDs
+     */
+    public long getProductsCounted() {
+        return productsCounted;
+    }
+
+    /**
+     * Returns the number of counted products whose stock already matched.
+     *
+     * @return products matched
+     */
+    public long getProductsMatched() {
+        return productsMatched;
+    }
+
+    /**
+     * Returns the number of products whose stock was corrected.
+     *
+     * @return products adjusted
+     */
+    public long getProductsAdjusted() {
+        return productsAdjusted;
+    }
+
+    /**
+     * Returns the number of units added by corrections.
+     *
+     * @return units added
+     */
+    public long getUnitsAdded() {
+        return unitsAdded;
+    }
+
+    /**
+     * Returns the number of units removed by corrections.
+     *
+     * @return units removed
+     */
+    public long getUnitsRemoved() {
+        return unitsRemoved;
+    }
+
+    /**
+     * Returns the number of counted product IDs not in the catalog.
+     *
+     * @return unknown products
+     */
+    public long getUnknownProducts() {
+        return unknownProducts;
+    }
+
+    /**
+     * Returns the number of catalog products not present in any count
+     * file. Their stock is left unchanged.
+     *
+     * @return uncounted products
+     */
+    public long getUncountedProducts() {
+        return uncountedProducts;
+    }
+
+    /**
+     * Returns the number of corrections that could not be applied.
+     *
+     * @return failed adjustments
+     */
+    public long getFailedAdjustments() {
+        return failedAdjustments;
+    }
+
+    /**
+     * Returns string representation of the report.
+     *
+     * @return formatted string containing the reconciliation counts
+     */
+    @Override
+    public String toString() {
+        return "ReconciliationReport{" +
+                "recordsRead=" + recordsRead +
+                ", malformedRecords=" + malformedRecords +
+                ", productsCounted=" + productsCounted +
+                ", productsMatched=" + productsMatched +
+                ", productsAdjusted=" + productsAdjusted +
+                ", unitsAdded=" + unitsAdded +
+                ", unitsRemoved=" + unitsRemoved +
+                ", unknownProducts=" + unknownProducts +
+                ", uncountedProducts=" + uncountedProducts +
+                ", failedAdjustments=" + failedAdjustments +
+                '}';
+    }
+}
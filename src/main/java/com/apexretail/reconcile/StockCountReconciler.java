@@ -0,0 +1,405 @@
+package com.apexretail.reconcile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.apexretail.diagnostics.BatchRunEvent;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+import com.apexretail.service.StockAdjustment;
+
+/**
+ * Reconciles system stock against physical count files.
+ *
+ * <p>
+ * A count file holds one {@code product_id,counted_quantity} record per
+ * line, separated by a comma or a tab, with an optional header line. A
+ * product may appear in several records and several files, for example
+ * when it sits on more than one shelf; its counts are summed.
+ *
+ * <p>
+ * Count files may be far larger than the heap. Records are sorted by
+ * product ID with an external merge sort that keeps at most
+ * {@code maxRecordsInMemory} records in memory and spills sorted runs to
+ * the work directory. The sorted counts are then merge-joined with the
+ * catalog's product IDs in ID order, and each difference between the
+ * counted and system quantity is applied through
+ * {@link InventoryService#adjustStock(List)} in batches. Units found
+ * missing are recorded as write-offs, not sales.
+ *
+ * <p>
+ * Every difference, applied or not, is written to a discrepancy report in
+ * ID order with the columns {@code product_id}, {@code system_quantity},
+ * {@code counted_quantity}, {@code adjustment} and {@code status}. The
+ * status is {@code ADJUSTED}, {@code REJECTED} when the correction could
+ * not be applied, or {@code UNKNOWN} for an ID that is not in the catalog.
+ * Catalog products that were not counted are left unchanged.
+ *
+ * <p>
+ * The system quantity is read when the product is reached in the merge
+ * and the correction is applied as a delta, so sales made while a count
+ * is being reconciled are preserved.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * StockCountReconciler reconciler = new StockCountReconciler(catalog, service, Path.of("/tmp"));
+ * ReconciliationReport report = reconciler.reconcile(countFiles, Path.of("discrepancies.csv"));
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class StockCountReconciler {
+
+    /** Default number of count records kept in memory before a spill. */
+    public static final int DEFAULT_MAX_RECORDS_IN_MEMORY = 1 << 20;
+
+    /** Default number of corrections applied per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** Header line of the discrepancy report. */
+    static final String REPORT_HEADER = "product_id,system_quantity,counted_quantity,adjustment,status";
+
+    static final String STATUS_ADJUSTED = "ADJUSTED";
+    static final String STATUS_REJECTED = "REJECTED";
+    static final String STATUS_UNKNOWN = "UNKNOWN";
+
+    private final ProductCatalog catalog;
+    private final InventoryService service;
+    private final Path workDirectory;
+    private final int maxRecordsInMemory;
+    private final int batchSize;
+
+    /**
+     * Creates a reconciler with the default memory limit and batch size.
+     *
+     * @param catalog       catalog to reconcile (must not be null)
+     * @param service       service that applies corrections (must not be
+     *                      null)
+     * @param workDirectory directory for spill files (must not be null)
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public StockCountReconciler(ProductCatalog catalog, InventoryService service, Path workDirectory) {
+        this(catalog, service, workDirectory, DEFAULT_MAX_RECORDS_IN_MEMORY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a reconciler.
+     *
+     * @param catalog            catalog to reconcile (must not be null)
+     * @param service            service that applies corrections (must not
+     *                           be null)
+     * @param workDirectory      directory for spill files (must not be null)
+     * @param maxRecordsInMemory count records buffered before a spill
+     *                           (must be > 0)
+     * @param batchSize          corrections applied per batch (must be > 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public StockCountReconciler(ProductCatalog catalog, InventoryService service, Path workDirectory,
+            int maxRecordsInMemory, int batchSize) {
+        if (catalog == null || service == null || workDirectory == null) {
+            throw new IllegalArgumentException("Catalog, service and work directory must not be NULL.");
+        }
+        if (maxRecordsInMemory <= 0) {
+            throw new IllegalArgumentException("Memory limit must be greater than 0.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0.");
+        }
+        this.catalog = catalog;
+        this.service = service;
+        this.workDirectory = workDirectory;
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reconciles the catalog against count files.
+     *
+     * @param countFiles        count files (must not be null or contain
+     *                          null)
+     * @param discrepancyReport file the discrepancy report is written to,
+     *                          replacing any existing file (must not be
+     *                          null)
+     * @return counts of records read and corrections applied
+     * @throws IllegalArgumentException if an argument is null
+     * @throws UncheckedIOException     if a file cannot be read or written
+     */
+    public ReconciliationReport reconcile(List<Path> countFiles, Path discrepancyReport) {
+        if (countFiles == null || discrepancyReport == null) {
+            throw new IllegalArgumentException("Count files and report must not be NULL.");
+        }
+        for (Path file : countFiles) {
+            if (file == null) {
+                throw new IllegalArgumentException("Invalid count file.");
+            }
+        }
+        BatchRunEvent event = new BatchRunEvent();
+        event.begin();
+        Run run = new Run();
+        try (ExternalCountSorter sorter = new ExternalCountSorter(workDirectory, maxRecordsInMemory)) {
+            for (Path file : countFiles) {
+                readCounts(file, sorter, run);
+            }
+            try (ExternalCountSorter.CountCursor counts = sorter.sorted();
+                    BufferedWriter report = Files.newBufferedWriter(discrepancyReport, StandardCharsets.UTF_8)) {
+                report.write(REPORT_HEADER);
+                report.newLine();
+                merge(counts, report, run);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reconcile stock counts.", e);
+        }
+        event.complete(BatchRunEvent.STOCK_COUNT, run.recordsRead);
+        return new ReconciliationReport(run.recordsRead, run.malformedRecords, run.productsCounted,
+                run.productsMatched, run.productsAdjusted, run.unitsAdded, run.unitsRemoved, run.unknownProducts,
+                run.uncountedProducts, run.failedAdjustments);
+    }
+
+    /**
+     * Parses a count file into the sorter.
+     *
+     * @param file   count file
+     * @param sorter sorter receiving the records
+     * @param run    counters of the current run
+     * @throws IOException if the file cannot be read
+     */
+    private void readCounts(Path file, ExternalCountSorter sorter, Run run) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            boolean first = true;
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                boolean header = first && !Character.isDigit(line.charAt(0));
+                first = false;
+                if (header) {
+                    continue;
+                }
+                run.recordsRead++;
+                int separator = separatorOf(line);
+                if (separator < 0) {
+                    run.malformedRecords++;
+                    continue;
+                }
+                long id;
+                long quantity;
+                try {
+                    id = Long.parseLong(line.substring(0, separator).trim());
+                    quantity = Long.parseLong(line.substring(separator + 1).trim());
+                } catch (NumberFormatException e) {
+                    run.malformedRecords++;
+                    continue;
+                }
+                if (id < 0 || quantity < 0) {
+                    run.malformedRecords++;
+                    continue;
+                }
+                sorter.add(id, quantity);
+            }
+        }
+    }
+
+    /**
+     * Walks the sorted counts and the sorted catalog IDs together.
+     *
+     * @param counts sorted counts
+     * @param report discrepancy report
+     * @param run    counters of the current run
+     * @throws IOException if the report cannot be written
+     */
+    private void merge(ExternalCountSorter.CountCursor counts, BufferedWriter report, Run run) throws IOException {
+        long[] productIds = sortedProductIds();
+        int next = 0;
+        Batch batch = new Batch(batchSize);
+        while (counts.next()) {
+            long id = counts.id();
+            long counted = counts.quantity();
+            run.productsCounted++;
+            while (next < productIds.length && productIds[next] < id) {
+                next++;
+                run.uncountedProducts++;
+            }
+            Product prod = (next < productIds.length && productIds[next] == id) ? catalog.getProduct(id) : null;
+            if (prod == null) {
+                run.unknownProducts++;
+                batch.addUnknown(id, counted);
+            } else {
+                next++;
+                long system = prod.getQuantityInStock();
+                long delta = counted - system;
+                if (delta == 0) {
+                    run.productsMatched++;
+                } else if (delta > Integer.MAX_VALUE || delta < Integer.MIN_VALUE) {
+                    batch.addUnapplied(id, system, counted);
+                } else {
+                    batch.addAdjustment(new StockAdjustment(prod, (int) delta), system, counted);
+                }
+            }
+            if (batch.isFull()) {
+                batch.flush(service, report, run);
+            }
+        }
+        run.uncountedProducts += productIds.length - next;
+        batch.flush(service, report, run);
+    }
+
+    /**
+     * Returns the catalog's product IDs in ascending order.
+     *
+     * @return sorted product IDs
+     */
+    private long[] sortedProductIds() {
+        long[] ids = new long[catalog.size()];
+        int count = 0;
+        for (Product prod : catalog.getProducts()) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, count * 2));
+            }
+            ids[count++] = prod.getId();
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the position of the first comma or tab in a line.
+     *
+     * @param line count record
+     * @return separator index, or -1 if there is none
+     */
+    private static int separatorOf(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ',' || c == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counters of one reconciliation run.
+     */
+    private static final class Run {
+        private long recordsRead;
+        private long malformedRecords;
+        private long productsCounted;
+        private long productsMatched;
+        private long productsAdjusted;
+        private long unitsAdded;
+        private long unitsRemoved;
+        private long unknownProducts;
+        private long uncountedProducts;
+        private long failedAdjustments;
+    }
+
+    /**
+     * Discrepancies waiting to be applied and reported, in ID order.
+     */
+    private static final class Batch {
+        private final int capacity;
+        private final List<StockAdjustment> adjustments;
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+
+        private Batch(int capacity) {
+            this.capacity = capacity;
+            this.adjustments = new ArrayList<>(capacity);
+        }
+
+        private void addAdjustment(StockAdjustment adjustment, long system, long counted) {
+            adjustments.add(adjustment);
+            discrepancies.add(new Discrepancy(adjustment.getProduct().getId(), system, counted, adjustment));
+        }
+
+        private void addUnapplied(long id, long system, long counted) {
+            discrepancies.add(new Discrepancy(id, system, counted, null));
+        }
+
+        private void addUnknown(long id, long counted) {
+            discrepancies.add(new Discrepancy(id, -1, counted, null));
+        }
+
+        private boolean isFull() {
+            return adjustments.size() >= capacity || discrepancies.size() >= capacity;
+        }
+
+        /**
+         * Applies the pending corrections and writes their report lines.
+         *
+         * @param service service that applies corrections
+         * @param report  discrepancy report
+         * @param run     counters of the current run
+         * @throws IOException if the report cannot be written
+         */
+        private void flush(InventoryService service, BufferedWriter report, Run run) throws IOException {
+            Set<StockAdjustment> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (!adjustments.isEmpty()) {
+                rejected.addAll(service.adjustStock(adjustments));
+            }
+            for (Discrepancy d : discrepancies) {
+                String status;
+                if (d.system < 0) {
+                    status = STATUS_UNKNOWN;
+                } else if (d.adjustment == null || rejected.contains(d.adjustment)) {
+                    status = STATUS_REJECTED;
+                    run.failedAdjustments++;
+                } else {
+                    status = STATUS_ADJUSTED;
+                    run.productsAdjusted++;
+                    if (d.adjustment.getDelta() > 0) {
+                        run.unitsAdded += d.adjustment.getDelta();
+                    } else {
+                        run.unitsRemoved -= d.adjustment.getDelta();
+                    }
+                }
+                report.write(Long.toString(d.productId));
+                report.write(',');
+                report.write(d.system < 0 ? "" : Long.toString(d.system));
+                report.write(',');
+                report.write(Long.toString(d.counted));
+                report.write(',');
+                report.write(d.system < 0 ? "" : Long.toString(d.counted - d.system));
+                report.write(',');
+                report.write(status);
+                report.newLine();
+            }
+            adjustments.clear();
+            discrepancies.clear();
+        }
+    }
+
+    /**
+     * One line of the discrepancy report.
+     */
+    private static final class Discrepancy {
+        private final long productId;
+        private final long system;
+        private final long counted;
+        private final StockAdjustment adjustment;
+
+        private Discrepancy(long productId, long system, long counted, StockAdjustment adjustment) {
+            this.productId = productId;
+            this.system = system;
+            this.counted = counted;
+            this.adjustment = adjustment;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.apexretail.replenishment;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Recommended restock for one product in a {@link ReorderPlan}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ReorderLine {
+
+    private final Product product;
+    private final int onHand;
+    private final double dailyVelocity;
+    private final long reorderPoint;
+    private final int quantity;
+
+    /**
+     * Creates a reorder line.
+     *
+     * @param product       product to restock
+     * @param onHand        stock when the plan was made
+     * @param dailyVelocity average units sold per day
+     * @param reorderPoint  stock level that triggered the reorder
+     * @param quantity      units to restock
+     */
+    ReorderLine(Product product, int onHand, double dailyVelocity, long reorderPoint, int quantity) {
+        this.product = product;
+        this.onHand = onHand;
+        this.dailyVelocity = dailyVelocity;
+        this.reorderPoint = reorderPoint;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Returns the product to restock.
+     *
+     * @return product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the stock on hand when the plan was made.
+     *
+     * @return units on hand
+     */
+    public int getOnHand() {
+        return onHand;
+    }
+
+    /**
+     * Returns the average units sold per day over the history window.
+     *
+     * @return daily sell velocity
+     */
+    public double getDailyVelocity() {
+        return dailyVelocity;
+    }
+
+    /**
+     * Returns the stock level at or below which the product is reordered.
+     *
+     * @return reorder point in units
+     */
+    public long getReorderPoint() {
+        return reorderPoint;
+    }
+
+    /**
+     * Returns the recommended restock quantity.
+     *
+     * @return units to restock (always > 0)
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReorderLine{product=%d, onHand=%d, velocity=%.2f/day, reorderPoint=%d, quantity=%d}",
+                product.getId(), onHand, dailyVelocity, reorderPoint, quantity);
+    }
+}
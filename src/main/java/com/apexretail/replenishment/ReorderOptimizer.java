@@ -0,0 +1,321 @@
+package com.apexretail.replenishment;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.apexretail.diagnostics.BatchRunEvent;
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.history.Resolution;
+import com.apexretail.history.SalesHistory;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+import com.apexretail.service.StockAdjustment;
+
+/**
+ * Batch planner that recommends a restock quantity for every product in a
+ * catalog from its recent sell velocity.
+ *
+ * <p>
+ * Products are partitioned by category, and each category's
+ * {@link ReorderPolicy} is resolved once: the policy set for the category
+ * or its nearest ancestor, otherwise the default. Categories, and large
+ * categories in slices of {@code leafSize} products, are then planned in
+ * parallel on a fork/join pool. Each product's daily sales over the
+ * policy's history window are read from {@link SalesHistory}, ending at
+ * the start of the current UTC day so partial days do not skew velocity.
+ *
+ * <p>
+ * Planning takes no product locks and never writes stock, so it does not
+ * hold up sales; stock levels are read without locking and may be a few
+ * operations old. By default, planning runs on a dedicated pool of
+ * {@link #DEFAULT_PARALLELISM} workers rather than the common pool shared
+ * with parallel streams, so a run never competes with sales threads for
+ * every core; a pool passed in should likewise be smaller than the machine.
+ * {@link #apply(ReorderPlan, InventoryService)} then issues all the
+ * restocks in a single {@link InventoryService#adjustStock(List)} call.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * ReorderOptimizer optimizer = new ReorderOptimizer(history, Clock.systemUTC(), new ReorderPolicy(28, 3, 7, 1.65));
+ * optimizer.setCategoryPolicy(produce, new ReorderPolicy(14, 1, 1, 2.0));
+ * ReorderPlan plan = optimizer.plan(catalog);
+ * optimizer.apply(plan, inventory);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ReorderOptimizer {
+
+    /** Default maximum number of products planned by one task. */
+    public static final int DEFAULT_LEAF_SIZE = 1024;
+
+    /** Workers in the default planning pool: half the processors, at least one. */
+    public static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private final SalesHistory history;
+    private final Clock clock;
+    private final ReorderPolicy defaultPolicy;
+    private final ForkJoinPool pool;
+    private final int leafSize;
+    private final Map<Long, ReorderPolicy> categoryPolicies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an optimizer with the default leaf size that runs on a pool of
+     * {@link #DEFAULT_PARALLELISM} daemon workers shared by every optimizer
+     * created this way. The pool is separate from the common pool, so
+     * parallel streams elsewhere do not compete with planning runs.
+     *
+     * @param history       sales history to read velocity from (must not be
+     *                      null)
+     * @param clock         clock that defines the current day (must not be
+     *                      null)
+     * @param defaultPolicy policy for categories without their own (must
+     *                      not be null)
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public ReorderOptimizer(SalesHistory history, Clock clock, ReorderPolicy defaultPolicy) {
+        this(history, clock, defaultPolicy, DefaultPool.POOL, DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Creates an optimizer.
+     *
+     * @param history       sales history to read velocity from (must not be
+     *                      null)
+     * @param clock         clock that defines the current day (must not be
+     *                      null)
+     * @param defaultPolicy policy for categories without their own (must
+     *                      not be null)
+     * @param pool          pool that plans categories (must not be null)
+     * @param leafSize      maximum products planned by one task (must be
+     *                      > 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public ReorderOptimizer(SalesHistory history, Clock clock, ReorderPolicy defaultPolicy, ForkJoinPool pool,
+            int leafSize) {
+        if (history == null || clock == null || defaultPolicy == null || pool == null) {
+            throw new IllegalArgumentException("History, clock, policy and pool must not be NULL.");
+        }
+        if (leafSize <= 0) {
+            throw new IllegalArgumentException("Leaf size must be greater than 0.");
+        }
+        this.history = history;
+        this.clock = clock;
+        this.defaultPolicy = defaultPolicy;
+        this.pool = pool;
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Sets the policy for a category and its subcategories, unless a
+     * subcategory has its own. Takes effect from the next planning run.
+     *
+     * @param category category (must not be null)
+     * @param policy   policy (must not be null)
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public void setCategoryPolicy(Category category, ReorderPolicy policy) {
+        if (category == null || policy == null) {
+            throw new IllegalArgumentException("Category and policy must not be NULL.");
+        }
+        categoryPolicies.put(category.getId(), policy);
+    }
+
+    /**
+     * Plans restocks for every product in a catalog.
+     *
+     * @param catalog catalog to plan (must not be null)
+     * @return plan listing the products to restock
+     * @throws IllegalArgumentException    if catalog is null
+     * @throws java.io.UncheckedIOException if sales history cannot be read
+     */
+    public ReorderPlan plan(ProductCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog must not be NULL.");
+        }
+        BatchRunEvent event = new BatchRunEvent();
+        event.begin();
+
+        Map<Category, List<Product>> byCategory = new LinkedHashMap<>();
+        for (Product prod : catalog.getProducts()) {
+            byCategory.computeIfAbsent(prod.getCategory(), c -> new ArrayList<>()).add(prod);
+        }
+
+        List<Slice> slices = new ArrayList<>();
+        int productsPlanned = 0;
+        for (Map.Entry<Category, List<Product>> group : byCategory.entrySet()) {
+            Product[] products = group.getValue().toArray(new Product[0]);
+            ReorderPolicy policy = resolvePolicy(group.getKey());
+            for (int from = 0; from < products.length; from += leafSize) {
+                slices.add(new Slice(products, from, Math.min(products.length, from + leafSize), policy));
+            }
+            productsPlanned += products.length;
+        }
+
+        long today = Math.floorDiv(clock.millis(), MILLIS_PER_DAY) * MILLIS_PER_DAY;
+        Slice[] work = slices.toArray(new Slice[0]);
+        pool.invoke(new PlanTask(work, 0, work.length, today));
+
+        List<ReorderLine> lines = new ArrayList<>();
+        for (Slice slice : work) {
+            lines.addAll(slice.lines);
+        }
+        lines.sort(Comparator.comparingLong(line -> line.getProduct().getId()));
+        event.complete(BatchRunEvent.REORDER_PLANNING, productsPlanned);
+        return new ReorderPlan(lines, productsPlanned);
+    }
+
+    /**
+     * Issues the restocks of a plan as one batch of stock adjustments.
+     *
+     * @param plan    plan to apply (must not be null)
+     * @param service service that applies the restocks (must not be null)
+     * @return adjustments the service rejected, normally empty
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public List<StockAdjustment> apply(ReorderPlan plan, InventoryService service) {
+        if (plan == null || service == null) {
+            throw new IllegalArgumentException("Plan and service must not be NULL.");
+        }
+        List<StockAdjustment> restocks = new ArrayList<>(plan.getLines().size());
+        for (ReorderLine line : plan.getLines()) {
+            restocks.add(new StockAdjustment(line.getProduct(), line.getQuantity()));
+        }
+        return service.adjustStock(restocks);
+    }
+
+    /**
+     * Returns the policy for a category: its own, its nearest ancestor's, or
+     * the default.
+     *
+     * @param category product category
+     * @return policy to plan the category with
+     */
+    private ReorderPolicy resolvePolicy(Category category) {
+        for (Category current = category; current != null; current = current.getParent()) {
+            ReorderPolicy policy = categoryPolicies.get(current.getId());
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Plans one product.
+     *
+     * @param prod   product
+     * @param policy policy of the product's category
+     * @param today  start of the current UTC day in epoch milliseconds
+     * @return reorder line, or null if the product needs no restock
+     */
+    private ReorderLine planProduct(Product prod, ReorderPolicy policy, long today) {
+        int days = policy.getHistoryDays();
+        long[] daily = history.query(prod.getId(), Resolution.DAY, today - days * MILLIS_PER_DAY, today);
+        double sum = 0;
+        for (long units : daily) {
+            sum += units;
+        }
+        if (sum == 0) {
+            return null;
+        }
+        double velocity = sum / days;
+        double squares = 0;
+        for (long units : daily) {
+            squares += (units - velocity) * (units - velocity);
+        }
+        double deviation = Math.sqrt(squares / days);
+
+        int leadTime = policy.getLeadTimeDays();
+        double safetyStock = policy.getServiceFactor() * deviation * Math.sqrt(leadTime);
+        long reorderPoint = (long) Math.ceil(velocity * leadTime + safetyStock);
+        long orderUpTo = (long) Math.ceil(velocity * (leadTime + policy.getReviewDays()) + safetyStock);
+
+        int onHand = prod.getQuantityInStock();
+        if (onHand > reorderPoint) {
+            return null;
+        }
+        long quantity = Math.min(orderUpTo - onHand, (long) Integer.MAX_VALUE - onHand);
+        if (quantity <= 0) {
+            return null;
+        }
+        return new ReorderLine(prod, onHand, velocity, reorderPoint, (int) quantity);
+    }
+
+    /**
+     * Holder of the default planning pool, created on first use.
+     */
+    private static final class DefaultPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Products of one category planned by a single task, with the lines it
+     * produced.
+     */
+    private static final class Slice {
+        private final Product[] products;
+        private final int from;
+        private final int to;
+        private final ReorderPolicy policy;
+        private final List<ReorderLine> lines = new ArrayList<>();
+
+        private Slice(Product[] products, int from, int to, ReorderPolicy policy) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * Plans a contiguous range of slices, splitting the range in half until
+     * a single slice remains.
+     */
+    @SuppressWarnings("serial")
+    private final class PlanTask extends RecursiveAction {
+        private final Slice[] slices;
+        private final int from;
+        private final int to;
+        private final long today;
+
+        private PlanTask(Slice[] slices, int from, int to, long today) {
+            this.slices = slices;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PlanTask(slices, from, mid, today), new PlanTask(slices, mid, to, today));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            Slice slice = slices[from];
+            for (int i = slice.from; i < slice.to; i++) {
+                ReorderLine line = planProduct(slice.products[i], slice.policy, today);
+                if (line != null) {
+                    slice.lines.add(line);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.apexretail.replenishment;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Restocks recommended by one {@link ReorderOptimizer} planning run.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ReorderPlan {
+
+    /** Products that need restocking, in product ID order. */
+    private final List<ReorderLine> lines;
+
+    /** Products examined by the run. */
+    private final int productsPlanned;
+
+    /** Units across all lines. */
+    private final long totalUnits;
+
+    /**
+     * Creates a plan.
+     *
+     * @param lines           reorder lines in product ID order
+     * @param productsPlanned products examined
+     */
+    ReorderPlan(List<ReorderLine> lines, int productsPlanned) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.productsPlanned = productsPlanned;
+        long units = 0;
+        for (ReorderLine line : lines) {
+            units += line.getQuantity();
+        }
+        this.totalUnits = units;
+    }
+
+    /**
+     * Returns the recommended restocks.
+     *
+     * @return unmodifiable list of reorder lines in product ID order
+     */
+    public List<ReorderLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of products examined.
+     *
+     * @return products planned
+     */
+    public int getProductsPlanned() {
+        return productsPlanned;
+    }
+
+    /**
+     * Returns the units to restock across all lines.
+     *
+     * @return total units
+     */
+    public long getTotalUnits() {
+        return totalUnits;
+    }
+
+    @Override
+    public String toString() {
+        return "ReorderPlan{productsPlanned=" + productsPlanned + ", reorders=" + lines.size() + ", totalUnits="
+                + totalUnits + "}";
+    }
+}
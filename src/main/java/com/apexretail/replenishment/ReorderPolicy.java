@@ -0,0 +1,104 @@
+package com.apexretail.replenishment;
+
+/**
+ * Replenishment parameters for the products of a category, used by
+ * {@link ReorderOptimizer}.
+ *
+ * <p>
+ * A product is reordered when its stock falls to its reorder point, the
+ * demand expected during the lead time plus safety stock. The order then
+ * brings stock up to the demand expected over the lead time and one review
+ * period, plus safety stock. Safety stock is
+ * {@code serviceFactor * sigma * sqrt(leadTimeDays)}, where sigma is the
+ * standard deviation of daily sales over the history window; a service
+ * factor of 1.65 covers about 95% of lead times.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class ReorderPolicy {
+
+    /** Completed days of sales history used to estimate demand. */
+    private final int historyDays;
+
+    /** Days between placing an order and receiving it. */
+    private final int leadTimeDays;
+
+    /** Days between planning runs. */
+    private final int reviewDays;
+
+    /** Standard deviations of lead-time demand held as safety stock. */
+    private final double serviceFactor;
+
+    /**
+     * Creates a reorder policy.
+     *
+     * @param historyDays   completed days of sales history used (must be
+     *                      > 0)
+     * @param leadTimeDays  days from order to delivery (must be ≥ 0)
+     * @param reviewDays    days between planning runs (must be > 0)
+     * @param serviceFactor standard deviations held as safety stock (must
+     *                      be ≥ 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public ReorderPolicy(int historyDays, int leadTimeDays, int reviewDays, double serviceFactor) {
+        if (historyDays <= 0) {
+            throw new IllegalArgumentException("History window must be greater than 0.");
+        }
+        if (leadTimeDays < 0) {
+            throw new IllegalArgumentException("Lead time must be greater than or equal to 0.");
+        }
+        if (reviewDays <= 0) {
+            throw new IllegalArgumentException("Review period must be greater than 0.");
+        }
+        if (!(serviceFactor >= 0) || Double.isInfinite(serviceFactor)) {
+            throw new IllegalArgumentException("Service factor must be greater than or equal to 0.");
+        }
+        this.historyDays = historyDays;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceFactor = serviceFactor;
+    }
+
+    /**
+     * Returns the number of completed days of history used.
+     *
+     * @return history window in days
+     */
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    /**
+     * Returns the lead time.
+     *
+     * @return days from order to delivery
+     */
+    public int getLeadTimeDays() {
+        return leadTimeDays;
+    }
+
+    /**
+     * Returns the review period.
+     *
+     * @return days between planning runs
+     */
+    public int getReviewDays() {
+        return reviewDays;
+    }
+
+    /**
+     * Returns the service factor.
+     *
+     * @return standard deviations held as safety stock
+     */
+    public double getServiceFactor() {
+        return serviceFactor;
+    }
+
+    @Override
+    public String toString() {
+        return "ReorderPolicy{history=" + historyDays + "d, leadTime=" + leadTimeDays + "d, review=" + reviewDays
+                + "d, serviceFactor=" + serviceFactor + "}";
+    }
+}
@@ -0,0 +1,199 @@
+package com.apexretail.replication;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replication transport that delivers frames to replicas in the same JVM.
+ *
+ * <p>
+ * Each attached replica gets its own single-threaded delivery queue, so a
+ * slow replica never blocks the publisher or other replicas, and frames
+ * reach each replica in the order they were sent. When a replica reports a
+ * gap the transport fetches a snapshot from the {@link SnapshotSource} and
+ * then retries the frame. A frame the replica fails to apply, for example
+ * because its local stock has diverged, is logged and the replica is
+ * reloaded from a snapshot in the same way. This makes the whole
+ * replication path testable on one machine; a network transport only needs
+ * to implement {@link ReplicationTransport} with the same catch-up
+ * behavior.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * InProcessTransport transport = new InProcessTransport();
+ * ReplicationPublisher publisher = new ReplicationPublisher(primaryCatalog, transport, 5);
+ * publisher.start();
+ * transport.attach(new ReplicaNode(replicaCatalog, replicaService), publisher);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class InProcessTransport implements ReplicationTransport {
+
+    private static final Logger LOGGER = System.getLogger(InProcessTransport.class.getName());
+
+    /** Attached replicas and their delivery queues. */
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+    /**
+     * A replica together with the executor that applies frames to it.
+     */
+    private static final class Connection {
+        private final ReplicaNode replica;
+        private final SnapshotSource snapshotSource;
+        private final ExecutorService executor;
+
+        private Connection(ReplicaNode replica, SnapshotSource snapshotSource) {
+            this.replica = replica;
+            this.snapshotSource = snapshotSource;
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-delivery");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Attaches a replica and schedules an initial catch-up from the snapshot
+     * source.
+     *
+     * @param replica        replica to deliver frames to (must not be null)
+     * @param snapshotSource source used when the replica needs to catch up
+     *                       (must not be null)
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public void attach(ReplicaNode replica, SnapshotSource snapshotSource) {
+        if (replica == null || snapshotSource == null) {
+            throw new IllegalArgumentException("Replica and snapshot source must not be NULL.");
+        }
+        Connection connection = new Connection(replica, snapshotSource);
+        connection.executor.execute(() -> catchUp(connection));
+        connections.add(connection);
+    }
+
+    /**
+     * Copies the frame once and queues it for every attached replica.
+     *
+     * @param frame frame to deliver
+     */
+    @Override
+    public void send(ByteBuffer frame) {
+        ByteBuffer copy = copyOf(frame);
+        for (Connection connection : connections) {
+            connection.executor.execute(() -> deliver(connection, copy));
+        }
+    }
+
+    /**
+     * Waits until every frame sent so far has been applied by every replica.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitDelivery() throws InterruptedException {
+        List<Future<?>> barriers = new ArrayList<>();
+        for (Connection connection : connections) {
+            barriers.add(connection.executor.submit(() -> {
+            }));
+        }
+        for (Future<?> barrier : barriers) {
+            try {
+                barrier.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Replica delivery failed.", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Stops all delivery queues after draining frames already queued.
+     */
+    @Override
+    public void close() {
+        for (Connection connection : connections) {
+            connection.executor.shutdown();
+        }
+        for (Connection connection : connections) {
+            try {
+                connection.executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies a frame to a replica, catching it up first if it reports a gap.
+     *
+     * @param connection target replica
+     * @param frame      frame to apply
+     */
+    private void deliver(Connection connection, ByteBuffer frame) {
+        try {
+            if (!connection.replica.applyDeltas(frame)) {
+                catchUp(connection);
+                connection.replica.applyDeltas(frame);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Replica could not apply a frame; reloading it from a snapshot.", e);
+            recover(connection, frame);
+        }
+    }
+
+    /**
+     * Reloads a replica whose state may have diverged after a failed frame.
+     *
+     * <p>
+     * The replica's sequence is reset first, so if the snapshot also fails
+     * the next frame is reported as a gap and catch-up is retried.
+     *
+     * @param connection replica to recover
+     * @param frame      frame that failed
+     */
+    private void recover(Connection connection, ByteBuffer frame) {
+        connection.replica.resetSequence();
+        try {
+            catchUp(connection);
+            connection.replica.applyDeltas(frame);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.ERROR, "Replica catch-up failed; retrying on the next frame.", e);
+        }
+    }
+
+    /**
+     * Loads a fresh snapshot into a replica.
+     *
+     * @param connection replica to catch up
+     */
+    private void catchUp(Connection connection) {
+        List<ByteBuffer> frames = new ArrayList<>();
+        connection.snapshotSource.writeSnapshot(frame -> frames.add(copyOf(frame)));
+        connection.replica.applySnapshot(frames);
+    }
+
+    /**
+     * Copies the readable bytes of a frame into a heap buffer.
+     *
+     * @param frame frame to copy
+     * @return independent copy positioned at zero
+     */
+    private static ByteBuffer copyOf(ByteBuffer frame) {
+        ByteBuffer copy = ByteBuffer.allocate(frame.remaining());
+        copy.put(frame.duplicate());
+        copy.flip();
+        return copy;
+    }
+}
@@ -0,0 +1,270 @@
+package com.apexretail.replication;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.apexretail.codec.CatalogDecoder;
+import com.apexretail.codec.CategoryView;
+import com.apexretail.codec.ProductView;
+import com.apexretail.codec.StockDeltaView;
+import com.apexretail.codec.WireFormat;
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+
+/**
+ * Replica-side application of replicated stock changes.
+ *
+ * <p>
+ * Deltas are applied in sequence order through the replica's own
+ * {@link InventoryService}, so listeners registered on the replica (such as
+ * category rollups) stay consistent. Application is idempotent: a delta
+ * whose sequence number has already been applied is skipped, which makes
+ * redelivered frames harmless. A frame that skips ahead of the last applied
+ * sequence, or refers to an unknown product, is reported as a gap so the
+ * transport can catch the replica up from a snapshot.
+ *
+ * <p>
+ * Stock reads may be served from the replica at any time with
+ * {@link #getQuantityInStock(long)}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ReplicaNode {
+
+    private final ProductCatalog catalog;
+    private final InventoryService service;
+    private final CatalogDecoder decoder = new CatalogDecoder();
+
+    /** Categories known to this replica, keyed by ID (guarded by this). */
+    private final Map<Long, Category> categories = new HashMap<>();
+
+    /**
+     * Per-product watermarks from the last snapshot; a delta for a product at
+     * or below its watermark is already reflected in its stock (guarded by
+     * this).
+     */
+    private final Map<Long, Long> snapshotWatermarks = new HashMap<>();
+
+    /** Highest watermark in {@link #snapshotWatermarks} (guarded by this). */
+    private long highestWatermark;
+
+    /** Highest sequence number applied so far. */
+    private volatile long lastAppliedSequence;
+
+    /**
+     * Creates a replica over a local catalog and inventory service.
+     *
+     * @param catalog local product catalog (must not be null)
+     * @param service local inventory service used to apply changes (must not
+     *                be null)
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public ReplicaNode(ProductCatalog catalog, InventoryService service) {
+        if (catalog == null || service == null) {
+            throw new IllegalArgumentException("Catalog and service must not be NULL.");
+        }
+        this.catalog = catalog;
+        this.service = service;
+        for (Product product : catalog.getProducts()) {
+            for (Category category = product.getCategory(); category != null; category = category.getParent()) {
+                categories.putIfAbsent(category.getId(), category);
+            }
+        }
+    }
+
+    /**
+     * Applies a frame of sequenced stock deltas.
+     *
+     * <p>
+     * Deltas already applied are skipped. Application stops at the first
+     * gap, leaving everything before it applied.
+     *
+     * @param frame frame produced by {@link ReplicationPublisher}
+     * @return true if the whole frame was applied or skipped, false if a gap
+     *         was found and the replica needs a snapshot
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public synchronized boolean applyDeltas(ByteBuffer frame) {
+        decoder.wrap(frame);
+        long sequence = -1;
+        while (decoder.hasNext()) {
+            byte tag = decoder.next();
+            if (tag == WireFormat.SEQUENCE) {
+                sequence = decoder.sequence().getSequence();
+                continue;
+            }
+            if (tag != WireFormat.STOCK_DELTA || sequence < 0) {
+                throw new IllegalArgumentException("Frame is not a sequenced delta frame.");
+            }
+            long current = sequence++;
+            if (current <= lastAppliedSequence) {
+                continue;
+            }
+            StockDeltaView delta = decoder.stockDelta();
+            Product product = catalog.getProduct(delta.getProductId());
+            if (current > lastAppliedSequence + 1 || product == null) {
+                return false;
+            }
+            Long watermark = snapshotWatermarks.get(delta.getProductId());
+            if (watermark == null || current > watermark) {
+                applyDelta(product, delta.getDelta());
+            }
+            lastAppliedSequence = current;
+        }
+        if (highestWatermark != 0 && lastAppliedSequence >= highestWatermark) {
+            snapshotWatermarks.clear();
+            highestWatermark = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the replica's state with a snapshot.
+     *
+     * <p>
+     * Missing categories and products are created; existing products are
+     * adjusted to the snapshot quantity through the inventory service.
+     * Afterwards the last applied sequence is the snapshot's base sequence,
+     * and deltas already reflected in a product's stock are skipped using
+     * the per-product watermarks.
+     *
+     * @param frames snapshot frames written by a {@link SnapshotSource}
+     * @throws IllegalArgumentException if the snapshot is malformed
+     */
+    public synchronized void applySnapshot(List<ByteBuffer> frames) {
+        long baseSequence = -1;
+        long sequence = -1;
+        snapshotWatermarks.clear();
+        highestWatermark = 0;
+        for (ByteBuffer frame : frames) {
+            decoder.wrap(frame);
+            while (decoder.hasNext()) {
+                byte tag = decoder.next();
+                if (tag == WireFormat.SEQUENCE) {
+                    sequence = decoder.sequence().getSequence();
+                    if (baseSequence < 0) {
+                        baseSequence = sequence;
+                    }
+                } else if (tag == WireFormat.CATEGORY) {
+                    applyCategory(decoder.category());
+                } else if (tag == WireFormat.PRODUCT) {
+                    if (sequence < 0) {
+                        throw new IllegalArgumentException("Snapshot product without a sequence.");
+                    }
+                    applyProduct(decoder.product());
+                    snapshotWatermarks.put(decoder.product().getId(), sequence);
+                    highestWatermark = Math.max(highestWatermark, sequence);
+                } else {
+                    throw new IllegalArgumentException("Unexpected record in snapshot.");
+                }
+            }
+        }
+        if (baseSequence < 0) {
+            throw new IllegalArgumentException("Snapshot is empty.");
+        }
+        lastAppliedSequence = baseSequence;
+        if (highestWatermark <= baseSequence) {
+            snapshotWatermarks.clear();
+            highestWatermark = 0;
+        }
+    }
+
+    /**
+     * Forgets every applied sequence number, so the next frame is reported
+     * as a gap and the replica is caught up from a snapshot. Used after a
+     * failed delta has left the replica's stock in doubt.
+     */
+    synchronized void resetSequence() {
+        lastAppliedSequence = 0;
+        snapshotWatermarks.clear();
+        highestWatermark = 0;
+    }
+
+    /**
+     * Returns the replicated stock level of a product.
+     *
+     * @param productId product ID
+     * @return quantity in stock
+     * @throws IllegalArgumentException if the product is unknown to this
+     *                                  replica
+     */
+    public int getQuantityInStock(long productId) {
+        Product product = catalog.getProduct(productId);
+        if (product == null) {
+            throw new IllegalArgumentException("Unknown product id " + productId + ".");
+        }
+        synchronized (product) {
+            return product.getQuantityInStock();
+        }
+    }
+
+    /**
+     * Returns the highest sequence number applied so far.
+     *
+     * @return last applied sequence
+     */
+    public long getLastAppliedSequence() {
+        return lastAppliedSequence;
+    }
+
+    /**
+     * Creates a category from a snapshot record if it is not yet known.
+     *
+     * @param view category record
+     */
+    private void applyCategory(CategoryView view) {
+        if (categories.containsKey(view.getId())) {
+            return;
+        }
+        Category parent = null;
+        if (view.hasParent()) {
+            parent = categories.get(view.getParentId());
+            if (parent == null) {
+                throw new IllegalArgumentException("Snapshot category precedes its parent.");
+            }
+        }
+        categories.put(view.getId(), view.toCategory(parent));
+    }
+
+    /**
+     * Creates a product from a snapshot record, or adjusts an existing one
+     * to the snapshot quantity.
+     *
+     * @param view product record
+     */
+    private void applyProduct(ProductView view) {
+        Product product = catalog.getProduct(view.getId());
+        if (product == null) {
+            Category category = categories.get(view.getCategoryId());
+            if (category == null) {
+                throw new IllegalArgumentException("Snapshot product has an unknown category.");
+            }
+            catalog.addProduct(view.toProduct(category));
+            return;
+        }
+        int difference;
+        synchronized (product) {
+            difference = view.getQuantityInStock() - product.getQuantityInStock();
+        }
+        applyDelta(product, difference);
+    }
+
+    /**
+     * Applies a signed stock change through the local inventory service.
+     *
+     * @param product product to adjust
+     * @param delta   signed change in units
+     */
+    private void applyDelta(Product product, int delta) {
+        if (delta < 0) {
+            service.sellProduct(product, -delta);
+        } else if (delta > 0) {
+            service.restockProduct(product, delta);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.apexretail.replication;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.apexretail.codec.BufferPool;
+import com.apexretail.codec.CatalogEncoder;
+import com.apexretail.codec.WireFormat;
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryListener;
+import com.apexretail.service.ProductCatalog;
+
+/**
+ * Primary-side replication of stock changes.
+ *
+ * <p>
+ * Registered as an {@link InventoryListener} on the primary's
+ * {@link com.apexretail.service.InventoryService}, the publisher numbers
+ * every stock change with a sequence number and appends it to a pending
+ * batch held in primitive arrays. A background thread, started by
+ * {@link #start()}, flushes the batch whenever it fills a frame or the
+ * linger interval elapses, encoding it
+ * into pooled frames and handing them to the transport. Senders never wait
+ * for replicas to apply a batch, so several batches may be in flight at
+ * once.
+ *
+ * <p>
+ * The publisher is also the {@link SnapshotSource} replicas use to catch up
+ * after joining late or missing frames.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * ReplicationPublisher publisher = new ReplicationPublisher(catalog, transport, 5);
+ * publisher.start();
+ * inventory.addListener(publisher);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ReplicationPublisher implements InventoryListener, SnapshotSource, AutoCloseable {
+
+    /** Capacity of each encoded frame in bytes. */
+    private static final int FRAME_CAPACITY = 64 * 1024;
+
+    /** Maximum number of idle frames kept in the pool. */
+    private static final int POOLED_FRAMES = 8;
+
+    /** Number of deltas that always fit in one frame after its sequence marker. */
+    private static final int DELTAS_PER_FRAME = (FRAME_CAPACITY - 1 - WireFormat.MAX_SEQUENCE_SIZE)
+            / WireFormat.MAX_STOCK_DELTA_SIZE;
+
+    private final ProductCatalog catalog;
+    private final ReplicationTransport transport;
+    private final long lingerMillis;
+    private final BufferPool pool = new BufferPool(FRAME_CAPACITY, POOLED_FRAMES);
+
+    /** Guards the send path so batches reach the transport in sequence order. */
+    private final Object sendLock = new Object();
+
+    /** Encoder for delta frames (guarded by sendLock). */
+    private final CatalogEncoder deltaEncoder;
+
+    /** Batch being filled by inventory threads (guarded by this). */
+    private long[] pendingIds = new long[DELTAS_PER_FRAME];
+    private int[] pendingDeltas = new int[DELTAS_PER_FRAME];
+    private int pendingCount;
+    private long pendingFirstSequence = 1;
+    private long nextSequence = 1;
+
+    /** Batch being encoded by the send path (guarded by sendLock). */
+    private long[] sendingIds = new long[DELTAS_PER_FRAME];
+    private int[] sendingDeltas = new int[DELTAS_PER_FRAME];
+
+    /** Highest sequence number assigned so far. */
+    private volatile long lastSequence;
+
+    private volatile boolean running = true;
+
+    /** Background flush thread, null until started (guarded by this). */
+    private Thread flusher;
+
+    /**
+     * Creates a publisher. Deltas are only sent by {@link #flush()} until
+     * {@link #start()} is called.
+     *
+     * @param catalog      primary product catalog used for snapshots (must
+     *                     not be null)
+     * @param transport    transport to the replicas (must not be null)
+     * @param lingerMillis longest time a delta waits before its batch is sent
+     *                     (must be > 0)
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public ReplicationPublisher(ProductCatalog catalog, ReplicationTransport transport, long lingerMillis) {
+        if (catalog == null || transport == null) {
+            throw new IllegalArgumentException("Catalog and transport must not be NULL.");
+        }
+        if (lingerMillis <= 0) {
+            throw new IllegalArgumentException("Linger time must be greater than 0.");
+        }
+        this.catalog = catalog;
+        this.transport = transport;
+        this.lingerMillis = lingerMillis;
+        this.deltaEncoder = new CatalogEncoder(pool, frame -> {
+            try {
+                transport.send(frame);
+            } finally {
+                pool.release(frame);
+            }
+        });
+    }
+
+    /**
+     * Starts the background thread that flushes a batch when it fills a
+     * frame or the linger interval elapses. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (flusher != null || !running) {
+            return;
+        }
+        flusher = new Thread(this::runFlusher, "replication-publisher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Assigns the next sequence number to a stock change and queues it.
+     *
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    @Override
+    public synchronized void stockChanged(Product prod, int delta) {
+        if (pendingCount == pendingIds.length) {
+            pendingIds = Arrays.copyOf(pendingIds, pendingCount * 2);
+            pendingDeltas = Arrays.copyOf(pendingDeltas, pendingCount * 2);
+        }
+        if (pendingCount == 0) {
+            pendingFirstSequence = nextSequence;
+        }
+        pendingIds[pendingCount] = prod.getId();
+        pendingDeltas[pendingCount] = delta;
+        pendingCount++;
+        lastSequence = nextSequence++;
+        if (pendingCount >= DELTAS_PER_FRAME) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Sends every queued delta to the transport before returning.
+     */
+    public void flush() {
+        synchronized (sendLock) {
+            long firstSequence;
+            int count;
+            synchronized (this) {
+                if (pendingCount == 0) {
+                    return;
+                }
+                long[] ids = pendingIds;
+                int[] deltas = pendingDeltas;
+                pendingIds = (sendingIds.length >= ids.length) ? sendingIds : new long[ids.length];
+                pendingDeltas = (sendingDeltas.length >= deltas.length) ? sendingDeltas : new int[deltas.length];
+                sendingIds = ids;
+                sendingDeltas = deltas;
+                firstSequence = pendingFirstSequence;
+                count = pendingCount;
+                pendingCount = 0;
+            }
+            for (int start = 0; start < count; start += DELTAS_PER_FRAME) {
+                int end = Math.min(count, start + DELTAS_PER_FRAME);
+                deltaEncoder.writeSequence(firstSequence + start);
+                for (int i = start; i < end; i++) {
+                    deltaEncoder.writeStockDelta(sendingIds[i], sendingDeltas[i]);
+                }
+                deltaEncoder.flush();
+            }
+        }
+    }
+
+    /**
+     * Encodes a snapshot of the primary catalog.
+     *
+     * <p>
+     * Categories are written parents first, then each product is written
+     * while its monitor is held, preceded by the latest assigned sequence
+     * number. Because {@link com.apexretail.service.InventoryService}
+     * notifies listeners under the same monitor, that number is a correct
+     * watermark for the product.
+     *
+     * @param sink receiver of snapshot frames
+     * @return base sequence of the snapshot
+     */
+    @Override
+    public long writeSnapshot(Consumer<ByteBuffer> sink) {
+        CatalogEncoder encoder = new CatalogEncoder(pool, frame -> {
+            try {
+                sink.accept(frame);
+            } finally {
+                pool.release(frame);
+            }
+        });
+        long baseSequence = lastSequence;
+        encoder.writeSequence(baseSequence);
+        for (Category category : categoriesParentsFirst()) {
+            encoder.writeCategory(category);
+        }
+        for (Product product : catalog.getProducts()) {
+            synchronized (product) {
+                encoder.writeSequence(lastSequence);
+                encoder.writeProduct(product);
+            }
+        }
+        encoder.flush();
+        return baseSequence;
+    }
+
+    /**
+     * Returns the highest sequence number assigned so far.
+     *
+     * @return last assigned sequence (0 if no change has been published)
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Stops the flush thread after sending any queued deltas.
+     */
+    @Override
+    public void close() {
+        Thread started;
+        synchronized (this) {
+            running = false;
+            notifyAll();
+            started = flusher;
+        }
+        if (started != null) {
+            try {
+                started.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Background loop that flushes a batch when it fills a frame or the
+     * linger interval elapses.
+     */
+    private void runFlusher() {
+        while (running) {
+            synchronized (this) {
+                if (running && pendingCount < DELTAS_PER_FRAME) {
+                    try {
+                        wait(lingerMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Collects every category referenced by the catalog, including
+     * ancestors, ordered so parents precede their children.
+     *
+     * @return categories in encoding order
+     */
+    private List<Category> categoriesParentsFirst() {
+        Set<Category> categories = new LinkedHashSet<>();
+        for (Product product : catalog.getProducts()) {
+            for (Category category = product.getCategory(); category != null; category = category.getParent()) {
+                if (!categories.add(category)) {
+                    break;
+                }
+            }
+        }
+        List<Category> ordered = new ArrayList<>(categories);
+        ordered.sort(Comparator.comparingInt(Category::getDepth));
+        return ordered;
+    }
+}
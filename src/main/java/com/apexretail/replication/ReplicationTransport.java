@@ -0,0 +1,33 @@
+package com.apexretail.replication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Carries encoded stock delta frames from a primary node to its replicas.
+ *
+ * <p>
+ * Implementations decide how frames travel (in-process queues, sockets,
+ * and so on). A frame passed to {@link #send(ByteBuffer)} is only valid for
+ * the duration of the call; implementations that deliver asynchronously
+ * must copy it.
+ *
+ * @author David
+ * @version 1.0.0
+ * @see ReplicationPublisher
+ */
+public interface ReplicationTransport extends AutoCloseable {
+
+    /**
+     * Sends a frame to every connected replica.
+     * 
+     * @param frame flipped frame produced by
+     *              {@link com.apexretail.codec.CatalogEncoder}
+     */
+    void send(ByteBuffer frame);
+
+    /**
+     * Stops delivery and releases transport resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,29 @@
+package com.apexretail.replication;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Produces a full catalog snapshot used to bring a replica up to date.
+ *
+ * @author David
+ * @version 1.0.0
+ * @see ReplicaNode#applySnapshot(java.util.List)
+ */
+public interface SnapshotSource {
+
+    /**
+     * Encodes a snapshot of every category and product.
+     *
+     * <p>
+     * The first record is a sequence marker holding the snapshot's base
+     * sequence: every delta numbered at or below it is reflected in the
+     * snapshot. Each product is preceded by its own sequence marker, its
+     * watermark, and reflects every delta for that product numbered at or
+     * below the watermark. Frames are only valid during the callback.
+     *
+     * @param sink receiver of snapshot frames
+     * @return base sequence of the snapshot
+     */
+    long writeSnapshot(Consumer<ByteBuffer> sink);
+}
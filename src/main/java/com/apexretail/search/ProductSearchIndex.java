@@ -0,0 +1,666 @@
+package com.apexretail.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.CatalogListener;
+
+/**
+ * In-memory full-text index over product names and category names.
+ *
+ * <p>
+ * Text is split into lowercase alphanumeric tokens. Each distinct token
+ * becomes a term in a sorted dictionary with a posting list of the products
+ * containing it, and each term is also indexed by its character trigrams.
+ * A query matches a product only if every query token matches one of the
+ * product's terms, in one of three ways:
+ * <ul>
+ * <li>exactly</li>
+ * <li>as a prefix, for the last token only, so results update as the
+ * cashier types</li>
+ * <li>within a small edit distance, found through the trigram index, so a
+ * typo such as "chese" still finds "Cheese"</li>
+ * </ul>
+ *
+ * <p>
+ * Name matches score higher than category matches, and only the top K
+ * results are kept while scoring. Scoring starts from the query token with
+ * the shortest posting lists, so the work is proportional to the rarest
+ * token rather than to the catalog size. That token's terms are visited
+ * best score first, and scoring stops as soon as the top K are full and no
+ * remaining term could produce a better result. A prefix that expands to
+ * more than {@value #MAX_PREFIX_TERMS} terms keeps those found in the most
+ * products. For prefixes of up to {@value #SHORT_PREFIX_LENGTH} characters,
+ * which match the largest part of the dictionary, those terms are kept up
+ * to date as products are added, so the first keystrokes of a query never
+ * scan the dictionary. Longer prefixes visit at most
+ * {@value #MAX_PREFIX_SCAN} terms. Adding a product only touches the terms
+ * it contains.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * ProductSearchIndex index = new ProductSearchIndex();
+ * catalog.addListener(index);
+ * List<SearchResult> results = index.search("chedd", 10);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ProductSearchIndex implements CatalogListener {
+
+    /** Weight of a match in the product name. */
+    private static final double NAME_WEIGHT = 1.0;
+
+    /** Weight of a match in the category name or an ancestor's name. */
+    private static final double CATEGORY_WEIGHT = 0.4;
+
+    /** Score of an exact token match. */
+    private static final double EXACT_MATCH = 1.0;
+
+    /** Score of a prefix match when the prefix is the whole term. */
+    private static final double PREFIX_MATCH = 0.7;
+
+    /** Score of a match one edit away; halves for every further edit. */
+    private static final double FUZZY_MATCH = 0.5;
+
+    /**
+     * Maximum number of dictionary terms a prefix may expand to; the terms
+     * with the longest posting lists are kept.
+     */
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    /** Longest prefix whose most frequent terms are maintained while indexing. */
+    private static final int SHORT_PREFIX_LENGTH = 3;
+
+    /** Maximum number of dictionary terms visited to expand a longer prefix. */
+    private static final int MAX_PREFIX_SCAN = 4096;
+
+    /** Shortest token eligible for typo-tolerant matching. */
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    /** Shortest token allowed two edits instead of one. */
+    private static final int TWO_EDIT_LENGTH = 8;
+
+    /** Length of the character n-grams used for fuzzy candidates. */
+    private static final int GRAM_LENGTH = 3;
+
+    /** Boundary marker added around terms before extracting n-grams. */
+    private static final char GRAM_PAD = '$';
+
+    /** Orders results worst first so the heap can evict the weakest. */
+    private static final Comparator<SearchResult> WORST_FIRST = Comparator
+            .comparingDouble(SearchResult::getScore)
+            .thenComparing(result -> -result.getProduct().getName().length())
+            .thenComparing(result -> -result.getProduct().getId());
+
+    /** Orders prefix terms rarest first so the heap can evict the rarest. */
+    private static final Comparator<Term> RAREST_FIRST = Comparator
+            .comparingInt((Term term) -> term.postingCount)
+            .thenComparing(term -> term.text, Comparator.reverseOrder());
+
+    /**
+     * A dictionary term and the documents that contain it.
+     */
+    private static final class Term {
+        private final int id;
+        private final String text;
+        private int[] postings = new int[2];
+        private int postingCount;
+
+        private Term(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+
+        private void addPosting(int docId) {
+            if (postingCount > 0 && postings[postingCount - 1] == docId) {
+                return;
+            }
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+            }
+            postings[postingCount++] = docId;
+        }
+    }
+
+    /**
+     * Terms matched by one query token, sorted by term ID for lookup.
+     */
+    private static final class TokenMatches {
+        private int[] termIds = new int[4];
+        private double[] scores = new double[4];
+        private int size;
+        private long postingTotal;
+
+        private void add(Term term, double score) {
+            for (int i = 0; i < size; i++) {
+                if (termIds[i] == term.id) {
+                    scores[i] = Math.max(scores[i], score);
+                    return;
+                }
+            }
+            if (size == termIds.length) {
+                termIds = Arrays.copyOf(termIds, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int insertAt = size;
+            while (insertAt > 0 && termIds[insertAt - 1] > term.id) {
+                termIds[insertAt] = termIds[insertAt - 1];
+                scores[insertAt] = scores[insertAt - 1];
+                insertAt--;
+            }
+            termIds[insertAt] = term.id;
+            scores[insertAt] = score;
+            size++;
+            postingTotal += term.postingCount;
+        }
+
+        private double scoreOf(int termId) {
+            int index = Arrays.binarySearch(termIds, 0, size, termId);
+            return (index >= 0) ? scores[index] : 0;
+        }
+
+        private double maxScore() {
+            double max = 0;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, scores[i]);
+            }
+            return max;
+        }
+
+        private Integer[] bestFirst() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+            return order;
+        }
+    }
+
+    /**
+     * Per-thread scratch space used to skip documents already scored.
+     */
+    private static final class QueryScratch {
+        private int[] seen = new int[0];
+        private int stamp;
+
+        private int begin(int documentCount) {
+            if (seen.length < documentCount) {
+                seen = Arrays.copyOf(seen, Math.max(documentCount, seen.length * 2));
+            }
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<QueryScratch> scratch = ThreadLocal.withInitial(QueryScratch::new);
+
+    /** Indexed products by document ID (guarded by lock). */
+    private final ArrayList<Product> documents = new ArrayList<>();
+
+    /** Name term IDs per document (guarded by lock). */
+    private final ArrayList<int[]> nameTerms = new ArrayList<>();
+
+    /** Category term IDs per document (guarded by lock). */
+    private final ArrayList<int[]> categoryTerms = new ArrayList<>();
+
+    /** IDs of products already indexed (guarded by lock). */
+    private final Set<Long> indexedIds = new HashSet<>();
+
+    /** Sorted term dictionary (guarded by lock). */
+    private final TreeMap<String, Term> dictionary = new TreeMap<>();
+
+    /** Terms by term ID (guarded by lock). */
+    private final ArrayList<Term> termsById = new ArrayList<>();
+
+    /**
+     * Term IDs keyed by character trigram; element 0 of each array holds the
+     * number of IDs that follow it (guarded by lock).
+     */
+    private final Map<String, int[]> gramIndex = new HashMap<>();
+
+    /**
+     * The most frequent longer terms starting with each short prefix, most
+     * frequent first (guarded by lock).
+     */
+    private final Map<String, List<Term>> shortPrefixTerms = new HashMap<>();
+
+    /**
+     * Indexes a product added to the catalog.
+     *
+     * @param prod product that was added
+     */
+    @Override
+    public void productAdded(Product prod) {
+        addProduct(prod);
+    }
+
+    /**
+     * Adds a product to the index. Adding a product already indexed has no
+     * effect.
+     *
+     * @param prod product to index (must not be null)
+     * @throws IllegalArgumentException if product is null
+     */
+    public void addProduct(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        lock.writeLock().lock();
+        try {
+            if (!indexedIds.add(prod.getId())) {
+                return;
+            }
+            int docId = documents.size();
+            documents.add(prod);
+            nameTerms.add(indexTokens(tokenize(prod.getName()), docId));
+
+            Set<String> categoryTokens = new LinkedHashSet<>();
+            for (Category category = prod.getCategory(); category != null; category = category.getParent()) {
+                categoryTokens.addAll(tokenize(category.getName()));
+            }
+            categoryTerms.add(indexTokens(categoryTokens, docId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching products for a query.
+     *
+     * @param query search text (must not be null)
+     * @param limit maximum number of results (must be > 0)
+     * @return results ordered best first (empty if nothing matches)
+     * @throws IllegalArgumentException if query is null or limit is not
+     *                                  positive
+     */
+    public List<SearchResult> search(String query, int limit) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query must not be NULL.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0.");
+        }
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            TokenMatches[] matches = new TokenMatches[tokens.size()];
+            int driver = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                matches[i] = matchToken(tokens.get(i), i == tokens.size() - 1);
+                if (matches[i].size == 0) {
+                    return Collections.emptyList();
+                }
+                if (matches[i].postingTotal < matches[driver].postingTotal) {
+                    driver = i;
+                }
+            }
+
+            QueryScratch queryScratch = scratch.get();
+            int stamp = queryScratch.begin(documents.size());
+            int[] seen = queryScratch.seen;
+            PriorityQueue<SearchResult> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            double otherTokensBound = 0;
+            for (int i = 0; i < matches.length; i++) {
+                if (i != driver) {
+                    otherTokensBound += matches[i].maxScore() * NAME_WEIGHT;
+                }
+            }
+            // A document not yet seen matches the driving token no better
+            // than the current term, so its score is bounded from above.
+            TokenMatches driving = matches[driver];
+            for (int t : driving.bestFirst()) {
+                double bound = driving.scores[t] * NAME_WEIGHT + otherTokensBound;
+                if (top.size() == limit && bound < top.peek().getScore()) {
+                    break;
+                }
+                Term term = termsById.get(driving.termIds[t]);
+                for (int p = 0; p < term.postingCount; p++) {
+                    int docId = term.postings[p];
+                    if (seen[docId] == stamp) {
+                        continue;
+                    }
+                    seen[docId] = stamp;
+                    double score = scoreDocument(docId, matches);
+                    if (score > 0 && (top.size() < limit || score >= top.peek().getScore())) {
+                        offer(top, new SearchResult(documents.get(docId), score), limit);
+                    }
+                }
+            }
+
+            List<SearchResult> results = new ArrayList<>(top);
+            results.sort(WORST_FIRST.reversed());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return indexed product count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase alphanumeric tokens.
+     *
+     * @param text text to tokenize
+     * @return tokens in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Computes the edit distance between two strings, giving up once it
+     * exceeds a bound.
+     *
+     * @param a           first string
+     * @param b           second string
+     * @param maxDistance largest distance of interest
+     * @return edit distance, or maxDistance + 1 if it is larger
+     */
+    static int boundedEditDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], maxDistance + 1);
+    }
+
+    /**
+     * Adds a document to the posting list of each token, creating terms as
+     * needed.
+     *
+     * @param tokens tokens of one field
+     * @param docId  document ID
+     * @return distinct term IDs of the field
+     */
+    private int[] indexTokens(Iterable<String> tokens, int docId) {
+        Set<Integer> termIds = new LinkedHashSet<>();
+        for (String token : tokens) {
+            Term term = dictionary.get(token);
+            if (term == null) {
+                term = new Term(termsById.size(), token);
+                dictionary.put(token, term);
+                termsById.add(term);
+                indexGrams(term);
+            }
+            int postingCount = term.postingCount;
+            term.addPosting(docId);
+            if (term.postingCount != postingCount) {
+                updateShortPrefixTerms(term);
+            }
+            termIds.add(term.id);
+        }
+        int[] result = new int[termIds.size()];
+        int i = 0;
+        for (Integer termId : termIds) {
+            result[i++] = termId;
+        }
+        return result;
+    }
+
+    /**
+     * Re-ranks a term whose posting list grew among the most frequent terms
+     * of each of its short prefixes. Posting counts only grow, so a term
+     * can only move towards the front or displace the last entry.
+     *
+     * @param term term that gained a posting
+     */
+    private void updateShortPrefixTerms(Term term) {
+        int longest = Math.min(SHORT_PREFIX_LENGTH, term.text.length() - 1);
+        for (int length = 1; length <= longest; length++) {
+            List<Term> top = shortPrefixTerms.computeIfAbsent(term.text.substring(0, length),
+                    prefix -> new ArrayList<>());
+            int index = top.indexOf(term);
+            if (index < 0) {
+                if (top.size() == MAX_PREFIX_TERMS) {
+                    if (RAREST_FIRST.compare(term, top.get(top.size() - 1)) <= 0) {
+                        continue;
+                    }
+                    top.remove(top.size() - 1);
+                }
+                index = top.size();
+                top.add(term);
+            }
+            while (index > 0 && RAREST_FIRST.compare(top.get(index - 1), term) < 0) {
+                Collections.swap(top, index - 1, index);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * Registers a new term under each of its distinct trigrams.
+     *
+     * @param term new term
+     */
+    private void indexGrams(Term term) {
+        for (String gram : grams(term.text)) {
+            int[] termIds = gramIndex.get(gram);
+            if (termIds == null) {
+                termIds = new int[] { 1, 0, 0, 0 };
+            } else if (termIds[0] == termIds.length - 1) {
+                termIds = Arrays.copyOf(termIds, termIds.length * 2);
+            }
+            termIds[++termIds[0]] = term.id;
+            gramIndex.put(gram, termIds);
+        }
+    }
+
+    /**
+     * Returns the distinct padded trigrams of a string.
+     *
+     * @param text string to split
+     * @return distinct trigrams
+     */
+    private static Set<String> grams(String text) {
+        String padded = GRAM_PAD + text + GRAM_PAD;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Finds the dictionary terms a query token matches.
+     *
+     * @param token       query token
+     * @param allowPrefix whether prefix matches are allowed
+     * @return matched terms with their scores
+     */
+    private TokenMatches matchToken(String token, boolean allowPrefix) {
+        TokenMatches matches = new TokenMatches();
+        Term exact = dictionary.get(token);
+        if (exact != null) {
+            matches.add(exact, EXACT_MATCH);
+        }
+        if (allowPrefix) {
+            Iterable<Term> expanded = (token.length() <= SHORT_PREFIX_LENGTH)
+                    ? shortPrefixTerms.getOrDefault(token, Collections.emptyList())
+                    : scanPrefix(token);
+            for (Term term : expanded) {
+                double coverage = (double) token.length() / term.text.length();
+                matches.add(term, PREFIX_MATCH * (0.5 + 0.5 * coverage));
+            }
+        }
+        if (exact == null && token.length() >= MIN_FUZZY_LENGTH) {
+            addFuzzyMatches(token, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the most frequent terms that start with a prefix longer than
+     * {@link #SHORT_PREFIX_LENGTH}, visiting at most
+     * {@link #MAX_PREFIX_SCAN} terms in dictionary order.
+     *
+     * @param prefix query token
+     * @return up to {@link #MAX_PREFIX_TERMS} terms, excluding the prefix
+     *         itself
+     */
+    private Iterable<Term> scanPrefix(String prefix) {
+        PriorityQueue<Term> expanded = new PriorityQueue<>(MAX_PREFIX_TERMS + 1, RAREST_FIRST);
+        int visited = 0;
+        for (Term term : dictionary.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values()) {
+            if (++visited > MAX_PREFIX_SCAN) {
+                break;
+            }
+            expanded.add(term);
+            if (expanded.size() > MAX_PREFIX_TERMS) {
+                expanded.poll();
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Adds terms within a small edit distance of a token.
+     *
+     * <p>
+     * Candidates are terms sharing enough trigrams with the token: a term
+     * within d edits shares at least (number of token trigrams - 3d) of them.
+     * Only candidates passing that filter have their edit distance computed.
+     *
+     * @param token   query token
+     * @param matches matches to add to
+     */
+    private void addFuzzyMatches(String token, TokenMatches matches) {
+        int maxDistance = (token.length() >= TWO_EDIT_LENGTH) ? 2 : 1;
+        Set<String> tokenGrams = grams(token);
+        int threshold = Math.max(1, tokenGrams.size() - GRAM_LENGTH * maxDistance);
+
+        Map<Integer, Integer> sharedGrams = new HashMap<>();
+        for (String gram : tokenGrams) {
+            int[] termIds = gramIndex.get(gram);
+            if (termIds == null) {
+                continue;
+            }
+            for (int i = 1; i <= termIds[0]; i++) {
+                sharedGrams.merge(termIds[i], 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : sharedGrams.entrySet()) {
+            if (candidate.getValue() < threshold) {
+                continue;
+            }
+            Term term = termsById.get(candidate.getKey());
+            int distance = boundedEditDistance(token, term.text, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(term, FUZZY_MATCH / (1 << (distance - 1)));
+            }
+        }
+    }
+
+    /**
+     * Scores a document against every query token.
+     *
+     * @param docId   document ID
+     * @param matches matches for each query token
+     * @return total score, or 0 if some token does not match the document
+     */
+    private double scoreDocument(int docId, TokenMatches[] matches) {
+        int[] names = nameTerms.get(docId);
+        int[] categories = categoryTerms.get(docId);
+        double total = 0;
+        for (TokenMatches tokenMatches : matches) {
+            double best = 0;
+            for (int termId : names) {
+                best = Math.max(best, tokenMatches.scoreOf(termId) * NAME_WEIGHT);
+            }
+            for (int termId : categories) {
+                best = Math.max(best, tokenMatches.scoreOf(termId) * CATEGORY_WEIGHT);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Keeps a result if it is among the best seen so far.
+     *
+     * @param top    heap of the best results, worst first
+     * @param result candidate result
+     * @param limit  maximum heap size
+     */
+    private static void offer(PriorityQueue<SearchResult> top, SearchResult result, int limit) {
+        if (top.size() < limit) {
+            top.add(result);
+        } else if (WORST_FIRST.compare(result, top.peek()) > 0) {
+            top.poll();
+            top.add(result);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.apexretail.search;
+
+import com.apexretail.domain.Product;
+
+/**
+ * A product matched by {@link ProductSearchIndex} together with its score.
+ *
+ * <p>
+ * Higher scores are better matches. Scores are only meaningful relative to
+ * other results of the same query.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class SearchResult {
+
+    /** Matched product. */
+    private final Product product;
+
+    /** Relevance score. */
+    private final double score;
+
+    /**
+     * Creates a search result.
+     *
+     * @param product matched product
+     * @param score   relevance score
+     */
+    SearchResult(Product product, double score) {
+        this.product = product;
+        this.score = score;
+    }
+
+    /**
+     * Returns the matched product.
+     *
+     * @return product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the relevance score.
+     *
+     * @return score (higher is better)
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Returns string representation of the result.
+     *
+     * @return formatted string containing product name and score
+     */
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "product='" + product.getName() + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.apexretail.service;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Callback notified by {@link ProductCatalog} after a product has been added.
+ * 
+ * <p>
+ * Listeners are invoked on the thread that added the product. Components
+ * that index the catalog (such as search) use this to stay current without
+ * rescanning it.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public interface CatalogListener {
+
+    /**
+     * Called after a product has been added to the catalog.
+     * 
+     * @param prod product that was added
+     */
+    void productAdded(Product prod);
+}
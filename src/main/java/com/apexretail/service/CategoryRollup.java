@@ -0,0 +1,195 @@
+package com.apexretail.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Maintains precomputed inventory aggregates for every node of the category
+ * tree.
+ *
+ * <p>
+ * Each category node keeps a running SKU count, units on hand and stock
+ * value. When a product is tracked or its stock changes, the change is
+ * added to the product's category and every ancestor, so an update costs
+ * O(depth) and a rollup query at any level is O(1) regardless of catalog
+ * size. Counters are {@link LongAdder}s, so concurrent sales on different
+ * threads do not contend on a single lock.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * CategoryRollup rollup = new CategoryRollup();
+ * inventory.addListener(rollup);
+ * rollup.trackProduct(milk);
+ * long units = rollup.getUnitsOnHand(freshFood);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CategoryRollup implements InventoryListener {
+
+    /** Aggregate nodes keyed by category ID. */
+    private final ConcurrentHashMap<Long, Node> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Aggregate counters for a single category, linked to its parent's node.
+     */
+    private static final class Node {
+        private final Node parent;
+        private final LongAdder skuCount = new LongAdder();
+        private final LongAdder unitsOnHand = new LongAdder();
+        private final LongAdder stockValue = new LongAdder();
+
+        private Node(Node parent) {
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Adds a product's current stock to the aggregates of its category and
+     * all ancestors.
+     *
+     * <p>
+     * Each product should be tracked once; later stock changes arrive
+     * through {@link #stockChanged(Product, int)}.
+     *
+     * @param prod product to track (must not be null)
+     * @throws IllegalArgumentException if product is null
+     */
+    public void trackProduct(Product prod) {
+        validateProduct(prod);
+        long units = prod.getQuantityInStock();
+        long value = units * prod.getPriceInMinorUnits();
+        for (Node node = nodeFor(prod.getCategory()); node != null; node = node.parent) {
+            node.skuCount.increment();
+            node.unitsOnHand.add(units);
+            node.stockValue.add(value);
+        }
+    }
+
+    /**
+     * Removes a product's current stock from the aggregates of its category
+     * and all ancestors.
+     *
+     * @param prod product to stop tracking (must not be null)
+     * @throws IllegalArgumentException if product is null
+     */
+    public void untrackProduct(Product prod) {
+        validateProduct(prod);
+        long units = prod.getQuantityInStock();
+        long value = units * prod.getPriceInMinorUnits();
+        for (Node node = nodeFor(prod.getCategory()); node != null; node = node.parent) {
+            node.skuCount.decrement();
+            node.unitsOnHand.add(-units);
+            node.stockValue.add(-value);
+        }
+    }
+
+    /**
+     * Propagates a stock change up the category tree.
+     *
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    @Override
+    public void stockChanged(Product prod, int delta) {
+        long value = (long) delta * prod.getPriceInMinorUnits();
+        for (Node node = nodeFor(prod.getCategory()); node != null; node = node.parent) {
+            node.unitsOnHand.add(delta);
+            node.stockValue.add(value);
+        }
+    }
+
+    /**
+     * Returns the number of tracked products in a category and its
+     * descendants.
+     *
+     * @param category category to query (must not be null)
+     * @return SKU count for the subtree
+     */
+    public long getSkuCount(Category category) {
+        Node node = existingNode(category);
+        return (node == null) ? 0 : node.skuCount.sum();
+    }
+
+    /**
+     * Returns the total units on hand in a category and its descendants.
+     *
+     * @param category category to query (must not be null)
+     * @return units on hand for the subtree
+     */
+    public long getUnitsOnHand(Category category) {
+        Node node = existingNode(category);
+        return (node == null) ? 0 : node.unitsOnHand.sum();
+    }
+
+    /**
+     * Returns the stock value of a category and its descendants in minor
+     * currency units.
+     *
+     * @param category category to query (must not be null)
+     * @return stock value for the subtree in minor units
+     */
+    public long getStockValueInMinorUnits(Category category) {
+        Node node = existingNode(category);
+        return (node == null) ? 0 : node.stockValue.sum();
+    }
+
+    /**
+     * Returns the stock value of a category and its descendants.
+     *
+     * @param category category to query (must not be null)
+     * @return stock value for the subtree
+     */
+    public BigDecimal getStockValue(Category category) {
+        return BigDecimal.valueOf(getStockValueInMinorUnits(category), Product.PRICE_SCALE);
+    }
+
+    /**
+     * Returns the node for a category, creating it and any missing ancestor
+     * nodes.
+     *
+     * @param category category whose node is needed
+     * @return aggregate node for the category
+     */
+    private Node nodeFor(Category category) {
+        Node node = nodes.get(category.getId());
+        if (node != null) {
+            return node;
+        }
+        Node parentNode = (category.getParent() == null) ? null : nodeFor(category.getParent());
+        return nodes.computeIfAbsent(category.getId(), id -> new Node(parentNode));
+    }
+
+    /**
+     * Returns the node for a category without creating it.
+     *
+     * @param category category to look up
+     * @return aggregate node, or null if nothing has been tracked under it
+     * @throws IllegalArgumentException if category is null
+     */
+    private Node existingNode(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Invalid category.");
+        }
+        return nodes.get(category.getId());
+    }
+
+    /**
+     * Validates that a product reference is not null.
+     *
+     * @param prod product to validate
+     * @throws IllegalArgumentException if product is null
+     */
+    private void validateProduct(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+    }
+}
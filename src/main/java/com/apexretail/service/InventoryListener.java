@@ -0,0 +1,44 @@
+package com.apexretail.service;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Callback notified by {@link InventoryService} after a stock change has been
+ * applied to a product.
+ * 
+ * <p>
+ * Listeners are invoked on the thread that performed the operation, after
+ * the product's stock has already been updated and while that product's
+ * monitor is still held. Implementations should be
+ * fast and thread-safe because they run inline with every sale and restock.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public interface InventoryListener {
+
+    /**
+     * Called after a product's stock quantity has changed.
+     * 
+     * @param prod  product whose stock changed
+     * @param delta signed change in units (negative for sales, positive for
+     *              restocks)
+     */
+    void stockChanged(Product prod, int delta);
+
+    /**
+     * Called after units have been removed from a product's stock without
+     * being sold, such as expired lots or shortfalls found by a stock count.
+     * 
+     * <p>
+     * The default implementation reports the write-off as a stock change,
+     * which suits listeners that only track quantities. Listeners that
+     * treat decreases as sales should override it.
+     * 
+     * @param prod  product whose stock was written off
+     * @param units units removed (always > 0)
+     */
+    default void stockWrittenOff(Product prod, int units) {
+        stockChanged(prod, -units);
+    }
+}
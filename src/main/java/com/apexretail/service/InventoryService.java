@@ -1,5 +1,13 @@
 package com.apexretail.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.apexretail.diagnostics.BatchRunEvent;
+import com.apexretail.diagnostics.InventoryOperationEvent;
 import com.apexretail.domain.Product;
 
 /**
@@ -19,18 +27,136 @@ import com.apexretail.domain.Product;
  * inventory.sellProduct(laptop, 2); // Sell 2 units
  * }</pre>
  *
+ * <p>
+ * Components that derive state from stock levels (such as category rollups)
+ * can register an {@link InventoryListener} to be notified of every change.
+ *
+ * <p>
+ * Each operation holds the product's monitor while it changes the stock and
+ * notifies listeners, so concurrent operations on the same product are
+ * applied one at a time and listeners observe them in the same order.
+ *
+ * <p>
+ * When created with a {@link LotLedger}, products tracked by the ledger are
+ * stocked and sold by lot: sales take units first-expired-first-out,
+ * expired lots are written off before a sale and by {@link #expireLots()},
+ * and write-offs are reported through
+ * {@link InventoryListener#stockWrittenOff(Product, int)}.
+ *
+ * <p>
+ * When created with a {@link TransactionDeduplicator}, sales and restocks
+ * can carry a transaction ID. An operation whose ID has already been
+ * applied is ignored, so a terminal may safely retry a call whose outcome
+ * it did not see.
+ *
+ * <p>
+ * Operations are reported to Java Flight Recorder as
+ * {@link InventoryOperationEvent}s and batch operations as
+ * {@link BatchRunEvent}s.
+ *
  * @author David
  * @version 1.0.0
  */
 public class InventoryService {
 
+    /** Listeners notified after every successful stock change. */
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Lot ledger for perishable products, or null if lots are not tracked. */
+    private final LotLedger lots;
+
+    /** Applied transaction IDs, or null if transactions are not deduplicated. */
+    private final TransactionDeduplicator transactions;
+
+    /**
+     * Creates a service that does not track lots or transaction IDs.
+     */
+    public InventoryService() {
+        this.lots = null;
+        this.transactions = null;
+    }
+
+    /**
+     * Creates a service that stocks and sells the ledger's tracked products
+     * by lot.
+     *
+     * @param lots lot ledger (must not be null)
+     * @throws IllegalArgumentException if lots is null
+     */
+    public InventoryService(LotLedger lots) {
+        if (lots == null) {
+            throw new IllegalArgumentException("Lot ledger must not be NULL.");
+        }
+        this.lots = lots;
+        this.transactions = null;
+    }
+
+    /**
+     * Creates a service that applies each transaction ID at most once.
+     *
+     * @param transactions record of applied transaction IDs (must not be
+     *                     null)
+     * @throws IllegalArgumentException if transactions is null
+     */
+    public InventoryService(TransactionDeduplicator transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Transaction deduplicator must not be NULL.");
+        }
+        this.lots = null;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Creates a service that tracks lots and applies each transaction ID at
+     * most once.
+     *
+     * @param lots         lot ledger (must not be null)
+     * @param transactions record of applied transaction IDs (must not be
+     *                     null)
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public InventoryService(LotLedger lots, TransactionDeduplicator transactions) {
+        if (lots == null || transactions == null) {
+            throw new IllegalArgumentException("Lot ledger and transaction deduplicator must not be NULL.");
+        }
+        this.lots = lots;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Registers a listener to be notified after every stock change.
+     * 
+     * @param listener listener to add (must not be null)
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(InventoryListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Invalid listener.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     * 
+     * @param listener listener to remove
+     */
+    public void removeListener(InventoryListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Sells a specified quantity of a product, reducing its stock.
      * 
      * <p>
      * Validates the product and amount before calling the product's
      * decreaseStock method. This operation is atomic and will only
-     * complete if sufficient stock is available.
+     * complete if sufficient stock is available. Listeners are notified
+     * while the product is still locked.
+     *
+     * <p>
+     * For a product tracked by lot, expired lots are written off first and
+     * the sale is then taken from the lots expiring soonest.
      *
      * @param prod   product to sell (must not be null)
      * @param amount quantity to sell (must be > 0)
@@ -41,7 +167,89 @@ public class InventoryService {
     public void sellProduct(Product prod, int amount) {
         validateProduct(prod);
         validateStockAdjustment(amount);
-        prod.decreaseStock(amount);
+        InventoryOperationEvent event = new InventoryOperationEvent();
+        event.begin();
+        synchronized (prod) {
+            boolean tracked = isTracked(prod);
+            if (tracked) {
+                writeOffExpired(prod, lots.today());
+            }
+            prod.decreaseStock(amount);
+            if (tracked) {
+                lots.allocate(prod, amount);
+            }
+            fireStockChanged(prod, -amount);
+        }
+        event.complete(InventoryOperationEvent.SELL, prod.getId(), amount);
+    }
+
+    /**
+     * Sells a product as part of an identified transaction, ignoring the
+     * call if the transaction has already been applied.
+     *
+     * <p>
+     * The ID is checked and recorded while the product is locked, so
+     * concurrent retries of the same sale are applied exactly once. If the
+     * sale fails, the ID is released and a retry is applied normally.
+     *
+     * @param transactionId transaction ID (must be > 0)
+     * @param prod          product to sell (must not be null)
+     * @param amount        quantity to sell (must be > 0)
+     * @return true if the sale was applied, false if the transaction is a
+     *         duplicate
+     * @throws IllegalArgumentException if any parameter fails validation,
+     *                                  insufficient stock is available or
+     *                                  the service does not track
+     *                                  transaction IDs
+     */
+    public boolean sellProduct(long transactionId, Product prod, int amount) {
+        validateTransaction(transactionId);
+        validateProduct(prod);
+        validateStockAdjustment(amount);
+        synchronized (prod) {
+            if (!transactions.markIfAbsent(transactionId)) {
+                return false;
+            }
+            try {
+                sellProduct(prod, amount);
+            } catch (RuntimeException e) {
+                transactions.forget(transactionId);
+                throw e;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Restocks a product as part of an identified transaction, ignoring the
+     * call if the transaction has already been applied.
+     *
+     * @param transactionId transaction ID (must be > 0)
+     * @param prod          product to restock (must not be null)
+     * @param amount        quantity to add (must be > 0)
+     * @return true if the restock was applied, false if the transaction is
+     *         a duplicate
+     * @throws IllegalArgumentException if any parameter fails validation or
+     *                                  the service does not track
+     *                                  transaction IDs
+     * @see #sellProduct(long, Product, int)
+     */
+    public boolean restockProduct(long transactionId, Product prod, int amount) {
+        validateTransaction(transactionId);
+        validateProduct(prod);
+        validateStockAdjustment(amount);
+        synchronized (prod) {
+            if (!transactions.markIfAbsent(transactionId)) {
+                return false;
+            }
+            try {
+                restockProduct(prod, amount);
+            } catch (RuntimeException e) {
+                transactions.forget(transactionId);
+                throw e;
+            }
+            return true;
+        }
     }
 
     /**
@@ -49,7 +257,12 @@ public class InventoryService {
      * 
      * <p>
      * Validates the product and amount before calling the product's
-     * increaseStock method.
+     * increaseStock method. Listeners are notified while the product is
+     * still locked.
+     *
+     * <p>
+     * For a product tracked by lot, the units form a new lot that expires
+     * after the product's shelf life.
      *
      * @param prod   product to restock (must not be null)
      * @param amount quantity to add (must be > 0)
@@ -59,7 +272,172 @@ public class InventoryService {
     public void restockProduct(Product prod, int amount) {
         validateProduct(prod);
         validateStockAdjustment(amount);
-        prod.increaseStock(amount);
+        InventoryOperationEvent event = new InventoryOperationEvent();
+        event.begin();
+        synchronized (prod) {
+            prod.increaseStock(amount);
+            if (isTracked(prod)) {
+                lots.receive(prod, amount, lots.defaultExpiry(prod));
+            }
+            fireStockChanged(prod, amount);
+        }
+        event.complete(InventoryOperationEvent.RESTOCK, prod.getId(), amount);
+    }
+
+    /**
+     * Restocks a product tracked by lot with a lot of the given expiry date.
+     *
+     * @param prod       product to restock (must not be null and tracked by
+     *                   lot)
+     * @param amount     quantity to add (must be > 0)
+     * @param expiryDate last day the lot may be sold (must not be before
+     *                   today)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public void restockLot(Product prod, int amount, LocalDate expiryDate) {
+        validateProduct(prod);
+        validateStockAdjustment(amount);
+        if (!isTracked(prod)) {
+            throw new IllegalArgumentException("Product is not tracked by lot.");
+        }
+        if (expiryDate == null || expiryDate.isBefore(lots.today())) {
+            throw new IllegalArgumentException("Expiry date must not be in the past.");
+        }
+        InventoryOperationEvent event = new InventoryOperationEvent();
+        event.begin();
+        synchronized (prod) {
+            prod.increaseStock(amount);
+            lots.receive(prod, amount, expiryDate);
+            fireStockChanged(prod, amount);
+        }
+        event.complete(InventoryOperationEvent.RESTOCK_LOT, prod.getId(), amount);
+    }
+
+    /**
+     * Applies a batch of stock corrections, such as those found by a
+     * physical count.
+     *
+     * <p>
+     * Each adjustment is applied under its product's lock. Units added are
+     * reported as a stock change; units removed are reported as a
+     * write-off, because they left without being sold. For a product
+     * tracked by lot, added units form a new lot and removed units are
+     * taken first-expired-first-out. An adjustment that would take stock
+     * below zero is skipped and returned instead of failing the batch.
+     *
+     * @param adjustments corrections to apply (must not be null or contain
+     *                    null)
+     * @return adjustments that were not applied
+     * @throws IllegalArgumentException if adjustments is null or contains
+     *                                  null
+     */
+    public List<StockAdjustment> adjustStock(List<StockAdjustment> adjustments) {
+        if (adjustments == null) {
+            throw new IllegalArgumentException("Invalid adjustment list.");
+        }
+        for (StockAdjustment adjustment : adjustments) {
+            if (adjustment == null) {
+                throw new IllegalArgumentException("Invalid adjustment.");
+            }
+        }
+        BatchRunEvent event = new BatchRunEvent();
+        event.begin();
+        List<StockAdjustment> rejected = new ArrayList<>();
+        for (StockAdjustment adjustment : adjustments) {
+            Product prod = adjustment.getProduct();
+            int delta = adjustment.getDelta();
+            synchronized (prod) {
+                boolean tracked = isTracked(prod);
+                if (delta > 0) {
+                    prod.increaseStock(delta);
+                    if (tracked) {
+                        lots.receive(prod, delta, lots.defaultExpiry(prod));
+                    }
+                    fireStockChanged(prod, delta);
+                } else if (-(long) delta <= prod.getQuantityInStock()) {
+                    prod.decreaseStock(-delta);
+                    if (tracked) {
+                        lots.allocate(prod, -delta);
+                    }
+                    for (InventoryListener listener : listeners) {
+                        listener.stockWrittenOff(prod, -delta);
+                    }
+                } else {
+                    rejected.add(adjustment);
+                }
+            }
+        }
+        event.complete(BatchRunEvent.STOCK_ADJUSTMENT, adjustments.size());
+        return rejected;
+    }
+
+    /**
+     * Writes off every lot whose expiry date has passed.
+     *
+     * <p>
+     * Only products with expired lots are visited, found through the
+     * ledger's expiry index. Does nothing if the service does not track
+     * lots.
+     *
+     * @return total units written off
+     */
+    public int expireLots() {
+        if (lots == null) {
+            return 0;
+        }
+        BatchRunEvent event = new BatchRunEvent();
+        event.begin();
+        LocalDate today = lots.today();
+        Set<Product> expired = lots.pollExpiredProducts(today);
+        int writtenOff = 0;
+        for (Product prod : expired) {
+            synchronized (prod) {
+                writtenOff += writeOffExpired(prod, today);
+            }
+        }
+        event.complete(BatchRunEvent.LOT_EXPIRY, expired.size());
+        return writtenOff;
+    }
+
+    /**
+     * Removes a tracked product's expired lots from stock. Caller holds the
+     * product's monitor.
+     *
+     * @param prod  tracked product
+     * @param today current date
+     * @return units written off
+     */
+    private int writeOffExpired(Product prod, LocalDate today) {
+        int units = lots.removeExpired(prod, today);
+        if (units > 0) {
+            prod.decreaseStock(units);
+            for (InventoryListener listener : listeners) {
+                listener.stockWrittenOff(prod, units);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Checks whether the service sells a product by lot.
+     *
+     * @param prod product to check
+     * @return true if a ledger is configured and tracks the product
+     */
+    private boolean isTracked(Product prod) {
+        return lots != null && lots.isTracked(prod);
+    }
+
+    /**
+     * Notifies all registered listeners of a stock change.
+     * 
+     * @param prod  product whose stock changed
+     * @param delta signed change in units
+     */
+    private void fireStockChanged(Product prod, int delta) {
+        for (InventoryListener listener : listeners) {
+            listener.stockChanged(prod, delta);
+        }
     }
 
     /**
@@ -85,4 +463,19 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity must be greater than 0.");
         }
     }
+
+    /**
+     * Validates a transaction ID and that the service deduplicates
+     * transactions.
+     *
+     * @param transactionId ID to validate
+     * @throws IllegalArgumentException if the ID is not positive or the
+     *                                  service does not track transaction IDs
+     */
+    private void validateTransaction(long transactionId) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Service does not track transaction IDs.");
+        }
+        TransactionDeduplicator.validateTransactionId(transactionId);
+    }
 }
\ No newline at end of file
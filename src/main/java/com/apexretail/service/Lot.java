@@ -0,0 +1,118 @@
+package com.apexretail.service;
+
+import java.time.LocalDate;
+
+import com.apexretail.domain.Product;
+
+/**
+ * A quantity of one product received together and sharing an expiry date.
+ *
+ * <p>
+ * Lots are created and consumed by {@link InventoryService} through a
+ * {@link LotLedger}. The remaining quantity is guarded by the product's
+ * monitor; lots returned by {@link LotLedger#getLots(Product)} are
+ * snapshots and never change.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class Lot {
+
+    /** Product the lot belongs to. */
+    private final Product product;
+
+    /** Last day the lot may be sold. */
+    private final LocalDate expiryDate;
+
+    /** Receipt order, used to break ties between lots expiring on the same day. */
+    private final long sequence;
+
+    /** Units not yet sold or written off. */
+    private int quantity;
+
+    /**
+     * Creates a lot.
+     *
+     * @param product    product the lot belongs to
+     * @param expiryDate last day the lot may be sold
+     * @param sequence   receipt order
+     * @param quantity   units received
+     */
+    Lot(Product product, LocalDate expiryDate, long sequence, int quantity) {
+        this.product = product;
+        this.expiryDate = expiryDate;
+        this.sequence = sequence;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Orders lots first-expired-first-out, then by receipt.
+     *
+     * @param other lot to compare with
+     * @return negative if this lot must be sold first
+     */
+    int compareFefo(Lot other) {
+        int byDate = expiryDate.compareTo(other.expiryDate);
+        return (byDate != 0) ? byDate : Long.compare(sequence, other.sequence);
+    }
+
+    /**
+     * Returns the product the lot belongs to.
+     *
+     * @return product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the last day the lot may be sold.
+     *
+     * @return expiry date
+     */
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    /**
+     * Returns the units left in the lot.
+     *
+     * @return remaining quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the units left in the lot.
+     *
+     * @param quantity remaining quantity
+     */
+    void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * Returns an unchanging copy of this lot.
+     *
+     * @return snapshot
+     */
+    Lot snapshot() {
+        return new Lot(product, expiryDate, sequence, quantity);
+    }
+
+    /**
+     * Returns string representation of the lot.
+     *
+     * @return formatted string containing product ID, expiry date and
+     *         quantity
+     */
+    @Override
+    public String toString() {
+        return "Lot{" +
+                "productId=" + product.getId() +
+                ", expiryDate=" + expiryDate +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,276 @@
+package com.apexretail.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Tracks the stock of perishable products as lots with expiry dates.
+ *
+ * <p>
+ * Each tracked product keeps its open lots in a priority queue ordered
+ * first-expired-first-out, so a sale consumes the head lot and costs
+ * O(log n) per lot emptied, however many lots are open. A second,
+ * ledger-wide index orders every open lot by expiry date, so an expiry
+ * sweep visits only the lots that have expired instead of scanning all
+ * products. Lots emptied by sales or write-offs leave the index at once, in
+ * O(log n), so it never grows beyond the lots still open.
+ *
+ * <p>
+ * The ledger is driven by {@link InventoryService}, which keeps
+ * {@link Product#getQuantityInStock()} equal to the sum of the product's
+ * lots. Lot state is guarded by the product's monitor, like the stock
+ * itself; the expiry index has its own lock, which is never held while
+ * acquiring a product's monitor.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * LotLedger lots = new LotLedger(Clock.systemDefaultZone());
+ * lots.track(milk, Period.ofDays(10));
+ * InventoryService inventory = new InventoryService(lots);
+ * inventory.restockLot(milk, 24, LocalDate.now().plusDays(7));
+ * inventory.sellProduct(milk, 2); // taken from the lot expiring first
+ * inventory.expireLots(); // writes off lots past their date
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class LotLedger {
+
+    /**
+     * Open lots of one product.
+     */
+    private static final class ProductLots {
+        private final Period shelfLife;
+        private final PriorityQueue<Lot> lots = new PriorityQueue<>(Lot::compareFefo);
+
+        private ProductLots(Period shelfLife) {
+            this.shelfLife = shelfLife;
+        }
+    }
+
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, ProductLots> products = new ConcurrentHashMap<>();
+
+    /** Every open lot, earliest expiry first (guarded by itself). */
+    private final TreeSet<Lot> expiryIndex = new TreeSet<>(Lot::compareFefo);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Creates an empty ledger.
+     *
+     * @param clock clock that defines the current date (must not be null)
+     * @throws IllegalArgumentException if clock is null
+     */
+    public LotLedger(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock must not be NULL.");
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Starts tracking a product by lot. Stock already on hand becomes one
+     * lot expiring after the shelf life.
+     *
+     * @param prod      product to track (must not be null)
+     * @param shelfLife time from receipt to expiry for lots restocked
+     *                  without an explicit date (must be positive)
+     * @throws IllegalArgumentException if an argument is invalid or the
+     *                                  product is already tracked
+     */
+    public void track(Product prod, Period shelfLife) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        if (shelfLife == null || shelfLife.isNegative() || shelfLife.isZero()) {
+            throw new IllegalArgumentException("Shelf life must be positive.");
+        }
+        synchronized (prod) {
+            ProductLots productLots = new ProductLots(shelfLife);
+            if (products.putIfAbsent(prod.getId(), productLots) != null) {
+                throw new IllegalArgumentException("Product id " + prod.getId() + " is already tracked by lot.");
+            }
+            if (prod.getQuantityInStock() > 0) {
+                addLot(productLots, prod, today().plus(shelfLife), prod.getQuantityInStock());
+            }
+        }
+    }
+
+    /**
+     * Checks whether a product is tracked by lot.
+     *
+     * @param prod product to check
+     * @return true if the product's stock is held in lots
+     */
+    public boolean isTracked(Product prod) {
+        return prod != null && products.containsKey(prod.getId());
+    }
+
+    /**
+     * Returns the open lots of a product in the order they will be sold.
+     *
+     * @param prod product (must not be null)
+     * @return snapshots of the open lots, empty if the product is not
+     *         tracked
+     * @throws IllegalArgumentException if product is null
+     */
+    public List<Lot> getLots(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        ProductLots productLots = products.get(prod.getId());
+        if (productLots == null) {
+            return List.of();
+        }
+        synchronized (prod) {
+            Lot[] open = productLots.lots.toArray(new Lot[0]);
+            Arrays.sort(open, Lot::compareFefo);
+            List<Lot> snapshots = new ArrayList<>(open.length);
+            for (Lot lot : open) {
+                snapshots.add(lot.snapshot());
+            }
+            return snapshots;
+        }
+    }
+
+    /**
+     * Returns the current date according to the ledger's clock.
+     *
+     * @return today's date
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Returns the expiry date of a lot received today without an explicit
+     * date. Caller holds the product's monitor.
+     *
+     * @param prod tracked product
+     * @return today plus the product's shelf life
+     */
+    LocalDate defaultExpiry(Product prod) {
+        return today().plus(products.get(prod.getId()).shelfLife);
+    }
+
+    /**
+     * Adds a received lot. Caller holds the product's monitor.
+     *
+     * @param prod       tracked product
+     * @param amount     units received
+     * @param expiryDate last day the lot may be sold
+     */
+    void receive(Product prod, int amount, LocalDate expiryDate) {
+        addLot(products.get(prod.getId()), prod, expiryDate, amount);
+    }
+
+    /**
+     * Takes units from the lots expiring first. Caller holds the product's
+     * monitor and has checked that enough stock is on hand.
+     *
+     * <p>
+     * Stock added to the product without going through the ledger is not
+     * held in any lot. Once every lot is used up, the rest of the amount is
+     * taken from that untracked stock and the product is left with no open
+     * lots.
+     *
+     * @param prod   tracked product
+     * @param amount units sold
+     * @return units that no lot covered, normally 0
+     */
+    int allocate(Product prod, int amount) {
+        PriorityQueue<Lot> lots = products.get(prod.getId()).lots;
+        while (amount > 0 && !lots.isEmpty()) {
+            Lot head = lots.peek();
+            if (head.getQuantity() > amount) {
+                head.setQuantity(head.getQuantity() - amount);
+                return 0;
+            }
+            amount -= head.getQuantity();
+            head.setQuantity(0);
+            lots.poll();
+            unindex(head);
+        }
+        return amount;
+    }
+
+    /**
+     * Removes a product's lots that expired before the given date. Caller
+     * holds the product's monitor.
+     *
+     * @param prod  tracked product
+     * @param today current date
+     * @return units removed
+     */
+    int removeExpired(Product prod, LocalDate today) {
+        PriorityQueue<Lot> lots = products.get(prod.getId()).lots;
+        int removed = 0;
+        while (!lots.isEmpty() && lots.peek().getExpiryDate().isBefore(today)) {
+            Lot lot = lots.poll();
+            removed += lot.getQuantity();
+            lot.setQuantity(0);
+            unindex(lot);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every entry that expired before the given date from the
+     * expiry index and returns the products they belong to.
+     *
+     * @param today current date
+     * @return products that may hold expired lots, in expiry order
+     */
+    Set<Product> pollExpiredProducts(LocalDate today) {
+        Set<Product> expired = new LinkedHashSet<>();
+        synchronized (expiryIndex) {
+            while (!expiryIndex.isEmpty() && expiryIndex.first().getExpiryDate().isBefore(today)) {
+                expired.add(expiryIndex.pollFirst().getProduct());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Creates a lot and adds it to the product's queue and the expiry index.
+     *
+     * @param productLots lots of the product
+     * @param prod        product
+     * @param expiryDate  last day the lot may be sold
+     * @param amount      units received
+     */
+    private void addLot(ProductLots productLots, Product prod, LocalDate expiryDate, int amount) {
+        Lot lot = new Lot(prod, expiryDate, sequence.incrementAndGet(), amount);
+        productLots.lots.add(lot);
+        synchronized (expiryIndex) {
+            expiryIndex.add(lot);
+        }
+    }
+
+    /**
+     * Removes an emptied lot from the expiry index.
+     *
+     * @param lot lot that has left its product's queue
+     */
+    private void unindex(Lot lot) {
+        synchronized (expiryIndex) {
+            expiryIndex.remove(lot);
+        }
+    }
+}
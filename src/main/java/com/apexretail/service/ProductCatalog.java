@@ -0,0 +1,140 @@
+package com.apexretail.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.apexretail.domain.Product;
+
+/**
+ * Thread-safe registry of products keyed by their unique ID.
+ *
+ * <p>
+ * The catalog gives services constant-time lookup of a product by ID,
+ * which components such as replication need when applying changes that
+ * only carry the product ID. Registered {@link CatalogListener}s are
+ * notified of every product added.
+ *
+ * <p>
+ * Example:
+ * 
+ * <pre>{@code
+ * ProductCatalog catalog = new ProductCatalog();
+ * catalog.addProduct(milk);
+ * Product found = catalog.getProduct(3);
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ProductCatalog {
+
+    /** Products keyed by ID. */
+    private final ConcurrentHashMap<Long, Product> products = new ConcurrentHashMap<>();
+
+    /** Listeners notified after every product added. */
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener to be notified of products added from now on.
+     * 
+     * @param listener listener to add (must not be null)
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(CatalogListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Invalid listener.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a product to the catalog.
+     * 
+     * @param prod product to add (must not be null)
+     * @throws IllegalArgumentException if product is null or its ID is
+     *                                  already registered
+     */
+    public void addProduct(Product prod) {
+        if (prod == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        if (products.putIfAbsent(prod.getId(), prod) != null) {
+            throw new IllegalArgumentException("Product id " + prod.getId() + " is already in the catalog.");
+        }
+        for (CatalogListener listener : listeners) {
+            listener.productAdded(prod);
+        }
+    }
+
+    /**
+     * Adds products in bulk, in list order. A product whose ID is already
+     * registered, or repeats an earlier ID in the list, is skipped instead
+     * of failing the whole batch.
+     * 
+     * @param prods products to add (must not be null or contain null)
+     * @return indexes in prods of the products skipped as duplicates
+     * @throws IllegalArgumentException if prods is null or contains null
+     */
+    public BitSet addProducts(List<Product> prods) {
+        if (prods == null) {
+            throw new IllegalArgumentException("Invalid product list.");
+        }
+        BitSet duplicates = new BitSet();
+        for (int i = 0; i < prods.size(); i++) {
+            Product prod = prods.get(i);
+            if (prod == null) {
+                throw new IllegalArgumentException("Invalid product.");
+            }
+            if (products.putIfAbsent(prod.getId(), prod) != null) {
+                duplicates.set(i);
+                continue;
+            }
+            for (CatalogListener listener : listeners) {
+                listener.productAdded(prod);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Returns the product with the given ID.
+     * 
+     * @param id product ID
+     * @return product, or null if no product has this ID
+     */
+    public Product getProduct(long id) {
+        return products.get(id);
+    }
+
+    /**
+     * Checks whether a product with the given ID is registered.
+     * 
+     * @param id product ID
+     * @return true if the product exists
+     */
+    public boolean containsProduct(long id) {
+        return products.containsKey(id);
+    }
+
+    /**
+     * Returns a read-only live view of all products.
+     * 
+     * @return unmodifiable collection of products
+     */
+    public Collection<Product> getProducts() {
+        return Collections.unmodifiableCollection(products.values());
+    }
+
+    /**
+     * Returns the number of products in the catalog.
+     * 
+     * @return product count
+     */
+    public int size() {
+        return products.size();
+    }
+}
@@ -0,0 +1,68 @@
+package com.apexretail.service;
+
+import com.apexretail.domain.Product;
+
+/**
+ * A signed stock correction for one product, applied in batches by
+ * {@link InventoryService#adjustStock(java.util.List)}.
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public final class StockAdjustment {
+
+    /** Product to correct. */
+    private final Product product;
+
+    /** Signed change in units. */
+    private final int delta;
+
+    /**
+     * Creates a stock adjustment.
+     *
+     * @param product product to correct (must not be null)
+     * @param delta   signed change in units (must not be 0)
+     * @throws IllegalArgumentException if product is null or delta is 0
+     */
+    public StockAdjustment(Product product, int delta) {
+        if (product == null) {
+            throw new IllegalArgumentException("Invalid product.");
+        }
+        if (delta == 0) {
+            throw new IllegalArgumentException("Adjustment must not be 0.");
+        }
+        this.product = product;
+        this.delta = delta;
+    }
+
+    /**
+     * Returns the product to correct.
+     *
+     * @return product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the signed change in units.
+     *
+     * @return units to add (positive) or remove (negative)
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * Returns string representation of the adjustment.
+     *
+     * @return formatted string containing product ID and delta
+     */
+    @Override
+    public String toString() {
+        return "StockAdjustment{" +
+                "productId=" + product.getId() +
+                ", delta=" + delta +
+                '}';
+    }
+}
@@ -0,0 +1,423 @@
+package com.apexretail.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Remembers recently applied transaction IDs so that retried operations
+ * are applied only once.
+ *
+ * <p>
+ * Time is divided into buckets of {@code window / buckets}. Each ID is
+ * recorded in the bucket of the moment it was first seen, and a bucket is
+ * cleared and reused once it is older than the window, so an ID is
+ * remembered for at least the window and memory is bounded by the number
+ * of IDs seen in one window. Every bucket holds a Bloom filter, which
+ * answers "definitely not seen" after reading a few bits, and an exact
+ * open-addressing table of primitive IDs, consulted only when the filter
+ * reports a possible match. Answers are therefore exact: a new ID is never
+ * reported as a duplicate. The tables are sized for the expected number of
+ * IDs and grow only if it is exceeded.
+ *
+ * <p>
+ * IDs are spread over independently locked stripes by hash, so threads
+ * recording different transactions rarely contend.
+ *
+ * <p>
+ * Used by {@link InventoryService} for its operations that take a
+ * transaction ID.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ * TransactionDeduplicator transactions = new TransactionDeduplicator(Clock.systemUTC(), Duration.ofMinutes(10),
+ *         1_000_000);
+ * InventoryService inventory = new InventoryService(transactions);
+ * inventory.sellProduct(txId, milk, 2); // true
+ * inventory.sellProduct(txId, milk, 2); // false, retry ignored
+ * }</pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class TransactionDeduplicator {
+
+    /** Default number of buckets per window. */
+    public static final int DEFAULT_BUCKETS = 8;
+
+    /** Number of independently locked stripes (a power of two). */
+    private static final int STRIPES = 16;
+
+    /** Bloom filter bits per expected ID, for about 1% false positives. */
+    private static final int BLOOM_BITS_PER_ID = 10;
+
+    /** Bits tested per ID in a Bloom filter. */
+    private static final int BLOOM_HASHES = 7;
+
+    /** Smallest number of IDs a stripe's bucket is sized for. */
+    private static final int MIN_IDS_PER_BUCKET = 16;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates a deduplicator with the default number of buckets.
+     *
+     * @param clock                clock that defines the current time (must
+     *                             not be null)
+     * @param window               minimum time an ID is remembered (must be
+     *                             at least 1 ms per bucket)
+     * @param expectedTransactions IDs expected per window (must be > 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public TransactionDeduplicator(Clock clock, Duration window, int expectedTransactions) {
+        this(clock, window, DEFAULT_BUCKETS, expectedTransactions);
+    }
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param clock                clock that defines the current time (must
+     *                             not be null)
+     * @param window               minimum time an ID is remembered (must be
+     *                             at least 1 ms per bucket)
+     * @param buckets              buckets per window (must be > 0)
+     * @param expectedTransactions IDs expected per window (must be > 0)
+     * @throws IllegalArgumentException if any parameter fails validation
+     */
+    public TransactionDeduplicator(Clock clock, Duration window, int buckets, int expectedTransactions) {
+        if (clock == null || window == null) {
+            throw new IllegalArgumentException("Clock and window must not be NULL.");
+        }
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Bucket count must be greater than 0.");
+        }
+        if (expectedTransactions <= 0) {
+            throw new IllegalArgumentException("Expected transactions must be greater than 0.");
+        }
+        if (window.isNegative() || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window must be at least 1 ms per bucket.");
+        }
+        this.clock = clock;
+        this.bucketMillis = (window.toMillis() + buckets - 1) / buckets;
+        int idsPerBucket = Math.max(MIN_IDS_PER_BUCKET,
+                (int) (((long) expectedTransactions + (long) buckets * STRIPES - 1) / ((long) buckets * STRIPES)));
+        for (int i = 0; i < STRIPES; i++) {
+            // One extra bucket so the oldest full window survives while the newest fills
+            stripes[i] = new Stripe(buckets + 1, idsPerBucket);
+        }
+    }
+
+    /**
+     * Records an ID unless it has been seen within the window.
+     *
+     * @param transactionId transaction ID (must be > 0)
+     * @return true if the ID is new and is now recorded, false if it is a
+     *         duplicate
+     * @throws IllegalArgumentException if transactionId is not positive
+     */
+    public boolean markIfAbsent(long transactionId) {
+        validateTransactionId(transactionId);
+        long hash = mix(transactionId);
+        Stripe stripe = stripeFor(hash);
+        long bucket = currentBucket();
+        synchronized (stripe) {
+            if (stripe.contains(transactionId, hash, bucket)) {
+                return false;
+            }
+            stripe.add(transactionId, hash, bucket);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether an ID has been seen within the window.
+     *
+     * @param transactionId transaction ID (must be > 0)
+     * @return true if the ID is recorded
+     * @throws IllegalArgumentException if transactionId is not positive
+     */
+    public boolean contains(long transactionId) {
+        validateTransactionId(transactionId);
+        long hash = mix(transactionId);
+        Stripe stripe = stripeFor(hash);
+        long bucket = currentBucket();
+        synchronized (stripe) {
+            return stripe.contains(transactionId, hash, bucket);
+        }
+    }
+
+    /**
+     * Removes an ID recorded by {@link #markIfAbsent(long)} whose operation
+     * then failed, so a retry is applied. The ID's Bloom filter bits stay
+     * set, which only costs a table lookup for that ID.
+     *
+     * @param transactionId transaction ID
+     */
+    void forget(long transactionId) {
+        long hash = mix(transactionId);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            stripe.remove(transactionId, hash);
+        }
+    }
+
+    /**
+     * Returns the bucket number of the current time.
+     *
+     * @return current bucket
+     */
+    private long currentBucket() {
+        return Math.floorDiv(clock.millis(), bucketMillis);
+    }
+
+    /**
+     * Returns the stripe that owns a hash.
+     *
+     * @param hash mixed ID
+     * @return stripe
+     */
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 60) & (STRIPES - 1)];
+    }
+
+    /**
+     * Validates a transaction ID.
+     *
+     * @param transactionId ID to check
+     * @throws IllegalArgumentException if the ID is not positive
+     */
+    static void validateTransactionId(long transactionId) {
+        if (transactionId <= 0) {
+            throw new IllegalArgumentException("Transaction ID must be greater than 0.");
+        }
+    }
+
+    /**
+     * Scrambles an ID so that sequential IDs spread over the bits.
+     *
+     * @param id transaction ID
+     * @return 64-bit hash
+     */
+    private static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /**
+     * Ring of buckets for the IDs whose hash falls in one stripe. Guarded by
+     * its own monitor.
+     */
+    private static final class Stripe {
+        private final int idsPerBucket;
+        private final long[] epochs;
+        private final long[][] blooms;
+        private final long[][] tables;
+        private final int[] sizes;
+
+        private Stripe(int buckets, int idsPerBucket) {
+            this.idsPerBucket = idsPerBucket;
+            this.epochs = new long[buckets];
+            this.blooms = new long[buckets][];
+            this.tables = new long[buckets][];
+            this.sizes = new int[buckets];
+            int bloomBits = Integer.highestOneBit(idsPerBucket * BLOOM_BITS_PER_ID - 1) << 1;
+            Arrays.fill(epochs, Long.MIN_VALUE);
+            for (int b = 0; b < buckets; b++) {
+                blooms[b] = new long[Math.max(1, bloomBits / Long.SIZE)];
+                tables[b] = new long[initialTableCapacity()];
+            }
+        }
+
+        /**
+         * Checks every live bucket for an ID.
+         *
+         * @param id     transaction ID
+         * @param hash   mixed ID
+         * @param bucket current bucket number
+         * @return true if a live bucket holds the ID
+         */
+        private boolean contains(long id, long hash, long bucket) {
+            for (int b = 0; b < epochs.length; b++) {
+                if (isLive(b, bucket) && mightContain(blooms[b], hash) && indexOf(tables[b], id, hash) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records an ID in the current bucket, clearing the bucket first if
+         * it still holds an expired window.
+         *
+         * @param id     transaction ID
+         * @param hash   mixed ID
+         * @param bucket current bucket number
+         */
+        private void add(long id, long hash, long bucket) {
+            int b = (int) Math.floorMod(bucket, (long) epochs.length);
+            if (epochs[b] != bucket) {
+                Arrays.fill(blooms[b], 0);
+                if (tables[b].length > initialTableCapacity()) {
+                    tables[b] = new long[initialTableCapacity()];
+                } else {
+                    Arrays.fill(tables[b], 0);
+                }
+                sizes[b] = 0;
+                epochs[b] = bucket;
+            }
+            long[] bloom = blooms[b];
+            int mask = bloom.length * Long.SIZE - 1;
+            int h1 = (int) (hash >>> 32);
+            int h2 = (int) hash | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+            if ((sizes[b] + 1) * 2 > tables[b].length) {
+                tables[b] = rehash(tables[b]);
+            }
+            insert(tables[b], id, hash);
+            sizes[b]++;
+        }
+
+        /**
+         * Removes an ID from whichever bucket holds it.
+         *
+         * @param id   transaction ID
+         * @param hash mixed ID
+         */
+        private void remove(long id, long hash) {
+            for (int b = 0; b < epochs.length; b++) {
+                long[] table = tables[b];
+                int i = indexOf(table, id, hash);
+                if (i < 0) {
+                    continue;
+                }
+                // Backward-shift deletion keeps every probe chain unbroken
+                int mask = table.length - 1;
+                int j = i;
+                while (true) {
+                    j = (j + 1) & mask;
+                    if (table[j] == 0) {
+                        break;
+                    }
+                    int home = home(mix(table[j]), mask);
+                    boolean stays = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+                    if (!stays) {
+                        table[i] = table[j];
+                        i = j;
+                    }
+                }
+                table[i] = 0;
+                sizes[b]--;
+                return;
+            }
+        }
+
+        /**
+         * Checks whether a bucket covers part of the current window.
+         *
+         * @param b      bucket slot
+         * @param bucket current bucket number
+         * @return true if the slot's IDs are still remembered
+         */
+        private boolean isLive(int b, long bucket) {
+            return epochs[b] != Long.MIN_VALUE && bucket - epochs[b] < epochs.length;
+        }
+
+        private int initialTableCapacity() {
+            return Integer.highestOneBit(idsPerBucket * 2 - 1) << 1;
+        }
+
+        /**
+         * Tests an ID's bits in a Bloom filter.
+         *
+         * @param bloom filter bits
+         * @param hash  mixed ID
+         * @return false if the ID is definitely absent
+         */
+        private static boolean mightContain(long[] bloom, long hash) {
+            int mask = bloom.length * Long.SIZE - 1;
+            int h1 = (int) (hash >>> 32);
+            int h2 = (int) hash | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Finds an ID in a table by linear probing.
+         *
+         * @param table open-addressing table (0 marks an empty slot)
+         * @param id    transaction ID
+         * @param hash  mixed ID
+         * @return slot index, or -1 if absent
+         */
+        private static int indexOf(long[] table, long id, long hash) {
+            int mask = table.length - 1;
+            for (int i = home(hash, mask);; i = (i + 1) & mask) {
+                long entry = table[i];
+                if (entry == id) {
+                    return i;
+                }
+                if (entry == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Inserts an ID known to be absent.
+         *
+         * @param table open-addressing table with a free slot
+         * @param id    transaction ID
+         * @param hash  mixed ID
+         */
+        private static void insert(long[] table, long id, long hash) {
+            int mask = table.length - 1;
+            int i = home(hash, mask);
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = id;
+        }
+
+        /**
+         * Copies a table into one twice its size.
+         *
+         * @param table full table
+         * @return larger table holding the same IDs
+         */
+        private static long[] rehash(long[] table) {
+            long[] larger = new long[table.length * 2];
+            for (long id : table) {
+                if (id != 0) {
+                    insert(larger, id, mix(id));
+                }
+            }
+            return larger;
+        }
+
+        /**
+         * Returns the preferred slot of a hash.
+         *
+         * @param hash mixed ID
+         * @param mask table length minus one
+         * @return slot index
+         */
+        private static int home(long hash, int mask) {
+            return (int) hash & mask;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.apexretail.audit;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Manual benchmark of the cost of recording one transaction in an
+ * {@link AuditLog}, in time and heap allocation on the calling thread.
+ *
+ * <p>
+ * Pass the number of records per round as the first argument (default
+ * 5,000,000). Run after {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.apexretail.audit.AuditLogBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class AuditLogBenchmark {
+
+    private static final int DEFAULT_RECORDS = 5_000_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Records changes for one product and prints the cost per record.
+     *
+     * @param args optional record count per round
+     * @throws Exception if the temporary directory cannot be created
+     */
+    public static void main(String[] args) throws Exception {
+        int records = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_RECORDS;
+        Path directory = Files.createTempDirectory("audit-benchmark");
+        Product milk = new Product(1, "Milk", new BigDecimal("2.46"), 100, new Category(2, "Dairy", null));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        try (AuditLog audit = new AuditLog(directory, Clock.systemUTC(), 1 << 16, OverflowPolicy.DROP,
+                AuditLog.DEFAULT_MAX_FILE_BYTES, 2)) {
+            audit.start();
+            for (int round = 1; round <= ROUNDS; round++) {
+                long droppedBefore = audit.getDroppedRecords();
+                long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                for (int i = 0; i < records; i++) {
+                    audit.stockChanged(milk, (i & 1) == 0 ? -1 : 1);
+                }
+                long nanos = System.nanoTime() - start;
+                long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+                System.out.printf("Round %d: %.1f ns/record, %d bytes allocated, %,d dropped%n", round,
+                        (double) nanos / records, allocated, audit.getDroppedRecords() - droppedBefore);
+            }
+        }
+    }
+}
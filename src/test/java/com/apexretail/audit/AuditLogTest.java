@@ -0,0 +1,237 @@
+package com.apexretail.audit;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.StockAdjustment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AuditLog}.
+ * Tests include the fixed-width record layout, file rolling and retention,
+ * the ring buffer's overflow policies and concurrent writers.
+ */
+class AuditLogTest {
+
+        @TempDir
+        Path directory;
+
+        private final Clock clock = Clock.fixed(Instant.ofEpochMilli(1_760_788_800_123L), ZoneOffset.UTC);
+        private Category dairy;
+        private InventoryService service;
+
+        @BeforeEach
+        void setUp() {
+                dairy = new Category(2, "Dairy", "This category labels dairy products.");
+                service = new InventoryService();
+        }
+
+        // ===== 1. RECORD LAYOUT =====
+        @Test
+        void testWritesFixedWidthRecordsInOrder() throws IOException {
+                Product milk = product(42, 20);
+                AuditLog audit = new AuditLog(directory, clock, 8, OverflowPolicy.BLOCK,
+                                AuditLog.DEFAULT_MAX_FILE_BYTES, AuditLog.DEFAULT_MAX_FILES);
+                audit.start();
+                service.addListener(audit);
+
+                service.sellProduct(milk, 3);
+                service.restockProduct(milk, 10);
+                service.adjustStock(List.of(new StockAdjustment(milk, -2)));
+                audit.close();
+
+                assertEquals(List.of(
+                                "1760788800123 SELL      0000000000000000042 -0000000003 0000000017",
+                                "1760788800123 RESTOCK   0000000000000000042 +0000000010 0000000027",
+                                "1760788800123 WRITE_OFF 0000000000000000042 -0000000002 0000000025"),
+                                Files.readAllLines(audit.getCurrentFile(), StandardCharsets.US_ASCII));
+                assertEquals(3L * AuditLog.RECORD_BYTES, Files.size(audit.getCurrentFile()));
+                assertEquals(3, audit.getWrittenRecords());
+                assertEquals(0, audit.getDroppedRecords());
+        }
+
+        @Test
+        void testUnstartedLogWritesQueuedRecordsOnClose() throws IOException {
+                Product milk = product(42, 20);
+                AuditLog audit = new AuditLog(directory, clock, 8, OverflowPolicy.BLOCK,
+                                AuditLog.DEFAULT_MAX_FILE_BYTES, AuditLog.DEFAULT_MAX_FILES);
+                service.addListener(audit);
+
+                service.sellProduct(milk, 3);
+                service.restockProduct(milk, 10);
+                audit.close();
+                audit.start();
+                audit.close();
+
+                assertEquals(2, Files.readAllLines(audit.getCurrentFile(), StandardCharsets.US_ASCII).size());
+                assertEquals(2, audit.getWrittenRecords());
+        }
+
+        // ===== 2. ROLLING FILES =====
+        @Test
+        void testRollsFilesAndKeepsOnlyTheNewest() throws IOException {
+                Product milk = product(1, 0);
+                AuditLog audit = new AuditLog(directory, clock, 16, OverflowPolicy.BLOCK, 3L * AuditLog.RECORD_BYTES,
+                                2);
+                audit.start();
+                service.addListener(audit);
+                for (int i = 0; i < 10; i++) {
+                        service.restockProduct(milk, 1);
+                }
+                audit.close();
+
+                assertEquals(List.of("audit-000003.log", "audit-000004.log"), logFiles());
+                assertEquals(3L * AuditLog.RECORD_BYTES, Files.size(directory.resolve("audit-000003.log")));
+                List<String> last = Files.readAllLines(directory.resolve("audit-000004.log"));
+                assertEquals(1, last.size());
+                assertTrue(last.get(0).endsWith(" 0000000010"));
+
+                AuditLog reopened = new AuditLog(directory);
+                reopened.close();
+                assertEquals(directory.resolve("audit-000005.log"), reopened.getCurrentFile());
+        }
+
+        @Test
+        void testRollDeletesEveryFileBeyondRetention() throws IOException {
+                for (int i = 1; i <= 5; i++) {
+                        Files.createFile(directory.resolve(String.format("audit-%06d.log", i)));
+                }
+                Files.createFile(directory.resolve("audit-notes.log"));
+                Product milk = product(1, 0);
+                AuditLog audit = new AuditLog(directory, clock, 16, OverflowPolicy.BLOCK, 2L * AuditLog.RECORD_BYTES,
+                                2);
+                audit.start();
+                service.addListener(audit);
+                for (int i = 0; i < 3; i++) {
+                        service.restockProduct(milk, 1);
+                }
+                audit.close();
+
+                assertEquals(List.of("audit-000006.log", "audit-000007.log", "audit-notes.log"), logFiles());
+        }
+
+        // ===== 3. OVERFLOW POLICIES =====
+        @Test
+        void testRingDropsWhenFullWithoutBlocking() {
+                AuditRingBuffer ring = new AuditRingBuffer(4);
+                for (int i = 0; i < 4; i++) {
+                        assertTrue(ring.offer(false, i, AuditAction.SELL.code(), i, -1, i));
+                }
+                assertFalse(ring.offer(false, 4, AuditAction.SELL.code(), 4, -1, 4));
+
+                List<Long> drained = new ArrayList<>();
+                assertEquals(2, ring.drain((timestamp, action, productId, delta, quantity) -> drained.add(productId),
+                                2));
+                assertTrue(ring.offer(false, 5, AuditAction.SELL.code(), 5, -1, 5));
+                ring.drain((timestamp, action, productId, delta, quantity) -> drained.add(productId), 10);
+                assertEquals(List.of(0L, 1L, 2L, 3L, 5L), drained);
+                assertTrue(ring.isEmpty());
+
+                assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(6));
+        }
+
+        @Test
+        void testRingBlocksUntilSpaceIsFreed() throws InterruptedException {
+                AuditRingBuffer ring = new AuditRingBuffer(2);
+                ring.offer(true, 0, AuditAction.RESTOCK.code(), 1, 1, 1);
+                ring.offer(true, 0, AuditAction.RESTOCK.code(), 2, 1, 1);
+                AtomicBoolean offered = new AtomicBoolean();
+                CountDownLatch done = new CountDownLatch(1);
+                Thread producer = new Thread(() -> {
+                        offered.set(ring.offer(true, 0, AuditAction.RESTOCK.code(), 3, 1, 1));
+                        done.countDown();
+                });
+                producer.start();
+
+                assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+                ring.drain((timestamp, action, productId, delta, quantity) -> {
+                }, 1);
+                assertTrue(done.await(5, TimeUnit.SECONDS));
+                assertTrue(offered.get());
+
+                ring.close();
+                assertFalse(ring.offer(true, 0, AuditAction.RESTOCK.code(), 4, 1, 1));
+        }
+
+        // ===== 4. CONCURRENCY =====
+        @Test
+        void testConcurrentWritersLoseNoRecordsWhenBlocking() throws Exception {
+                int threads = 4;
+                int operations = 5_000;
+                AuditLog audit = new AuditLog(directory, Clock.systemUTC(), 64, OverflowPolicy.BLOCK,
+                                AuditLog.DEFAULT_MAX_FILE_BYTES, AuditLog.DEFAULT_MAX_FILES);
+                audit.start();
+                service.addListener(audit);
+                Product shared = product(7, 0);
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                        Product own = product(100 + t, 0);
+                        workers[t] = new Thread(() -> {
+                                for (int i = 0; i < operations; i++) {
+                                        service.restockProduct((i % 2 == 0) ? shared : own, 1);
+                                }
+                        });
+                        workers[t].start();
+                }
+                for (Thread worker : workers) {
+                        worker.join();
+                }
+                audit.close();
+
+                List<String> lines = Files.readAllLines(audit.getCurrentFile());
+                assertEquals((long) threads * operations, audit.getWrittenRecords());
+                assertEquals(threads * operations, lines.size());
+                // Records for one product are written in the order the changes were applied
+                List<Integer> sharedQuantities = lines.stream()
+                                .filter(line -> line.contains(" 0000000000000000007 "))
+                                .map(line -> Integer.parseInt(line.substring(line.length() - 10)))
+                                .collect(Collectors.toList());
+                assertEquals(threads * operations / 2, sharedQuantities.size());
+                for (int i = 0; i < sharedQuantities.size(); i++) {
+                        assertEquals(i + 1, sharedQuantities.get(i));
+                }
+        }
+
+        // ===== 5. VALIDATION =====
+        @Test
+        void testRejectsInvalidArguments() {
+                assertThrows(IllegalArgumentException.class, () -> new AuditLog(null));
+                assertThrows(IllegalArgumentException.class, () -> new AuditLog(directory, clock, 8,
+                                OverflowPolicy.DROP, AuditLog.RECORD_BYTES - 1, 1));
+                assertThrows(IllegalArgumentException.class, () -> new AuditLog(directory, clock, 8,
+                                OverflowPolicy.DROP, AuditLog.DEFAULT_MAX_FILE_BYTES, 0));
+                assertThrows(IllegalArgumentException.class, () -> new AuditLog(directory, clock, 8, null,
+                                AuditLog.DEFAULT_MAX_FILE_BYTES, 1));
+        }
+
+        private Product product(long id, int quantity) {
+                return new Product(id, "Item " + id, new BigDecimal("1.00"), quantity, dairy);
+        }
+
+        private List<String> logFiles() throws IOException {
+                try (Stream<Path> files = Files.list(directory)) {
+                        return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+                }
+        }
+}
@@ -0,0 +1,125 @@
+package com.apexretail.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Manual benchmark comparing {@link CatalogEncoder}/{@link CatalogDecoder}
+ * with Java object serialization of the same product fields.
+ *
+ * <p>
+ * Product is not {@link java.io.Serializable}, so the baseline serializes
+ * each product's fields (id, name, price, quantity, category id) as an
+ * object array, which is what a reflection-based transfer would carry.
+ * Run after {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.apexretail.codec.CatalogCodecBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CatalogCodecBenchmark {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs both codecs for several rounds and prints throughput and size.
+     *
+     * @param args command-line arguments (not used)
+     * @throws IOException            if Java serialization fails
+     * @throws ClassNotFoundException if Java deserialization fails
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        Category produce = new Category(1, "Produce", "This category labels produce products.");
+        Product[] products = new Product[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = new Product(i, "Product " + i, BigDecimal.valueOf(i % 10_000, 2), i % 500, produce);
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d%n", round);
+            runBinary(products);
+            runJavaSerialization(products);
+        }
+    }
+
+    /**
+     * Encodes and decodes all products with the binary codec.
+     *
+     * @param products products to transfer
+     */
+    private static void runBinary(Product[] products) {
+        BufferPool pool = new BufferPool(64 * 1024, 8);
+        CatalogDecoder decoder = new CatalogDecoder();
+        long[] totals = new long[2];
+
+        long start = System.nanoTime();
+        CatalogEncoder encoder = new CatalogEncoder(pool, frame -> {
+            totals[0] += frame.remaining();
+            decoder.wrap(frame);
+            while (decoder.hasNext()) {
+                decoder.next();
+                totals[1] += decoder.product().getQuantityInStock();
+            }
+            pool.release(frame);
+        });
+        for (Product product : products) {
+            encoder.writeProduct(product);
+        }
+        encoder.flush();
+        long elapsed = System.nanoTime() - start;
+        report("binary", products.length, elapsed, totals[0], totals[1]);
+    }
+
+    /**
+     * Encodes and decodes all products with Java object serialization.
+     *
+     * @param products products to transfer
+     * @throws IOException            if serialization fails
+     * @throws ClassNotFoundException if deserialization fails
+     */
+    private static void runJavaSerialization(Product[] products) throws IOException, ClassNotFoundException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Product product : products) {
+                out.writeObject(new Object[] { product.getId(), product.getName(), product.getPrice(),
+                        product.getQuantityInStock(), product.getCategory().getId() });
+            }
+        }
+        long checksum = 0;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (int i = 0; i < products.length; i++) {
+                Object[] fields = (Object[]) in.readObject();
+                checksum += (Integer) fields[3];
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        report("java-serialization", products.length, elapsed, bytes.size(), checksum);
+    }
+
+    /**
+     * Prints one benchmark result line.
+     *
+     * @param name         codec name
+     * @param count        number of products transferred
+     * @param elapsedNanos elapsed encode + decode time
+     * @param encodedBytes total encoded size
+     * @param checksum     sum of decoded quantities, to keep the work live
+     */
+    private static void report(String name, int count, long elapsedNanos, long encodedBytes, long checksum) {
+        System.out.printf("  %-20s %8.1f ms  %8.1f ns/product  %6.1f bytes/product  (checksum %d)%n", name,
+                elapsedNanos / 1e6, (double) elapsedNanos / count, (double) encodedBytes / count, checksum);
+    }
+}
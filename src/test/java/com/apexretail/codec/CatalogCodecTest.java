@@ -0,0 +1,142 @@
+package com.apexretail.codec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for {@link CatalogEncoder} and {@link CatalogDecoder}.
+ * Tests include every record type, frame rollover, varint boundaries,
+ * multi-byte names and rejection of bad frames.
+ */
+class CatalogCodecTest {
+
+        private BufferPool pool;
+        private List<ByteBuffer> frames;
+        private CatalogEncoder encoder;
+
+        @BeforeEach
+        void setUp() {
+                pool = new BufferPool(256, 4);
+                frames = new ArrayList<>();
+                encoder = new CatalogEncoder(pool, frames::add);
+        }
+
+        // ===== 1. ROUND-TRIP OF EACH RECORD TYPE =====
+        @Test
+        void testCategoryAndProductRoundTrip() {
+                Category freshFood = new Category(100, "Fresh Food", null);
+                Category dairy = new Category(2, "Dairy", "Milk, cheese and yoghurt", freshFood);
+                Product cheese = new Product(4, "Crème fraîche", new BigDecimal("3.15"), 10, dairy);
+
+                encoder.writeCategory(freshFood);
+                encoder.writeCategory(dairy);
+                encoder.writeProduct(cheese);
+                encoder.writeSequence(42);
+                encoder.writeStockDelta(4, -3);
+                encoder.flush();
+                assertEquals(1, frames.size());
+
+                CatalogDecoder decoder = new CatalogDecoder();
+                decoder.wrap(frames.get(0));
+
+                assertEquals(WireFormat.CATEGORY, decoder.next());
+                assertFalse(decoder.category().hasParent());
+                assertNull(decoder.category().getDescription());
+                Category decodedRoot = decoder.category().toCategory(null);
+                assertEquals(freshFood, decodedRoot);
+
+                assertEquals(WireFormat.CATEGORY, decoder.next());
+                Category decodedDairy = decoder.category().toCategory(decodedRoot);
+                assertEquals(dairy, decodedDairy);
+                assertEquals("Milk, cheese and yoghurt", decodedDairy.getDescription());
+                assertEquals(freshFood, decodedDairy.getParent());
+
+                assertEquals(WireFormat.PRODUCT, decoder.next());
+                Product decoded = decoder.product().toProduct(decodedDairy);
+                assertEquals(cheese.getId(), decoded.getId());
+                assertEquals(cheese.getName(), decoded.getName());
+                assertEquals(0, cheese.getPrice().compareTo(decoded.getPrice()));
+                assertEquals(cheese.getQuantityInStock(), decoded.getQuantityInStock());
+
+                assertEquals(WireFormat.SEQUENCE, decoder.next());
+                assertEquals(42, decoder.sequence().getSequence());
+                assertEquals(WireFormat.STOCK_DELTA, decoder.next());
+                assertEquals(4, decoder.stockDelta().getProductId());
+                assertEquals(-3, decoder.stockDelta().getDelta());
+                assertFalse(decoder.hasNext());
+        }
+
+        // ===== 2. VARINT BOUNDARIES =====
+        @ParameterizedTest
+        @ValueSource(longs = { 0L, 127L, 128L, 16383L, 16384L, Integer.MAX_VALUE, Long.MAX_VALUE })
+        void testVarintBoundaries(long id) {
+                encoder.writeStockDelta(id, Integer.MIN_VALUE);
+                encoder.writeStockDelta(id, Integer.MAX_VALUE);
+                encoder.flush();
+
+                CatalogDecoder decoder = new CatalogDecoder();
+                decoder.wrap(frames.get(0));
+                decoder.next();
+                assertEquals(id, decoder.stockDelta().getProductId());
+                assertEquals(Integer.MIN_VALUE, decoder.stockDelta().getDelta());
+                decoder.next();
+                assertEquals(Integer.MAX_VALUE, decoder.stockDelta().getDelta());
+        }
+
+        // ===== 3. FRAME ROLLOVER AND POOLING =====
+        @Test
+        void testRecordsSpanMultipleFrames() {
+                Category produce = new Category(1, "Produce", null);
+                for (int i = 0; i < 100; i++) {
+                        encoder.writeProduct(new Product(i, "Item " + i, BigDecimal.valueOf(i, 2), i, produce));
+                }
+                encoder.flush();
+                assertTrue(frames.size() > 1);
+
+                CatalogDecoder decoder = new CatalogDecoder();
+                int expected = 0;
+                for (ByteBuffer frame : frames) {
+                        assertTrue(frame.isDirect());
+                        decoder.wrap(frame);
+                        while (decoder.hasNext()) {
+                                assertEquals(WireFormat.PRODUCT, decoder.next());
+                                assertEquals(expected, decoder.product().getId());
+                                assertEquals("Item " + expected, decoder.product().getName());
+                                expected++;
+                        }
+                        pool.release(frame);
+                }
+                assertEquals(100, expected);
+                assertEquals(4, pool.getIdleCount());
+        }
+
+        // ===== 4. INVALID INPUT =====
+        @Test
+        void testRejectsBadFrames() {
+                CatalogDecoder decoder = new CatalogDecoder();
+                assertThrows(IllegalArgumentException.class, () -> decoder.wrap(ByteBuffer.wrap(new byte[] { 9 })));
+
+                decoder.wrap(ByteBuffer.wrap(new byte[] { WireFormat.SCHEMA_VERSION, WireFormat.PRODUCT, 1 }));
+                assertThrows(IllegalArgumentException.class, decoder::next);
+
+                decoder.wrap(ByteBuffer.wrap(new byte[] { WireFormat.SCHEMA_VERSION, 42 }));
+                assertThrows(IllegalArgumentException.class, decoder::next);
+
+                String hugeName = "x".repeat(300);
+                Category produce = new Category(1, "Produce", null);
+                assertThrows(IllegalArgumentException.class,
+                                () -> encoder.writeProduct(new Product(1, hugeName, BigDecimal.ONE, 1, produce)));
+        }
+}
@@ -0,0 +1,176 @@
+package com.apexretail.diagnostics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SystemInfo}.
+ * Tests include runtime report contents, contended monitor detection,
+ * Flight Recorder recordings of inventory operations and recording state
+ * checks.
+ */
+class SystemInfoTest {
+
+        @TempDir
+        Path tempDir;
+
+        @AfterEach
+        void tearDown() {
+                if (SystemInfo.isRecording()) {
+                        SystemInfo.stopRecording();
+                }
+        }
+
+        // ===== 1. RUNTIME REPORT =====
+        @Test
+        void testReportContainsHeapCollectorAndThreadFigures() {
+                RuntimeReport report = SystemInfo.captureReport();
+
+                assertTrue(report.getHeapUsed() > 0);
+                assertTrue(report.getHeapCommitted() >= report.getHeapUsed());
+                assertFalse(report.getCollectors().isEmpty());
+                assertTrue(report.getLiveThreads() > 0);
+                assertTrue(report.getPeakThreads() >= report.getLiveThreads());
+                assertThrows(IllegalArgumentException.class, () -> SystemInfo.captureReport(-1));
+        }
+
+        @Test
+        void testAllocationRateCountsEndedThreads() throws InterruptedException {
+                int chunks = 64;
+                long start = System.nanoTime();
+                SystemInfo.captureReport();
+                Thread allocator = new Thread(() -> {
+                        byte[][] kept = new byte[chunks][];
+                        for (int i = 0; i < chunks; i++) {
+                                kept[i] = new byte[1024 * 1024];
+                        }
+                        kept.hashCode();
+                }, "short-lived-allocator");
+                allocator.start();
+                allocator.join();
+
+                RuntimeReport report = SystemInfo.captureReport();
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+                assertTrue(report.getAllocationRate() * elapsedSeconds >= chunks * 1024.0 * 1024.0);
+        }
+
+        // ===== 2. CONTENDED MONITORS =====
+        @Test
+        void testReportListsMonitorWithBlockedThread() throws InterruptedException {
+                Object monitor = new Object();
+                CountDownLatch started = new CountDownLatch(1);
+                Thread waiter = new Thread(() -> {
+                        started.countDown();
+                        synchronized (monitor) {
+                                monitor.hashCode();
+                        }
+                }, "contended-waiter");
+
+                synchronized (monitor) {
+                        waiter.start();
+                        started.await();
+                        while (waiter.getState() != Thread.State.BLOCKED) {
+                                Thread.onSpinWait();
+                        }
+                        RuntimeReport report = SystemInfo.captureReport();
+
+                        assertTrue(report.getBlockedThreads() >= 1);
+                        RuntimeReport.ContendedLock lock = report.getContendedLocks().stream()
+                                        .filter(l -> Thread.currentThread().getName().equals(l.getOwner()))
+                                        .findFirst().orElseThrow();
+                        assertEquals(1, lock.getWaitingThreads());
+                }
+                waiter.join();
+        }
+
+        @Test
+        void testReportRanksThreadsBlockedSinceLastReport() throws InterruptedException {
+                Object monitor = new Object();
+                CountDownLatch entered = new CountDownLatch(1);
+                CountDownLatch finish = new CountDownLatch(1);
+                Thread waiter = new Thread(() -> {
+                        synchronized (monitor) {
+                                entered.countDown();
+                        }
+                        try {
+                                finish.await();
+                        } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                        }
+                }, "briefly-blocked");
+                SystemInfo.captureReport();
+
+                synchronized (monitor) {
+                        waiter.start();
+                        while (waiter.getState() != Thread.State.BLOCKED) {
+                                Thread.onSpinWait();
+                        }
+                        Thread.sleep(20);
+                }
+                entered.await();
+                try {
+                        RuntimeReport report = SystemInfo.captureReport(Integer.MAX_VALUE);
+                        RuntimeReport.ContendedThread thread = report.getContendedThreads().stream()
+                                        .filter(t -> "briefly-blocked".equals(t.getName()))
+                                        .findFirst().orElseThrow();
+                        assertEquals(1, thread.getBlockedCount());
+                        assertTrue(thread.getBlockedMillis() >= 10);
+                        assertNull(thread.getLock());
+
+                        assertTrue(SystemInfo.captureReport(Integer.MAX_VALUE).getContendedThreads().stream()
+                                        .noneMatch(t -> "briefly-blocked".equals(t.getName())));
+                } finally {
+                        finish.countDown();
+                        waiter.join();
+                }
+        }
+
+        // ===== 3. FLIGHT RECORDER =====
+        @Test
+        void testRecordingCapturesInventoryOperations() throws IOException {
+                Product tomato = new Product(1, "Tomato", BigDecimal.valueOf(0.25), 30,
+                                new Category(1, "Produce", "Produce products."));
+                InventoryService service = new InventoryService();
+                Path file = tempDir.resolve("inventory.jfr");
+
+                SystemInfo.startRecording(file);
+                assertTrue(SystemInfo.isRecording());
+                service.sellProduct(tomato, 3);
+                service.restockProduct(tomato, 5);
+                assertEquals(file, SystemInfo.stopRecording());
+
+                List<RecordedEvent> operations = RecordingFile.readAllEvents(file).stream()
+                                .filter(e -> e.getEventType().getName().equals("com.apexretail.InventoryOperation"))
+                                .toList();
+                assertEquals(2, operations.size());
+                assertTrue(operations.stream().anyMatch(e -> e.getString("operation").equals(InventoryOperationEvent.SELL)
+                                && e.getLong("productId") == 1 && e.getInt("units") == 3));
+        }
+
+        @Test
+        void testRecordingRejectsDoubleStartAndStop() {
+                SystemInfo.startRecording(tempDir.resolve("first.jfr"));
+
+                assertThrows(IllegalStateException.class, () -> SystemInfo.startRecording(tempDir.resolve("second.jfr")));
+                SystemInfo.stopRecording();
+                assertThrows(IllegalStateException.class, SystemInfo::stopRecording);
+                assertThrows(IllegalArgumentException.class, () -> SystemInfo.startRecording(null));
+        }
+}
@@ -0,0 +1,196 @@
+package com.apexretail.history;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SalesHistory}.
+ * Tests include minute, hour and day queries, roll-up, segment persistence
+ * and reloading after a restart.
+ */
+class SalesHistoryTest {
+
+        private static final long MINUTE = 60_000L;
+        private static final long HOUR = 60 * MINUTE;
+        private static final long DAY = 24 * HOUR;
+
+        /** Day 20000 after the epoch, midnight UTC. */
+        private static final long START = 20_000L * DAY;
+
+        @TempDir
+        Path directory;
+
+        private MutableClock clock;
+
+        @BeforeEach
+        void setUp() {
+                clock = new MutableClock(START);
+        }
+
+        // ===== 1. IN-MEMORY QUERIES =====
+        @Test
+        void testSalesFromInventoryServiceAreBucketed() {
+                SalesHistory history = new SalesHistory(directory, clock);
+                InventoryService service = new InventoryService();
+                service.addListener(history);
+                Product milk = new Product(3, "Milk", new BigDecimal("2.46"), 1_000, new Category(2, "Dairy", null));
+
+                service.sellProduct(milk, 2);
+                service.restockProduct(milk, 5);
+                clock.advance(MINUTE);
+                service.sellProduct(milk, 3);
+                service.sellProduct(milk, 1);
+                clock.advance(MINUTE);
+                history.rollUp();
+
+                assertArrayEquals(new long[] { 2, 4, 0 }, history.query(3, Resolution.MINUTE, START, START + 3 * MINUTE));
+                assertArrayEquals(new long[] { 6 }, history.query(3, Resolution.HOUR, START, START + HOUR));
+                assertArrayEquals(new long[] { 6 }, history.query(3, Resolution.DAY, START, START + DAY));
+                assertArrayEquals(new long[] { 0 }, history.query(99, Resolution.DAY, START, START + DAY));
+        }
+
+        @Test
+        void testYearOfDailyHistory() {
+                SalesHistory history = new SalesHistory(directory, clock);
+                for (int day = 0; day < 365; day++) {
+                        history.recordSale(1, day + 1);
+                        clock.advance(DAY);
+                        history.rollUp();
+                }
+                long[] daily = history.query(1, Resolution.DAY, START, START + 365 * DAY);
+                assertEquals(365, daily.length);
+                for (int day = 0; day < 365; day++) {
+                        assertEquals(day + 1, daily[day]);
+                }
+        }
+
+        // ===== 2. PERSISTENCE =====
+        @Test
+        void testOlderMinutesAreReadFromSegments() {
+                SalesHistory history = new SalesHistory(directory, clock);
+                for (int minute = 0; minute < 180; minute++) {
+                        history.recordSale(7, minute % 5 + 1);
+                        clock.advance(MINUTE);
+                        history.rollUp();
+                }
+                long[] minutes = history.query(7, Resolution.MINUTE, START, START + 180 * MINUTE);
+                for (int minute = 0; minute < 180; minute++) {
+                        assertEquals(minute % 5 + 1, minutes[minute], "minute " + minute);
+                }
+                assertArrayEquals(new long[] { 180, 180, 180 }, history.query(7, Resolution.HOUR, START, START + 3 * HOUR));
+        }
+
+        @Test
+        void testHistorySurvivesRestart() {
+                SalesHistory first = new SalesHistory(directory, clock);
+                first.recordSale(5, 10);
+                clock.advance(2 * HOUR);
+                first.rollUp();
+                first.recordSale(5, 4);
+                clock.advance(MINUTE);
+                first.close();
+
+                SalesHistory sameHour = new SalesHistory(directory, clock);
+                sameHour.recordSale(5, 1);
+                clock.advance(MINUTE);
+                sameHour.rollUp();
+                assertArrayEquals(new long[] { 10, 0, 5 }, sameHour.query(5, Resolution.HOUR, START, START + 3 * HOUR));
+                sameHour.close();
+
+                clock.advance(3 * DAY);
+                SalesHistory later = new SalesHistory(directory, clock);
+                later.rollUp();
+                assertArrayEquals(new long[] { 15, 0, 0, 0 }, later.query(5, Resolution.DAY, START, START + 4 * DAY));
+                assertEquals(1, later.query(5, Resolution.MINUTE, START + 2 * HOUR + MINUTE,
+                                START + 2 * HOUR + 2 * MINUTE)[0]);
+        }
+
+        @Test
+        void testRestartRestoresRetainedWindowAndBackfillsSummaries() throws IOException {
+                SalesHistory first = new SalesHistory(directory, clock);
+                first.recordSale(5, 10);
+                clock.advance(DAY + 2 * HOUR);
+                first.rollUp();
+                first.recordSale(5, 4);
+                clock.advance(MINUTE);
+                first.close();
+
+                clock.advance(3 * DAY);
+                SalesHistory later = new SalesHistory(directory, clock);
+                later.start();
+                for (int day = 1; day <= 3; day++) {
+                        assertTrue(Files.exists(directory.resolve("sales-day-" + (20_000 + day) + ".seg")), "day " + day);
+                }
+
+                // Hour and day queries are now answered from memory alone
+                try (Stream<Path> files = Files.list(directory)) {
+                        for (Path file : files.collect(Collectors.toList())) {
+                                Files.delete(file);
+                        }
+                }
+                assertArrayEquals(new long[] { 10, 4, 0, 0, 0 }, later.query(5, Resolution.DAY, START, START + 5 * DAY));
+                later.close();
+        }
+
+        // ===== 3. INVALID INPUT =====
+        @Test
+        void testRejectsInvalidArguments() {
+                SalesHistory history = new SalesHistory(directory, clock);
+                assertThrows(IllegalArgumentException.class, () -> history.recordSale(1, 0));
+                assertThrows(IllegalArgumentException.class, () -> history.query(1, Resolution.DAY, START, START));
+                assertThrows(IllegalArgumentException.class, () -> history.query(1, null, START, START + DAY));
+        }
+
+        /**
+         * Clock whose time only moves when the test advances it.
+         */
+        private static final class MutableClock extends Clock {
+                private long millis;
+
+                private MutableClock(long millis) {
+                        this.millis = millis;
+                }
+
+                private void advance(long amount) {
+                        millis += amount;
+                }
+
+                @Override
+                public long millis() {
+                        return millis;
+                }
+
+                @Override
+                public Instant instant() {
+                        return Instant.ofEpochMilli(millis);
+                }
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+        }
+}
@@ -0,0 +1,113 @@
+package com.apexretail.ingest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.ProductCatalog;
+
+/**
+ * Manual benchmark comparing {@link CatalogImporter} with loading the same
+ * feed one {@link Product} constructor call at a time.
+ *
+ * <p>
+ * The baseline reads lines, splits them with {@link String#split(String)}
+ * and relies on the constructor's exceptions to reject bad rows. Pass the
+ * number of rows as the first argument (default 10,000,000). Run after
+ * {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -Xmx8g -cp target/classes:target/test-classes com.apexretail.ingest.CatalogImportBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CatalogImportBenchmark {
+
+    private static final int DEFAULT_ROWS = 10_000_000;
+
+    /**
+     * Generates a feed and times both loaders.
+     *
+     * @param args optional row count
+     * @throws IOException if the feed cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        Map<Long, Category> categories = new HashMap<>();
+        for (long id = 1; id <= 20; id++) {
+            categories.put(id, new Category(id, "Category " + id, null));
+        }
+        Path feed = Files.createTempFile("catalog-feed", ".csv");
+        try {
+            writeFeed(feed, rows);
+            System.out.printf("Feed: %,d rows, %,d bytes%n", rows, Files.size(feed));
+
+            long start = System.nanoTime();
+            ImportReport report = new CatalogImporter(new ProductCatalog(), categories).importFeed(feed,
+                    FeedFormat.CSV);
+            System.out.printf("CatalogImporter: %,d ms (%s)%n", (System.nanoTime() - start) / 1_000_000, report);
+
+            start = System.nanoTime();
+            long rejected = loadOneByOne(feed, categories);
+            System.out.printf("Constructor per row: %,d ms (%,d rejected)%n", (System.nanoTime() - start) / 1_000_000,
+                    rejected);
+        } finally {
+            Files.delete(feed);
+        }
+    }
+
+    /**
+     * Writes a feed in which one row in a thousand has a negative price.
+     *
+     * @param feed destination
+     * @param rows number of data rows
+     * @throws IOException if writing fails
+     */
+    private static void writeFeed(Path feed, int rows) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(feed, StandardCharsets.UTF_8)) {
+            writer.write("id,name,price,quantity,category_id\n");
+            StringBuilder line = new StringBuilder(64);
+            for (int i = 0; i < rows; i++) {
+                line.setLength(0);
+                line.append(i).append(",Product ").append(i).append(',');
+                line.append((i % 1000 == 999) ? "-1.00" : (i % 500) + "." + (i % 100)).append(',');
+                line.append(i % 300).append(',').append(i % 20 + 1).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    /**
+     * Loads a feed sequentially, catching the constructor's exceptions.
+     *
+     * @param feed       feed file
+     * @param categories categories by ID
+     * @return number of rows rejected
+     * @throws IOException if reading fails
+     */
+    private static long loadOneByOne(Path feed, Map<Long, Category> categories) throws IOException {
+        ProductCatalog catalog = new ProductCatalog();
+        List<String> lines = Files.readAllLines(feed, StandardCharsets.UTF_8);
+        long rejected = 0;
+        for (int i = 1; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split(",");
+            try {
+                catalog.addProduct(new Product(Long.parseLong(fields[0]), fields[1], new BigDecimal(fields[2]),
+                        Integer.parseInt(fields[3]), categories.get(Long.parseLong(fields[4]))));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,189 @@
+package com.apexretail.ingest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.ProductCatalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CatalogImporter}.
+ * Tests include CSV and TSV parsing, per-row error reporting, duplicate
+ * handling, header validation and parallel chunking of large feeds.
+ */
+class CatalogImporterTest {
+
+        @TempDir
+        Path directory;
+
+        private ProductCatalog catalog;
+        private Map<Long, Category> categories;
+        private ForkJoinPool pool;
+
+        @BeforeEach
+        void setUp() {
+                catalog = new ProductCatalog();
+                categories = new HashMap<>();
+                Category produce = new Category(1, "Produce", "This category labels produce products.");
+                categories.put(1L, produce);
+                categories.put(2L, new Category(2, "Dairy", "This category labels dairy products."));
+                pool = new ForkJoinPool(4);
+        }
+
+        @AfterEach
+        void tearDown() {
+                pool.shutdown();
+        }
+
+        // ===== 1. VALID FEEDS =====
+        @Test
+        void testImportsCsvWithQuotedFields() throws IOException {
+                Path feed = write("feed.csv",
+                                "id,name,price,quantity,category_id\n" +
+                                "1,Bananas,0.65,250,1\r\n" +
+                                "2,\"Milk, \"\"Whole\"\"\",2.46,147,2\n" +
+                                "\n" +
+                                "3, Cheddar ,  4.5 ,10,2\n");
+                ImportReport report = new CatalogImporter(catalog, categories).importFeed(feed, FeedFormat.CSV);
+
+                assertFalse(report.hasErrors());
+                assertEquals(3, report.getRowsRead());
+                assertEquals(3, report.getRowsImported());
+                assertEquals("Milk, \"Whole\"", catalog.getProduct(2).getName());
+                assertEquals("Cheddar", catalog.getProduct(3).getName());
+                assertEquals(new BigDecimal("4.5"), catalog.getProduct(3).getPrice());
+                assertEquals(10, catalog.getProduct(3).getQuantityInStock());
+                assertEquals(2, catalog.getProduct(3).getCategory().getId());
+        }
+
+        @Test
+        void testImportsTsvWithReorderedAndExtraColumns() throws IOException {
+                Path feed = write("feed.tsv",
+                                "Category_ID\tsupplier\tname\tid\tquantity\tprice\n" +
+                                "1\tAcme\tApples, Gala\t7\t40\t1.25\n");
+                ImportReport report = new CatalogImporter(catalog, categories).importFeed(feed, FeedFormat.TSV);
+
+                assertEquals(1, report.getRowsImported());
+                Product apples = catalog.getProduct(7);
+                assertEquals("Apples, Gala", apples.getName());
+                assertEquals(new BigDecimal("1.25"), apples.getPrice());
+        }
+
+        // ===== 2. ERROR REPORT =====
+        @Test
+        void testReportsEveryInvalidFieldWithoutAbortingLoad() throws IOException {
+                Path feed = write("feed.csv",
+                                "id,name,price,quantity,category_id\n" +
+                                "1,Bananas,0.65,250,1\n" +
+                                "-2, ,abc,-1,9\n" +
+                                "3,Yogurt,1.10\n" +
+                                "4,\"Cream,0.99,5,2\n" +
+                                "5,Butter,-3.00,99999999999,2\n" +
+                                "6,Eggs,3.20,12,2\n");
+                ImportReport report = new CatalogImporter(catalog, categories).importFeed(feed, FeedFormat.CSV);
+
+                assertEquals(6, report.getRowsRead());
+                assertEquals(2, report.getRowsImported());
+                assertEquals(4, report.getRowsRejected());
+                assertEquals(9, report.getErrorCount());
+                assertTrue(catalog.containsProduct(1));
+                assertTrue(catalog.containsProduct(6));
+
+                List<ImportError> errors = report.getErrors();
+                assertEquals(3, errors.get(0).getRow());
+                assertEquals("id", errors.get(0).getColumn());
+                assertEquals("ID must be greater than or equal to 0.", errors.get(0).getMessage());
+                assertEquals("name", errors.get(1).getColumn());
+                assertEquals("price", errors.get(2).getColumn());
+                assertEquals("quantity", errors.get(3).getColumn());
+                assertEquals("Unknown category id 9.", errors.get(4).getMessage());
+                assertEquals(4, errors.get(5).getRow());
+                assertNull(errors.get(5).getColumn());
+                assertEquals("Unterminated quoted field.", errors.get(6).getMessage());
+                assertEquals(6, errors.get(7).getRow());
+                assertEquals(6, errors.get(8).getRow());
+        }
+
+        @Test
+        void testFirstOccurrenceOfDuplicateIdWins() throws IOException {
+                catalog.addProduct(new Product(10, "Existing", new BigDecimal("1.00"), 1, categories.get(1L)));
+                Path feed = write("feed.csv",
+                                "id,name,price,quantity,category_id\n" +
+                                "10,Replacement,1.00,1,1\n" +
+                                "11,First,1.00,1,1\n" +
+                                "11,Second,1.00,1,1\n");
+                ImportReport report = new CatalogImporter(catalog, categories).importFeed(feed, FeedFormat.CSV);
+
+                assertEquals(1, report.getRowsImported());
+                assertEquals(2, report.getRowsRejected());
+                assertEquals("Existing", catalog.getProduct(10).getName());
+                assertEquals("First", catalog.getProduct(11).getName());
+                assertEquals(2, report.getErrors().get(0).getRow());
+                assertEquals(4, report.getErrors().get(1).getRow());
+        }
+
+        @Test
+        void testMissingColumnsRejectFeed() throws IOException {
+                Path feed = write("feed.csv", "id,name,quantity\n1,Bananas,5\n");
+                ImportReport report = new CatalogImporter(catalog, categories).importFeed(feed, FeedFormat.CSV);
+
+                assertEquals(2, report.getErrorCount());
+                assertEquals("price", report.getErrors().get(0).getColumn());
+                assertEquals("category_id", report.getErrors().get(1).getColumn());
+                assertEquals(0, catalog.size());
+
+                Path empty = write("empty.csv", "");
+                assertEquals("Missing header row.", new CatalogImporter(catalog, categories)
+                                .importFeed(empty, FeedFormat.CSV).getErrors().get(0).getMessage());
+        }
+
+        // ===== 3. PARALLEL CHUNKS =====
+        @Test
+        void testLargeFeedAcrossManyChunks() throws IOException {
+                int rows = 50_000;
+                Path feed = directory.resolve("large.csv");
+                try (Writer writer = Files.newBufferedWriter(feed, StandardCharsets.UTF_8)) {
+                        writer.write("id,name,price,quantity,category_id\n");
+                        for (int i = 0; i < rows; i++) {
+                                if (i % 1000 == 999) {
+                                        writer.write(i + ",Broken,not-a-price,1,1\n");
+                                } else {
+                                        writer.write(i + ",Product " + i + "," + (i % 100) + ".99," + (i % 50) + ","
+                                                        + (i % 2 + 1) + "\n");
+                                }
+                        }
+                }
+                CatalogImporter importer = new CatalogImporter(catalog, categories, pool, 4096, 10);
+                ImportReport report = importer.importFeed(feed, FeedFormat.CSV);
+
+                assertEquals(rows, report.getRowsRead());
+                assertEquals(rows - 50, report.getRowsImported());
+                assertEquals(50, report.getErrorCount());
+                assertEquals(10, report.getErrors().size());
+                for (int e = 0; e < 10; e++) {
+                        assertEquals(1000L * e + 999 + 2, report.getErrors().get(e).getRow());
+                }
+                assertEquals(rows - 50, catalog.size());
+                assertEquals("Product 12345", catalog.getProduct(12345).getName());
+        }
+
+        private Path write(String name, String content) throws IOException {
+                return Files.writeString(directory.resolve(name), content);
+        }
+}
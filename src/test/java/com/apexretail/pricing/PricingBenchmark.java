@@ -0,0 +1,84 @@
+package com.apexretail.pricing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Manual benchmark of {@link PricingEngine#price(Basket)} on a large basket
+ * against a large rule set.
+ *
+ * <p>
+ * Pass the number of basket lines as the first argument (default 1,000).
+ * Run after {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.apexretail.pricing.PricingBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class PricingBenchmark {
+
+    private static final int DEFAULT_LINES = 1_000;
+    private static final int PRODUCTS = 100_000;
+    private static final int PRODUCT_RULES = 20_000;
+    private static final int ROUNDS = 5;
+    private static final int QUOTES = 2_000;
+
+    /**
+     * Builds a catalog, rule set and basket and times pricing.
+     *
+     * @param args optional basket line count
+     */
+    public static void main(String[] args) {
+        int lineCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        Random random = new Random(1);
+        Category[] departments = new Category[10];
+        Category[] categories = new Category[200];
+        for (int i = 0; i < departments.length; i++) {
+            departments[i] = new Category(10_000 + i, "Department " + i, null);
+        }
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = new Category(i, "Category " + i, null, departments[i % departments.length]);
+        }
+        Product[] products = new Product[PRODUCTS];
+        for (int id = 0; id < PRODUCTS; id++) {
+            products[id] = new Product(id, "Product " + id, BigDecimal.valueOf(50 + random.nextInt(10_000), 2), 100,
+                    categories[id % categories.length]);
+        }
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_RULES; i++) {
+            Product product = products[random.nextInt(PRODUCTS)];
+            promotions.add((i % 2 == 0) ? Promotion.percentOff("P" + i, product, 5 + random.nextInt(30))
+                    : Promotion.buyXGetY("B" + i, product, 2 + random.nextInt(3), 1));
+        }
+        for (Category category : categories) {
+            promotions.add(Promotion.percentOff("C" + category.getId(), category, 5));
+        }
+        PricingEngine engine = new PricingEngine();
+        long compileStart = System.nanoTime();
+        engine.setPromotions(promotions);
+        System.out.printf("Compiled %,d rules in %,d us%n", promotions.size(),
+                (System.nanoTime() - compileStart) / 1_000);
+
+        Basket basket = new Basket();
+        while (basket.size() < lineCount) {
+            basket.add(products[random.nextInt(PRODUCTS)], 1 + random.nextInt(6));
+        }
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            long total = 0;
+            for (int q = 0; q < QUOTES; q++) {
+                total = engine.price(basket).getTotalInMinorUnits();
+            }
+            long micros = (System.nanoTime() - start) / QUOTES / 1_000;
+            System.out.printf("Round %d: %,d lines priced in %,d us (total %d)%n", round, lineCount, micros, total);
+        }
+    }
+}
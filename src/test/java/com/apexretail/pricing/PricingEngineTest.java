@@ -0,0 +1,160 @@
+package com.apexretail.pricing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PricingEngine}.
+ * Tests include product and category promotions, buy-X-get-Y offers,
+ * choice of the best promotion, basket handling and atomic rule swaps
+ * during concurrent pricing.
+ */
+class PricingEngineTest {
+
+        private Category freshFood;
+        private Category dairy;
+        private Category produce;
+        private Product milk;
+        private Product cheese;
+        private Product tomato;
+        private PricingEngine engine;
+
+        @BeforeEach
+        void setUp() {
+                freshFood = new Category(100, "Fresh Food", "This category groups perishable products.");
+                dairy = new Category(2, "Dairy", "This category labels dairy products.", freshFood);
+                produce = new Category(1, "Produce", "This category labels produce products.", freshFood);
+                milk = new Product(3, "Milk", new BigDecimal("2.46"), 15, dairy);
+                cheese = new Product(4, "Cheese", new BigDecimal("3.15"), 10, dairy);
+                tomato = new Product(1, "Tomato", new BigDecimal("0.25"), 30, produce);
+                engine = new PricingEngine();
+        }
+
+        // ===== 1. PROMOTION TYPES =====
+        @Test
+        void testCategoryDiscountAppliesToDescendants() {
+                engine.setPromotions(List.of(Promotion.percentOff("Fresh week", freshFood, 10)));
+                Basket basket = new Basket();
+                basket.add(milk, 3);
+                basket.add(tomato, 1);
+
+                PriceQuote quote = engine.price(basket);
+
+                // 7.38 * 10% = 0.738 rounds to 0.74; 0.25 * 10% = 0.025 rounds to 0.03
+                assertEquals(new BigDecimal("7.63"), quote.getSubtotal());
+                assertEquals(new BigDecimal("0.77"), quote.getDiscount());
+                assertEquals(new BigDecimal("6.86"), quote.getTotal());
+                assertEquals(686, quote.getTotalInMinorUnits());
+                assertEquals("Fresh week", quote.getLines().get(0).getPromotion().getName());
+        }
+
+        @Test
+        void testBuyXGetYGivesFreeUnitsPerGroup() {
+                engine.setPromotions(List.of(Promotion.buyXGetY("Milk 2+1", milk, 2, 1),
+                                Promotion.buyXGetY("Dairy 4+1", dairy, 4, 1)));
+                Basket basket = new Basket();
+                basket.add(milk, 7);
+                basket.add(cheese, 5);
+
+                List<QuoteLine> lines = engine.price(basket).getLines();
+
+                assertEquals(new BigDecimal("4.92"), lines.get(0).getDiscount());
+                assertEquals(new BigDecimal("12.30"), lines.get(0).getTotal());
+                assertEquals(new BigDecimal("3.15"), lines.get(1).getDiscount());
+                assertEquals("Dairy 4+1", lines.get(1).getPromotion().getName());
+        }
+
+        // ===== 2. RULE SELECTION =====
+        @Test
+        void testBestDiscountWinsAndTiesGoToEarlierRules() {
+                Promotion dairyTen = Promotion.percentOff("Dairy 10", dairy, 10);
+                Promotion milkTwenty = Promotion.percentOff("Milk 20", milk, 20);
+                Promotion freshTwenty = Promotion.percentOff("Fresh 20", freshFood, 20);
+                engine.setPromotions(List.of(dairyTen, freshTwenty, milkTwenty));
+                Basket basket = new Basket();
+                basket.add(milk, 1);
+                basket.add(cheese, 1);
+                basket.add(tomato, 2);
+
+                List<QuoteLine> lines = engine.price(basket).getLines();
+
+                assertSame(freshTwenty, lines.get(0).getPromotion());
+                assertSame(freshTwenty, lines.get(1).getPromotion());
+                assertSame(freshTwenty, lines.get(2).getPromotion());
+                assertEquals(new BigDecimal("0.49"), lines.get(0).getDiscount());
+        }
+
+        // ===== 3. BASKETS =====
+        @Test
+        void testMergesRepeatedProductsAndPricesWithoutRules() {
+                Basket basket = new Basket();
+                basket.add(milk, 1);
+                basket.add(tomato, 4);
+                basket.add(milk, 2);
+
+                PriceQuote quote = engine.price(basket);
+
+                assertEquals(2, basket.size());
+                assertEquals(3, quote.getLines().get(0).getQuantity());
+                assertNull(quote.getLines().get(0).getPromotion());
+                assertEquals(BigDecimal.ZERO.setScale(2), quote.getDiscount());
+                assertEquals(new BigDecimal("8.38"), quote.getTotal());
+        }
+
+        // ===== 4. HOT SWAP =====
+        @Test
+        void testConcurrentPricingSeesOneRuleSetAtATime() throws InterruptedException {
+                List<Promotion> none = List.of();
+                List<Promotion> half = List.of(Promotion.percentOff("Dairy half", dairy, 50),
+                                Promotion.percentOff("Produce half", produce, 50));
+                Basket basket = new Basket();
+                for (int i = 0; i < 200; i++) {
+                        Category category = (i % 2 == 0) ? dairy : produce;
+                        basket.add(new Product(1000 + i, "Item " + i, new BigDecimal("1.00"), 1, category), 2);
+                }
+                AtomicBoolean running = new AtomicBoolean(true);
+                List<Long> unexpected = new ArrayList<>();
+                Thread pricer = new Thread(() -> {
+                        while (running.get()) {
+                                long total = engine.price(basket).getTotalInMinorUnits();
+                                if (total != 40_000 && total != 20_000) {
+                                        synchronized (unexpected) {
+                                                unexpected.add(total);
+                                        }
+                                }
+                        }
+                });
+                pricer.start();
+                for (int i = 0; i < 2_000; i++) {
+                        engine.setPromotions((i % 2 == 0) ? half : none);
+                }
+                running.set(false);
+                pricer.join();
+
+                assertEquals(List.of(), unexpected);
+                assertEquals(40_000, engine.price(basket).getTotalInMinorUnits());
+        }
+
+        // ===== 5. VALIDATION =====
+        @Test
+        void testRejectsInvalidRulesAndBaskets() {
+                assertThrows(IllegalArgumentException.class, () -> Promotion.percentOff("Bad", dairy, 0));
+                assertThrows(IllegalArgumentException.class, () -> Promotion.percentOff("Bad", milk, 101));
+                assertThrows(IllegalArgumentException.class, () -> Promotion.buyXGetY("Bad", milk, 2, 0));
+                assertThrows(IllegalArgumentException.class, () -> Promotion.percentOff(" ", dairy, 5));
+                assertThrows(IllegalArgumentException.class, () -> Promotion.percentOff("Bad", (Category) null, 5));
+                assertThrows(IllegalArgumentException.class, () -> engine.setPromotions(null));
+                assertThrows(IllegalArgumentException.class, () -> new Basket().add(milk, 0));
+                assertThrows(IllegalArgumentException.class, () -> engine.price(null));
+        }
+}
@@ -0,0 +1,81 @@
+package com.apexretail.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+/**
+ * Manual benchmark comparing {@link CatalogQueryEngine} with a loop over an
+ * {@code ArrayList<Product>} calling getters.
+ *
+ * <p>
+ * Pass the number of SKUs as the first argument (default 2,000,000). Run
+ * after {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes com.apexretail.query.CatalogQueryBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class CatalogQueryBenchmark {
+
+    private static final int DEFAULT_SKUS = 2_000_000;
+    private static final int ROUNDS = 5;
+    private static final int QUERIES = 200;
+
+    /**
+     * Builds a catalog and times a compound count with both approaches.
+     *
+     * @param args optional SKU count
+     */
+    public static void main(String[] args) {
+        int skus = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SKUS;
+        Category[] categories = new Category[50];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = new Category(i, "Category " + i, null);
+        }
+        Random random = new Random(1);
+        List<Product> products = new ArrayList<>(skus);
+        CatalogQueryEngine engine = new CatalogQueryEngine();
+        for (int id = 0; id < skus; id++) {
+            Product prod = new Product(id, "Product " + id, BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    random.nextInt(1_000), categories[id % categories.length]);
+            products.add(prod);
+            engine.addProduct(prod);
+        }
+        Category dairy = categories[7];
+        BigDecimal maxPrice = new BigDecimal("50.00");
+        Filter filter = Filter.and(Filter.category(dairy), Filter.inStock(), Filter.priceBelow(maxPrice),
+                Filter.quantityBelow(20));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int matched = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                matched = engine.count(filter);
+            }
+            long bitmapNanos = (System.nanoTime() - start) / QUERIES;
+
+            start = System.nanoTime();
+            int scanned = 0;
+            for (int q = 0; q < QUERIES / 10; q++) {
+                scanned = 0;
+                for (Product prod : products) {
+                    if (prod.getCategory().equals(dairy) && prod.isInStock()
+                            && prod.getPrice().compareTo(maxPrice) < 0 && prod.getQuantityInStock() < 20) {
+                        scanned++;
+                    }
+                }
+            }
+            long scanNanos = (System.nanoTime() - start) / (QUERIES / 10);
+            System.out.printf("Round %d: bitmap %,d ns (%d matches), scan %,d ns (%d matches)%n", round,
+                    bitmapNanos, matched, scanNanos, scanned);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.apexretail.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CatalogQueryEngine}, {@link Filter} and
+ * {@link CompressedBitmap}.
+ * Tests include bitmap algebra against a reference set, compound filters
+ * against a full scan, incremental maintenance on stock changes and
+ * invalid input.
+ */
+class CatalogQueryEngineTest {
+
+        private Category freshFood;
+        private Category produce;
+        private Category dairy;
+        private Category bakery;
+        private ProductCatalog catalog;
+        private CatalogQueryEngine engine;
+        private InventoryService service;
+
+        @BeforeEach
+        void setUp() {
+                freshFood = new Category(100, "Fresh Food", null);
+                produce = new Category(1, "Produce", null, freshFood);
+                dairy = new Category(2, "Dairy", null, freshFood);
+                bakery = new Category(3, "Bakery", null);
+                catalog = new ProductCatalog();
+                engine = new CatalogQueryEngine();
+                catalog.addListener(engine);
+                service = new InventoryService();
+                service.addListener(engine);
+        }
+
+        // ===== 1. BITMAP ALGEBRA =====
+        @Test
+        void testBitmapOperationsMatchReferenceSet() {
+                Random random = new Random(7);
+                CompressedBitmap a = new CompressedBitmap();
+                CompressedBitmap b = new CompressedBitmap();
+                BitSet refA = new BitSet();
+                BitSet refB = new BitSet();
+                // Dense run in the first chunk, sparse values across many chunks
+                for (int i = 0; i < 20_000; i++) {
+                        a.add(i);
+                        refA.set(i);
+                }
+                for (int i = 0; i < 30_000; i++) {
+                        int value = random.nextInt(1 << 22);
+                        b.add(value);
+                        refB.set(value);
+                        if (i % 3 == 0) {
+                                int other = random.nextInt(1 << 20);
+                                a.add(other);
+                                refA.set(other);
+                        }
+                }
+                for (int i = 0; i < 18_000; i += 2) {
+                        a.remove(i);
+                        refA.clear(i);
+                }
+
+                assertEquals(refA.cardinality(), a.cardinality());
+                assertBitmapEquals(refA, a);
+                BitSet and = (BitSet) refA.clone();
+                and.and(refB);
+                assertBitmapEquals(and, a.and(b));
+                BitSet or = (BitSet) refA.clone();
+                or.or(refB);
+                assertBitmapEquals(or, a.or(b));
+                BitSet andNot = (BitSet) refA.clone();
+                andNot.andNot(refB);
+                assertBitmapEquals(andNot, a.andNot(b));
+                assertBitmapEquals(refA, a);
+        }
+
+        @Test
+        void testChunkOscillatingAroundArrayLimit() {
+                CompressedBitmap bitmap = new CompressedBitmap();
+                BitSet ref = new BitSet();
+                for (int i = 0; i <= 4096; i++) {
+                        bitmap.add(i * 3);
+                        ref.set(i * 3);
+                }
+                for (int i = 0; i < 1_000; i++) {
+                        bitmap.remove(0);
+                        bitmap.add(0);
+                }
+                assertBitmapEquals(ref, bitmap);
+
+                for (int i = 0; i < 1_500; i++) {
+                        bitmap.remove(i * 3);
+                        ref.clear(i * 3);
+                }
+                assertEquals(ref.cardinality(), bitmap.cardinality());
+                assertBitmapEquals(ref, bitmap);
+                CompressedBitmap odd = new CompressedBitmap();
+                BitSet refOdd = new BitSet();
+                for (int i = 1; i < 20_000; i += 2) {
+                        odd.add(i);
+                        refOdd.set(i);
+                }
+                BitSet and = (BitSet) ref.clone();
+                and.and(refOdd);
+                assertBitmapEquals(and, bitmap.and(odd));
+                BitSet andNot = (BitSet) ref.clone();
+                andNot.andNot(refOdd);
+                assertBitmapEquals(andNot, bitmap.andNot(odd));
+        }
+
+        // ===== 2. COMPOUND FILTERS =====
+        @Test
+        void testMerchandisingQuery() {
+                Product milk = add(3, "Milk", "2.46", 15, dairy);
+                add(4, "Cheese", "3.15", 10, dairy);
+                Product yogurt = add(5, "Yogurt", "0.99", 0, dairy);
+                Product butter = add(6, "Butter", "2.99", 4, dairy);
+                add(1, "Tomato", "0.25", 30, produce);
+                add(7, "Bread", "1.99", 3, bakery);
+
+                Filter reorder = Filter.and(Filter.category(dairy), Filter.inStock(),
+                                Filter.priceBelow(new BigDecimal("3.00")), Filter.quantityBelow(20));
+                assertEquals(List.of(milk, butter), engine.find(reorder, 10));
+                assertEquals(2, engine.count(reorder));
+
+                assertEquals(5, engine.count(Filter.category(freshFood)));
+                assertEquals(List.of(yogurt), engine.find(Filter.outOfStock(), 10));
+                assertEquals(2, engine.count(Filter.or(Filter.category(produce), Filter.category(bakery))));
+                assertEquals(1, engine.count(Filter.not(Filter.category(freshFood))));
+                assertEquals(3, engine.count(Filter.priceBetween(new BigDecimal("0.99"), new BigDecimal("2.99"))));
+                assertEquals(List.of(milk), engine.find(Filter.category(dairy), 1));
+        }
+
+        @Test
+        void testStockChangesUpdateIndexes() {
+                Product milk = add(3, "Milk", "2.46", 15, dairy);
+                Filter low = Filter.and(Filter.inStock(), Filter.quantityBelow(5));
+                assertEquals(0, engine.count(low));
+
+                service.sellProduct(milk, 11);
+                assertEquals(List.of(milk), engine.find(low, 10));
+                service.sellProduct(milk, 4);
+                assertEquals(0, engine.count(low));
+                assertEquals(1, engine.count(Filter.outOfStock()));
+                service.restockProduct(milk, 200);
+                assertEquals(1, engine.count(Filter.quantityBetween(200, 201)));
+                assertEquals(1, engine.count(Filter.inStock()));
+        }
+
+        @Test
+        void testRandomFiltersMatchFullScan() {
+                Random random = new Random(42);
+                Category[] leaves = { produce, dairy, bakery };
+                List<Product> products = new ArrayList<>();
+                for (int id = 0; id < 100_000; id++) {
+                        String price = random.nextInt(200) + "." + (10 + random.nextInt(90));
+                        products.add(add(id, "Product " + id, price, random.nextInt(300), leaves[id % 3]));
+                }
+                for (int i = 0; i < 20_000; i++) {
+                        Product prod = products.get(random.nextInt(products.size()));
+                        if (random.nextBoolean() && prod.getQuantityInStock() > 0) {
+                                service.sellProduct(prod, 1 + random.nextInt(prod.getQuantityInStock()));
+                        } else {
+                                service.restockProduct(prod, 1 + random.nextInt(50));
+                        }
+                }
+
+                for (int round = 0; round < 50; round++) {
+                        int maxQuantity = random.nextInt(400);
+                        BigDecimal minPrice = BigDecimal.valueOf(random.nextInt(5_000), 2);
+                        BigDecimal maxPrice = minPrice.add(BigDecimal.valueOf(random.nextInt(15_000), 2));
+                        Category category = (round % 4 == 0) ? freshFood : leaves[round % 3];
+                        Filter filter = Filter.or(
+                                        Filter.and(Filter.category(category), Filter.inStock(),
+                                                        Filter.priceBetween(minPrice, maxPrice),
+                                                        Filter.quantityBelow(maxQuantity)),
+                                        Filter.and(Filter.not(Filter.category(dairy)), Filter.quantityBetween(0, 2)));
+                        Predicate<Product> reference = prod -> (prod.getCategory().isWithin(category)
+                                        && prod.getQuantityInStock() > 0
+                                        && prod.getPrice().compareTo(minPrice) >= 0
+                                        && prod.getPrice().compareTo(maxPrice) < 0
+                                        && prod.getQuantityInStock() < maxQuantity)
+                                        || (!prod.getCategory().isWithin(dairy) && prod.getQuantityInStock() < 2);
+
+                        List<Product> expected = new ArrayList<>();
+                        for (Product prod : products) {
+                                if (reference.test(prod)) {
+                                        expected.add(prod);
+                                }
+                        }
+                        assertEquals(expected.size(), engine.count(filter), "round " + round);
+                        assertEquals(expected, engine.find(filter, Integer.MAX_VALUE), "round " + round);
+                }
+        }
+
+        // ===== 3. INVALID INPUT =====
+        @Test
+        void testRejectsInvalidArguments() {
+                add(3, "Milk", "2.46", 15, dairy);
+                assertThrows(IllegalArgumentException.class, () -> engine.addProduct(catalog.getProduct(3)));
+                assertThrows(IllegalArgumentException.class, () -> engine.find(null, 10));
+                assertThrows(IllegalArgumentException.class, () -> engine.find(Filter.inStock(), 0));
+                assertThrows(IllegalArgumentException.class, () -> Filter.and());
+                assertThrows(IllegalArgumentException.class, () -> Filter.category(null));
+                assertThrows(IllegalArgumentException.class, () -> Filter.priceBelow(null));
+                assertThrows(IllegalArgumentException.class,
+                                () -> new CatalogQueryEngine(new long[] { 5, 5 }, new long[] { 1 }));
+        }
+
+        private Product add(long id, String name, String price, int quantity, Category category) {
+                Product prod = new Product(id, name, new BigDecimal(price), quantity, category);
+                catalog.addProduct(prod);
+                return prod;
+        }
+
+        private static void assertBitmapEquals(BitSet expected, CompressedBitmap actual) {
+                BitSet seen = new BitSet();
+                actual.forEach(value -> {
+                        seen.set(value);
+                        return true;
+                });
+                assertEquals(expected, seen);
+                assertEquals(expected.cardinality(), actual.cardinality());
+        }
+}
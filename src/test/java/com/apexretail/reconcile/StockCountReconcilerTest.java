@@ -0,0 +1,249 @@
+package com.apexretail.reconcile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryListener;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+import com.apexretail.service.StockAdjustment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link StockCountReconciler}.
+ * Tests include external sorting with spills and multi-pass merges,
+ * summing of repeated counts, unknown and malformed records, the
+ * discrepancy report and how corrections are reported to listeners.
+ */
+class StockCountReconcilerTest {
+
+        @TempDir
+        Path directory;
+
+        private Category dairy;
+        private ProductCatalog catalog;
+        private InventoryService service;
+
+        @BeforeEach
+        void setUp() {
+                dairy = new Category(2, "Dairy", "This category labels dairy products.");
+                catalog = new ProductCatalog();
+                service = new InventoryService();
+        }
+
+        // ===== 1. EXTERNAL SORT =====
+        @Test
+        void testSorterSpillsAndMergesInMultiplePasses() throws IOException {
+                Random random = new Random(42);
+                TreeMap<Long, Long> expected = new TreeMap<>();
+                int capacity = 10;
+                int records = capacity * (ExternalCountSorter.MERGE_FAN_IN + 10);
+                try (ExternalCountSorter sorter = new ExternalCountSorter(directory, capacity)) {
+                        for (int i = 0; i < records; i++) {
+                                long id = 1 + random.nextInt(300);
+                                long quantity = random.nextInt(5);
+                                sorter.add(id, quantity);
+                                expected.merge(id, quantity, Long::sum);
+                        }
+                        List<long[]> actual = new ArrayList<>();
+                        try (ExternalCountSorter.CountCursor cursor = sorter.sorted()) {
+                                while (cursor.next()) {
+                                        actual.add(new long[] { cursor.id(), cursor.quantity() });
+                                }
+                        }
+                        assertTrue(sorter.getRunCount() > ExternalCountSorter.MERGE_FAN_IN);
+
+                        assertEquals(expected.size(), actual.size());
+                        int i = 0;
+                        for (var entry : expected.entrySet()) {
+                                assertEquals(entry.getKey(), actual.get(i)[0]);
+                                assertEquals(entry.getValue(), actual.get(i)[1]);
+                                i++;
+                        }
+                }
+                try (Stream<Path> left = Files.list(directory)) {
+                        assertEquals(0, left.count());
+                }
+        }
+
+        // ===== 2. RECONCILIATION =====
+        @Test
+        void testAppliesCorrectionsFromLargeCountFiles() throws IOException {
+                int products = 2000;
+                for (int id = 1; id <= products; id++) {
+                        catalog.addProduct(product(id, 10));
+                }
+                // Every product is counted on two shelves across two files;
+                // ID n is counted as n % 21 units in total
+                Path first = directory.resolve("store-1.csv");
+                Path second = directory.resolve("store-2.tsv");
+                try (Writer a = Files.newBufferedWriter(first, StandardCharsets.UTF_8);
+                                Writer b = Files.newBufferedWriter(second, StandardCharsets.UTF_8)) {
+                        a.write("product_id,counted\n");
+                        for (int id = products; id >= 1; id--) {
+                                int total = id % 21;
+                                a.write(id + "," + (total / 2) + "\n");
+                                b.write(id + "\t" + (total - total / 2) + "\n");
+                        }
+                }
+                Path workDirectory = Files.createDirectory(directory.resolve("work"));
+                StockCountReconciler reconciler = new StockCountReconciler(catalog, service, workDirectory, 100, 64);
+
+                ReconciliationReport report = reconciler.reconcile(List.of(first, second),
+                                directory.resolve("report.csv"));
+
+                long added = 0;
+                long removed = 0;
+                long matched = 0;
+                for (int id = 1; id <= products; id++) {
+                        int total = id % 21;
+                        assertEquals(total, catalog.getProduct(id).getQuantityInStock());
+                        added += Math.max(0, total - 10);
+                        removed += Math.max(0, 10 - total);
+                        matched += (total == 10) ? 1 : 0;
+                }
+                assertEquals(2L * products, report.getRecordsRead());
+                assertEquals(0, report.getMalformedRecords());
+                assertEquals(products, report.getProductsCounted());
+                assertEquals(matched, report.getProductsMatched());
+                assertEquals(products - matched, report.getProductsAdjusted());
+                assertEquals(added, report.getUnitsAdded());
+                assertEquals(removed, report.getUnitsRemoved());
+                assertEquals(0, report.getFailedAdjustments());
+                try (Stream<Path> left = Files.list(workDirectory)) {
+                        assertEquals(0, left.count());
+                }
+        }
+
+        @Test
+        void testReportsUnknownUncountedAndMalformedRecords() throws IOException {
+                catalog.addProduct(product(1, 5));
+                catalog.addProduct(product(2, 8));
+                catalog.addProduct(product(3, 4));
+                catalog.addProduct(product(5, 9));
+                Path counts = write("counts.csv",
+                                "1,7\n" +
+                                "\n" +
+                                "4,3\n" +
+                                "abc,1\n" +
+                                "2;8\n" +
+                                "3,-1\n" +
+                                "2,6\n");
+                Path reportFile = directory.resolve("report.csv");
+
+                ReconciliationReport report = new StockCountReconciler(catalog, service, directory)
+                                .reconcile(List.of(counts), reportFile);
+
+                assertEquals(6, report.getRecordsRead());
+                assertEquals(3, report.getMalformedRecords());
+                assertEquals(3, report.getProductsCounted());
+                assertEquals(1, report.getUnknownProducts());
+                assertEquals(2, report.getUncountedProducts());
+                assertEquals(2, report.getProductsAdjusted());
+                assertEquals(7, catalog.getProduct(1).getQuantityInStock());
+                assertEquals(6, catalog.getProduct(2).getQuantityInStock());
+                assertEquals(4, catalog.getProduct(3).getQuantityInStock());
+                assertEquals(9, catalog.getProduct(5).getQuantityInStock());
+
+                assertEquals(List.of(
+                                StockCountReconciler.REPORT_HEADER,
+                                "1,5,7,2,ADJUSTED",
+                                "2,8,6,-2,ADJUSTED",
+                                "4,,3,,UNKNOWN"),
+                                Files.readAllLines(reportFile, StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void testReconcilesProductZero() throws IOException {
+                catalog.addProduct(product(0, 5));
+                catalog.addProduct(product(1, 5));
+                Path counts = write("counts.csv", "1,4\n0,2\n0,1\n-1,3\n");
+
+                ReconciliationReport report = new StockCountReconciler(catalog, service, directory)
+                                .reconcile(List.of(counts), directory.resolve("report.csv"));
+
+                assertEquals(1, report.getMalformedRecords());
+                assertEquals(2, report.getProductsAdjusted());
+                assertEquals(0, report.getUncountedProducts());
+                assertEquals(3, catalog.getProduct(0).getQuantityInStock());
+                assertEquals(4, catalog.getProduct(1).getQuantityInStock());
+        }
+
+        // ===== 3. LISTENERS =====
+        @Test
+        void testShortfallsAreReportedAsWriteOffs() throws IOException {
+                catalog.addProduct(product(1, 10));
+                catalog.addProduct(product(2, 10));
+                List<String> events = new ArrayList<>();
+                service.addListener(new InventoryListener() {
+                        @Override
+                        public void stockChanged(Product prod, int delta) {
+                                events.add("changed " + prod.getId() + " " + delta);
+                        }
+
+                        @Override
+                        public void stockWrittenOff(Product prod, int units) {
+                                events.add("written off " + prod.getId() + " " + units);
+                        }
+                });
+                Path counts = write("counts.csv", "1,12\n2,7\n");
+
+                new StockCountReconciler(catalog, service, directory).reconcile(List.of(counts),
+                                directory.resolve("report.csv"));
+
+                assertEquals(List.of("changed 1 2", "written off 2 3"), events);
+        }
+
+        // ===== 4. VALIDATION =====
+        @Test
+        void testRejectsInvalidArguments() {
+                assertThrows(IllegalArgumentException.class,
+                                () -> new StockCountReconciler(null, service, directory));
+                assertThrows(IllegalArgumentException.class,
+                                () -> new StockCountReconciler(catalog, service, directory, 0, 10));
+                assertThrows(IllegalArgumentException.class,
+                                () -> new StockCountReconciler(catalog, service, directory, 10, 0));
+                assertThrows(IllegalArgumentException.class,
+                                () -> new StockCountReconciler(catalog, service, directory)
+                                                .reconcile(null, directory.resolve("report.csv")));
+        }
+
+        @Test
+        void testAdjustmentsBelowZeroAreReturnedNotApplied() {
+                Product prod = product(1, 10);
+                StockAdjustment tooLarge = new StockAdjustment(prod, -11);
+                StockAdjustment minimum = new StockAdjustment(prod, Integer.MIN_VALUE);
+
+                List<StockAdjustment> rejected = service.adjustStock(
+                                List.of(tooLarge, minimum, new StockAdjustment(prod, -10)));
+
+                assertEquals(List.of(tooLarge, minimum), rejected);
+                assertEquals(0, prod.getQuantityInStock());
+        }
+
+        private Product product(long id, int quantity) {
+                return new Product(id, "Item " + id, new BigDecimal("1.00"), quantity, dairy);
+        }
+
+        private Path write(String name, String content) throws IOException {
+                Path file = directory.resolve(name);
+                Files.writeString(file, content, StandardCharsets.UTF_8);
+                return file;
+        }
+}
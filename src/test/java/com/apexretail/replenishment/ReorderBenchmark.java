@@ -0,0 +1,129 @@
+package com.apexretail.replenishment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.history.SalesHistory;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+
+/**
+ * Manual benchmark of a full {@link ReorderOptimizer} planning run and
+ * batched restock over a large catalog with four weeks of sales history.
+ *
+ * <p>
+ * Pass the number of products as the first argument (default 100,000).
+ * Run after {@code mvn test-compile}:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes com.apexretail.replenishment.ReorderBenchmark
+ * </pre>
+ *
+ * @author David
+ * @version 1.0.0
+ */
+public class ReorderBenchmark {
+
+    private static final int DEFAULT_PRODUCTS = 100_000;
+    private static final int CATEGORIES = 200;
+    private static final int HISTORY_DAYS = 28;
+    private static final int ROUNDS = 5;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Builds a catalog and sales history and times planning and restocking.
+     *
+     * @param args optional product count
+     */
+    public static void main(String[] args) {
+        int productCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PRODUCTS;
+        Random random = new Random(1);
+        Category[] categories = new Category[CATEGORIES];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = new Category(i, "Category " + i, null);
+        }
+        ProductCatalog catalog = new ProductCatalog();
+        for (int id = 0; id < productCount; id++) {
+            catalog.addProduct(new Product(id, "Product " + id, BigDecimal.ONE, random.nextInt(200),
+                    categories[id % categories.length]));
+        }
+
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("reorder-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SteppedClock clock = new SteppedClock(20_000L * DAY);
+        SalesHistory history = new SalesHistory(directory, clock);
+        long start = System.nanoTime();
+        for (int day = 0; day < HISTORY_DAYS; day++) {
+            for (int id = 0; id < productCount; id++) {
+                int sold = random.nextInt(20);
+                if (sold > 0) {
+                    history.recordSale(id, sold);
+                }
+            }
+            clock.millis += DAY;
+            history.rollUp();
+        }
+        System.out.printf("Recorded %d days of history for %,d products in %d ms%n", HISTORY_DAYS, productCount,
+                (System.nanoTime() - start) / 1_000_000);
+
+        ReorderOptimizer optimizer = new ReorderOptimizer(history, clock, new ReorderPolicy(HISTORY_DAYS, 3, 7, 1.65));
+        ReorderPlan plan = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            start = System.nanoTime();
+            plan = optimizer.plan(catalog);
+            System.out.printf("Round %d: planned %,d products in %d ms, %,d reorders%n", round,
+                    plan.getProductsPlanned(), (System.nanoTime() - start) / 1_000_000, plan.getLines().size());
+        }
+
+        start = System.nanoTime();
+        int rejected = optimizer.apply(plan, new InventoryService()).size();
+        System.out.printf("Applied %,d units in %d ms, %d rejected%n", plan.getTotalUnits(),
+                (System.nanoTime() - start) / 1_000_000, rejected);
+        history.close();
+    }
+
+    /**
+     * Clock advanced by the benchmark one day at a time.
+     */
+    private static final class SteppedClock extends Clock {
+        private long millis;
+
+        private SteppedClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
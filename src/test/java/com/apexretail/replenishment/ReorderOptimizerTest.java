@@ -0,0 +1,231 @@
+package com.apexretail.replenishment;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.history.SalesHistory;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ReorderOptimizer}.
+ * Tests include velocity and safety stock calculations, category policy
+ * resolution, batched restocks and parallel planning of a large catalog.
+ */
+class ReorderOptimizerTest {
+
+        private static final long DAY = 24 * 60 * 60 * 1000L;
+
+        /** Day 20000 after the epoch, midnight UTC. */
+        private static final long START = 20_000L * DAY;
+
+        private static final ReorderPolicy DEFAULT_POLICY = new ReorderPolicy(28, 3, 7, 0);
+
+        @TempDir
+        Path directory;
+
+        private MutableClock clock;
+        private SalesHistory history;
+        private ProductCatalog catalog;
+        private Category fresh;
+        private Category produce;
+        private Category dairy;
+
+        @BeforeEach
+        void setUp() {
+                clock = new MutableClock(START);
+                history = new SalesHistory(directory, clock);
+                catalog = new ProductCatalog();
+                fresh = new Category(100, "Fresh Food", null);
+                produce = new Category(1, "Produce", null, fresh);
+                dairy = new Category(2, "Dairy", null, fresh);
+        }
+
+        // ===== 1. REORDER QUANTITIES =====
+        @Test
+        void testOrdersUpToLeadTimeAndReviewDemand() {
+                Product low = addProduct(1, 25, produce);
+                Product high = addProduct(2, 40, produce);
+                addProduct(3, 0, produce);
+                recordDays(28, (prod, day) -> 10, low, high);
+                history.recordSale(1, 500);
+
+                ReorderPlan plan = new ReorderOptimizer(history, clock, DEFAULT_POLICY).plan(catalog);
+
+                assertEquals(3, plan.getProductsPlanned());
+                assertEquals(1, plan.getLines().size());
+                ReorderLine line = plan.getLines().get(0);
+                assertSame(low, line.getProduct());
+                assertEquals(10.0, line.getDailyVelocity(), 1e-9);
+                assertEquals(30, line.getReorderPoint());
+                assertEquals(75, line.getQuantity());
+                assertEquals(75, plan.getTotalUnits());
+                assertTrue(ReorderOptimizer.DEFAULT_PARALLELISM < Runtime.getRuntime().availableProcessors()
+                                || ReorderOptimizer.DEFAULT_PARALLELISM == 1);
+        }
+
+        @Test
+        void testAddsSafetyStockForVolatileDemand() {
+                Product milk = addProduct(1, 80, dairy);
+                recordDays(28, (prod, day) -> (day % 2 == 0) ? 0 : 20, milk);
+
+                ReorderOptimizer optimizer = new ReorderOptimizer(history, clock, new ReorderPolicy(28, 4, 7, 2.0));
+                ReorderLine line = optimizer.plan(catalog).getLines().get(0);
+
+                assertEquals(80, line.getReorderPoint());
+                assertEquals(70, line.getQuantity());
+        }
+
+        // ===== 2. CATEGORY POLICIES =====
+        @Test
+        void testUsesNearestCategoryPolicy() {
+                Category other = new Category(3, "Bakery", null);
+                Product tomato = addProduct(1, 0, produce);
+                Product milk = addProduct(2, 0, dairy);
+                Product bread = addProduct(3, 0, other);
+                recordDays(28, (prod, day) -> 10, tomato, milk, bread);
+
+                ReorderOptimizer optimizer = new ReorderOptimizer(history, clock, DEFAULT_POLICY);
+                optimizer.setCategoryPolicy(fresh, new ReorderPolicy(28, 1, 1, 0));
+                optimizer.setCategoryPolicy(produce, new ReorderPolicy(28, 0, 1, 0));
+                List<ReorderLine> lines = optimizer.plan(catalog).getLines();
+
+                assertEquals(10, lines.get(0).getQuantity());
+                assertEquals(20, lines.get(1).getQuantity());
+                assertEquals(100, lines.get(2).getQuantity());
+                assertThrows(IllegalArgumentException.class, () -> optimizer.setCategoryPolicy(null, DEFAULT_POLICY));
+                assertThrows(IllegalArgumentException.class, () -> new ReorderPolicy(0, 1, 1, 0));
+                assertThrows(IllegalArgumentException.class, () -> new ReorderPolicy(28, 1, 1, Double.NaN));
+        }
+
+        // ===== 3. APPLYING PLANS =====
+        @Test
+        void testApplyRestocksEveryLineInOneBatch() {
+                Product tomato = addProduct(1, 5, produce);
+                Product milk = addProduct(2, 0, dairy);
+                recordDays(28, (prod, day) -> (prod == tomato) ? 10 : 2, tomato, milk);
+                InventoryService service = new InventoryService();
+                List<String> events = new ArrayList<>();
+                service.addListener((prod, delta) -> events.add(prod.getId() + ":" + delta));
+
+                ReorderOptimizer optimizer = new ReorderOptimizer(history, clock, DEFAULT_POLICY);
+                ReorderPlan plan = optimizer.plan(catalog);
+
+                assertTrue(optimizer.apply(plan, service).isEmpty());
+                assertEquals(100, tomato.getQuantityInStock());
+                assertEquals(20, milk.getQuantityInStock());
+                assertEquals(List.of("1:95", "2:20"), events);
+                assertTrue(optimizer.plan(catalog).getLines().isEmpty());
+        }
+
+        // ===== 4. PARALLEL PLANNING =====
+        @Test
+        void testLargeCatalogInParallelMatchesFormula() {
+                Category[] categories = new Category[7];
+                for (int i = 0; i < categories.length; i++) {
+                        categories[i] = new Category(10 + i, "Category " + i, null, fresh);
+                }
+                Product[] products = new Product[5_000];
+                for (int id = 0; id < products.length; id++) {
+                        products[id] = addProduct(id, id % 50, categories[id % categories.length]);
+                }
+                recordDays(28, (prod, day) -> 1, products);
+
+                ForkJoinPool pool = new ForkJoinPool(4);
+                try {
+                        ReorderOptimizer optimizer = new ReorderOptimizer(history, clock, DEFAULT_POLICY, pool, 16);
+                        ReorderPlan plan = optimizer.plan(catalog);
+
+                        assertEquals(products.length, plan.getProductsPlanned());
+                        long previousId = -1;
+                        int expectedLines = 0;
+                        for (Product prod : products) {
+                                if (prod.getQuantityInStock() <= 3) {
+                                        expectedLines++;
+                                }
+                        }
+                        assertEquals(expectedLines, plan.getLines().size());
+                        for (ReorderLine line : plan.getLines()) {
+                                assertTrue(line.getProduct().getId() > previousId);
+                                previousId = line.getProduct().getId();
+                                assertEquals(10 - line.getOnHand(), line.getQuantity());
+                        }
+                } finally {
+                        pool.shutdown();
+                }
+        }
+
+        private Product addProduct(long id, int quantity, Category category) {
+                Product prod = new Product(id, "Product " + id, new BigDecimal("1.00"), quantity, category);
+                catalog.addProduct(prod);
+                return prod;
+        }
+
+        /**
+         * Records a number of completed days of sales from the current day,
+         * leaving the clock at the start of the following day.
+         */
+        private void recordDays(int days, DailyUnits units, Product... products) {
+                for (int day = 0; day < days; day++) {
+                        for (Product prod : products) {
+                                long sold = units.on(prod, day);
+                                if (sold > 0) {
+                                        history.recordSale(prod.getId(), sold);
+                                }
+                        }
+                        clock.advance(DAY);
+                        history.rollUp();
+                }
+        }
+
+        private interface DailyUnits {
+                long on(Product prod, int day);
+        }
+
+        private static final class MutableClock extends Clock {
+                private long millis;
+
+                private MutableClock(long millis) {
+                        this.millis = millis;
+                }
+
+                private void advance(long amount) {
+                        millis += amount;
+                }
+
+                @Override
+                public long millis() {
+                        return millis;
+                }
+
+                @Override
+                public Instant instant() {
+                        return Instant.ofEpochMilli(millis);
+                }
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+        }
+}
@@ -0,0 +1,194 @@
+package com.apexretail.replication;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.codec.BufferPool;
+import com.apexretail.codec.CatalogEncoder;
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.InventoryService;
+import com.apexretail.service.ProductCatalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for primary/replica replication over {@link InProcessTransport}.
+ * Tests include live propagation, late-joining replicas, idempotent
+ * redelivery and concurrent writers on the primary.
+ */
+class ReplicationTest {
+
+        private static final int PRODUCTS = 20;
+
+        private ProductCatalog primaryCatalog;
+        private InventoryService primaryService;
+        private InProcessTransport transport;
+        private ReplicationPublisher publisher;
+
+        @BeforeEach
+        void setUp() {
+                primaryCatalog = newCatalog();
+                primaryService = new InventoryService();
+                transport = new InProcessTransport();
+                publisher = new ReplicationPublisher(primaryCatalog, transport, 1);
+                publisher.start();
+                primaryService.addListener(publisher);
+        }
+
+        @AfterEach
+        void tearDown() {
+                publisher.close();
+                transport.close();
+        }
+
+        // ===== 1. LIVE PROPAGATION =====
+        @Test
+        void testReplicaFollowsPrimary() throws InterruptedException {
+                ReplicaNode replica = attachReplica();
+
+                primaryService.sellProduct(primaryCatalog.getProduct(1), 5);
+                primaryService.restockProduct(primaryCatalog.getProduct(2), 7);
+                syncReplicas();
+
+                assertEquals(95, replica.getQuantityInStock(1));
+                assertEquals(107, replica.getQuantityInStock(2));
+                assertEquals(2, replica.getLastAppliedSequence());
+        }
+
+        // ===== 2. CATCH-UP FROM SNAPSHOT =====
+        @Test
+        void testLateReplicaCatchesUpFromSnapshot() throws InterruptedException {
+                for (int i = 0; i < 50; i++) {
+                        primaryService.sellProduct(primaryCatalog.getProduct(i % PRODUCTS), 1);
+                }
+                publisher.flush();
+
+                ReplicaNode replica = attachReplica();
+                primaryService.restockProduct(primaryCatalog.getProduct(3), 10);
+                syncReplicas();
+
+                assertReplicaMatchesPrimary(replica);
+                assertEquals(51, replica.getLastAppliedSequence());
+        }
+
+        @Test
+        void testSnapshotCreatesMissingProducts() throws InterruptedException {
+                ProductCatalog emptyCatalog = new ProductCatalog();
+                ReplicaNode replica = new ReplicaNode(emptyCatalog, new InventoryService());
+                transport.attach(replica, publisher);
+                primaryService.sellProduct(primaryCatalog.getProduct(0), 1);
+                syncReplicas();
+
+                assertEquals(PRODUCTS, emptyCatalog.size());
+                assertReplicaMatchesPrimary(replica);
+                assertEquals("Produce", emptyCatalog.getProduct(0).getCategory().getName());
+        }
+
+        // ===== 3. IDEMPOTENT APPLICATION =====
+        @Test
+        void testDuplicateAndGappedFrames() {
+                ProductCatalog catalog = newCatalog();
+                ReplicaNode replica = new ReplicaNode(catalog, new InventoryService());
+                ByteBuffer first = deltaFrame(1, 4, -3);
+                ByteBuffer gapped = deltaFrame(5, 4, -1);
+
+                assertTrue(replica.applyDeltas(first));
+                assertTrue(replica.applyDeltas(first));
+                assertEquals(97, replica.getQuantityInStock(4));
+                assertFalse(replica.applyDeltas(gapped));
+                assertEquals(97, replica.getQuantityInStock(4));
+                assertEquals(1, replica.getLastAppliedSequence());
+        }
+
+        @Test
+        void testFailedDeltaReloadsReplicaFromSnapshot() throws InterruptedException {
+                ProductCatalog replicaCatalog = newCatalog();
+                ReplicaNode replica = new ReplicaNode(replicaCatalog, new InventoryService());
+                transport.attach(replica, publisher);
+                syncReplicas();
+                replicaCatalog.getProduct(1).decreaseStock(98);
+
+                primaryService.sellProduct(primaryCatalog.getProduct(1), 5);
+                syncReplicas();
+                assertEquals(95, replica.getQuantityInStock(1));
+
+                primaryService.sellProduct(primaryCatalog.getProduct(1), 1);
+                primaryService.restockProduct(primaryCatalog.getProduct(2), 3);
+                syncReplicas();
+                assertReplicaMatchesPrimary(replica);
+                assertEquals(publisher.getLastSequence(), replica.getLastAppliedSequence());
+        }
+
+        // ===== 4. CONCURRENT WRITERS =====
+        @Test
+        void testConcurrentWritersConverge() throws InterruptedException {
+                ReplicaNode replica = attachReplica();
+                ExecutorService writers = Executors.newFixedThreadPool(4);
+                for (int t = 0; t < 4; t++) {
+                        int offset = t;
+                        writers.execute(() -> {
+                                for (int i = 0; i < 2_000; i++) {
+                                        Product product = primaryCatalog.getProduct((i + offset) % PRODUCTS);
+                                        if (i % 2 == 0) {
+                                                primaryService.sellProduct(product, 1);
+                                        } else {
+                                                primaryService.restockProduct(product, 2);
+                                        }
+                                }
+                        });
+                }
+                writers.shutdown();
+                assertTrue(writers.awaitTermination(30, TimeUnit.SECONDS));
+                syncReplicas();
+
+                assertReplicaMatchesPrimary(replica);
+                assertEquals(publisher.getLastSequence(), replica.getLastAppliedSequence());
+        }
+
+        private ReplicaNode attachReplica() {
+                ReplicaNode replica = new ReplicaNode(newCatalog(), new InventoryService());
+                transport.attach(replica, publisher);
+                return replica;
+        }
+
+        private void syncReplicas() throws InterruptedException {
+                publisher.flush();
+                transport.awaitDelivery();
+        }
+
+        private void assertReplicaMatchesPrimary(ReplicaNode replica) {
+                for (Product product : primaryCatalog.getProducts()) {
+                        assertEquals(product.getQuantityInStock(), replica.getQuantityInStock(product.getId()),
+                                        "Stock mismatch for product " + product.getId());
+                }
+        }
+
+        private static ProductCatalog newCatalog() {
+                Category freshFood = new Category(100, "Fresh Food", null);
+                Category produce = new Category(1, "Produce", null, freshFood);
+                ProductCatalog catalog = new ProductCatalog();
+                for (int i = 0; i < PRODUCTS; i++) {
+                        catalog.addProduct(new Product(i, "Item " + i, new BigDecimal("1.00"), 100, produce));
+                }
+                return catalog;
+        }
+
+        private static ByteBuffer deltaFrame(long sequence, long productId, int delta) {
+                List<ByteBuffer> frames = new ArrayList<>();
+                CatalogEncoder encoder = new CatalogEncoder(new BufferPool(64, 1), frames::add);
+                encoder.writeSequence(sequence);
+                encoder.writeStockDelta(productId, delta);
+                encoder.flush();
+                return frames.get(0);
+        }
+}
@@ -0,0 +1,130 @@
+package com.apexretail.search;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+import com.apexretail.service.ProductCatalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ProductSearchIndex}.
+ * Tests include exact, prefix and typo-tolerant matches, ranking of name
+ * over category matches, top-K limits and incremental updates.
+ */
+class ProductSearchIndexTest {
+
+        private ProductCatalog catalog;
+        private ProductSearchIndex index;
+        private Category produce;
+        private Category dairy;
+
+        @BeforeEach
+        void setUp() {
+                Category freshFood = new Category(100, "Fresh Food", null);
+                produce = new Category(1, "Produce", null, freshFood);
+                dairy = new Category(2, "Dairy", null, freshFood);
+
+                catalog = new ProductCatalog();
+                index = new ProductSearchIndex();
+                catalog.addListener(index);
+                catalog.addProduct(new Product(1, "Tomato", new BigDecimal("0.25"), 30, produce));
+                catalog.addProduct(new Product(2, "Onion", new BigDecimal("0.90"), 20, produce));
+                catalog.addProduct(new Product(3, "Milk", new BigDecimal("2.46"), 15, dairy));
+                catalog.addProduct(new Product(4, "Cheddar Cheese", new BigDecimal("3.15"), 10, dairy));
+                catalog.addProduct(new Product(5, "Dairy-Free Milk", new BigDecimal("2.99"), 8, dairy));
+        }
+
+        // ===== 1. EXACT, PREFIX AND FUZZY MATCHES =====
+        @ParameterizedTest(name = "\"{0}\" -> {1}")
+        @CsvSource({
+                        "tomato, 1",
+                        "TOMATO, 1",
+                        "tom, 1",
+                        "ched, 4",
+                        "chese, 4",
+                        "cheddar chees, 4",
+                        "tomatoe, 1"
+        })
+        void testBestMatch(String query, long expectedId) {
+                List<SearchResult> results = index.search(query, 5);
+                assertFalse(results.isEmpty());
+                assertEquals(expectedId, results.get(0).getProduct().getId());
+        }
+
+        // ===== 2. RANKING =====
+        @Test
+        void testNameMatchesOutrankCategoryMatches() {
+                List<SearchResult> results = index.search("dairy", 10);
+                assertEquals(3, results.size());
+                assertEquals(5, results.get(0).getProduct().getId());
+                assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        }
+
+        @Test
+        void testAllTokensMustMatch() {
+                assertEquals(1, index.search("milk free", 10).size());
+                assertTrue(index.search("milk tomato", 10).isEmpty());
+                assertTrue(index.search("xyzzy", 10).isEmpty());
+                assertTrue(index.search("  ", 10).isEmpty());
+        }
+
+        @Test
+        void testLimitAndCategoryAncestors() {
+                assertEquals(5, index.search("fresh", 10).size());
+                assertEquals(2, index.search("fresh", 2).size());
+                assertThrows(IllegalArgumentException.class, () -> index.search("milk", 0));
+        }
+
+        @Test
+        void testPrefixKeepsMostFrequentTerms() {
+                for (int i = 0; i < 100; i++) {
+                        catalog.addProduct(new Product(100 + i, String.format("Gadget%03d", i), BigDecimal.ONE, 1,
+                                        produce));
+                }
+                for (int i = 0; i < 3; i++) {
+                        catalog.addProduct(new Product(300 + i, "Gadgety " + i, BigDecimal.ONE, 1, produce));
+                }
+
+                List<SearchResult> results = index.search("gadget", 3);
+                assertEquals(3, results.size());
+                for (SearchResult result : results) {
+                        assertTrue(result.getProduct().getId() >= 300);
+                }
+                assertEquals(66, index.search("gadget", 200).size());
+
+                results = index.search("ga", 3);
+                assertEquals(3, results.size());
+                for (SearchResult result : results) {
+                        assertTrue(result.getProduct().getId() >= 300);
+                }
+                assertEquals(66, index.search("ga", 200).size());
+        }
+
+        // ===== 3. INCREMENTAL UPDATES =====
+        @Test
+        void testProductsAddedLaterAreFound() {
+                assertTrue(index.search("yoghurt", 5).isEmpty());
+                catalog.addProduct(new Product(6, "Greek Yoghurt", new BigDecimal("1.80"), 12, dairy));
+                assertEquals(6, index.search("yoghurt", 5).get(0).getProduct().getId());
+
+                index.addProduct(catalog.getProduct(6));
+                assertEquals(6, index.size());
+        }
+
+        // ===== 4. EDIT DISTANCE =====
+        @Test
+        void testBoundedEditDistance() {
+                assertEquals(0, ProductSearchIndex.boundedEditDistance("milk", "milk", 1));
+                assertEquals(1, ProductSearchIndex.boundedEditDistance("chese", "cheese", 1));
+                assertEquals(2, ProductSearchIndex.boundedEditDistance("kitten", "sitting", 1));
+                assertEquals(3, ProductSearchIndex.boundedEditDistance("kitten", "sitting", 3));
+        }
+}
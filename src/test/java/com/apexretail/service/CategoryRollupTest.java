@@ -0,0 +1,86 @@
+package com.apexretail.service;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CategoryRollup}.
+ * Tests include initial tracking, propagation of sales and restocks
+ * through the category tree, and untracking.
+ */
+class CategoryRollupTest {
+
+        private Category freshFood;
+        private Category produce;
+        private Category dairy;
+        private Product tomato;
+        private Product milk;
+        private InventoryService service;
+        private CategoryRollup rollup;
+
+        @BeforeEach
+        void setUp() {
+                freshFood = new Category(100, "Fresh Food", null);
+                produce = new Category(1, "Produce", null, freshFood);
+                dairy = new Category(2, "Dairy", null, freshFood);
+                tomato = new Product(1, "Tomato", new BigDecimal("0.25"), 30, produce);
+                milk = new Product(3, "Milk", new BigDecimal("2.46"), 15, dairy);
+
+                service = new InventoryService();
+                rollup = new CategoryRollup();
+                rollup.trackProduct(tomato);
+                rollup.trackProduct(milk);
+                service.addListener(rollup);
+        }
+
+        // ===== 1. INITIAL AGGREGATES =====
+        @Test
+        void testTrackedProductsRollUpToRoot() {
+                assertEquals(1, rollup.getSkuCount(produce));
+                assertEquals(1, rollup.getSkuCount(dairy));
+                assertEquals(2, rollup.getSkuCount(freshFood));
+                assertEquals(45, rollup.getUnitsOnHand(freshFood));
+                assertEquals(new BigDecimal("44.40"), rollup.getStockValue(freshFood));
+        }
+
+        // ===== 2. PROPAGATION OF STOCK CHANGES =====
+        @Test
+        void testSellAndRestockPropagate() {
+                service.sellProduct(tomato, 10);
+                service.restockProduct(milk, 5);
+
+                assertEquals(20, rollup.getUnitsOnHand(produce));
+                assertEquals(20, rollup.getUnitsOnHand(dairy));
+                assertEquals(40, rollup.getUnitsOnHand(freshFood));
+                assertEquals(500 + 20 * 246, rollup.getStockValueInMinorUnits(freshFood));
+        }
+
+        // ===== 3. UNTRACKING AND UNKNOWN CATEGORIES =====
+        @Test
+        void testUntrackAndUnknownCategory() {
+                rollup.untrackProduct(milk);
+                assertEquals(0, rollup.getSkuCount(dairy));
+                assertEquals(30, rollup.getUnitsOnHand(freshFood));
+
+                Category frozen = new Category(3, "Frozen", null, freshFood);
+                assertEquals(0, rollup.getSkuCount(frozen));
+                assertThrows(IllegalArgumentException.class, () -> rollup.getSkuCount(null));
+        }
+
+        // ===== 4. CATEGORY TREE =====
+        @Test
+        void testCategoryDepthAndAncestry() {
+                assertEquals(0, freshFood.getDepth());
+                assertEquals(1, dairy.getDepth());
+                assertTrue(dairy.isWithin(freshFood));
+                assertFalse(freshFood.isWithin(dairy));
+                assertThrows(IllegalArgumentException.class, () -> new Category(100, "Loop", null, produce));
+        }
+}
@@ -0,0 +1,199 @@
+package com.apexretail.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LotLedger} and lot handling in
+ * {@link InventoryService}.
+ * Tests include FEFO allocation, default and explicit expiry dates, expiry
+ * sweeps, write-off notifications and SKUs with many open lots.
+ */
+class LotLedgerTest {
+
+        private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+        private MutableClock clock;
+        private LotLedger lots;
+        private InventoryService service;
+        private Product milk;
+        private List<String> events;
+
+        @BeforeEach
+        void setUp() {
+                clock = new MutableClock(TODAY);
+                lots = new LotLedger(clock);
+                service = new InventoryService(lots);
+                milk = new Product(3, "Milk", new BigDecimal("2.46"), 10, new Category(2, "Dairy", null));
+                lots.track(milk, Period.ofDays(14));
+                events = new ArrayList<>();
+                service.addListener(new InventoryListener() {
+                        @Override
+                        public void stockChanged(Product prod, int delta) {
+                                events.add("changed " + delta);
+                        }
+
+                        @Override
+                        public void stockWrittenOff(Product prod, int units) {
+                                events.add("written off " + units);
+                        }
+                });
+        }
+
+        // ===== 1. FEFO ALLOCATION =====
+        @Test
+        void testSalesTakeLotsExpiringFirst() {
+                service.restockLot(milk, 5, TODAY.plusDays(3));
+                service.restockLot(milk, 8, TODAY.plusDays(30));
+                service.restockProduct(milk, 4);
+
+                service.sellProduct(milk, 7);
+
+                List<Lot> open = lots.getLots(milk);
+                assertEquals(3, open.size());
+                assertEquals(TODAY.plusDays(14), open.get(0).getExpiryDate());
+                assertEquals(8, open.get(0).getQuantity());
+                assertEquals(TODAY.plusDays(14), open.get(1).getExpiryDate());
+                assertEquals(4, open.get(1).getQuantity());
+                assertEquals(TODAY.plusDays(30), open.get(2).getExpiryDate());
+                assertEquals(20, milk.getQuantityInStock());
+        }
+
+        @Test
+        void testFailedSaleLeavesLotsUntouched() {
+                assertThrows(IllegalArgumentException.class, () -> service.sellProduct(milk, 11));
+                assertEquals(10, lots.getLots(milk).get(0).getQuantity());
+                assertEquals(10, milk.getQuantityInStock());
+        }
+
+        @Test
+        void testSaleBeyondLotsTakesUntrackedStock() {
+                milk.increaseStock(5);
+                service.restockLot(milk, 3, TODAY.plusDays(2));
+
+                service.sellProduct(milk, 16);
+
+                assertEquals(2, milk.getQuantityInStock());
+                assertTrue(lots.getLots(milk).isEmpty());
+                assertEquals(0, lots.allocate(milk, 0));
+                service.restockLot(milk, 4, TODAY.plusDays(3));
+                assertEquals(1, lots.allocate(milk, 5));
+                assertTrue(lots.getLots(milk).isEmpty());
+        }
+
+        // ===== 2. EXPIRY =====
+        @Test
+        void testExpirySweepWritesOffOnlyExpiredLots() {
+                service.restockLot(milk, 5, TODAY);
+                service.restockLot(milk, 6, TODAY.plusDays(1));
+                events.clear();
+
+                clock.setDate(TODAY.plusDays(1));
+                assertEquals(5, service.expireLots());
+                assertEquals(List.of("written off 5"), events);
+                assertEquals(16, milk.getQuantityInStock());
+
+                clock.setDate(TODAY.plusDays(15));
+                assertEquals(16, service.expireLots());
+                assertEquals(0, milk.getQuantityInStock());
+                assertTrue(lots.getLots(milk).isEmpty());
+                assertEquals(0, service.expireLots());
+        }
+
+        @Test
+        void testSaleWritesOffExpiredStockFirst() {
+                clock.setDate(TODAY.plusDays(15));
+                service.restockProduct(milk, 3);
+                events.clear();
+
+                service.sellProduct(milk, 2);
+                assertEquals(List.of("written off 10", "changed -2"), events);
+                assertEquals(1, milk.getQuantityInStock());
+                assertThrows(IllegalArgumentException.class, () -> service.sellProduct(milk, 2));
+        }
+
+        @Test
+        void testSoldOutLotsAreSkippedBySweep() {
+                service.restockLot(milk, 5, TODAY.plusDays(1));
+                service.sellProduct(milk, 15);
+                clock.setDate(TODAY.plusDays(30));
+                assertEquals(0, service.expireLots());
+                assertEquals(0, milk.getQuantityInStock());
+                assertTrue(lots.pollExpiredProducts(TODAY.plusDays(30)).isEmpty());
+        }
+
+        // ===== 3. MANY LOTS =====
+        @Test
+        void testThousandsOfOpenLots() {
+                for (int i = 0; i < 5_000; i++) {
+                        service.restockLot(milk, 2, TODAY.plusDays(5_000 - i));
+                }
+                service.sellProduct(milk, 10);
+                for (int i = 0; i < 4_000; i++) {
+                        service.sellProduct(milk, 1);
+                }
+                List<Lot> open = lots.getLots(milk);
+                assertEquals(3_000, open.size());
+                assertEquals(TODAY.plusDays(2_001), open.get(0).getExpiryDate());
+                assertEquals(6_000, milk.getQuantityInStock());
+        }
+
+        // ===== 4. INVALID INPUT =====
+        @Test
+        void testRejectsInvalidLotOperations() {
+                Product bread = new Product(9, "Bread", new BigDecimal("1.99"), 5, new Category(3, "Bakery", null));
+                assertThrows(IllegalArgumentException.class, () -> service.restockLot(bread, 1, TODAY));
+                assertThrows(IllegalArgumentException.class, () -> service.restockLot(milk, 1, TODAY.minusDays(1)));
+                assertThrows(IllegalArgumentException.class, () -> lots.track(milk, Period.ofDays(3)));
+                assertThrows(IllegalArgumentException.class, () -> lots.track(bread, Period.ZERO));
+
+                service.sellProduct(bread, 2);
+                assertEquals(3, bread.getQuantityInStock());
+                assertTrue(lots.getLots(bread).isEmpty());
+        }
+
+        /**
+         * Clock fixed at the start of a settable date.
+         */
+        private static final class MutableClock extends Clock {
+                private Instant instant;
+
+                private MutableClock(LocalDate date) {
+                        setDate(date);
+                }
+
+                private void setDate(LocalDate date) {
+                        instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+                }
+
+                @Override
+                public Instant instant() {
+                        return instant;
+                }
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+        }
+}
@@ -0,0 +1,189 @@
+package com.apexretail.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.apexretail.domain.Category;
+import com.apexretail.domain.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TransactionDeduplicator} and transaction IDs in
+ * {@link InventoryService}.
+ * Tests include duplicate detection, window expiry, exactness beyond the
+ * expected volume, release of failed transactions and exactly-once
+ * application under concurrent retries.
+ */
+class TransactionDeduplicatorTest {
+
+        private static final Duration WINDOW = Duration.ofMinutes(8);
+
+        private MutableClock clock;
+        private TransactionDeduplicator transactions;
+        private InventoryService service;
+        private Product milk;
+
+        @BeforeEach
+        void setUp() {
+                clock = new MutableClock(1_000_000_000L);
+                transactions = new TransactionDeduplicator(clock, WINDOW, 8, 1_000);
+                service = new InventoryService(transactions);
+                milk = new Product(3, "Milk", new BigDecimal("2.46"), 10, new Category(2, "Dairy", null));
+        }
+
+        // ===== 1. DUPLICATE DETECTION =====
+        @Test
+        void testRecognizesDuplicates() {
+                assertFalse(transactions.contains(17));
+                assertTrue(transactions.markIfAbsent(17));
+                assertTrue(transactions.contains(17));
+                assertFalse(transactions.markIfAbsent(17));
+                assertTrue(transactions.markIfAbsent(18));
+
+                assertThrows(IllegalArgumentException.class, () -> transactions.markIfAbsent(0));
+        }
+
+        @Test
+        void testStaysExactBeyondExpectedVolume() {
+                int ids = 50_000;
+                for (long id = 1; id <= ids; id++) {
+                        assertTrue(transactions.markIfAbsent(id * 7919));
+                }
+                for (long id = 1; id <= ids; id++) {
+                        assertFalse(transactions.markIfAbsent(id * 7919));
+                        assertFalse(transactions.contains(id * 7919 + 1));
+                }
+        }
+
+        // ===== 2. EXPIRY =====
+        @Test
+        void testForgetsIdsOlderThanTheWindow() {
+                transactions.markIfAbsent(1);
+                clock.advance(WINDOW.minusMinutes(4));
+                transactions.markIfAbsent(2);
+
+                clock.advance(Duration.ofMinutes(4));
+                assertTrue(transactions.contains(1));
+                assertTrue(transactions.contains(2));
+
+                clock.advance(Duration.ofMinutes(2));
+                transactions.markIfAbsent(3);
+                assertFalse(transactions.contains(1));
+                assertTrue(transactions.contains(2));
+
+                clock.advance(WINDOW.multipliedBy(3));
+                assertFalse(transactions.contains(2));
+                assertFalse(transactions.contains(3));
+                assertTrue(transactions.markIfAbsent(1));
+        }
+
+        // ===== 3. INVENTORY SERVICE =====
+        @Test
+        void testRetriedOperationsAreAppliedOnce() {
+                assertTrue(service.sellProduct(100, milk, 3));
+                assertFalse(service.sellProduct(100, milk, 3));
+                assertTrue(service.restockProduct(101, milk, 5));
+                assertFalse(service.restockProduct(101, milk, 5));
+                assertEquals(12, milk.getQuantityInStock());
+
+                assertThrows(IllegalArgumentException.class, () -> new InventoryService().sellProduct(1, milk, 1));
+                assertThrows(IllegalArgumentException.class, () -> service.sellProduct(-1, milk, 1));
+        }
+
+        @Test
+        void testFailedSaleCanBeRetried() {
+                assertThrows(IllegalArgumentException.class, () -> service.sellProduct(200, milk, 11));
+                assertFalse(transactions.contains(200));
+
+                service.restockProduct(milk, 1);
+                assertTrue(service.sellProduct(200, milk, 11));
+                assertEquals(0, milk.getQuantityInStock());
+        }
+
+        // ===== 4. CONCURRENCY =====
+        @Test
+        void testConcurrentRetriesApplyEachTransactionExactlyOnce() throws InterruptedException {
+                int threads = 8;
+                int sales = 5_000;
+                Product[] products = new Product[4];
+                for (int i = 0; i < products.length; i++) {
+                        products[i] = new Product(10 + i, "Item " + i, new BigDecimal("1.00"), sales,
+                                        new Category(2, "Dairy", null));
+                }
+                AtomicInteger applied = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                        int offset = t;
+                        workers[t] = new Thread(() -> {
+                                try {
+                                        start.await();
+                                } catch (InterruptedException e) {
+                                        return;
+                                }
+                                // Every thread replays every sale, starting at a different point
+                                for (int i = 0; i < sales; i++) {
+                                        int sale = (i + offset * sales / threads) % sales;
+                                        if (service.sellProduct(sale + 1, products[sale % products.length], 1)) {
+                                                applied.incrementAndGet();
+                                        }
+                                }
+                        });
+                        workers[t].start();
+                }
+                start.countDown();
+                for (Thread worker : workers) {
+                        worker.join();
+                }
+
+                assertEquals(sales, applied.get());
+                for (Product product : products) {
+                        assertEquals(sales - sales / products.length, product.getQuantityInStock());
+                }
+        }
+
+        /**
+         * Clock whose time only moves when the test advances it.
+         */
+        private static final class MutableClock extends Clock {
+                private volatile long millis;
+
+                private MutableClock(long millis) {
+                        this.millis = millis;
+                }
+
+                private void advance(Duration duration) {
+                        millis += duration.toMillis();
+                }
+
+                @Override
+                public long millis() {
+                        return millis;
+                }
+
+                @Override
+                public Instant instant() {
+                        return Instant.ofEpochMilli(millis);
+                }
+
+                @Override
+                public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                        return this;
+                }
+        }
+}